@@ -10,6 +10,7 @@ db.createCollection('user_profiles');
 db.createCollection('products');
 db.createCollection('categories');
 db.createCollection('inventories');
+db.createCollection('reservation_holds');
 db.createCollection('promotions');
 db.createCollection('carts');
 db.createCollection('orders');
@@ -19,9 +20,17 @@ db.createCollection('shipments');
 // インデックスの作成
 db.accounts.createIndex({'authentications.email': 1}, {unique: true});
 db.user_profiles.createIndex({'accountId': 1});
-db.products.createIndex({'categoryId': 1});
+// 商品カタログ（名前はドキュメントクラスの定義と合わせる）
+db.products.createIndex({'categories': 1, 'status': 1}, {name: 'categories_status'});
+db.products.createIndex({'categories': 1, '_id': 1}, {name: 'categories_id'});
+db.products.createIndex({'sku': 1}, {name: 'sku', unique: true});
+db.categories.createIndex({'parentCategoryId': 1}, {name: 'parentCategoryId'});
+db.inventories.createIndex({'productId': 1}, {name: 'productId', unique: true});
+db.reservation_holds.createIndex({'expiresAt': 1}, {name: 'expiresAt'});
+db.promotions.createIndex({'startDateTime': 1, 'endDateTime': 1}, {name: 'period'});
+db.promotions.createIndex({'active': 1, 'applicableProducts': 1}, {name: 'active_products'});
 db.carts.createIndex({'accountId': 1});
-db.orders.createIndex({'accountId': 1});
+db.orders.createIndex({'accountId': 1, 'createdAt': -1, '_id': -1}, {name: 'accountId_createdAt_id'});
 db.orders.createIndex({'status': 1});
 
 print('Database initialized successfully');
\ No newline at end of file
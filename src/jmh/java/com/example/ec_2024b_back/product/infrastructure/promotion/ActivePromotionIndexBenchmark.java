@@ -0,0 +1,84 @@
+package com.example.ec_2024b_back.product.infrastructure.promotion;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.PromotionId;
+import com.example.ec_2024b_back.product.domain.models.Promotion;
+import com.example.ec_2024b_back.product.domain.models.Promotion.DiscountType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link ActivePromotionIndex} の検索のベンチマーク
+ *
+ * <p>1年の間に期間の異なるプロモーションを登録し、50明細のカートの各商品に適用できるプロモーションを取得する時間を計測します。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ActivePromotionIndexBenchmark {
+
+  private static final int CART_LINES = 50;
+  private static final int PRODUCT_COUNT = 10_000;
+  private static final LocalDateTime YEAR_START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+  @Param({"1000", "10000"})
+  int promotionCount;
+
+  private ActivePromotionIndex index;
+  private List<ProductId> cart;
+  private LocalDateTime now;
+
+  @Setup
+  public void setUp() {
+    var random = new Random(42);
+    var products = new ArrayList<ProductId>(PRODUCT_COUNT);
+    for (int i = 0; i < PRODUCT_COUNT; i++) {
+      products.add(new ProductId(UUID.randomUUID()));
+    }
+    var promotions = new ArrayList<Promotion>(promotionCount);
+    for (int i = 0; i < promotionCount; i++) {
+      var start = YEAR_START.plusHours(random.nextInt(365 * 24));
+      // 1%は全商品用、それ以外は1つの商品を対象にする
+      var applicable =
+          i % 100 == 0 ? Set.<ProductId>of() : Set.of(products.get(random.nextInt(PRODUCT_COUNT)));
+      promotions.add(
+          Promotion.reconstruct(
+              new PromotionId(UUID.randomUUID()),
+              "セール" + i,
+              "",
+              DiscountType.PERCENTAGE,
+              new BigDecimal("10"),
+              start,
+              start.plusDays(1 + random.nextInt(30)),
+              true,
+              applicable));
+    }
+    index = new ActivePromotionIndex();
+    index.replaceAll(promotions);
+    cart = products.subList(0, CART_LINES);
+    now = YEAR_START.plusDays(180);
+  }
+
+  /** 50明細のカートの各商品に適用できるプロモーションの取得 */
+  @Benchmark
+  public void resolveCart(Blackhole blackhole) {
+    for (var productId : cart) {
+      blackhole.consume(index.applicableTo(productId, now));
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.product.CategoryId;
+import com.example.ec_2024b_back.product.domain.models.Product;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductStatus;
+import com.example.ec_2024b_back.product.infrastructure.category.CategoryTree;
+import com.example.ec_2024b_back.product.infrastructure.repository.ProductDocument.ProductImageDocument;
+import com.example.ec_2024b_back.product.infrastructure.search.ProductSearchIndex;
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import com.example.ec_2024b_back.share.infrastructure.pagination.KeysetPagination;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.google.common.collect.ImmutableList;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import reactor.core.publisher.Flux;
+
+/**
+ * カテゴリ別の商品一覧のページ取得のベンチマーク
+ *
+ * <p>1つのカテゴリに属する25万件の商品に対し、1ページ目と10,000ページ目（1ページ20件）を取得する時間を、キーセットページネーション（{@link
+ * MongoProducts#findByCategory(CategoryId, CursorPageRequest)}）と {@code skip}
+ * によるオフセットページネーションで比較します。 MongoDBが必要で、接続先は環境変数 {@code BENCHMARK_MONGODB_URI} で指定します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MongoCategoryPaginationBenchmark {
+
+  private static final String DATABASE_NAME = "benchmark_pagination";
+  private static final int PRODUCT_COUNT = 250_000;
+  private static final int PAGE_SIZE = 20;
+  private static final int INSERT_BATCH_SIZE = 10_000;
+  private static final CategoryId CATEGORY = new CategoryId(new UUID(7L, 0));
+
+  @Param({"1", "10000"})
+  public int page;
+
+  private MongoClient client;
+  private ReactiveMongoTemplate template;
+  private MongoProducts products;
+  private CursorPageRequest keysetRequest;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    client =
+        MongoClients.create(
+            Objects.requireNonNullElse(
+                System.getenv("BENCHMARK_MONGODB_URI"), "mongodb://localhost:27017"));
+    template = new ReactiveMongoTemplate(client, DATABASE_NAME);
+    var repositories = new ReactiveMongoRepositoryFactory(template);
+    products =
+        new MongoProducts(
+            repositories.getRepository(ProductDocumentRepository.class),
+            template,
+            new ProductSearchIndex(),
+            new CategoryTree(),
+            new Outbox(
+                template, JsonMapper.builder().findAndAddModules().build(), Optional.empty()));
+
+    if (!Objects.equals(
+        template.count(new Query(), ProductDocument.class).block(), (long) PRODUCT_COUNT)) {
+      seed();
+    }
+    var resolver =
+        new MongoPersistentEntityIndexResolver(template.getConverter().getMappingContext());
+    var indexOps = template.indexOps(ProductDocument.class);
+    Flux.fromIterable(resolver.resolveIndexFor(ProductDocument.class))
+        .concatMap(indexOps::ensureIndex)
+        .blockLast();
+
+    // IDは連番から生成しているため、前のページの最後の商品のIDからカーソルを作れる
+    int offset = (page - 1) * PAGE_SIZE;
+    keysetRequest =
+        new CursorPageRequest(
+            offset == 0 ? null : KeysetPagination.encode(productId(offset - 1)), PAGE_SIZE);
+  }
+
+  @Benchmark
+  public List<Product> keyset() {
+    return Objects.requireNonNull(products.findByCategory(CATEGORY, keysetRequest).block()).items();
+  }
+
+  @Benchmark
+  public List<Product> offset() {
+    return template
+        .find(
+            query(where("categories").is(CATEGORY.toString()))
+                .with(Sort.by("id"))
+                .skip((long) (page - 1) * PAGE_SIZE)
+                .limit(PAGE_SIZE),
+            ProductDocument.class)
+        .map(ProductDocument::toDomain)
+        .collectList()
+        .block();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    client.close();
+  }
+
+  private void seed() {
+    template.dropCollection(ProductDocument.class).block();
+    Flux.range(0, PRODUCT_COUNT)
+        .map(MongoCategoryPaginationBenchmark::document)
+        .buffer(INSERT_BATCH_SIZE)
+        .concatMap(batch -> template.insert(batch, ProductDocument.class).count())
+        .blockLast();
+  }
+
+  private static ProductDocument document(int index) {
+    return new ProductDocument(
+        productId(index),
+        "商品" + index,
+        "ベンチマーク用の商品説明です。",
+        "1280.50",
+        "SKU-%07d".formatted(index),
+        ImmutableList.of(CATEGORY.toString()),
+        ProductStatus.ACTIVE.name(),
+        ImmutableList.of(
+            new ProductImageDocument("https://example.com/" + index + ".png", "商品画像", true)));
+  }
+
+  /** 文字列の順序が連番の順序と一致するID */
+  private static String productId(int index) {
+    return new UUID(6L, index).toString();
+  }
+}
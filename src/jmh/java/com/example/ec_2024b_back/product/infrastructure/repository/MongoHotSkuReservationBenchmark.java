@@ -0,0 +1,124 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Inventory;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+
+/**
+ * 1つの商品（ホットSKU）に予約が集中した場合の在庫予約のベンチマーク
+ *
+ * <p>32スレッドから同じ商品の在庫を1個ずつ予約し、条件付き更新（{@link MongoInventoryReservations}）と、読み込んでから保存する方法（{@link
+ * MongoInventories}）のレイテンシ分布を比較します。読み込んでから保存する方法は同時の更新と競合するとバージョンの不一致で失敗するため、各イテレーションの終了時に、
+ * 成功した予約数と保存された予約数の差（更新の消失 = 売り越し、0になるはず）と競合で失敗した予約数を出力します。 MongoDBが必要で、接続先は環境変数 {@code
+ * BENCHMARK_MONGODB_URI} で指定します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+public class MongoHotSkuReservationBenchmark {
+
+  private static final String DATABASE_NAME = "benchmark_inventory";
+  private static final int INITIAL_STOCK = 100_000_000;
+  private static final ProductId HOT_SKU = new ProductId(new UUID(8L, 0));
+
+  private MongoClient client;
+  private InventoryDocumentRepository repository;
+  private MongoInventoryReservations reservations;
+  private MongoInventories inventories;
+  private final AtomicLong succeeded = new AtomicLong();
+  private final AtomicLong conflicted = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void connect() {
+    client =
+        MongoClients.create(
+            Objects.requireNonNullElse(
+                System.getenv("BENCHMARK_MONGODB_URI"), "mongodb://localhost:27017"));
+    var template = new ReactiveMongoTemplate(client, DATABASE_NAME);
+    repository =
+        new ReactiveMongoRepositoryFactory(template)
+            .getRepository(InventoryDocumentRepository.class);
+    var outbox =
+        new Outbox(template, JsonMapper.builder().findAndAddModules().build(), Optional.empty());
+    reservations = new MongoInventoryReservations(template, outbox);
+    inventories = new MongoInventories(repository, template, outbox);
+  }
+
+  @Setup(Level.Iteration)
+  public void restock() {
+    repository
+        .deleteAll()
+        .then(
+            repository.save(
+                new InventoryDocument(
+                    HOT_SKU.toString(), HOT_SKU.toString(), INITIAL_STOCK, 0, 0, null)))
+        .block();
+    succeeded.set(0);
+    conflicted.set(0);
+  }
+
+  /** 在庫数を条件とした1回の更新で予約する */
+  @Benchmark
+  public Inventory conditionalUpdate() {
+    var inventory = reservations.reserve(HOT_SKU, 1).block();
+    succeeded.incrementAndGet();
+    return inventory;
+  }
+
+  /** 在庫を読み込み、ドメインモデルで予約してから保存する（同時の更新と競合すると失敗する） */
+  @Benchmark
+  public @Nullable Inventory readModifyWrite() {
+    try {
+      var inventory =
+          inventories
+              .findByProductId(HOT_SKU)
+              .map(found -> found.reserve(1))
+              .flatMap(inventories::save)
+              .block();
+      succeeded.incrementAndGet();
+      return inventory;
+    } catch (OptimisticLockingFailureException e) {
+      conflicted.incrementAndGet();
+      return null;
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void reportLostUpdates() {
+    var stored = Objects.requireNonNull(repository.findById(HOT_SKU.toString()).block());
+    System.out.printf(
+        "%n予約の成功: %d, 保存された予約数: %d, 売り越し: %d, 競合: %d%n",
+        succeeded.get(),
+        stored.reservedQuantity(),
+        succeeded.get() - stored.reservedQuantity(),
+        conflicted.get());
+  }
+
+  @TearDown(Level.Trial)
+  public void disconnect() {
+    client.close();
+  }
+}
@@ -0,0 +1,145 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import com.example.ec_2024b_back.product.CategoryId;
+import com.example.ec_2024b_back.product.domain.models.Product;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductStatus;
+import com.example.ec_2024b_back.product.infrastructure.category.CategoryTree;
+import com.example.ec_2024b_back.product.infrastructure.repository.ProductDocument.ProductImageDocument;
+import com.example.ec_2024b_back.product.infrastructure.search.ProductSearchIndex;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.google.common.collect.ImmutableList;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import reactor.core.publisher.Flux;
+
+/**
+ * 商品カタログの検索のベンチマーク
+ *
+ * <p>{@code productCount} 件（既定は100万件）の商品を投入したMongoDBに対して、SKUによる検索とカテゴリ・ステータスによる検索のレイテンシ分布を、
+ * インデックスの有無（{@code indexed}）で比較します。投入したデータは次回の実行で再利用します。接続先は環境変数 {@code BENCHMARK_MONGODB_URI}
+ * で指定します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MongoProductQueriesBenchmark {
+
+  private static final String DATABASE_NAME = "benchmark_catalog";
+  private static final int CATEGORY_COUNT = 1000;
+  private static final int INSERT_BATCH_SIZE = 10_000;
+
+  @Param({"1000000"})
+  public int productCount;
+
+  @Param({"true", "false"})
+  public boolean indexed;
+
+  private MongoClient client;
+  private MongoProducts products;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    client =
+        MongoClients.create(
+            Objects.requireNonNullElse(
+                System.getenv("BENCHMARK_MONGODB_URI"), "mongodb://localhost:27017"));
+    var template = new ReactiveMongoTemplate(client, DATABASE_NAME);
+    var repositories = new ReactiveMongoRepositoryFactory(template);
+    products =
+        new MongoProducts(
+            repositories.getRepository(ProductDocumentRepository.class),
+            template,
+            new ProductSearchIndex(),
+            new CategoryTree(),
+            new Outbox(
+                template, JsonMapper.builder().findAndAddModules().build(), Optional.empty()));
+
+    if (!Objects.equals(
+        template.count(new Query(), ProductDocument.class).block(), (long) productCount)) {
+      seed(template);
+    }
+
+    var indexOps = template.indexOps(ProductDocument.class);
+    indexOps.dropAllIndexes().block();
+    if (indexed) {
+      var resolver =
+          new MongoPersistentEntityIndexResolver(template.getConverter().getMappingContext());
+      Flux.fromIterable(resolver.resolveIndexFor(ProductDocument.class))
+          .concatMap(indexOps::ensureIndex)
+          .blockLast();
+    }
+  }
+
+  @Benchmark
+  public Product findBySku() {
+    return products.findBySku(sku(ThreadLocalRandom.current().nextInt(productCount))).block();
+  }
+
+  @Benchmark
+  public List<Product> findByCategoryAndStatus() {
+    return products
+        .findByCategoryAndStatus(
+            category(ThreadLocalRandom.current().nextInt(CATEGORY_COUNT)), ProductStatus.ACTIVE)
+        .collectList()
+        .block();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    client.close();
+  }
+
+  private void seed(ReactiveMongoTemplate template) {
+    template.dropCollection(ProductDocument.class).block();
+    Flux.range(0, productCount)
+        .map(MongoProductQueriesBenchmark::document)
+        .buffer(INSERT_BATCH_SIZE)
+        .concatMap(batch -> template.insert(batch, ProductDocument.class).count())
+        .blockLast();
+  }
+
+  /** 各商品は2つのカテゴリに属し、4件に1件は販売停止中とする */
+  private static ProductDocument document(int index) {
+    return new ProductDocument(
+        new UUID(4L, index).toString(),
+        "商品" + index,
+        "ベンチマーク用の商品説明です。".repeat(10),
+        "1280.50",
+        sku(index),
+        ImmutableList.of(
+            category(index % CATEGORY_COUNT).toString(),
+            category((index * 7 + 1) % CATEGORY_COUNT).toString()),
+        (index % 4 == 0 ? ProductStatus.INACTIVE : ProductStatus.ACTIVE).name(),
+        ImmutableList.of(
+            new ProductImageDocument("https://example.com/" + index + ".png", "商品画像", true)));
+  }
+
+  private static String sku(int index) {
+    return "SKU-%07d".formatted(index);
+  }
+
+  private static CategoryId category(int index) {
+    return new CategoryId(new UUID(5L, index));
+  }
+}
@@ -0,0 +1,73 @@
+package com.example.ec_2024b_back.product.infrastructure.search;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.infrastructure.search.ProductSearchIndex.SearchResult;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link ProductSearchIndex} の検索のベンチマーク
+ *
+ * <p>日本語の商品名・説明を組み合わせて生成した商品を登録し、ヒット件数の多い検索語・少ない検索語・複数語の検索で1ページ目（20件）を取得する時間を計測します。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductSearchIndexBenchmark {
+
+  private static final int PAGE_SIZE = 20;
+
+  private static final List<String> ADJECTIVES =
+      List.of("有機", "国産", "特選", "徳用", "無添加", "低糖質", "プレミアム", "限定", "業務用", "季節の");
+  private static final List<String> ITEMS =
+      List.of("緑茶", "ほうじ茶", "紅茶", "コーヒー豆", "ドリップコーヒー", "ココア", "チョコレート", "せんべい", "醤油", "味噌");
+  private static final List<String> ORIGINS =
+      List.of("静岡県産", "京都府産", "北海道産", "鹿児島県産", "長野県産", "新潟県産", "ブラジル産", "イタリア産");
+
+  @Param({"100000"})
+  int productCount;
+
+  private ProductSearchIndex index;
+
+  @Setup
+  public void setUp() {
+    index = new ProductSearchIndex();
+    var random = new Random(42);
+    for (int i = 0; i < productCount; i++) {
+      var item = ITEMS.get(random.nextInt(ITEMS.size()));
+      var name =
+          ADJECTIVES.get(random.nextInt(ADJECTIVES.size())) + item + " " + (i % 50 + 1) + "個入り";
+      var description =
+          ORIGINS.get(random.nextInt(ORIGINS.size())) + "の" + item + "を使用した" + name + "です。";
+      index.index(new ProductId(UUID.randomUUID()), name, description, "SKU-%07d".formatted(i));
+    }
+  }
+
+  /** 多くの商品に一致する検索語 */
+  @Benchmark
+  public SearchResult commonTerm() {
+    return index.search("コーヒー", 0, PAGE_SIZE);
+  }
+
+  /** 1件の商品にのみ一致する検索語 */
+  @Benchmark
+  public SearchResult rareTerm() {
+    return index.search("SKU-0012345", 0, PAGE_SIZE);
+  }
+
+  /** 複数の検索語（すべてを含む商品に絞り込む） */
+  @Benchmark
+  public SearchResult multipleTerms() {
+    return index.search("有機 緑茶 静岡", 0, PAGE_SIZE);
+  }
+}
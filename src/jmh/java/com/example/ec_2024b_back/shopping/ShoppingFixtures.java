@@ -0,0 +1,49 @@
+package com.example.ec_2024b_back.shopping;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.CartItem;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/** ベンチマーク用のショッピング集約を生成するユーティリティ */
+public final class ShoppingFixtures {
+
+  /** ベンチマーク全体で使用する固定時刻 */
+  public static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+  private ShoppingFixtures() {}
+
+  /**
+   * 決定的な商品IDを生成します
+   *
+   * @param index 連番
+   * @return 商品ID
+   */
+  public static ProductId productId(int index) {
+    return new ProductId(new UUID(0L, index));
+  }
+
+  /**
+   * 指定件数のアイテムを持つカートを生成します
+   *
+   * @param itemCount アイテム件数
+   * @return 生成されたカート
+   */
+  public static Cart cartWithItems(int itemCount) {
+    var items = new ArrayList<CartItem>(itemCount);
+    for (int i = 0; i < itemCount; i++) {
+      items.add(new CartItem(productId(i), "商品" + i, 1 + i % 5, Money.ofYen(1280 + i)));
+    }
+    return Cart.reconstruct(
+        new CartId(new UUID(1L, itemCount)),
+        new AccountId(new UUID(2L, itemCount)),
+        items,
+        NOW,
+        NOW,
+        0L);
+  }
+}
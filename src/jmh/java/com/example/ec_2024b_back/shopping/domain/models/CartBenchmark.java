@@ -0,0 +1,96 @@
+package com.example.ec_2024b_back.shopping.domain.models;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.ShoppingFixtures;
+import com.google.errorprone.annotations.Var;
+import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link Cart} の変更操作と合計金額計算のベンチマーク
+ *
+ * <p>変更操作はアイテムのマップを1回ずつ複製するため、1回あたりのコストはアイテム数に比例します。{@link #addItemsOneByOne()}
+ * は空のカートに1件ずつ追加する場合の全体のコスト（アイテム数の2乗に比例）を計測します。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class CartBenchmark {
+
+  @Param({"1", "10", "100", "1000"})
+  int itemCount;
+
+  private Cart cart;
+  private ProductId existingProductId;
+  private ProductId newProductId;
+  private Money unitPrice;
+  private ProductId[] productIds;
+
+  @Setup
+  public void setUp() {
+    cart = ShoppingFixtures.cartWithItems(itemCount);
+    // 線形探索の平均的なケースとなるよう中央のアイテムを対象にする
+    existingProductId = ShoppingFixtures.productId(itemCount / 2);
+    newProductId = ShoppingFixtures.productId(itemCount + 1);
+    unitPrice = Money.ofYen(980);
+    productIds = new ProductId[itemCount];
+    for (int i = 0; i < itemCount; i++) {
+      productIds[i] = ShoppingFixtures.productId(i);
+    }
+  }
+
+  @Benchmark
+  public Cart addNewItem() {
+    return cart.addItem(newProductId, "新商品", unitPrice, 1, ShoppingFixtures.NOW);
+  }
+
+  @Benchmark
+  public Cart addExistingItem() {
+    return cart.addItem(existingProductId, "既存商品", unitPrice, 1, ShoppingFixtures.NOW);
+  }
+
+  @Benchmark
+  public Cart updateItemQuantity() {
+    // フィクスチャの数量は1〜5のため、10への変更は常に実際の更新になる
+    return cart.updateItemQuantity(existingProductId, 10, ShoppingFixtures.NOW);
+  }
+
+  @Benchmark
+  public Cart removeItem() {
+    return cart.removeItem(existingProductId, ShoppingFixtures.NOW);
+  }
+
+  @Benchmark
+  public Cart addItemsOneByOne() {
+    @Var var built =
+        Cart.create(
+            new CartId(new UUID(3L, itemCount)),
+            new AccountId(new UUID(4L, itemCount)),
+            ShoppingFixtures.NOW);
+    for (var productId : productIds) {
+      built = built.addItem(productId, "商品", unitPrice, 1, ShoppingFixtures.NOW);
+    }
+    return built;
+  }
+
+  @Benchmark
+  public Optional<CartItem> findItemByProductId() {
+    return cart.findItemByProductId(existingProductId);
+  }
+
+  @Benchmark
+  public Money calculateTotal() {
+    return cart.calculateTotal();
+  }
+}
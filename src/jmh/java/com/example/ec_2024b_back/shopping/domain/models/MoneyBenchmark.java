@@ -0,0 +1,79 @@
+package com.example.ec_2024b_back.shopping.domain.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * カートの合計金額・税額計算における {@link BigDecimal} と {@link Money} の比較ベンチマーク
+ *
+ * <p>{@code bigDecimal*} は文字列で保存されていた金額を読み込んで {@link BigDecimal} で計算していた従来の方法、{@code money*}
+ * は整数で保存した金額を {@link Money} で計算する方法です。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+  private static final BigDecimal TAX_RATE = new BigDecimal("0.10");
+
+  @Param({"1", "10", "100", "1000"})
+  int itemCount;
+
+  private String[] storedDecimals;
+  private long[] storedYen;
+  private int[] quantities;
+
+  @Setup
+  public void setUp() {
+    storedDecimals = new String[itemCount];
+    storedYen = new long[itemCount];
+    quantities = new int[itemCount];
+    for (int i = 0; i < itemCount; i++) {
+      storedDecimals[i] = Integer.toString(1280 + i);
+      storedYen[i] = 1280 + i;
+      quantities[i] = 1 + i % 5;
+    }
+  }
+
+  /** 保存されていた単価を読み込み、合計金額を計算します */
+  @Benchmark
+  public BigDecimal bigDecimalTotal() {
+    var total = BigDecimal.ZERO;
+    for (int i = 0; i < itemCount; i++) {
+      total =
+          total.add(new BigDecimal(storedDecimals[i]).multiply(BigDecimal.valueOf(quantities[i])));
+    }
+    return total;
+  }
+
+  @Benchmark
+  public Money moneyTotal() {
+    var total = Money.ZERO;
+    for (int i = 0; i < itemCount; i++) {
+      total = total.plus(Money.ofYen(storedYen[i]).times(quantities[i]));
+    }
+    return total;
+  }
+
+  /** 合計金額に税額を加えた総額を計算します */
+  @Benchmark
+  public BigDecimal bigDecimalTotalWithTax() {
+    var subtotal = bigDecimalTotal();
+    return subtotal.add(subtotal.multiply(TAX_RATE).setScale(0, RoundingMode.HALF_UP));
+  }
+
+  @Benchmark
+  public Money moneyTotalWithTax() {
+    var subtotal = moneyTotal();
+    return subtotal.plus(subtotal.times(TAX_RATE, RoundingMode.HALF_UP));
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.ec_2024b_back.shopping.domain.models;
+
+import com.example.ec_2024b_back.shopping.OrderId;
+import com.example.ec_2024b_back.shopping.ShoppingFixtures;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** {@link Order#createFromCart} と注文アイテムの金額計算のベンチマーク */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class OrderBenchmark {
+
+  private static final BigDecimal TAX_RATE = new BigDecimal("0.10");
+  private static final Money SHIPPING_COST = Money.ofYen(500);
+
+  @Param({"1", "10", "100", "1000"})
+  int itemCount;
+
+  private Cart cart;
+  private OrderId orderId;
+
+  @Setup
+  public void setUp() {
+    cart = ShoppingFixtures.cartWithItems(itemCount);
+    orderId = new OrderId(new UUID(3L, itemCount));
+  }
+
+  @Benchmark
+  public Order createFromCart() {
+    return Order.createFromCart(
+        orderId, cart, "東京都千代田区1-1", SHIPPING_COST, TAX_RATE, ShoppingFixtures.NOW);
+  }
+
+  /** 小計の再計算と検証を伴う注文アイテム変換のみを計測します */
+  @Benchmark
+  public Money orderItemSubtotals() {
+    var total = Money.ZERO;
+    for (var item : cart.getItems()) {
+      total = total.plus(OrderItem.fromCartItem(item).subtotal());
+    }
+    return total;
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.ec_2024b_back.shopping.infrastructure.repository;
+
+import com.example.ec_2024b_back.shopping.OrderId;
+import com.example.ec_2024b_back.shopping.ShoppingFixtures;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.shopping.domain.models.Order;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** ドメインモデルとMongoDBドキュメント間の変換コストのベンチマーク */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class DocumentMappingBenchmark {
+
+  @Param({"1", "10", "100", "1000"})
+  int itemCount;
+
+  private Cart cart;
+  private CartDocument cartDocument;
+  private Order order;
+  private OrderDocument orderDocument;
+
+  @Setup
+  public void setUp() {
+    cart = ShoppingFixtures.cartWithItems(itemCount);
+    cartDocument = CartDocument.fromDomain(cart);
+    order =
+        Order.createFromCart(
+            new OrderId(new UUID(3L, itemCount)),
+            cart,
+            "東京都千代田区1-1",
+            Money.ofYen(500),
+            new BigDecimal("0.10"),
+            ShoppingFixtures.NOW);
+    orderDocument = OrderDocument.fromDomain(order);
+  }
+
+  @Benchmark
+  public CartDocument cartFromDomain() {
+    return CartDocument.fromDomain(cart);
+  }
+
+  @Benchmark
+  public Cart cartToDomain() {
+    return cartDocument.toDomain();
+  }
+
+  @Benchmark
+  public Cart cartRoundTrip() {
+    return CartDocument.fromDomain(cart).toDomain();
+  }
+
+  @Benchmark
+  public OrderDocument orderFromDomain() {
+    return OrderDocument.fromDomain(order);
+  }
+
+  @Benchmark
+  public Order orderToDomain() {
+    return orderDocument.toDomain();
+  }
+
+  @Benchmark
+  public Order orderRoundTrip() {
+    return OrderDocument.fromDomain(order).toDomain();
+  }
+}
@@ -0,0 +1,137 @@
+package com.example.ec_2024b_back.shopping.infrastructure.repository;
+
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import com.example.ec_2024b_back.share.infrastructure.outbox.OutboxDocument;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.OrderId;
+import com.example.ec_2024b_back.shopping.ShoppingFixtures;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.shopping.domain.models.Order;
+import com.example.ec_2024b_back.shopping.infrastructure.config.OrderHistoryProperties;
+import com.example.ec_2024b_back.shopping.infrastructure.projection.MongoOrderSummaries;
+import com.example.ec_2024b_back.shopping.infrastructure.projection.OrderSummaryDocument;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * 注文作成時のカートのクリアと注文の保存のベンチマーク
+ *
+ * <p>順に書き込む場合（{@code sequential}）と、1つのトランザクションでコミットする場合（{@code
+ * transactional}）のレイテンシ分布（いずれもイベントのアウトボックスへの書き込みと注文の概要の書き込みを含む）を 比較します。MongoDBのレプリカセットが必要で、接続先は環境変数
+ * {@code BENCHMARK_MONGODB_URI} で指定します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MongoOrderWritesBenchmark {
+
+  private static final String DATABASE_NAME = "benchmark";
+
+  @Param({"sequential", "transactional"})
+  public String mode;
+
+  private MongoClient client;
+  private ReactiveMongoTemplate template;
+  private MongoCarts carts;
+  private MongoOrders orders;
+  private TransactionalOperator transactionalOperator;
+
+  private Cart cart;
+  private Order order;
+
+  @Setup(Level.Trial)
+  public void connect() {
+    client =
+        MongoClients.create(
+            Objects.requireNonNullElse(
+                System.getenv("BENCHMARK_MONGODB_URI"),
+                "mongodb://localhost:27017/?replicaSet=rs0"));
+    var databaseFactory = new SimpleReactiveMongoDatabaseFactory(client, DATABASE_NAME);
+    template = new ReactiveMongoTemplate(databaseFactory);
+    transactionalOperator =
+        TransactionalOperator.create(new ReactiveMongoTransactionManager(databaseFactory));
+    var outbox =
+        new Outbox(
+            template,
+            JsonMapper.builder().findAndAddModules().build(),
+            mode.equals("transactional") ? Optional.of(transactionalOperator) : Optional.empty());
+    var repositories = new ReactiveMongoRepositoryFactory(template);
+    carts =
+        new MongoCarts(
+            repositories.getRepository(CartDocumentRepository.class), template, outbox);
+    var orderHistoryProperties = new OrderHistoryProperties(100);
+    orders =
+        new MongoOrders(
+            repositories.getRepository(OrderDocumentRepository.class),
+            template,
+            outbox,
+            orderHistoryProperties,
+            new MongoOrderSummaries(template, orderHistoryProperties));
+
+    // トランザクション内ではコレクションを作成できないため事前に作成しておく
+    template.createCollection(CartDocument.class).onErrorComplete().block();
+    template.createCollection(OrderDocument.class).onErrorComplete().block();
+    template.createCollection(OutboxDocument.class).onErrorComplete().block();
+    template.createCollection(OrderSummaryDocument.class).onErrorComplete().block();
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareCart() {
+    var items = ShoppingFixtures.cartWithItems(10);
+    var fresh =
+        Cart.reconstruct(
+            new CartId(UUID.randomUUID()),
+            items.getAccountId(),
+            items.getItems(),
+            ShoppingFixtures.NOW,
+            ShoppingFixtures.NOW,
+            null);
+    cart = Objects.requireNonNull(carts.save(fresh).block());
+    order =
+        Order.createFromCart(
+            new OrderId(UUID.randomUUID()),
+            cart,
+            "東京都千代田区1-1",
+            Money.ofYen(500),
+            new BigDecimal("0.10"),
+            ShoppingFixtures.NOW);
+  }
+
+  @Benchmark
+  public Order clearCartAndSaveOrder() {
+    Mono<Order> writes = carts.save(cart.clear(ShoppingFixtures.NOW)).then(orders.save(order));
+    if (mode.equals("transactional")) {
+      writes = transactionalOperator.transactional(writes);
+    }
+    return writes.block();
+  }
+
+  @TearDown(Level.Trial)
+  public void disconnect() {
+    template.getMongoDatabase().flatMap(database -> Mono.from(database.drop())).block();
+    client.close();
+  }
+}
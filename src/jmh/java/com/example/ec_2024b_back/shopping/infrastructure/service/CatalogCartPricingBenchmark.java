@@ -0,0 +1,82 @@
+package com.example.ec_2024b_back.shopping.infrastructure.service;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.catalog.CatalogPrice;
+import com.example.ec_2024b_back.shopping.ShoppingFixtures;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.PricedCart;
+import com.example.ec_2024b_back.shopping.infrastructure.config.PricingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link CatalogCartPricing} の価格計算のベンチマーク
+ *
+ * <p>価格はメモリ上のカタログから返し、カタログの取得を除いた価格計算と、同じバージョンのカートを再計算せずに返すキャッシュの効果を計測します。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CatalogCartPricingBenchmark {
+
+  @Param({"1", "10", "100", "500"})
+  int lineCount;
+
+  private CatalogCartPricing pricing;
+  private Cart savedCart;
+  private Cart unsavedCart;
+
+  @Setup
+  public void setUp() {
+    savedCart = ShoppingFixtures.cartWithItems(lineCount);
+    unsavedCart =
+        Cart.reconstruct(
+            savedCart.getId(),
+            savedCart.getAccountId(),
+            savedCart.getItems(),
+            savedCart.getCreatedAt(),
+            savedCart.getUpdatedAt(),
+            null);
+    Map<ProductId, CatalogPrice> prices = new HashMap<>();
+    for (var item : savedCart.getItems()) {
+      // 半数の商品に割引を付ける
+      var discount = prices.size() % 2 == 0 ? new BigDecimal("128") : BigDecimal.ZERO;
+      prices.put(
+          item.productId(),
+          new CatalogPrice(
+              item.productId(), item.productName(), item.unitPrice().toBigDecimal(), discount));
+    }
+    var properties =
+        new PricingProperties(new BigDecimal("0.10"), 500, 10_000L, 10_000, Duration.ofMinutes(5));
+    pricing =
+        new CatalogCartPricing(
+            productIds -> Flux.fromIterable(productIds).mapNotNull(prices::get),
+            properties,
+            new SimpleMeterRegistry());
+  }
+
+  /** 保存前のカート（キャッシュしない）の価格計算 */
+  @Benchmark
+  public PricedCart priceUncached() {
+    return pricing.price(unsavedCart).block();
+  }
+
+  /** 同じバージョンのカートの2回目以降の価格計算（キャッシュから返す） */
+  @Benchmark
+  public PricedCart priceCached() {
+    return pricing.price(savedCart).block();
+  }
+}
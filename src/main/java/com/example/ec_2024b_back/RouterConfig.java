@@ -4,6 +4,7 @@ import static org.springframework.web.reactive.function.server.RequestPredicates
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
 import com.example.ec_2024b_back.auth.api.AuthHandlers;
+import com.example.ec_2024b_back.product.api.ProductHandlers;
 import com.example.ec_2024b_back.sample.api.SampleHandlers;
 import com.example.ec_2024b_back.shopping.api.ShoppingHandlers;
 import com.example.ec_2024b_back.userprofile.api.UserProfileHandlers;
@@ -22,6 +23,7 @@ public class RouterConfig {
    *
    * @param authHandlers 認証系ハンドラー
    * @param userProfileHandlers ユーザープロファイル系ハンドラー
+   * @param productHandlers 商品系ハンドラー
    * @param shoppingHandlers ショッピング系ハンドラー
    * @param sampleHandlers サンプルハンドラー
    * @return ルーター機能
@@ -30,6 +32,7 @@ public class RouterConfig {
   public RouterFunction<ServerResponse> apiRoutes(
       AuthHandlers authHandlers,
       UserProfileHandlers userProfileHandlers,
+      ProductHandlers productHandlers,
       ShoppingHandlers shoppingHandlers,
       SampleHandlers sampleHandlers) {
 
@@ -59,11 +62,17 @@ public class RouterConfig {
             accept(MediaType.APPLICATION_JSON),
             userProfileHandlers::removeAddress)
 
+        // 商品関連エンドポイント
+        .GET("/api/categories", productHandlers::listCategories)
+        .GET("/api/categories/{categoryId}/products", productHandlers::listProductsByCategory)
+
         // ショッピング関連エンドポイント
         .GET("/api/carts/{accountId}", shoppingHandlers::getOrCreateCart)
         .POST(
             "/api/carts/items", accept(MediaType.APPLICATION_JSON), shoppingHandlers::addItemToCart)
         .POST("/api/orders", accept(MediaType.APPLICATION_JSON), shoppingHandlers::createOrder)
+        .GET("/api/accounts/{accountId}/orders", shoppingHandlers::listOrders)
+        .GET("/api/accounts/{accountId}/orders/stream", shoppingHandlers::streamOrders)
         .POST(
             "/api/payments", accept(MediaType.APPLICATION_JSON), shoppingHandlers::initiatePayment)
 
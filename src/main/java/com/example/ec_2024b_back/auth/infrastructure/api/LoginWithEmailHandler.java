@@ -29,7 +29,12 @@ public class LoginWithEmailHandler implements AuthHandlers {
         .switchIfEmpty(Mono.error(new IllegalStateException("No token generated")))
         .onErrorMap(
             LoginUsecase.AuthenticationFailedException.class,
-            e -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication failed", e))
+            e ->
+                // パスワード照合の混雑による拒否 (503) などはそのまま返す
+                e.getCause() instanceof ResponseStatusException cause
+                    ? cause
+                    : new ResponseStatusException(
+                        HttpStatus.UNAUTHORIZED, "Authentication failed", e))
         .onErrorMap(
             LoginWorkflow.UserNotFoundException.class,
             e -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication failed", e))
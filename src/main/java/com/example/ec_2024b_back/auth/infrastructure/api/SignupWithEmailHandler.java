@@ -34,7 +34,11 @@ public class SignupWithEmailHandler implements AuthHandlers {
         .flatMap(_ -> ServerResponse.ok().bodyValue("signup success"))
         .onErrorMap(
             SignupUsecase.AuthenticationFailedException.class,
-            e -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage(), e))
+            e ->
+                // パスワードハッシュ化の混雑による拒否 (503) などはそのまま返す
+                e.getCause() instanceof ResponseStatusException cause
+                    ? cause
+                    : new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage(), e))
         .onErrorMap(
             SignupWorkflow.EmailAlreadyExistsException.class,
             e -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage(), e))
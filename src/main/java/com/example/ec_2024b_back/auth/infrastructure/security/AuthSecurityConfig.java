@@ -4,5 +4,9 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@EnableConfigurationProperties(JWTProperties.class)
+@EnableConfigurationProperties({
+  JWTProperties.class,
+  PasswordHashingProperties.class,
+  LoginThrottlingProperties.class
+})
 public class AuthSecurityConfig {}
@@ -2,37 +2,81 @@ package com.example.ec_2024b_back.auth.infrastructure.security;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
 import com.example.ec_2024b_back.auth.domain.models.Account;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
-/** JWT (JSON Web Token) の生成と検証を行うユーティリティクラス. */
+/**
+ * JWT (JSON Web Token) の生成と検証を行うユーティリティクラス.
+ *
+ * <p>署名アルゴリズムと検証器は初回利用時に一度だけ生成して再利用します。検証済みのトークンはハッシュ値をキーに、
+ * サブジェクトと有効期限をキャッシュし、同じトークンの署名検証とパースを繰り返さないようにします。
+ */
 @Component
-@AllArgsConstructor
 @Slf4j
 public class JsonWebTokenProvider {
+
+  /** 検証済みトークンのキャッシュの最大件数 */
+  private static final long VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+
+  /** 検証済みトークンをキャッシュする最大期間（トークン自体の有効期限が先に来た場合はそちらが優先） */
+  private static final Duration VERIFIED_TOKEN_CACHE_TTL = Duration.ofMinutes(10);
+
   private final JWTProperties properties;
+  private final Supplier<Algorithm> algorithm;
+  private final Supplier<JWTVerifier> verifier;
+  private final Cache<HashCode, VerifiedToken> verifiedTokens;
 
-  private Algorithm getAlgorithm() {
-    return Algorithm.HMAC256(properties.secret().getBytes(StandardCharsets.UTF_8));
+  public JsonWebTokenProvider(JWTProperties properties) {
+    this.properties = properties;
+    // 設定値の読み込みは初回利用時まで遅延する
+    this.algorithm =
+        Suppliers.memoize(
+            () -> Algorithm.HMAC256(properties.secret().getBytes(StandardCharsets.UTF_8)));
+    this.verifier = Suppliers.memoize(() -> JWT.require(algorithm.get()).build());
+    this.verifiedTokens =
+        CacheBuilder.newBuilder()
+            .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+            .expireAfterWrite(VERIFIED_TOKEN_CACHE_TTL)
+            .build();
   }
 
   /**
-   * トークンをデコードします。
+   * トークンを検証し、サブジェクトと有効期限を取得します。
+   *
+   * <p>署名検証に成功したトークンのみキャッシュします。キャッシュ済みでも有効期限を過ぎている場合は検証をやり直し、 期限切れの例外を通知します。
    *
    * @param token JWTトークン
-   * @return デコードされたJWT
+   * @return 検証済みトークンの情報
    */
-  private DecodedJWT decodeToken(String token) {
-    return JWT.require(getAlgorithm()).build().verify(token);
+  private VerifiedToken verify(String token) {
+    var key = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+    var cached = verifiedTokens.getIfPresent(key);
+    if (cached != null) {
+      if (!cached.isExpired(Instant.now())) {
+        return cached;
+      }
+      verifiedTokens.invalidate(key);
+    }
+
+    var decoded = verifier.get().verify(token);
+    var verified = new VerifiedToken(decoded.getSubject(), decoded.getExpiresAtAsInstant());
+    verifiedTokens.put(key, verified);
+    return verified;
   }
 
   /**
@@ -42,7 +86,7 @@ public class JsonWebTokenProvider {
    * @return ユーザーID
    */
   public String extractUserId(String token) {
-    return decodeToken(token).getSubject();
+    return verify(token).subject();
   }
 
   /**
@@ -52,17 +96,7 @@ public class JsonWebTokenProvider {
    * @return 有効期限のInstant
    */
   public Instant extractExpiration(String token) {
-    return decodeToken(token).getExpiresAtAsInstant();
-  }
-
-  /**
-   * トークンが期限切れかどうかを検証します.
-   *
-   * @param token JWTトークン
-   * @return 期限切れの場合はtrue
-   */
-  private Boolean isTokenExpired(String token) {
-    return extractExpiration(token).isBefore(Instant.now());
+    return verify(token).expiresAt();
   }
 
   /**
@@ -92,7 +126,7 @@ public class JsonWebTokenProvider {
         .withSubject(subject)
         .withIssuedAt(now)
         .withExpiresAt(expiry)
-        .sign(getAlgorithm());
+        .sign(algorithm.get());
   }
 
   /**
@@ -104,12 +138,25 @@ public class JsonWebTokenProvider {
    */
   public Mono<Boolean> validateToken(String token, String userId) {
     try {
-      var extractedUserId = extractUserId(token);
-      var valid = extractedUserId.equals(userId) && !isTokenExpired(token);
+      var verified = verify(token);
+      var valid = verified.subject().equals(userId) && !verified.isExpired(Instant.now());
       return Mono.just(valid);
     } catch (RuntimeException e) {
       log.error("Token validation failed: " + e.getMessage());
       return Mono.error(e);
     }
   }
+
+  /**
+   * 署名検証済みトークンの情報
+   *
+   * @param subject サブジェクト (ユーザーID)
+   * @param expiresAt 有効期限
+   */
+  private record VerifiedToken(String subject, Instant expiresAt) {
+
+    boolean isExpired(Instant now) {
+      return expiresAt.isBefore(now);
+    }
+  }
 }
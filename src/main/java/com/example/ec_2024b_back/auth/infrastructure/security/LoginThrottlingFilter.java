@@ -0,0 +1,161 @@
+package com.example.ec_2024b_back.auth.infrastructure.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.util.Locale;
+import java.util.Optional;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * ログイン試行の流量制限フィルター
+ *
+ * <p>ブルートフォース攻撃やリスト型攻撃でBCryptの照合やアカウントの検索が大量に実行されないよう、ログインAPIへの試行回数をIPアドレスごと・メールアドレスごとに
+ * スライディングウィンドウで数え、上限を超えた試行はアカウントを検索する前に {@link HttpStatus#TOO_MANY_REQUESTS} で拒否します。
+ *
+ * <p>拒否した回数は {@code auth.login.throttled}（{@code reason} タグにip/email）として公開します。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(
+    prefix = "auth.login-throttling",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class LoginThrottlingFilter implements WebFilter {
+
+  private static final String LOGIN_PATH = "/api/authentication/login";
+
+  /** メールアドレスを取り出すために読み込むリクエストボディの上限 */
+  private static final int MAX_BODY_BYTES = 4096;
+
+  private final LoginThrottlingProperties properties;
+  private final ObjectMapper objectMapper;
+  private final SlidingWindowCounter attemptsByIp;
+  private final SlidingWindowCounter attemptsByEmail;
+  private final Counter throttledByIp;
+  private final Counter throttledByEmail;
+
+  public LoginThrottlingFilter(
+      LoginThrottlingProperties properties, ObjectMapper objectMapper, MeterRegistry registry) {
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+    var clock = Clock.systemUTC();
+    this.attemptsByIp =
+        new SlidingWindowCounter(properties.maxTrackedKeys(), properties.window(), clock);
+    this.attemptsByEmail =
+        new SlidingWindowCounter(properties.maxTrackedKeys(), properties.window(), clock);
+    this.throttledByIp = throttledCounter(registry, "ip");
+    this.throttledByEmail = throttledCounter(registry, "email");
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    var request = exchange.getRequest();
+    if (request.getMethod() != HttpMethod.POST
+        || !LOGIN_PATH.equals(request.getPath().pathWithinApplication().value())) {
+      return chain.filter(exchange);
+    }
+
+    // IPアドレスはボディを読まずに判定できるため先に確認する
+    long ipAttempts = attemptsByIp.incrementAndEstimate(clientAddress(request));
+    if (ipAttempts > properties.maxAttemptsPerIp()) {
+      throttledByIp.increment();
+      return tooManyRequests();
+    }
+
+    return DataBufferUtils.join(request.getBody(), MAX_BODY_BYTES)
+        .map(LoginThrottlingFilter::readBytes)
+        .defaultIfEmpty(new byte[0])
+        .onErrorMap(
+            DataBufferLimitException.class,
+            e -> new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage(), e))
+        .flatMap(
+            body -> {
+              if (exceedsEmailLimit(body)) {
+                throttledByEmail.increment();
+                return tooManyRequests();
+              }
+              // 読み込んだボディをハンドラーが改めて読めるようにする
+              return chain.filter(exchange.mutate().request(replayBody(exchange, body)).build());
+            });
+  }
+
+  private boolean exceedsEmailLimit(byte[] body) {
+    return email(body)
+        .map(attemptsByEmail::incrementAndEstimate)
+        .filter(attempts -> attempts > properties.maxAttemptsPerEmail())
+        .isPresent();
+  }
+
+  private Optional<String> email(byte[] body) {
+    if (body.length == 0) {
+      return Optional.empty();
+    }
+    try {
+      var email = objectMapper.readTree(body).path("email");
+      return email.isTextual()
+          ? Optional.of(email.asText().trim().toLowerCase(Locale.ROOT))
+          : Optional.empty();
+    } catch (IOException e) {
+      // 不正なボディはハンドラーでエラーとして扱われる
+      return Optional.empty();
+    }
+  }
+
+  private static String clientAddress(ServerHttpRequest request) {
+    return Optional.ofNullable(request.getRemoteAddress())
+        .map(InetSocketAddress::getHostString)
+        .orElse("unknown");
+  }
+
+  private static byte[] readBytes(DataBuffer buffer) {
+    try {
+      var bytes = new byte[buffer.readableByteCount()];
+      buffer.read(bytes);
+      return bytes;
+    } finally {
+      DataBufferUtils.release(buffer);
+    }
+  }
+
+  private static ServerHttpRequest replayBody(ServerWebExchange exchange, byte[] body) {
+    return new ServerHttpRequestDecorator(exchange.getRequest()) {
+      @Override
+      public Flux<DataBuffer> getBody() {
+        return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+      }
+    };
+  }
+
+  private static Mono<Void> tooManyRequests() {
+    return Mono.error(
+        new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts"));
+  }
+
+  private static Counter throttledCounter(MeterRegistry registry, String reason) {
+    return Counter.builder("auth.login.throttled")
+        .description("流量制限で拒否したログイン試行の回数")
+        .tag("reason", reason)
+        .register(registry);
+  }
+}
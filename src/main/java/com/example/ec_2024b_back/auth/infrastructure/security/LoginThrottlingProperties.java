@@ -0,0 +1,25 @@
+package com.example.ec_2024b_back.auth.infrastructure.security;
+
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * ログイン試行の流量制限の設定プロパティ
+ *
+ * @param enabled 流量制限を有効にするかどうか
+ * @param window 試行回数を数えるスライディングウィンドウの長さ
+ * @param maxAttemptsPerIp ウィンドウ内で1つのIPアドレスから許可するログイン試行回数
+ * @param maxAttemptsPerEmail ウィンドウ内で1つのメールアドレスに許可するログイン試行回数
+ * @param maxTrackedKeys IPアドレス・メールアドレスそれぞれについて試行回数を保持するキーの数の上限（メモリ使用量の上限を決める）
+ */
+@Validated
+@ConfigurationProperties("auth.login-throttling")
+public record LoginThrottlingProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("1m") Duration window,
+    @DefaultValue("100") @Positive int maxAttemptsPerIp,
+    @DefaultValue("10") @Positive int maxAttemptsPerEmail,
+    @DefaultValue("100000") @Positive int maxTrackedKeys) {}
@@ -0,0 +1,103 @@
+package com.example.ec_2024b_back.auth.infrastructure.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * パスワードのハッシュ化・照合を専用のスレッドで実行するエグゼキューター
+ *
+ * <p>BCryptは意図的に低速なため、イベントループ上で実行するとログインが集中した際に同じループの他のリクエストまで停止してしまいます。
+ * 処理は同時実行数に上限のある専用のスケジューラーで実行し、実行待ちの上限を超えた場合は {@link HttpStatus#SERVICE_UNAVAILABLE} で拒否します。
+ * スケジューラーの実行待ちの上限はスレッドごとに適用されるため、全体の上限はこのクラスで実行待ちの件数を数えて適用します。
+ *
+ * <p>実行待ちの件数は {@code auth.password.hashing.queued}、実行中の件数は {@code auth.password.hashing.active}
+ * として公開します。
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+  private final Scheduler scheduler;
+  private final int maxQueuedTasks;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicInteger active = new AtomicInteger();
+
+  public PasswordHashingExecutor(PasswordHashingProperties properties, MeterRegistry registry) {
+    this.maxQueuedTasks = properties.maxQueuedTasks();
+    this.scheduler =
+        Schedulers.newBoundedElastic(
+            properties.maxConcurrency(), properties.maxQueuedTasks(), "password-hashing");
+    Gauge.builder("auth.password.hashing.queued", queued, AtomicInteger::get)
+        .description("実行待ちのパスワードハッシュ処理の件数")
+        .register(registry);
+    Gauge.builder("auth.password.hashing.active", active, AtomicInteger::get)
+        .description("実行中のパスワードハッシュ処理の件数")
+        .register(registry);
+  }
+
+  /**
+   * 処理を専用のスケジューラーで実行します
+   *
+   * @param task パスワードのハッシュ化・照合処理
+   * @return 処理結果を通知するMono
+   */
+  public <T> Mono<T> execute(Callable<T> task) {
+    return Mono.defer(
+        () -> {
+          var dequeued = new AtomicBoolean();
+          if (queued.incrementAndGet() > maxQueuedTasks) {
+            dequeue(dequeued);
+            return Mono.error(new RejectedExecutionException("Password hashing queue is full"));
+          }
+          return Mono.<T>fromCallable(
+                  () -> {
+                    dequeue(dequeued);
+                    active.incrementAndGet();
+                    try {
+                      return task.call();
+                    } finally {
+                      active.decrementAndGet();
+                    }
+                  })
+              .subscribeOn(scheduler)
+              // 実行前にキャンセル・拒否された場合も実行待ちの件数を戻す
+              .doFinally(signal -> dequeue(dequeued));
+        })
+        .onErrorMap(
+            RejectedExecutionException.class,
+            e ->
+                new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE, "Too many authentication requests", e));
+  }
+
+  /** 実行待ちの件数 */
+  int queuedTasks() {
+    return queued.get();
+  }
+
+  /** 実行中の件数 */
+  int activeTasks() {
+    return active.get();
+  }
+
+  private void dequeue(AtomicBoolean dequeued) {
+    if (dequeued.compareAndSet(false, true)) {
+      queued.decrementAndGet();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    scheduler.dispose();
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.ec_2024b_back.auth.infrastructure.security;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * パスワードハッシュ処理の設定プロパティ
+ *
+ * @param maxConcurrency パスワードのハッシュ化・照合を同時に実行するスレッド数の上限
+ * @param maxQueuedTasks 実行待ちにできる処理の上限（超えた場合は503を返す）
+ */
+@Validated
+@ConfigurationProperties("auth.password-hashing")
+public record PasswordHashingProperties(
+    @DefaultValue("4") @Positive int maxConcurrency,
+    @DefaultValue("1000") @Positive int maxQueuedTasks) {}
@@ -0,0 +1,102 @@
+package com.example.ec_2024b_back.auth.infrastructure.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * キーごとの試行回数を数えるスライディングウィンドウカウンター
+ *
+ * <p>キーごとに現在と直前のウィンドウの件数を正確に保持し、直前のウィンドウの件数を経過時間に応じて按分して加えることで、スライディングウィンドウの件数を近似します。
+ * 件数は {@link AtomicReference} の比較交換で更新するため、ロックは取りません。
+ *
+ * <p>保持するキーの数には上限があり、上限を超えた場合や2ウィンドウの間試行がなかった場合は古いキーから破棄します。
+ * 破棄されたキーの件数は0から数え直すため、大量のキーを送りつけられても他のキーの件数が過大に見積もられることはありません。
+ */
+final class SlidingWindowCounter {
+
+  private final long windowMillis;
+  private final Clock clock;
+  private final Cache<String, AtomicReference<Counts>> counts;
+
+  /**
+   * コンストラクター
+   *
+   * @param maximumKeys 件数を保持するキーの数の上限
+   * @param window ウィンドウの長さ
+   * @param clock 時計
+   */
+  SlidingWindowCounter(int maximumKeys, Duration window, Clock clock) {
+    this.windowMillis = window.toMillis();
+    this.clock = clock;
+    this.counts =
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumKeys)
+            .expireAfterAccess(window.multipliedBy(2))
+            .build();
+  }
+
+  /**
+   * キーの試行回数を1増やし、スライディングウィンドウ内の試行回数を返します
+   *
+   * @param key 対象のキー
+   * @return 今回の試行を含むウィンドウ内の試行回数の見積もり
+   */
+  long incrementAndEstimate(String key) {
+    long now = clock.millis();
+    long index = now / windowMillis;
+    var updated =
+        counts
+            .asMap()
+            .computeIfAbsent(key, unused -> new AtomicReference<>(Counts.EMPTY))
+            .updateAndGet(current -> current.at(index).incremented());
+    return estimate(updated, now);
+  }
+
+  /**
+   * スライディングウィンドウ内の試行回数を返します
+   *
+   * @param key 対象のキー
+   * @return ウィンドウ内の試行回数の見積もり
+   */
+  long estimate(String key) {
+    var current = counts.getIfPresent(key);
+    return current == null ? 0 : estimate(current.get(), clock.millis());
+  }
+
+  private long estimate(Counts counts, long now) {
+    long index = now / windowMillis;
+    var current = counts.at(index);
+    // 直前のウィンドウの件数は、現在のウィンドウと重ならない割合だけ加える
+    double elapsed = (double) (now - index * windowMillis) / windowMillis;
+    double overlap = Math.clamp(1 - elapsed, 0.0, 1.0);
+    return current.current() + (long) (current.previous() * overlap);
+  }
+
+  /**
+   * 1つのキーの現在と直前のウィンドウの件数
+   *
+   * @param index ウィンドウの番号（エポックからのウィンドウ数）
+   * @param current 現在のウィンドウの件数
+   * @param previous 直前のウィンドウの件数
+   */
+  private record Counts(long index, long current, long previous) {
+
+    private static final Counts EMPTY = new Counts(Long.MIN_VALUE, 0, 0);
+
+    /** 指定したウィンドウの時点の件数を返します。ウィンドウが進んでいれば切り替えます */
+    private Counts at(long index) {
+      if (this.index >= index) {
+        return this;
+      }
+      // 直前のウィンドウ以外の件数はスライディングウィンドウに含まれない
+      return new Counts(index, 0, this.index == index - 1 ? current : 0);
+    }
+
+    private Counts incremented() {
+      return new Counts(index, current + 1, previous);
+    }
+  }
+}
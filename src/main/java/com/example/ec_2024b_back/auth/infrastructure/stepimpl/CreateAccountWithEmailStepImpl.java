@@ -7,6 +7,7 @@ import com.example.ec_2024b_back.auth.domain.models.EmailAuthentication;
 import com.example.ec_2024b_back.auth.domain.models.EmailAuthentication.HashedPassword;
 import com.example.ec_2024b_back.auth.domain.repositories.Accounts;
 import com.example.ec_2024b_back.auth.domain.services.AccountFactory;
+import com.example.ec_2024b_back.auth.infrastructure.security.PasswordHashingExecutor;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
@@ -23,22 +24,25 @@ public class CreateAccountWithEmailStepImpl implements CreateAccountWithEmailSte
   private final AccountFactory accountFactory;
   private final PasswordEncoder passwordEncoder;
   private final Accounts accounts;
+  private final PasswordHashingExecutor passwordHashingExecutor;
 
   @Override
   public Mono<SignupWorkflow.Context.Created> apply(SignupWorkflow.Context.Checked context) {
-    // パスワードをハッシュ化
-    String hashedPassword = passwordEncoder.encode(context.rawPassword());
+    // パスワードのハッシュ化はイベントループを塞がないよう専用のスレッドで実行
+    return passwordHashingExecutor
+        .execute(() -> passwordEncoder.encode(context.rawPassword()))
+        .flatMap(
+            hashedPassword -> {
+              // 認証情報を作成
+              Authentication auth =
+                  new EmailAuthentication(context.email(), new HashedPassword(hashedPassword));
 
-    // 認証情報を作成
-    Authentication auth =
-        new EmailAuthentication(context.email(), new HashedPassword(hashedPassword));
+              // アカウント作成
+              var account = accountFactory.create(List.of(auth));
 
-    // アカウント作成
-    var account = accountFactory.create(List.of(auth));
-
-    // アカウントを保存して返す
-    return accounts
-        .save(account)
+              // アカウントを保存して返す
+              return accounts.save(account);
+            })
         .map(savedAccount -> new SignupWorkflow.Context.Created(savedAccount));
   }
 }
@@ -6,24 +6,29 @@ import com.example.ec_2024b_back.auth.application.workflow.LoginWorkflow.NoEmail
 import com.example.ec_2024b_back.auth.application.workflow.LoginWorkflow.VerifyWithPasswordStep;
 import com.example.ec_2024b_back.auth.domain.models.Account;
 import com.example.ec_2024b_back.auth.domain.models.EmailAuthentication;
+import com.example.ec_2024b_back.auth.infrastructure.security.PasswordHashingExecutor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
-/** VerifyPasswordStepの実装クラス */
+/** VerifyPasswordStepの実装クラス. パスワードの照合はイベントループを塞がないよう専用のスレッドで実行します。 */
 @Component
 @RequiredArgsConstructor
 public class VerifyWithPasswordStepImpl implements VerifyWithPasswordStep {
 
   private final PasswordEncoder passwordEncoder;
+  private final PasswordHashingExecutor passwordHashingExecutor;
 
   @Override
   public Mono<LoginWorkflow.Context.Verified> apply(LoginWorkflow.Context.Founded f) {
     return getEmailAuthentication(f.account())
         .map(EmailAuthentication::password)
         .switchIfEmpty(Mono.error(NoEmailAuthenticationException::new))
-        .map(hashedPassword -> passwordEncoder.matches(f.rawPassword(), hashedPassword.value()))
+        .flatMap(
+            hashedPassword ->
+                passwordHashingExecutor.execute(
+                    () -> passwordEncoder.matches(f.rawPassword(), hashedPassword.value())))
         .flatMap(
             (var matches) -> {
               if (matches) {
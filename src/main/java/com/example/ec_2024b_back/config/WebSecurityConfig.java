@@ -18,6 +18,10 @@ public class WebSecurityConfig {
                 exchanges
                     .pathMatchers("/api/**")
                     .permitAll() // APIエンドポイントへのアクセスを許可
+                    .pathMatchers("/actuator/health", "/actuator/info")
+                    .permitAll() // ヘルスチェック用
+                    .pathMatchers("/actuator/prometheus")
+                    .permitAll() // メトリクス収集用
                     .anyExchange()
                     .authenticated())
         .build();
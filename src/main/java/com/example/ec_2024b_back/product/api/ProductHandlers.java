@@ -0,0 +1,24 @@
+package com.example.ec_2024b_back.product.api;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/** Product handlers interface exposed to the root module for routing. */
+public interface ProductHandlers {
+  /**
+   * List categories handler.
+   *
+   * @param request the server request
+   * @return the server response
+   */
+  Mono<ServerResponse> listCategories(ServerRequest request);
+
+  /**
+   * List products by category handler.
+   *
+   * @param request the server request
+   * @return the server response
+   */
+  Mono<ServerResponse> listProductsByCategory(ServerRequest request);
+}
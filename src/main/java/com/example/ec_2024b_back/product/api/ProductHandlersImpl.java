@@ -0,0 +1,28 @@
+package com.example.ec_2024b_back.product.api;
+
+import com.example.ec_2024b_back.product.infrastructure.api.ListCategoriesHandler;
+import com.example.ec_2024b_back.product.infrastructure.api.ListProductsByCategoryHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/** Product handlers implementation that delegates to the actual handlers. */
+@Component
+@RequiredArgsConstructor
+public class ProductHandlersImpl implements ProductHandlers {
+
+  private final ListCategoriesHandler listCategoriesHandler;
+  private final ListProductsByCategoryHandler listProductsByCategoryHandler;
+
+  @Override
+  public Mono<ServerResponse> listCategories(ServerRequest request) {
+    return listCategoriesHandler.listCategories(request);
+  }
+
+  @Override
+  public Mono<ServerResponse> listProductsByCategory(ServerRequest request) {
+    return listProductsByCategoryHandler.listProductsByCategory(request);
+  }
+}
@@ -0,0 +1,6 @@
+/**
+ * Product API interfaces that are exposed to other modules. This package is specifically designed
+ * to expose API interfaces to the root module for routing.
+ */
+@org.springframework.modulith.NamedInterface
+package com.example.ec_2024b_back.product.api;
@@ -0,0 +1,25 @@
+package com.example.ec_2024b_back.product.catalog;
+
+import com.example.ec_2024b_back.product.ProductId;
+import java.math.BigDecimal;
+
+/**
+ * 販売中の商品の価格
+ *
+ * @param productId 商品ID
+ * @param name 商品名
+ * @param basePrice 基本価格
+ * @param discount 1個あたりの割引額（円未満切り捨て、基本価格を超えない）
+ */
+public record CatalogPrice(
+    ProductId productId, String name, BigDecimal basePrice, BigDecimal discount) {
+
+  /**
+   * 割引後の1個あたりの価格を返します
+   *
+   * @return 基本価格から割引額を引いた価格
+   */
+  public BigDecimal unitPrice() {
+    return basePrice.subtract(discount);
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.ec_2024b_back.product.catalog;
+
+import com.example.ec_2024b_back.product.ProductId;
+import java.util.Collection;
+import reactor.core.publisher.Flux;
+
+/** 商品の価格を提供するインターフェース */
+public interface PriceCatalog {
+
+  /**
+   * 販売中の商品の現在の価格を返します
+   *
+   * <p>適用できるプロモーションが複数ある場合は、割引額が最も大きいものを1つだけ適用します。
+   *
+   * @param productIds 商品ID
+   * @return 販売中の商品の価格のFlux（存在しない商品と販売中でない商品は含まない。順序は不定）
+   */
+  Flux<CatalogPrice> findPrices(Collection<ProductId> productIds);
+}
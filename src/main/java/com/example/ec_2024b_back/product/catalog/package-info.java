@@ -0,0 +1,6 @@
+/**
+ * Product catalog interfaces that are exposed to other modules. Other modules use this package to
+ * look up authoritative product prices instead of trusting client-provided values.
+ */
+@org.springframework.modulith.NamedInterface("catalog")
+package com.example.ec_2024b_back.product.catalog;
@@ -1,7 +1,7 @@
 package com.example.ec_2024b_back.product.domain.models;
 
 import com.example.ec_2024b_back.product.CategoryId;
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableList;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -17,7 +17,7 @@ public class Category implements Entity<Product, CategoryId> {
   private final String name;
   private final String description;
   private final @Nullable CategoryId parentCategoryId; // null可（ルートカテゴリの場合）
-  private final ImmutableSet<DomainEvent> domainEvents;
+  private final ImmutableList<DomainEvent> domainEvents;
 
   /**
    * 新しいカテゴリを作成します
@@ -38,7 +38,7 @@ public class Category implements Entity<Product, CategoryId> {
         name,
         description,
         parentCategoryId,
-        ImmutableSet.of(new CategoryCreated(categoryId, name)));
+        ImmutableList.of(new CategoryCreated(categoryId, name)));
   }
 
   /**
@@ -47,12 +47,12 @@ public class Category implements Entity<Product, CategoryId> {
    * @param id カテゴリID
    * @param name カテゴリ名
    * @param description カテゴリの説明
-   * @param parentCategoryId 親カテゴリID
+   * @param parentCategoryId 親カテゴリID（ルートカテゴリの場合はnull）
    * @return 再構築されたカテゴリ
    */
   public static Category reconstruct(
-      CategoryId id, String name, String description, CategoryId parentCategoryId) {
-    return new Category(id, name, description, parentCategoryId, ImmutableSet.of());
+      CategoryId id, String name, String description, @Nullable CategoryId parentCategoryId) {
+    return new Category(id, name, description, parentCategoryId, ImmutableList.of());
   }
 
   /** カテゴリが作成されたことを示すドメインイベント */
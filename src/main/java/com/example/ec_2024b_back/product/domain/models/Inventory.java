@@ -9,6 +9,7 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.jmolecules.ddd.types.AggregateRoot;
 import org.jmolecules.event.types.DomainEvent;
+import org.jspecify.annotations.Nullable;
 
 /** 在庫集約 特定の商品に対する在庫数量と予約状況を管理します */
 @Getter
@@ -20,6 +21,9 @@ public class Inventory implements AggregateRoot<Inventory, InventoryId> {
   private final int reservedQuantity; // 予約済みの在庫数
   private final ImmutableList<DomainEvent> domainEvents;
 
+  /** 楽観的排他制御のためのバージョン（未保存の場合はnull） */
+  private final @Nullable Long version;
+
   /**
    * 新しい在庫を作成します
    *
@@ -39,7 +43,8 @@ public class Inventory implements AggregateRoot<Inventory, InventoryId> {
         productId,
         initialQuantity,
         0,
-        ImmutableList.of(new InventoryCreated(inventoryId, productId, initialQuantity)));
+        ImmutableList.of(new InventoryCreated(inventoryId, productId, initialQuantity)),
+        null);
   }
 
   /**
@@ -49,11 +54,17 @@ public class Inventory implements AggregateRoot<Inventory, InventoryId> {
    * @param productId 商品ID
    * @param availableQuantity 利用可能な在庫数
    * @param reservedQuantity 予約済みの在庫数
+   * @param version バージョン
    * @return 再構築された在庫
    */
   public static Inventory reconstruct(
-      InventoryId id, ProductId productId, int availableQuantity, int reservedQuantity) {
-    return new Inventory(id, productId, availableQuantity, reservedQuantity, ImmutableList.of());
+      InventoryId id,
+      ProductId productId,
+      int availableQuantity,
+      int reservedQuantity,
+      @Nullable Long version) {
+    return new Inventory(
+        id, productId, availableQuantity, reservedQuantity, ImmutableList.of(), version);
   }
 
   /**
@@ -84,7 +95,7 @@ public class Inventory implements AggregateRoot<Inventory, InventoryId> {
     }
 
     return new Inventory(
-        this.id, this.productId, newAvailableQuantity, this.reservedQuantity, events);
+        this.id, this.productId, newAvailableQuantity, this.reservedQuantity, events, version);
   }
 
   /**
@@ -113,7 +124,8 @@ public class Inventory implements AggregateRoot<Inventory, InventoryId> {
         newReservedQuantity,
         ImmutableList.of(
             new StockReserved(
-                this.id, this.productId, quantity, newAvailableQuantity, newReservedQuantity)));
+                this.id, this.productId, quantity, newAvailableQuantity, newReservedQuantity)),
+        version);
   }
 
   /**
@@ -142,7 +154,8 @@ public class Inventory implements AggregateRoot<Inventory, InventoryId> {
         newReservedQuantity,
         ImmutableList.of(
             new StockReleased(
-                this.id, this.productId, quantity, newAvailableQuantity, newReservedQuantity)));
+                this.id, this.productId, quantity, newAvailableQuantity, newReservedQuantity)),
+        version);
   }
 
   /** 在庫が不足している場合に発生する例外 */
@@ -154,6 +154,8 @@ public class Product implements AggregateRoot<Product, ProductId> {
       events = ImmutableList.of(new ProductActivated(this.id));
     } else if (newStatus == ProductStatus.RETIRED) {
       events = ImmutableList.of(new ProductRetired(this.id));
+    } else {
+      events = ImmutableList.of(new ProductDeactivated(this.id));
     }
 
     return new Product(
@@ -178,6 +180,9 @@ public class Product implements AggregateRoot<Product, ProductId> {
   /** 商品が有効化されたことを示すドメインイベント */
   public record ProductActivated(ProductId productId) implements DomainEvent {}
 
+  /** 商品が販売を停止した（一時的に無効または下書きに戻された）ことを示すドメインイベント */
+  public record ProductDeactivated(ProductId productId) implements DomainEvent {}
+
   /** 商品が廃止されたことを示すドメインイベント */
   public record ProductRetired(ProductId productId) implements DomainEvent {}
 }
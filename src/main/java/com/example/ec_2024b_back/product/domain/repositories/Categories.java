@@ -20,14 +20,14 @@ public interface Categories {
    * 親カテゴリIDに基づいてサブカテゴリを検索します
    *
    * @param parentId 親カテゴリID
-   * @return カテゴリのFlux
+   * @return 名前の順のカテゴリのFlux
    */
   Flux<Category> findByParentId(CategoryId parentId);
 
   /**
    * ルートカテゴリ（親カテゴリを持たないカテゴリ）を検索します
    *
-   * @return ルートカテゴリのFlux
+   * @return 名前の順のルートカテゴリのFlux
    */
   Flux<Category> findRootCategories();
 
@@ -0,0 +1,66 @@
+package com.example.ec_2024b_back.product.domain.repositories;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Inventory;
+import com.example.ec_2024b_back.product.domain.models.Inventory.InsufficientStockException;
+import com.google.common.collect.ImmutableList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.concurrent.Queues;
+
+/**
+ * 在庫の予約・予約解除のインターフェース
+ *
+ * <p>在庫を読み込んで {@link Inventory#reserve(int)} を適用し保存する方法では、同じ商品への同時の予約が互いの更新を上書きして在庫を超えて予約されるため、
+ * 予約はこのインターフェースを通じて在庫数の条件付き更新として行います。
+ */
+public interface InventoryReservations {
+
+  /**
+   * 利用可能な在庫が足りる場合のみ在庫を予約します
+   *
+   * @param productId 商品ID
+   * @param quantity 予約する数量
+   * @return 予約後の在庫を含むMono。在庫が不足している場合は {@link InsufficientStockException}
+   */
+  Mono<Inventory> reserve(ProductId productId, int quantity);
+
+  /**
+   * 注文の複数の商品の在庫をまとめて予約します
+   *
+   * <p>商品ごとに並行して予約し、いずれかの商品の在庫が不足している場合は、すべての予約が終わるのを待って予約できた商品の予約を解除してからエラーを通知します（補償）。
+   *
+   * @param quantities 商品IDごとの予約する数量
+   * @return 予約後の在庫を含むMono。在庫が不足している場合は {@link InsufficientStockException}
+   */
+  default Mono<ImmutableList<Inventory>> reserveAll(Map<ProductId, Integer> quantities) {
+    return Mono.defer(
+        () -> {
+          var reserved = new ConcurrentLinkedQueue<Map.Entry<ProductId, Integer>>();
+          return Flux.fromIterable(quantities.entrySet())
+              .flatMapDelayError(
+                  line ->
+                      reserve(line.getKey(), line.getValue()).doOnNext(i -> reserved.add(line)),
+                  Queues.SMALL_BUFFER_SIZE,
+                  Queues.XS_BUFFER_SIZE)
+              .collect(ImmutableList.toImmutableList())
+              .onErrorResume(
+                  e ->
+                      Flux.fromIterable(reserved)
+                          .flatMap(line -> release(line.getKey(), line.getValue()))
+                          .then(Mono.error(Exceptions.unwrapMultiple(e).getFirst())));
+        });
+  }
+
+  /**
+   * 在庫の予約を解除します
+   *
+   * @param productId 商品ID
+   * @param quantity 解除する数量
+   * @return 解除後の在庫を含むMono。予約数量を超える場合は {@link IllegalArgumentException}
+   */
+  Mono<Inventory> release(ProductId productId, int quantity);
+}
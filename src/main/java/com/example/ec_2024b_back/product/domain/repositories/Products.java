@@ -3,6 +3,10 @@ package com.example.ec_2024b_back.product.domain.repositories;
 import com.example.ec_2024b_back.product.CategoryId;
 import com.example.ec_2024b_back.product.ProductId;
 import com.example.ec_2024b_back.product.domain.models.Product;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductStatus;
+import com.example.ec_2024b_back.share.domain.models.CursorPage;
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
+import java.util.Collection;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -17,6 +21,14 @@ public interface Products {
    */
   Mono<Product> findById(ProductId id);
 
+  /**
+   * IDによって複数の商品をまとめて検索します
+   *
+   * @param ids 商品ID
+   * @return 見つかった商品のFlux（順不同）
+   */
+  Flux<Product> findAllById(Collection<ProductId> ids);
+
   /**
    * SKUによって商品を検索します
    *
@@ -33,14 +45,53 @@ public interface Products {
    */
   Flux<Product> findByCategory(CategoryId categoryId);
 
+  /**
+   * カテゴリに属する商品を商品IDの順に1ページ分検索します
+   *
+   * @param categoryId カテゴリID
+   * @param page ページ指定
+   * @return 商品のページを含むMono
+   * @throws IllegalArgumentException カーソルの形式が不正な場合（Monoのエラーとして通知）
+   */
+  Mono<CursorPage<Product>> findByCategory(CategoryId categoryId, CursorPageRequest page);
+
+  /**
+   * カテゴリとその子孫カテゴリのいずれかに属する商品を商品IDの順に1ページ分検索します
+   *
+   * @param categoryId カテゴリID
+   * @param page ページ指定
+   * @return 商品のページを含むMono
+   * @throws IllegalArgumentException カーソルの形式が不正な場合（Monoのエラーとして通知）
+   */
+  Mono<CursorPage<Product>> findByCategorySubtree(CategoryId categoryId, CursorPageRequest page);
+
+  /**
+   * カテゴリに属する、指定したステータスの商品を検索します
+   *
+   * @param categoryId カテゴリID
+   * @param status 商品ステータス
+   * @return 商品のFlux
+   */
+  Flux<Product> findByCategoryAndStatus(CategoryId categoryId, ProductStatus status);
+
   /**
    * キーワードで商品を検索します
    *
    * @param keyword 検索キーワード
-   * @return 商品のFlux
+   * @return 関連度の高い順の商品のFlux
    */
   Flux<Product> search(String keyword);
 
+  /**
+   * キーワードで商品を検索し、関連度の高い順に指定した範囲を返します
+   *
+   * @param keyword 検索キーワード
+   * @param offset 読み飛ばす件数
+   * @param limit 返す件数の上限
+   * @return 関連度の高い順の商品のFlux
+   */
+  Flux<Product> search(String keyword, int offset, int limit);
+
   /**
    * 商品を保存します
    *
@@ -33,6 +33,17 @@ public interface Promotions {
    */
   Flux<Promotion> findActiveByProductId(ProductId productId);
 
+  /**
+   * 商品に指定日時で適用できるプロモーションを検索します
+   *
+   * <p>アクティブで期間内にあり、商品を適用対象に含むか適用対象商品が空のプロモーションが対象です。価格の計算でカートの明細ごとに呼び出されるため、データベースを読まずに返すことを想定しています。
+   *
+   * @param productId 商品ID
+   * @param dateTime 適用する日時
+   * @return プロモーションのFlux
+   */
+  Flux<Promotion> findApplicable(ProductId productId, LocalDateTime dateTime);
+
   /**
    * 期間内のプロモーションを検索します
    *
@@ -0,0 +1,41 @@
+package com.example.ec_2024b_back.product.domain.repositories;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Inventory.InsufficientStockException;
+import java.time.Instant;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * 期限付きの在庫予約（ホールド）のインターフェース
+ *
+ * <p>カートに入れた商品や支払い前の注文のために在庫を予約し、期限までに確定されなかった予約は自動的に解除して、放置されたカートや未払いの注文に在庫が残り続けることを防ぎます。
+ */
+public interface ReservationHolds {
+
+  /**
+   * 在庫を予約し、期限付きのホールドとして記録します
+   *
+   * @param holdId ホールドのID（カートIDや注文IDなど）
+   * @param quantities 商品IDごとの予約する数量
+   * @param expiresAt 予約を自動的に解除する日時
+   * @return 完了を表すMono。在庫が不足している場合は {@link InsufficientStockException}
+   */
+  Mono<Void> hold(String holdId, Map<ProductId, Integer> quantities, Instant expiresAt);
+
+  /**
+   * ホールドを確定し、期限による解除の対象から外します。予約した在庫はそのまま残ります
+   *
+   * @param holdId ホールドのID
+   * @return 確定できた場合はtrue。ホールドが存在しない（期限切れで解除済みの）場合はfalse
+   */
+  Mono<Boolean> confirm(String holdId);
+
+  /**
+   * ホールドを取り消し、予約した在庫をすぐに解除します
+   *
+   * @param holdId ホールドのID
+   * @return 取り消した場合はtrue。ホールドが存在しない場合はfalse
+   */
+  Mono<Boolean> cancel(String holdId);
+}
@@ -0,0 +1,61 @@
+package com.example.ec_2024b_back.product.infrastructure.api;
+
+import com.example.ec_2024b_back.product.domain.models.Category;
+import com.example.ec_2024b_back.product.domain.repositories.Categories;
+import com.google.common.collect.ImmutableList;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/** カテゴリツリー（メニュー表示用）を処理するハンドラークラス. ルートカテゴリから順に子カテゴリを入れ子にして返します。 */
+@Component
+@RequiredArgsConstructor
+public class ListCategoriesHandler {
+
+  private final Categories categories;
+
+  public Mono<ServerResponse> listCategories(ServerRequest request) {
+    return categories
+        .findRootCategories()
+        .flatMapSequential(this::toResponse)
+        .collect(ImmutableList.toImmutableList())
+        .flatMap(roots -> ServerResponse.ok().bodyValue(new CategoryTreeResponse(roots)));
+  }
+
+  private Mono<CategoryResponse> toResponse(Category category) {
+    return categories
+        .findByParentId(category.getId())
+        .flatMapSequential(this::toResponse)
+        .collect(ImmutableList.toImmutableList())
+        .map(
+            children ->
+                new CategoryResponse(
+                    category.getId().toString(),
+                    category.getName(),
+                    category.getDescription(),
+                    children));
+  }
+
+  /**
+   * カテゴリレスポンスのDTO.
+   *
+   * @param categoryId カテゴリID
+   * @param name カテゴリ名
+   * @param description カテゴリの説明
+   * @param children 子カテゴリ（名前の順）
+   */
+  record CategoryResponse(
+      String categoryId,
+      String name,
+      String description,
+      ImmutableList<CategoryResponse> children) {}
+
+  /**
+   * カテゴリツリーレスポンスのDTO.
+   *
+   * @param categories ルートカテゴリ（名前の順）
+   */
+  record CategoryTreeResponse(ImmutableList<CategoryResponse> categories) {}
+}
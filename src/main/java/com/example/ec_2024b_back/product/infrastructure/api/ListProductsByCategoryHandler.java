@@ -0,0 +1,79 @@
+package com.example.ec_2024b_back.product.infrastructure.api;
+
+import com.example.ec_2024b_back.product.CategoryId;
+import com.example.ec_2024b_back.product.domain.models.Product;
+import com.example.ec_2024b_back.product.domain.repositories.Products;
+import com.example.ec_2024b_back.share.infrastructure.api.CursorPageParameters;
+import com.google.common.collect.ImmutableList;
+import java.math.BigDecimal;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * カテゴリ別の商品一覧を処理するハンドラークラス. クエリパラメーター {@code cursor} / {@code limit} でページを指定し、{@code
+ * includeSubcategories=true} を指定すると子孫カテゴリの商品も含めます。
+ */
+@Component
+@RequiredArgsConstructor
+public class ListProductsByCategoryHandler {
+
+  private final Products products;
+
+  public Mono<ServerResponse> listProductsByCategory(ServerRequest request) {
+    return Mono.fromCallable(() -> CategoryId.of(request.pathVariable("categoryId")))
+        .flatMap(
+            categoryId -> {
+              var page = CursorPageParameters.from(request);
+              return includeSubcategories(request)
+                  ? products.findByCategorySubtree(categoryId, page)
+                  : products.findByCategory(categoryId, page);
+            })
+        .flatMap(
+            page ->
+                ServerResponse.ok()
+                    .bodyValue(
+                        new ProductPageResponse(
+                            page.map(ListProductsByCategoryHandler::toResponse).items(),
+                            page.nextCursor())))
+        .onErrorResume(
+            IllegalArgumentException.class,
+            e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
+  }
+
+  private static boolean includeSubcategories(ServerRequest request) {
+    return request.queryParam("includeSubcategories").map(Boolean::parseBoolean).orElse(false);
+  }
+
+  private static ProductResponse toResponse(Product product) {
+    return new ProductResponse(
+        product.getId().toString(),
+        product.getName(),
+        product.getBasePrice(),
+        product.getSku(),
+        product.getStatus().name());
+  }
+
+  /**
+   * 商品レスポンスのDTO.
+   *
+   * @param productId 商品ID
+   * @param name 商品名
+   * @param price 基本価格
+   * @param sku SKU
+   * @param status 商品ステータス
+   */
+  record ProductResponse(
+      String productId, String name, BigDecimal price, String sku, String status) {}
+
+  /**
+   * 商品一覧レスポンスのDTO.
+   *
+   * @param items 商品一覧
+   * @param nextCursor 次のページのカーソル（最後のページの場合はnull）
+   */
+  record ProductPageResponse(ImmutableList<ProductResponse> items, @Nullable String nextCursor) {}
+}
@@ -0,0 +1,60 @@
+package com.example.ec_2024b_back.product.infrastructure.catalog;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.catalog.CatalogPrice;
+import com.example.ec_2024b_back.product.catalog.PriceCatalog;
+import com.example.ec_2024b_back.product.domain.models.Product;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductStatus;
+import com.example.ec_2024b_back.product.domain.repositories.Promotions;
+import com.example.ec_2024b_back.product.infrastructure.loader.ProductLoader;
+import com.example.ec_2024b_back.share.domain.services.TimeProvider;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 商品の基本価格とプロモーションから価格を求める {@link PriceCatalog} の実装
+ *
+ * <p>商品は {@link ProductLoader} で1回の検索にまとめて読み込み、プロモーションは {@link Promotions#findApplicable}
+ * でインメモリのインデックスから取得します。
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductPriceCatalog implements PriceCatalog {
+
+  private final ProductLoader productLoader;
+  private final Promotions promotions;
+  private final TimeProvider timeProvider;
+
+  @Override
+  public Flux<CatalogPrice> findPrices(Collection<ProductId> productIds) {
+    return Flux.defer(
+        () -> {
+          var now = timeProvider.now();
+          return productLoader
+              .loadAll(productIds)
+              .filter(product -> product.getStatus() == ProductStatus.ACTIVE)
+              .flatMap(product -> price(product, now));
+        });
+  }
+
+  private Mono<CatalogPrice> price(Product product, LocalDateTime now) {
+    var basePrice = product.getBasePrice();
+    return promotions
+        .findApplicable(product.getId(), now)
+        .map(promotion -> promotion.calculateDiscount(basePrice, () -> now))
+        .reduce(BigDecimal.ZERO, BigDecimal::max)
+        .map(
+            discount ->
+                new CatalogPrice(
+                    product.getId(),
+                    product.getName(),
+                    basePrice,
+                    discount.setScale(0, RoundingMode.DOWN).min(basePrice)));
+  }
+}
@@ -0,0 +1,182 @@
+package com.example.ec_2024b_back.product.infrastructure.category;
+
+import com.example.ec_2024b_back.product.CategoryId;
+import com.example.ec_2024b_back.product.domain.models.Category;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Maps;
+import com.google.errorprone.annotations.Var;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * カテゴリツリーのインメモリスナップショット
+ *
+ * <p>カテゴリごとにルートからの祖先のIDの列（マテリアライズドパス）を {@link Category#getParentCategoryId()}
+ * からあらかじめ求め、そこから子カテゴリと子孫カテゴリの一覧を作ります。 メニューの表示や「カテゴリXの配下のすべての商品」の検索に必要なカテゴリを、データベースを読まずに取得できます。
+ *
+ * <p>更新はカテゴリの一覧から新しいスナップショットを作り直して置き換え、参照はロックを取らずに現在のスナップショットを読みます。
+ *
+ * <p>起動時にすべてのカテゴリを読み込むまでは一部のカテゴリしか登録されていないため、利用する側は {@link #isLoaded()} を確認します。
+ */
+@Component
+public class CategoryTree {
+
+  /** カテゴリの表示順（名前の順、同じ名前はIDの順） */
+  public static final Comparator<Category> DISPLAY_ORDER =
+      Comparator.comparing(Category::getName).thenComparing(c -> c.getId().value());
+
+  private final Map<CategoryId, Category> categories = new HashMap<>();
+
+  private volatile Snapshot snapshot = Snapshot.of(List.of());
+
+  private volatile boolean loaded;
+
+  /**
+   * すべてのカテゴリを読み込んだかどうかを返します
+   *
+   * @return {@link #loadAll(Collection)} でカテゴリを読み込んだ場合は true
+   */
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  /**
+   * IDでカテゴリを取得します
+   *
+   * @param id カテゴリID
+   * @return カテゴリ、登録されていない場合はnull
+   */
+  public @Nullable Category get(CategoryId id) {
+    return snapshot.categories().get(id);
+  }
+
+  /**
+   * ルートカテゴリを名前の順に返します
+   *
+   * @return 親カテゴリを持たないカテゴリ
+   */
+  public ImmutableList<Category> roots() {
+    return snapshot.roots();
+  }
+
+  /**
+   * 子カテゴリを名前の順に返します
+   *
+   * @param parentId 親カテゴリID
+   * @return 子カテゴリ
+   */
+  public ImmutableList<Category> children(CategoryId parentId) {
+    return snapshot.children().get(parentId);
+  }
+
+  /**
+   * ルートからカテゴリまでのIDの列を返します
+   *
+   * @param id カテゴリID
+   * @return ルートから順に並べた祖先とカテゴリ自身のID、登録されていない場合は空
+   */
+  public ImmutableList<CategoryId> path(CategoryId id) {
+    return snapshot.paths().getOrDefault(id, ImmutableList.of());
+  }
+
+  /**
+   * カテゴリとその子孫のIDを返します
+   *
+   * @param id カテゴリID
+   * @return カテゴリ自身と子孫カテゴリのID（登録されていない場合はカテゴリ自身のIDのみ）
+   */
+  public ImmutableSet<CategoryId> subtree(CategoryId id) {
+    var subtree = snapshot.subtrees().get(id);
+    return subtree.isEmpty() ? ImmutableSet.of(id) : subtree;
+  }
+
+  /**
+   * カテゴリを登録します。登録済みの場合は置き換えます
+   *
+   * @param category カテゴリ
+   */
+  public synchronized void put(Category category) {
+    categories.put(category.getId(), category);
+    snapshot = Snapshot.of(categories.values());
+  }
+
+  /**
+   * データベースから読み込んだすべてのカテゴリを登録します
+   *
+   * <p>読み込みの間に {@link #put(Category)} で登録されたカテゴリは読み込んだものより新しいため、登録済みのカテゴリは置き換えません。
+   *
+   * @param loadedCategories 読み込んだカテゴリ
+   */
+  public synchronized void loadAll(Collection<Category> loadedCategories) {
+    loadedCategories.forEach(c -> categories.putIfAbsent(c.getId(), c));
+    snapshot = Snapshot.of(categories.values());
+    loaded = true;
+  }
+
+  /** 登録されているカテゴリの件数 */
+  public int size() {
+    return snapshot.categories().size();
+  }
+
+  /**
+   * ある時点のカテゴリツリー
+   *
+   * @param categories IDごとのカテゴリ
+   * @param roots ルートカテゴリ
+   * @param children 親カテゴリIDごとの子カテゴリ
+   * @param paths カテゴリIDごとのルートからのIDの列
+   * @param subtrees カテゴリIDごとのカテゴリ自身と子孫カテゴリのID
+   */
+  private record Snapshot(
+      ImmutableMap<CategoryId, Category> categories,
+      ImmutableList<Category> roots,
+      ImmutableListMultimap<CategoryId, Category> children,
+      ImmutableMap<CategoryId, ImmutableList<CategoryId>> paths,
+      ImmutableSetMultimap<CategoryId, CategoryId> subtrees) {
+
+    static Snapshot of(Collection<Category> values) {
+      var categories = Maps.uniqueIndex(values, Category::getId);
+      var sorted = values.stream().sorted(DISPLAY_ORDER).toList();
+      var roots = ImmutableList.<Category>builder();
+      var children = ImmutableListMultimap.<CategoryId, Category>builder();
+      var paths = ImmutableMap.<CategoryId, ImmutableList<CategoryId>>builder();
+      var subtrees = ImmutableSetMultimap.<CategoryId, CategoryId>builder();
+      for (var category : sorted) {
+        var parentId = category.getParentCategoryId();
+        if (parentId == null) {
+          roots.add(category);
+        } else {
+          children.put(parentId, category);
+        }
+        var path = pathOf(category, categories);
+        paths.put(category.getId(), path);
+        path.forEach(ancestorId -> subtrees.put(ancestorId, category.getId()));
+      }
+      return new Snapshot(
+          categories, roots.build(), children.build(), paths.buildOrThrow(), subtrees.build());
+    }
+
+    /** 親カテゴリをたどってルートからのIDの列を求めます（未登録の親や循環があればそこで打ち切ります） */
+    private static ImmutableList<CategoryId> pathOf(
+        Category category, Map<CategoryId, Category> categories) {
+      var path = new ArrayDeque<CategoryId>();
+      @Var @Nullable Category current = category;
+      while (current != null && !path.contains(current.getId())) {
+        path.addFirst(current.getId());
+        var parentId = current.getParentCategoryId();
+        current = parentId != null ? categories.get(parentId) : null;
+      }
+      return ImmutableList.copyOf(path);
+    }
+  }
+}
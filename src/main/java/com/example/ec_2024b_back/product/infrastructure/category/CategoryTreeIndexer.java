@@ -0,0 +1,66 @@
+package com.example.ec_2024b_back.product.infrastructure.category;
+
+import com.example.ec_2024b_back.product.domain.models.Category.CategoryCreated;
+import com.example.ec_2024b_back.product.infrastructure.repository.CategoryDocument;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Replicated;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.util.retry.Retry;
+
+/**
+ * カテゴリツリーを最新の状態に保ちます
+ *
+ * <p>起動時にすべてのカテゴリを読み込み、以降はアウトボックスから各ノードに配信される {@link CategoryCreated} を受けて作成されたカテゴリを追加します。
+ * 読み込みに失敗した場合は間隔を空けて成功するまで再試行し、それまでの間カテゴリの検索はデータベースから行われます。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class CategoryTreeIndexer {
+
+  private static final Duration LOAD_TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration MIN_RETRY_BACKOFF = Duration.ofSeconds(1);
+  private static final Duration MAX_RETRY_BACKOFF = Duration.ofMinutes(1);
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final CategoryTree tree;
+
+  /** 起動時にすべてのカテゴリを読み込みます */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadAll() {
+    mongoTemplate
+        .findAll(CategoryDocument.class)
+        .map(CategoryDocument::toDomain)
+        .collectList()
+        .retryWhen(
+            Retry.backoff(Long.MAX_VALUE, MIN_RETRY_BACKOFF)
+                .maxBackoff(MAX_RETRY_BACKOFF)
+                .doBeforeRetry(
+                    signal -> log.warn("カテゴリツリーの読み込みに失敗したため再試行します", signal.failure())))
+        .subscribe(
+            categories -> {
+              tree.loadAll(categories);
+              log.info("カテゴリツリーを読み込みました（{}件）", categories.size());
+            });
+  }
+
+  /**
+   * 作成されたカテゴリを追加します。配信のワーカースレッドで呼び出されるため、読み込みの完了を待ちます（失敗時は再試行されます）
+   *
+   * @param event カテゴリ作成イベント
+   */
+  @EventListener
+  public void on(Replicated<CategoryCreated> event) {
+    mongoTemplate
+        .findById(event.event().categoryId().toString(), CategoryDocument.class)
+        .map(CategoryDocument::toDomain)
+        .doOnNext(tree::put)
+        .then()
+        .block(LOAD_TIMEOUT);
+  }
+}
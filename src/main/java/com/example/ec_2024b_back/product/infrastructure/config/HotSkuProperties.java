@@ -0,0 +1,24 @@
+package com.example.ec_2024b_back.product.infrastructure.config;
+
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * 人気商品（ホットSKU）の在庫をノードのメモリ上で予約する設定プロパティ
+ *
+ * @param enabled メモリ上での予約を有効にするかどうか
+ * @param productIds メモリ上で予約する商品のID
+ * @param chunkSize 1回にMongoDBからノードに割り当てる在庫の数量
+ * @param flushInterval メモリ上の予約をMongoDBに反映する間隔
+ */
+@Validated
+@ConfigurationProperties("product.hot-sku")
+public record HotSkuProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue Set<String> productIds,
+    @DefaultValue("100") @Positive int chunkSize,
+    @DefaultValue("200ms") Duration flushInterval) {}
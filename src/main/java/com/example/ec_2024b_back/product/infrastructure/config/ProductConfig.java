@@ -0,0 +1,12 @@
+package com.example.ec_2024b_back.product.infrastructure.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({
+  HotSkuProperties.class,
+  ProductLoaderProperties.class,
+  ReservationExpiryProperties.class
+})
+public class ProductConfig {}
@@ -0,0 +1,15 @@
+package com.example.ec_2024b_back.product.infrastructure.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * リクエストごとに商品の読み込みをまとめるローダーの設定プロパティ
+ *
+ * @param batchWindow 最初の読み込みの要求から、それまでに要求された商品IDをまとめて読み込むまでの時間
+ */
+@Validated
+@ConfigurationProperties("product.loader")
+public record ProductLoaderProperties(@DefaultValue("1ms") Duration batchWindow) {}
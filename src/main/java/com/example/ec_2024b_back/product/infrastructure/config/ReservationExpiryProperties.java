@@ -0,0 +1,25 @@
+package com.example.ec_2024b_back.product.infrastructure.config;
+
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * 期限切れの在庫予約（ホールド）を解除するスイーパーの設定プロパティ
+ *
+ * @param enabled スイーパーを起動するかどうか
+ * @param sweepInterval 期限切れのホールドを確認する間隔
+ * @param batchSize 1回に取り出して解除するホールドの件数
+ * @param retryDelay 取り出したホールドを他のノードに解除させずに確保し、解除できなかった場合に再試行するまでの時間
+ * @param rescanInterval このノードが期限を管理していない期限切れのホールドをMongoDBから読み込む間隔
+ */
+@Validated
+@ConfigurationProperties("product.reservation-expiry")
+public record ReservationExpiryProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("1s") Duration sweepInterval,
+    @DefaultValue("500") @Positive int batchSize,
+    @DefaultValue("1m") Duration retryDelay,
+    @DefaultValue("1m") Duration rescanInterval) {}
@@ -0,0 +1,147 @@
+package com.example.ec_2024b_back.product.infrastructure.loader;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Product;
+import com.example.ec_2024b_back.product.domain.repositories.Products;
+import com.example.ec_2024b_back.product.infrastructure.config.ProductLoaderProperties;
+import com.google.common.collect.ImmutableSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+/**
+ * 商品をIDで読み込むローダー
+ *
+ * <p>{@link ProductLoaderWebFilter} がリクエストごとにReactorのコンテキストへバッチを登録します。 同じリクエストで最初の要求から {@link
+ * ProductLoaderProperties#batchWindow()} の間に要求された商品IDは、1回の {@link Products#findAllById}
+ * にまとめて読み込みます。 同じIDの要求は1つにまとめ、読み込んだ結果はリクエストの間キャッシュします。
+ *
+ * <p>バッチが登録されていない場合（リクエストの外からの呼び出し）は、呼び出しごとにリポジトリを読みます。
+ */
+@Component
+public class ProductLoader {
+
+  private final Products products;
+  private final Duration batchWindow;
+  private final Scheduler scheduler = Schedulers.parallel();
+
+  public ProductLoader(Products products, ProductLoaderProperties properties) {
+    this.products = products;
+    this.batchWindow = properties.batchWindow();
+  }
+
+  /**
+   * 商品を読み込みます
+   *
+   * @param id 商品ID
+   * @return 商品を含むMono、見つからない場合は empty
+   */
+  public Mono<Product> load(ProductId id) {
+    return Mono.deferContextual(
+        context ->
+            context
+                .<Batch>getOrEmpty(Batch.class)
+                .map(batch -> batch.load(id))
+                .orElseGet(() -> products.findById(id)));
+  }
+
+  /**
+   * 複数の商品を読み込みます
+   *
+   * @param ids 商品ID
+   * @return 見つかった商品のFlux（重複したIDは1件）
+   */
+  public Flux<Product> loadAll(Collection<ProductId> ids) {
+    return Flux.deferContextual(
+        context ->
+            context
+                .<Batch>getOrEmpty(Batch.class)
+                .map(batch -> batch.loadAll(ids))
+                .orElseGet(() -> products.findAllById(ImmutableSet.copyOf(ids))));
+  }
+
+  /**
+   * リクエスト用のバッチをコンテキストに登録します
+   *
+   * @param context リクエストのコンテキスト
+   * @return バッチを登録したコンテキスト
+   */
+  public Context withBatch(Context context) {
+    return context.put(Batch.class, new Batch());
+  }
+
+  /** 1つのリクエストで要求された商品の読み込み */
+  private final class Batch {
+
+    /** 要求された商品IDごとの読み込み結果 */
+    private final Map<ProductId, Mono<Product>> results = new HashMap<>();
+
+    /** 次の読み込みを待っている商品ID */
+    private Map<ProductId, Sinks.One<Product>> pending = new HashMap<>();
+
+    Mono<Product> load(ProductId id) {
+      return Mono.defer(() -> enqueue(List.of(id)).getFirst());
+    }
+
+    Flux<Product> loadAll(Collection<ProductId> ids) {
+      return Flux.defer(() -> Flux.concat(enqueue(ImmutableSet.copyOf(ids))));
+    }
+
+    /** まだ要求されていない商品IDを次の読み込みに加え、商品IDごとの結果を返します */
+    private synchronized List<Mono<Product>> enqueue(Collection<ProductId> ids) {
+      var requested = new ArrayList<Mono<Product>>(ids.size());
+      for (var id : ids) {
+        requested.add(results.computeIfAbsent(id, this::request));
+      }
+      return requested;
+    }
+
+    private Mono<Product> request(ProductId id) {
+      if (pending.isEmpty()) {
+        scheduler.schedule(this::dispatch, batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+      }
+      var sink = Sinks.<Product>one();
+      pending.put(id, sink);
+      return sink.asMono();
+    }
+
+    /** 待っている商品IDをまとめて読み込み、それぞれの結果を通知します */
+    private void dispatch() {
+      Map<ProductId, Sinks.One<Product>> batch;
+      synchronized (this) {
+        batch = pending;
+        pending = new HashMap<>();
+      }
+      products
+          .findAllById(ImmutableSet.copyOf(batch.keySet()))
+          .subscribe(
+              product -> {
+                var sink = batch.remove(product.getId());
+                if (sink != null) {
+                  sink.tryEmitValue(product);
+                }
+              },
+              error -> {
+                // 失敗した商品IDは次の要求で読み込み直す
+                evict(batch.keySet());
+                batch.values().forEach(sink -> sink.tryEmitError(error));
+              },
+              () -> batch.values().forEach(Sinks.One::tryEmitEmpty));
+    }
+
+    private synchronized void evict(Collection<ProductId> ids) {
+      results.keySet().removeAll(ids);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.example.ec_2024b_back.product.infrastructure.loader;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/** リクエストごとに {@link ProductLoader} のバッチを登録するフィルター */
+@Component
+@RequiredArgsConstructor
+class ProductLoaderWebFilter implements WebFilter {
+
+  private final ProductLoader loader;
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    return chain.filter(exchange).contextWrite(loader::withBatch);
+  }
+}
@@ -0,0 +1,4 @@
+@InfrastructureRing
+package com.example.ec_2024b_back.product.infrastructure;
+
+import org.jmolecules.architecture.onion.simplified.InfrastructureRing;
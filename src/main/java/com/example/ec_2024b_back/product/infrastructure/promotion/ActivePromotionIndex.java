@@ -0,0 +1,148 @@
+package com.example.ec_2024b_back.product.infrastructure.promotion;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.PromotionId;
+import com.example.ec_2024b_back.product.domain.models.Promotion;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.springframework.stereotype.Component;
+
+/**
+ * アクティブなプロモーションのインメモリインデックス
+ *
+ * <p>プロモーションを適用対象商品ごと（適用対象商品が空のプロモーションは全商品用）に分け、それぞれについて期間の開始・終了で区切った時間軸を作ります。
+ * 区間ごとに有効なプロモーションをあらかじめ求めておくため、商品と日時から適用できるプロモーションを、データベースを読まずに二分探索1回で取得できます。
+ *
+ * <p>更新はプロモーションの一覧から新しいスナップショットを作り直して置き換え、参照はロックを取らずに現在のスナップショットを読みます。
+ */
+@Component
+public class ActivePromotionIndex {
+
+  private final Map<PromotionId, Promotion> promotions = new HashMap<>();
+
+  private volatile Snapshot snapshot = Snapshot.of(List.of());
+
+  /**
+   * 商品に指定日時で適用できるプロモーションを返します
+   *
+   * @param productId 商品ID
+   * @param dateTime 日時
+   * @return 全商品用のプロモーションと、商品を適用対象に含むプロモーション
+   */
+  public ImmutableList<Promotion> applicableTo(ProductId productId, LocalDateTime dateTime) {
+    var current = snapshot;
+    var timeline = current.byProduct().get(productId);
+    var global = current.global().at(dateTime);
+    if (timeline == null) {
+      return global;
+    }
+    return ImmutableList.<Promotion>builder()
+        .addAll(global)
+        .addAll(timeline.at(dateTime))
+        .build();
+  }
+
+  /**
+   * プロモーションを登録します。アクティブでないプロモーションは取り除きます
+   *
+   * @param promotion プロモーション
+   */
+  public synchronized void put(Promotion promotion) {
+    if (promotion.isActive()) {
+      promotions.put(promotion.getId(), promotion);
+    } else {
+      promotions.remove(promotion.getId());
+    }
+    snapshot = Snapshot.of(promotions.values());
+  }
+
+  /**
+   * 登録されているプロモーションをすべて置き換えます
+   *
+   * @param replacements アクティブなプロモーション
+   */
+  public synchronized void replaceAll(Collection<Promotion> replacements) {
+    promotions.clear();
+    replacements.stream().filter(Promotion::isActive).forEach(p -> promotions.put(p.getId(), p));
+    snapshot = Snapshot.of(promotions.values());
+  }
+
+  /** 登録されているプロモーションの件数 */
+  public int size() {
+    return snapshot.size();
+  }
+
+  /**
+   * ある時点のインデックス
+   *
+   * @param global 全商品用のプロモーションの時間軸
+   * @param byProduct 商品ごとのプロモーションの時間軸
+   * @param size プロモーションの件数
+   */
+  private record Snapshot(Timeline global, ImmutableMap<ProductId, Timeline> byProduct, int size) {
+
+    static Snapshot of(Collection<Promotion> promotions) {
+      var global = ImmutableList.<Promotion>builder();
+      var byProduct = ImmutableListMultimap.<ProductId, Promotion>builder();
+      for (var promotion : promotions) {
+        if (promotion.getApplicableProducts().isEmpty()) {
+          global.add(promotion);
+        }
+        promotion.getApplicableProducts().forEach(productId -> byProduct.put(productId, promotion));
+      }
+      var timelines =
+          byProduct.build().asMap().entrySet().stream()
+              .collect(
+                  ImmutableMap.toImmutableMap(
+                      Map.Entry::getKey, entry -> Timeline.of(entry.getValue())));
+      return new Snapshot(Timeline.of(global.build()), timelines, promotions.size());
+    }
+  }
+
+  /**
+   * プロモーションの期間の開始・終了で区切った時間軸
+   *
+   * @param boundaries 区間の開始日時（昇順）
+   * @param segments 区間ごとの有効なプロモーション
+   */
+  private record Timeline(
+      LocalDateTime[] boundaries, ImmutableList<ImmutableList<Promotion>> segments) {
+
+    static Timeline of(Collection<Promotion> promotions) {
+      // 終了日時は期間に含まれるため、その直後から次の区間とする
+      var points = new TreeSet<LocalDateTime>();
+      for (var promotion : promotions) {
+        points.add(promotion.getStartDateTime());
+        points.add(promotion.getEndDateTime().plusNanos(1));
+      }
+      var boundaries = points.toArray(LocalDateTime[]::new);
+      var segments =
+          Arrays.stream(boundaries)
+              .map(
+                  point ->
+                      promotions.stream()
+                          .filter(
+                              p ->
+                                  !p.getStartDateTime().isAfter(point)
+                                      && !p.getEndDateTime().isBefore(point))
+                          .collect(ImmutableList.toImmutableList()))
+              .collect(ImmutableList.toImmutableList());
+      return new Timeline(boundaries, segments);
+    }
+
+    /** 日時を含む区間の有効なプロモーション */
+    ImmutableList<Promotion> at(LocalDateTime dateTime) {
+      int found = Arrays.binarySearch(boundaries, dateTime);
+      int segment = found >= 0 ? found : -found - 2;
+      return segment < 0 ? ImmutableList.of() : segments.get(segment);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.ec_2024b_back.product.infrastructure.promotion;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.product.PromotionId;
+import com.example.ec_2024b_back.product.domain.models.Promotion.PromotionActivated;
+import com.example.ec_2024b_back.product.domain.models.Promotion.PromotionCreated;
+import com.example.ec_2024b_back.product.domain.models.Promotion.PromotionDeactivated;
+import com.example.ec_2024b_back.product.infrastructure.repository.PromotionDocument;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Replicated;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * アクティブなプロモーションのインデックスを最新の状態に保ちます
+ *
+ * <p>起動時にアクティブなプロモーションをすべて登録し、以降はアウトボックスから各ノードに配信される {@link PromotionCreated} / {@link
+ * PromotionActivated} / {@link PromotionDeactivated} を受けて該当するプロモーションを読み込み直します。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class ActivePromotionIndexer {
+
+  private static final Duration LOAD_TIMEOUT = Duration.ofSeconds(10);
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final ActivePromotionIndex index;
+
+  /** 起動時にアクティブなプロモーションをすべて登録します */
+  @EventListener(ApplicationReadyEvent.class)
+  public void indexAll() {
+    mongoTemplate
+        .find(query(where("active").is(true)), PromotionDocument.class)
+        .map(PromotionDocument::toDomain)
+        .collectList()
+        .subscribe(
+            promotions -> {
+              index.replaceAll(promotions);
+              log.info("プロモーションのインデックスを作成しました（{}件）", promotions.size());
+            },
+            e -> log.warn("プロモーションのインデックスの作成に失敗しました", e));
+  }
+
+  /**
+   * 作成されたプロモーションを登録します
+   *
+   * @param event プロモーション作成イベント
+   */
+  @EventListener
+  public void onCreated(Replicated<PromotionCreated> event) {
+    reindex(event.event().promotionId());
+  }
+
+  /**
+   * アクティブになったプロモーションを登録します
+   *
+   * @param event プロモーションアクティブ化イベント
+   */
+  @EventListener
+  public void onActivated(Replicated<PromotionActivated> event) {
+    reindex(event.event().promotionId());
+  }
+
+  /**
+   * 非アクティブになったプロモーションを取り除きます
+   *
+   * @param event プロモーション非アクティブ化イベント
+   */
+  @EventListener
+  public void onDeactivated(Replicated<PromotionDeactivated> event) {
+    reindex(event.event().promotionId());
+  }
+
+  /** 配信のワーカースレッドで呼び出されるため、読み込みの完了を待ちます（失敗時は再試行されます） */
+  private void reindex(PromotionId promotionId) {
+    mongoTemplate
+        .findById(promotionId.toString(), PromotionDocument.class)
+        .map(PromotionDocument::toDomain)
+        .doOnNext(index::put)
+        .then()
+        .block(LOAD_TIMEOUT);
+  }
+}
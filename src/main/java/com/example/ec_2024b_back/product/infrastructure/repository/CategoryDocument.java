@@ -0,0 +1,38 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import com.example.ec_2024b_back.product.CategoryId;
+import com.example.ec_2024b_back.product.domain.models.Category;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/** カテゴリのドキュメントクラス */
+@Document(collection = "categories")
+public record CategoryDocument(
+    @Id String id, String name, String description, @Indexed @Nullable String parentCategoryId) {
+
+  /** SpringData用のNo-argコンストラクタ */
+  public CategoryDocument() {
+    this("", "", "", null);
+  }
+
+  /** ドメインモデルからドキュメントに変換 */
+  public static CategoryDocument fromDomain(Category category) {
+    var parent = category.getParentCategoryId();
+    return new CategoryDocument(
+        category.getId().toString(),
+        category.getName(),
+        category.getDescription(),
+        parent != null ? parent.toString() : null);
+  }
+
+  /** ドキュメントからドメインモデルに変換 */
+  public Category toDomain() {
+    return Category.reconstruct(
+        CategoryId.of(id),
+        name,
+        description,
+        parentCategoryId != null ? CategoryId.of(parentCategoryId) : null);
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/** カテゴリドキュメントのリポジトリインターフェース */
+@Repository
+public interface CategoryDocumentRepository
+    extends ReactiveMongoRepository<CategoryDocument, String> {
+
+  /**
+   * 親カテゴリIDによりサブカテゴリを検索します
+   *
+   * @param parentCategoryId 親カテゴリID
+   * @return 検索結果のFlux
+   */
+  Flux<CategoryDocument> findByParentCategoryId(String parentCategoryId);
+
+  /**
+   * 親カテゴリを持たないカテゴリを検索します
+   *
+   * @return 検索結果のFlux
+   */
+  Flux<CategoryDocument> findByParentCategoryIdIsNull();
+}
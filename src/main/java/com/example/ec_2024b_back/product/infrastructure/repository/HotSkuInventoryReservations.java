@@ -0,0 +1,345 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.product.InventoryId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Inventory;
+import com.example.ec_2024b_back.product.domain.models.Inventory.StockReleased;
+import com.example.ec_2024b_back.product.domain.models.Inventory.StockReserved;
+import com.example.ec_2024b_back.product.domain.repositories.InventoryReservations;
+import com.example.ec_2024b_back.product.infrastructure.config.HotSkuProperties;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.jmolecules.event.types.DomainEvent;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 人気商品（ホットSKU）の在庫をノードのメモリ上で予約する {@link InventoryReservations} の実装
+ *
+ * <p>設定で指定した商品は、MongoDBの在庫から一定数量（チャンク）をノードに割り当て、その範囲で {@link StripedTokenPool}
+ * からロックを取らずに予約します。割り当ては利用可能数を条件とした {@code findAndModify} で行うため、割り当ての合計が在庫を超えることはありません。
+ *
+ * <p>割り当てが尽きた場合は次のチャンクを割り当て、それでも足りない場合と指定していない商品の場合は {@link MongoInventoryReservations} で直接予約します。
+ *
+ * <p>メモリ上の予約と解除は一定間隔でまとめてMongoDBに反映し、イベントもまとめてアウトボックスに書き込むため、反映までの間はMongoDBの予約数が実際より少なく見えます。
+ *
+ * <p>停止時には予約を反映し、使わなかった割り当てを在庫に戻します。ノードが異常終了した場合は、割り当てたままの数量がドキュメントに残るため手動で戻す必要があります。
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(
+    prefix = "product.hot-sku",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = false)
+public class HotSkuInventoryReservations implements InventoryReservations, SmartLifecycle {
+
+  private static final FindAndModifyOptions RETURN_NEW =
+      FindAndModifyOptions.options().returnNew(true);
+
+  private static final Duration STOP_TIMEOUT = Duration.ofSeconds(10);
+
+  private final MongoInventoryReservations delegate;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final Outbox outbox;
+  private final HotSkuProperties properties;
+  private final ImmutableMap<ProductId, HotSku> hotSkus;
+
+  private volatile @Nullable Disposable subscription;
+
+  public HotSkuInventoryReservations(
+      MongoInventoryReservations delegate,
+      ReactiveMongoTemplate mongoTemplate,
+      Outbox outbox,
+      HotSkuProperties properties) {
+    this.delegate = delegate;
+    this.mongoTemplate = mongoTemplate;
+    this.outbox = outbox;
+    this.properties = properties;
+    int stripes = Runtime.getRuntime().availableProcessors();
+    this.hotSkus =
+        properties.productIds().stream()
+            .map(ProductId::of)
+            .collect(ImmutableMap.toImmutableMap(id -> id, id -> new HotSku(id, stripes)));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>ホットSKUの場合、返す在庫はこのノードから見た値（利用可能数はノードに残っている割り当て、予約数は未反映の予約数）です。
+   */
+  @Override
+  public Mono<Inventory> reserve(ProductId productId, int quantity) {
+    var hotSku = hotSkus.get(productId);
+    if (hotSku == null) {
+      return delegate.reserve(productId, quantity);
+    }
+    return Mono.defer(
+        () -> {
+          requirePositive(quantity);
+          if (hotSku.tokens.tryAcquire(quantity)) {
+            return Mono.just(hotSku.reserved(quantity));
+          }
+          return hotSku
+              .refill(() -> allocate(hotSku, quantity))
+              .then(
+                  Mono.defer(
+                      () ->
+                          hotSku.tokens.tryAcquire(quantity)
+                              ? Mono.just(hotSku.reserved(quantity))
+                              : delegate.reserve(productId, quantity)));
+        });
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>ホットSKUの場合、解除した数量はこのノードの割り当てに戻し、MongoDBには次の反映時にまとめて反映します。
+   *
+   * <p>まだ割り当てを受けていないノードではMongoDBで直接解除します。
+   */
+  @Override
+  public Mono<Inventory> release(ProductId productId, int quantity) {
+    var hotSku = hotSkus.get(productId);
+    if (hotSku == null || hotSku.inventoryId == null) {
+      return delegate.release(productId, quantity);
+    }
+    return Mono.fromCallable(
+        () -> {
+          requirePositive(quantity);
+          return hotSku.released(quantity);
+        });
+  }
+
+  @Override
+  public void start() {
+    subscription =
+        Flux.interval(properties.flushInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> flush(), 1)
+            .subscribe();
+  }
+
+  @Override
+  public void stop() {
+    var current = subscription;
+    if (current != null) {
+      current.dispose();
+    }
+    subscription = null;
+    flush().then(returnAllocations()).block(STOP_TIMEOUT);
+  }
+
+  @Override
+  public boolean isRunning() {
+    var current = subscription;
+    return current != null && !current.isDisposed();
+  }
+
+  /**
+   * メモリ上の予約と解除をMongoDBに反映し、イベントをアウトボックスに書き込みます
+   *
+   * <p>反映に失敗した分は次回に持ち越します。
+   */
+  Mono<Void> flush() {
+    return Flux.fromIterable(hotSkus.values()).concatMap(this::flush).then();
+  }
+
+  private Mono<Void> flush(HotSku hotSku) {
+    long reserved = hotSku.pendingReserved.sumThenReset();
+    long released = hotSku.pendingReleased.sumThenReset();
+    if (reserved == 0 && released == 0) {
+      return Mono.empty();
+    }
+    long net = reserved - released;
+    var byProductId = where("productId").is(hotSku.productId.toString());
+    // 解除が上回る場合は、予約数が負にならないことを条件にする
+    var guard = net < 0 ? byProductId.and("reservedQuantity").gte(-net) : byProductId;
+    var update =
+        new Update()
+            .inc("allocatedQuantity", -net)
+            .inc("reservedQuantity", net)
+            .inc("version", 1);
+    var flushed =
+        mongoTemplate
+            .findAndModify(query(guard), update, RETURN_NEW, InventoryDocument.class)
+            .switchIfEmpty(Mono.error(() -> new IllegalStateException("反映できる在庫が見つかりません")))
+            .map(InventoryDocument::toDomain);
+    return outbox
+        .saveWithEvents(
+            flushed,
+            inventory -> inventory.getId().toString(),
+            inventory -> events(inventory, (int) reserved, (int) released))
+        .then()
+        .onErrorResume(
+            e -> {
+              log.warn("商品 {} のメモリ上の予約の反映に失敗しました", hotSku.productId, e);
+              hotSku.pendingReserved.add(reserved);
+              hotSku.pendingReleased.add(released);
+              return Mono.empty();
+            });
+  }
+
+  private static ImmutableList<DomainEvent> events(
+      Inventory inventory, int reserved, int released) {
+    var events = ImmutableList.<DomainEvent>builder();
+    if (reserved > 0) {
+      events.add(
+          new StockReserved(
+              inventory.getId(),
+              inventory.getProductId(),
+              reserved,
+              inventory.getAvailableQuantity(),
+              inventory.getReservedQuantity()));
+    }
+    if (released > 0) {
+      events.add(
+          new StockReleased(
+              inventory.getId(),
+              inventory.getProductId(),
+              released,
+              inventory.getAvailableQuantity(),
+              inventory.getReservedQuantity()));
+    }
+    return events.build();
+  }
+
+  /** MongoDBの在庫から次のチャンクをノードに割り当てます。他のノードと競合した場合は割り当てません */
+  private Mono<Void> allocate(HotSku hotSku, int quantity) {
+    var byProductId = where("productId").is(hotSku.productId.toString());
+    return mongoTemplate
+        .findOne(query(byProductId), InventoryDocument.class)
+        .flatMap(
+            current -> {
+              int take =
+                  Math.min(current.availableQuantity(), Math.max(properties.chunkSize(), quantity));
+              if (take <= 0) {
+                return Mono.empty();
+              }
+              var guard =
+                  where("productId")
+                      .is(hotSku.productId.toString())
+                      .and("availableQuantity")
+                      .gte(take);
+              var update =
+                  new Update()
+                      .inc("availableQuantity", -take)
+                      .inc("allocatedQuantity", take)
+                      .inc("version", 1);
+              return mongoTemplate
+                  .findAndModify(query(guard), update, RETURN_NEW, InventoryDocument.class)
+                  .doOnNext(
+                      allocated -> {
+                        hotSku.inventoryId = InventoryId.of(allocated.id());
+                        hotSku.tokens.add(take);
+                      });
+            })
+        .then();
+  }
+
+  /** ノードに残っている割り当てをMongoDBの在庫に戻します */
+  private Mono<Void> returnAllocations() {
+    return Flux.fromIterable(hotSkus.values())
+        .concatMap(
+            hotSku -> {
+              int unused = hotSku.tokens.drain();
+              if (unused == 0) {
+                return Mono.empty();
+              }
+              var update =
+                  new Update()
+                      .inc("availableQuantity", unused)
+                      .inc("allocatedQuantity", -unused)
+                      .inc("version", 1);
+              return mongoTemplate
+                  .updateFirst(
+                      query(where("productId").is(hotSku.productId.toString())),
+                      update,
+                      InventoryDocument.class)
+                  .then()
+                  .onErrorResume(
+                      e -> {
+                        log.warn("商品 {} の割り当て {} 個を在庫に戻せませんでした", hotSku.productId, unused, e);
+                        return Mono.empty();
+                      });
+            })
+        .then();
+  }
+
+  private static void requirePositive(int quantity) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("数量は正の値である必要があります");
+    }
+  }
+
+  /** ホットSKUごとのノード上の状態 */
+  private static final class HotSku {
+
+    private final ProductId productId;
+    private final StripedTokenPool tokens;
+    private final LongAdder pendingReserved = new LongAdder();
+    private final LongAdder pendingReleased = new LongAdder();
+    private final AtomicReference<@Nullable Mono<Void>> refilling = new AtomicReference<>();
+    private volatile @Nullable InventoryId inventoryId;
+
+    HotSku(ProductId productId, int stripes) {
+      this.productId = productId;
+      this.tokens = new StripedTokenPool(stripes);
+    }
+
+    /** 割り当てを補充します。補充中の場合は新たに補充せず、その完了を待ちます */
+    Mono<Void> refill(Supplier<Mono<Void>> allocation) {
+      while (true) {
+        var inFlight = refilling.get();
+        if (inFlight != null) {
+          return inFlight;
+        }
+        var next = Mono.defer(allocation).doFinally(signal -> refilling.set(null)).cache();
+        if (refilling.compareAndSet(null, next)) {
+          return next;
+        }
+      }
+    }
+
+    Inventory reserved(int quantity) {
+      pendingReserved.add(quantity);
+      return view();
+    }
+
+    Inventory released(int quantity) {
+      tokens.add(quantity);
+      pendingReleased.add(quantity);
+      return view();
+    }
+
+    /** 割り当てを受けたノードから見た在庫 */
+    private Inventory view() {
+      return Inventory.reconstruct(
+          Objects.requireNonNull(inventoryId),
+          productId,
+          tokens.available(),
+          (int) (pendingReserved.sum() - pendingReleased.sum()),
+          null);
+    }
+  }
+}
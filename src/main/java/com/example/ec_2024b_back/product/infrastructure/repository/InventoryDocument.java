@@ -0,0 +1,54 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import com.example.ec_2024b_back.product.InventoryId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Inventory;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * 在庫のドキュメントクラス. 在庫は商品ごとに1つのため、商品IDに一意インデックスを持ちます。
+ *
+ * <p>{@code allocatedQuantity} は {@link HotSkuInventoryReservations} がノードに割り当て、まだ予約に使われていない数量です。
+ * ドメインモデルでは販売可能な数量として利用可能数に含めます。
+ *
+ * <p>{@code version} は楽観的排他制御のためのバージョンです。{@code $inc} による条件付き更新も、読み込んでから保存する更新と競合を検出できるよう必ず1つ増やします。
+ */
+@Document(collection = "inventories")
+public record InventoryDocument(
+    @Id String id,
+    @Indexed(unique = true) String productId,
+    int availableQuantity,
+    int reservedQuantity,
+    int allocatedQuantity,
+    @Version @Nullable Long version) {
+
+  /** SpringData用のNo-argコンストラクタ */
+  public InventoryDocument() {
+    this("", "", 0, 0, 0, null);
+  }
+
+  /** ドメインモデルから新規作成するドキュメントに変換（まだ割り当てはありません） */
+  public static InventoryDocument fromDomain(Inventory inventory) {
+    return new InventoryDocument(
+        inventory.getId().toString(),
+        inventory.getProductId().toString(),
+        inventory.getAvailableQuantity(),
+        inventory.getReservedQuantity(),
+        0,
+        inventory.getVersion());
+  }
+
+  /** ドキュメントからドメインモデルに変換 */
+  public Inventory toDomain() {
+    return Inventory.reconstruct(
+        InventoryId.of(id),
+        ProductId.of(productId),
+        availableQuantity + allocatedQuantity,
+        reservedQuantity,
+        version);
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/** 在庫ドキュメントのリポジトリインターフェース */
+@Repository
+public interface InventoryDocumentRepository
+    extends ReactiveMongoRepository<InventoryDocument, String> {
+
+  /**
+   * 商品IDにより在庫を検索します
+   *
+   * @param productId 商品ID
+   * @return 検索結果
+   */
+  Mono<InventoryDocument> findByProductId(String productId);
+}
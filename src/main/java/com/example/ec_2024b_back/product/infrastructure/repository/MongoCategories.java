@@ -0,0 +1,65 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import com.example.ec_2024b_back.product.CategoryId;
+import com.example.ec_2024b_back.product.domain.models.Category;
+import com.example.ec_2024b_back.product.domain.repositories.Categories;
+import com.example.ec_2024b_back.product.infrastructure.category.CategoryTree;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * カテゴリリポジトリのMongoDBによる実装
+ *
+ * <p>検索は {@link CategoryTree} から返し、データベースは読みません（IDによる検索のみ、ツリーにまだ反映されていないカテゴリをデータベースから読みます）。
+ * 起動直後や読み込みに失敗した場合など、ツリーがすべてのカテゴリを読み込むまでの間はデータベースから検索します。
+ * 保存したカテゴリはこのノードのツリーにすぐに反映し、イベントはアウトボックスに書き込みます。
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoCategories implements Categories {
+
+  private final CategoryDocumentRepository repository;
+  private final CategoryTree tree;
+  private final Outbox outbox;
+
+  @Override
+  public Mono<Category> findById(CategoryId id) {
+    return Mono.defer(() -> Mono.justOrEmpty(tree.get(id)))
+        .switchIfEmpty(repository.findById(id.toString()).map(CategoryDocument::toDomain));
+  }
+
+  @Override
+  public Flux<Category> findByParentId(CategoryId parentId) {
+    return Flux.defer(
+        () ->
+            tree.isLoaded()
+                ? Flux.fromIterable(tree.children(parentId))
+                : inDisplayOrder(repository.findByParentCategoryId(parentId.toString())));
+  }
+
+  @Override
+  public Flux<Category> findRootCategories() {
+    return Flux.defer(
+        () ->
+            tree.isLoaded()
+                ? Flux.fromIterable(tree.roots())
+                : inDisplayOrder(repository.findByParentCategoryIdIsNull()));
+  }
+
+  @Override
+  public Mono<Category> save(Category category) {
+    return outbox
+        .saveWithEvents(
+            repository.save(CategoryDocument.fromDomain(category)).map(CategoryDocument::toDomain),
+            category.getId().toString(),
+            category.getDomainEvents())
+        .doOnNext(tree::put);
+  }
+
+  private static Flux<Category> inDisplayOrder(Flux<CategoryDocument> documents) {
+    return documents.map(CategoryDocument::toDomain).sort(CategoryTree.DISPLAY_ORDER);
+  }
+}
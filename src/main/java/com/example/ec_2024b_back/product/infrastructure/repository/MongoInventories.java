@@ -0,0 +1,92 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.product.InventoryId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Inventory;
+import com.example.ec_2024b_back.product.domain.repositories.Inventories;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 在庫リポジトリのMongoDBによる実装
+ *
+ * <p>保存はバージョンによる楽観的排他制御を行い、読み込んでから {@link MongoInventoryReservations} などによる条件付き更新が行われていた場合は {@link
+ * OptimisticLockingFailureException} を通知します。集約に蓄積されたイベントは {@link Outbox} に書き込みます。
+ *
+ * <p>既存の在庫はドキュメント全体を置き換えず、利用可能数と予約数のみを更新します。{@link HotSkuInventoryReservations}
+ * がノードに割り当てた数量はドメインモデルでは利用可能数に含まれるため、保存時に差し引き、割り当て済みの数量はそのまま残します。
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoInventories implements Inventories {
+
+  private static final FindAndModifyOptions RETURN_NEW =
+      FindAndModifyOptions.options().returnNew(true);
+
+  private final InventoryDocumentRepository repository;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final Outbox outbox;
+
+  @Override
+  public Mono<Inventory> findById(InventoryId id) {
+    return repository.findById(id.toString()).map(InventoryDocument::toDomain);
+  }
+
+  @Override
+  public Mono<Inventory> findByProductId(ProductId productId) {
+    return repository.findByProductId(productId.toString()).map(InventoryDocument::toDomain);
+  }
+
+  @Override
+  public Mono<Inventory> save(Inventory inventory) {
+    return outbox.saveWithEvents(
+        write(inventory), inventory.getId().toString(), inventory.getDomainEvents());
+  }
+
+  private Mono<Inventory> write(Inventory inventory) {
+    var version = inventory.getVersion();
+    if (version == null) {
+      return repository
+          .save(InventoryDocument.fromDomain(inventory))
+          .map(InventoryDocument::toDomain);
+    }
+    long expectedVersion = version;
+    var byVersion = where("id").is(inventory.getId().toString()).and("version").is(expectedVersion);
+    // 割り当て済みの数量はバージョンが一致する間は変わらないため、読み込んだ値を差し引いて更新する
+    return mongoTemplate
+        .findOne(query(byVersion), InventoryDocument.class)
+        .flatMap(
+            current -> {
+              int available = inventory.getAvailableQuantity() - current.allocatedQuantity();
+              if (available < 0) {
+                return Mono.error(
+                    new IllegalArgumentException(
+                        "在庫数はノードに割り当て済みの数量（"
+                            + current.allocatedQuantity()
+                            + "）未満にできません"));
+              }
+              var update =
+                  new Update()
+                      .set("availableQuantity", available)
+                      .set("reservedQuantity", inventory.getReservedQuantity())
+                      .inc("version", 1);
+              return mongoTemplate.findAndModify(
+                  query(byVersion), update, RETURN_NEW, InventoryDocument.class);
+            })
+        .switchIfEmpty(
+            Mono.error(
+                () ->
+                    new OptimisticLockingFailureException(
+                        "在庫 " + inventory.getId() + " は他の更新と競合しました")))
+        .map(InventoryDocument::toDomain);
+  }
+}
@@ -0,0 +1,113 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Inventory;
+import com.example.ec_2024b_back.product.domain.models.Inventory.InsufficientStockException;
+import com.example.ec_2024b_back.product.domain.models.Inventory.StockReleased;
+import com.example.ec_2024b_back.product.domain.models.Inventory.StockReserved;
+import com.example.ec_2024b_back.product.domain.repositories.InventoryReservations;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 在庫予約のMongoDBによる実装
+ *
+ * <p>予約は「利用可能数が予約数以上」を条件とした1回の {@code findAndModify} で行います。条件の判定と {@code $inc}
+ * による更新がドキュメント単位で不可分に行われるため、ロックを取らずに同時の予約が在庫を超えないことを保証します。
+ *
+ * <p>予約・解除のイベントは更新後のドキュメントから求めて {@link Outbox} に書き込み、トランザクションが有効な場合は在庫の更新と同じトランザクションでコミットします。
+ *
+ * <p>読み込んでから保存する {@link MongoInventories} と競合を検出できるよう、更新のたびにバージョンを1つ増やします。
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoInventoryReservations implements InventoryReservations {
+
+  private static final FindAndModifyOptions RETURN_NEW =
+      FindAndModifyOptions.options().returnNew(true);
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final Outbox outbox;
+
+  @Override
+  public Mono<Inventory> reserve(ProductId productId, int quantity) {
+    var reserved =
+        transfer(productId, "availableQuantity", quantity, -quantity)
+            .switchIfEmpty(
+                Mono.error(
+                    () ->
+                        new InsufficientStockException(
+                            "予約に必要な在庫が不足しています。商品ID: " + productId + ", 要求: " + quantity)))
+            .map(InventoryDocument::toDomain);
+    return outbox.saveWithEvents(
+        reserved,
+        inventory -> inventory.getId().toString(),
+        inventory ->
+            List.of(
+                new StockReserved(
+                    inventory.getId(),
+                    productId,
+                    quantity,
+                    inventory.getAvailableQuantity(),
+                    inventory.getReservedQuantity())));
+  }
+
+  @Override
+  public Mono<Inventory> release(ProductId productId, int quantity) {
+    var released =
+        transfer(productId, "reservedQuantity", quantity, quantity)
+            .switchIfEmpty(
+                Mono.error(
+                    () ->
+                        new IllegalArgumentException(
+                            "解除する数量が予約数量を超えています。商品ID: " + productId + ", 要求: " + quantity)))
+            .map(InventoryDocument::toDomain);
+    return outbox.saveWithEvents(
+        released,
+        inventory -> inventory.getId().toString(),
+        inventory ->
+            List.of(
+                new StockReleased(
+                    inventory.getId(),
+                    productId,
+                    quantity,
+                    inventory.getAvailableQuantity(),
+                    inventory.getReservedQuantity())));
+  }
+
+  /**
+   * {@code guardField} の値が {@code quantity} 以上の場合のみ、利用可能数に {@code availableDelta} を加え、予約数から同じ数を引きます
+   *
+   * @return 更新後のドキュメント。条件を満たさない場合は empty
+   */
+  private Mono<InventoryDocument> transfer(
+      ProductId productId, String guardField, int quantity, int availableDelta) {
+    return Mono.defer(
+        () -> {
+          requirePositive(quantity);
+          var guard = where("productId").is(productId.toString()).and(guardField).gte(quantity);
+          var update =
+              new Update()
+                  .inc("availableQuantity", availableDelta)
+                  .inc("reservedQuantity", -availableDelta)
+                  .inc("version", 1);
+          return mongoTemplate.findAndModify(
+              query(guard), update, RETURN_NEW, InventoryDocument.class);
+        });
+  }
+
+  private static void requirePositive(int quantity) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException("数量は正の値である必要があります");
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.graphLookup;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.product.CategoryId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Product;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductStatus;
+import com.example.ec_2024b_back.product.domain.repositories.Products;
+import com.example.ec_2024b_back.product.infrastructure.category.CategoryTree;
+import com.example.ec_2024b_back.product.infrastructure.search.ProductSearchIndex;
+import com.example.ec_2024b_back.share.domain.models.CursorPage;
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import com.example.ec_2024b_back.share.infrastructure.pagination.KeysetPagination;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 商品リポジトリのMongoDBによる実装
+ *
+ * <p>複数件を返す検索では、ドメインモデルの復元に必要なフィールドのみを取得します（{@code _class} や検索用に付加したフィールドは転送しません）。
+ *
+ * <p>カテゴリ別の一覧は {@code _id} をキーとするキーセットページネーションで、{@code categories_id} インデックスを順に読みます。 子孫カテゴリを含む一覧は
+ * {@link CategoryTree} で求めたカテゴリIDを1つの {@code $in} で検索します。カテゴリツリーを読み込むまでは、子孫カテゴリを {@code
+ * $graphLookup} で親カテゴリIDをたどってデータベースから求めます。
+ *
+ * <p>キーワード検索は {@link ProductSearchIndex} で関連度の高い順に商品IDを求め、その順に読み込みます。集約に蓄積されたイベントは {@link Outbox}
+ * に書き込み、検索インデックスはそのイベントから更新されます。
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoProducts implements Products {
+
+  /** ドメインモデルの復元に必要なフィールド */
+  private static final String[] DOMAIN_FIELDS = {
+    "name", "description", "basePrice", "sku", "categories", "status", "images"
+  };
+
+  private final ProductDocumentRepository repository;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final ProductSearchIndex searchIndex;
+  private final CategoryTree categoryTree;
+  private final Outbox outbox;
+
+  @Override
+  public Mono<Product> findById(ProductId id) {
+    return repository.findById(id.toString()).map(ProductDocument::toDomain);
+  }
+
+  @Override
+  public Flux<Product> findAllById(Collection<ProductId> ids) {
+    if (ids.isEmpty()) {
+      return Flux.empty();
+    }
+    return find(query(where("id").in(ids.stream().map(ProductId::toString).toList())));
+  }
+
+  @Override
+  public Mono<Product> findBySku(String sku) {
+    return repository.findBySku(sku).map(ProductDocument::toDomain);
+  }
+
+  @Override
+  public Flux<Product> findByCategory(CategoryId categoryId) {
+    return find(query(where("categories").is(categoryId.toString())));
+  }
+
+  @Override
+  public Mono<CursorPage<Product>> findByCategory(CategoryId categoryId, CursorPageRequest page) {
+    return findPage(() -> where("categories").is(categoryId.toString()), page);
+  }
+
+  @Override
+  public Mono<CursorPage<Product>> findByCategorySubtree(
+      CategoryId categoryId, CursorPageRequest page) {
+    return subtreeIds(categoryId).flatMap(ids -> findPage(() -> where("categories").in(ids), page));
+  }
+
+  /** カテゴリ自身と子孫カテゴリのIDを求めます */
+  private Mono<List<String>> subtreeIds(CategoryId categoryId) {
+    if (categoryTree.isLoaded()) {
+      return Mono.just(
+          categoryTree.subtree(categoryId).stream().map(CategoryId::toString).toList());
+    }
+    // カテゴリツリーを読み込むまでは一部のカテゴリしかないため、データベースで親カテゴリIDをたどる
+    var descendants =
+        newAggregation(
+            match(where("_id").is(categoryId.toString())),
+            graphLookup(mongoTemplate.getCollectionName(CategoryDocument.class))
+                .startWith("$_id")
+                .connectFrom("_id")
+                .connectTo("parentCategoryId")
+                .as("descendants"));
+    return mongoTemplate
+        .aggregate(descendants, CategoryDocument.class, Document.class)
+        .next()
+        .map(
+            found ->
+                Stream.concat(
+                        Stream.of(categoryId.toString()),
+                        found.getList("descendants", Document.class).stream()
+                            .map(descendant -> descendant.getString("_id")))
+                    .toList())
+        .defaultIfEmpty(List.of(categoryId.toString()));
+  }
+
+  /** 条件に合う商品を {@code _id} をキーとするキーセットページネーションで1ページ分検索します */
+  private Mono<CursorPage<Product>> findPage(Supplier<Criteria> filter, CursorPageRequest page) {
+    return Mono.defer(
+        () -> {
+          var criteria = filter.get();
+          var cursor = page.cursor();
+          if (cursor != null) {
+            criteria.and("id").gt(KeysetPagination.decode(cursor, 1).getFirst());
+          }
+          return find(query(criteria).with(Sort.by("id")).limit(page.limit() + 1))
+              .collectList()
+              .map(
+                  products ->
+                      KeysetPagination.toPage(
+                          products,
+                          page.limit(),
+                          last -> KeysetPagination.encode(last.getId().toString())));
+        });
+  }
+
+  @Override
+  public Flux<Product> findByCategoryAndStatus(CategoryId categoryId, ProductStatus status) {
+    // categories_status インデックスの両方のキーで絞り込む
+    return find(
+        query(where("categories").is(categoryId.toString()).and("status").is(status.name())));
+  }
+
+  @Override
+  public Flux<Product> search(String keyword) {
+    return search(keyword, 0, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public Flux<Product> search(String keyword, int offset, int limit) {
+    return Mono.fromSupplier(() -> searchIndex.search(keyword, offset, limit).productIds())
+        .flatMapMany(
+            ids ->
+                findAllById(ids)
+                    .collectMap(Product::getId)
+                    // 検索インデックスの順位の順に並べ直す（インデックスの更新前に削除された商品は除く）
+                    .flatMapIterable(
+                        found -> ids.stream().map(found::get).filter(Objects::nonNull).toList()));
+  }
+
+  @Override
+  public Mono<Product> save(Product product) {
+    return outbox.saveWithEvents(
+        repository.save(ProductDocument.fromDomain(product)).map(ProductDocument::toDomain),
+        product.getId().toString(),
+        product.getDomainEvents());
+  }
+
+  private Flux<Product> find(Query query) {
+    query.fields().include(DOMAIN_FIELDS);
+    return mongoTemplate.find(query, ProductDocument.class).map(ProductDocument::toDomain);
+  }
+}
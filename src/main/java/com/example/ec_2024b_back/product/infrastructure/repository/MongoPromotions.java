@@ -0,0 +1,83 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.PromotionId;
+import com.example.ec_2024b_back.product.domain.models.Promotion;
+import com.example.ec_2024b_back.product.domain.repositories.Promotions;
+import com.example.ec_2024b_back.product.infrastructure.promotion.ActivePromotionIndex;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * プロモーションリポジトリのMongoDBによる実装
+ *
+ * <p>商品と日時から適用できるプロモーションは {@link ActivePromotionIndex} から返し、データベースは読みません。
+ * 保存したプロモーションはこのノードのインデックスにすぐに反映し、イベントはアウトボックスに書き込みます。
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoPromotions implements Promotions {
+
+  private final PromotionDocumentRepository repository;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final ActivePromotionIndex index;
+  private final Outbox outbox;
+
+  @Override
+  public Mono<Promotion> findById(PromotionId id) {
+    return repository.findById(id.toString()).map(PromotionDocument::toDomain);
+  }
+
+  @Override
+  public Flux<Promotion> findActive() {
+    return find(where("active").is(true));
+  }
+
+  @Override
+  public Flux<Promotion> findActiveByProductId(ProductId productId) {
+    // 適用対象商品が空のプロモーションはすべての商品に適用される
+    return find(
+        where("active")
+            .is(true)
+            .orOperator(
+                where("applicableProducts").is(productId.toString()),
+                where("applicableProducts").size(0)));
+  }
+
+  @Override
+  public Flux<Promotion> findByDateTime(LocalDateTime dateTime) {
+    return find(where("startDateTime").lte(dateTime).and("endDateTime").gte(dateTime));
+  }
+
+  @Override
+  public Flux<Promotion> findApplicable(ProductId productId, LocalDateTime dateTime) {
+    return Flux.defer(() -> Flux.fromIterable(index.applicableTo(productId, dateTime)));
+  }
+
+  @Override
+  public Mono<Promotion> save(Promotion promotion) {
+    return outbox
+        .saveWithEvents(
+            repository
+                .save(PromotionDocument.fromDomain(promotion))
+                .map(PromotionDocument::toDomain),
+            promotion.getId().toString(),
+            promotion.getDomainEvents())
+        .doOnNext(index::put);
+  }
+
+  private Flux<Promotion> find(Criteria criteria) {
+    return mongoTemplate
+        .find(query(criteria), PromotionDocument.class)
+        .map(PromotionDocument::toDomain);
+  }
+}
@@ -0,0 +1,91 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import com.example.ec_2024b_back.product.CategoryId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Product;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductImage;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductStatus;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * 商品のドキュメントクラス
+ *
+ * <p>カテゴリ別の商品一覧はカテゴリとステータスで絞り込むため、{@code categories}（マルチキー）と {@code status} の複合インデックスを持ちます。
+ * ページ単位の一覧は {@code _id} の順に読むため、{@code categories} と {@code _id} の複合インデックスも持ちます。
+ */
+@Document(collection = "products")
+@CompoundIndex(name = "categories_status", def = "{'categories': 1, 'status': 1}")
+@CompoundIndex(name = "categories_id", def = "{'categories': 1, '_id': 1}")
+public record ProductDocument(
+    @Id String id,
+    String name,
+    String description,
+    String basePrice,
+    @Indexed(unique = true) String sku,
+    ImmutableList<String> categories,
+    String status,
+    ImmutableList<ProductImageDocument> images) {
+
+  /** SpringData用のNo-argコンストラクタ */
+  public ProductDocument() {
+    this("", "", "", "0", "", ImmutableList.of(), "", ImmutableList.of());
+  }
+
+  /** ドメインモデルからドキュメントに変換 */
+  public static ProductDocument fromDomain(Product product) {
+    return new ProductDocument(
+        product.getId().toString(),
+        product.getName(),
+        product.getDescription(),
+        product.getBasePrice().toString(),
+        product.getSku(),
+        product.getCategories().stream()
+            .map(CategoryId::toString)
+            .collect(ImmutableList.toImmutableList()),
+        product.getStatus().name(),
+        product.getImages().stream()
+            .map(ProductImageDocument::fromDomain)
+            .collect(ImmutableList.toImmutableList()));
+  }
+
+  /** ドキュメントからドメインモデルに変換 */
+  public Product toDomain() {
+    return Product.reconstruct(
+        new ProductId(UUID.fromString(id)),
+        name,
+        description,
+        new BigDecimal(basePrice),
+        sku,
+        categories.stream().map(CategoryId::of).collect(ImmutableSet.toImmutableSet()),
+        ProductStatus.valueOf(status),
+        images.stream()
+            .map(ProductImageDocument::toDomain)
+            .collect(ImmutableList.toImmutableList()));
+  }
+
+  /** 商品画像のドキュメントクラス */
+  public record ProductImageDocument(String url, String altText, boolean primary) {
+
+    /** SpringData用のNo-argコンストラクタ */
+    public ProductImageDocument() {
+      this("", "", false);
+    }
+
+    /** ドメインモデルからドキュメントに変換 */
+    public static ProductImageDocument fromDomain(ProductImage image) {
+      return new ProductImageDocument(image.url(), image.altText(), image.isPrimary());
+    }
+
+    /** ドキュメントからドメインモデルに変換 */
+    public ProductImage toDomain() {
+      return new ProductImage(url, altText, primary);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/** 商品ドキュメントのリポジトリインターフェース */
+@Repository
+public interface ProductDocumentRepository
+    extends ReactiveMongoRepository<ProductDocument, String> {
+
+  /**
+   * SKUにより商品を検索します
+   *
+   * @param sku SKU
+   * @return 検索結果
+   */
+  Mono<ProductDocument> findBySku(String sku);
+}
@@ -0,0 +1,71 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.PromotionId;
+import com.example.ec_2024b_back.product.domain.models.Promotion;
+import com.example.ec_2024b_back.product.domain.models.Promotion.DiscountType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * プロモーションのドキュメントクラス
+ *
+ * <p>日時による検索のために期間（開始・終了日時）の複合インデックスを、商品に適用できるプロモーションの検索のために有効フラグと適用対象商品（マルチキー）の複合インデックスを持ちます。
+ */
+@Document(collection = "promotions")
+@CompoundIndexes({
+  @CompoundIndex(name = "period", def = "{'startDateTime': 1, 'endDateTime': 1}"),
+  @CompoundIndex(name = "active_products", def = "{'active': 1, 'applicableProducts': 1}")
+})
+public record PromotionDocument(
+    @Id String id,
+    String name,
+    String description,
+    String discountType,
+    String discountValue,
+    LocalDateTime startDateTime,
+    LocalDateTime endDateTime,
+    boolean active,
+    ImmutableList<String> applicableProducts) {
+
+  /** SpringData用のNo-argコンストラクタ */
+  public PromotionDocument() {
+    this("", "", "", "", "0", LocalDateTime.now(), LocalDateTime.now(), false, ImmutableList.of());
+  }
+
+  /** ドメインモデルからドキュメントに変換 */
+  public static PromotionDocument fromDomain(Promotion promotion) {
+    return new PromotionDocument(
+        promotion.getId().toString(),
+        promotion.getName(),
+        promotion.getDescription(),
+        promotion.getDiscountType().name(),
+        promotion.getDiscountValue().toString(),
+        promotion.getStartDateTime(),
+        promotion.getEndDateTime(),
+        promotion.isActive(),
+        promotion.getApplicableProducts().stream()
+            .map(ProductId::toString)
+            .collect(ImmutableList.toImmutableList()));
+  }
+
+  /** ドキュメントからドメインモデルに変換 */
+  public Promotion toDomain() {
+    return Promotion.reconstruct(
+        PromotionId.of(id),
+        name,
+        description,
+        DiscountType.valueOf(discountType),
+        new BigDecimal(discountValue),
+        startDateTime,
+        endDateTime,
+        active,
+        applicableProducts.stream().map(ProductId::of).collect(ImmutableSet.toImmutableSet()));
+  }
+}
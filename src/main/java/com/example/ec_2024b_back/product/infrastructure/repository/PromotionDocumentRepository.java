@@ -0,0 +1,9 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/** プロモーションドキュメントのリポジトリインターフェース */
+@Repository
+public interface PromotionDocumentRepository
+    extends ReactiveMongoRepository<PromotionDocument, String> {}
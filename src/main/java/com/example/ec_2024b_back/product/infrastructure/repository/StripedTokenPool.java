@@ -0,0 +1,129 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import com.google.common.math.IntMath;
+import com.google.errorprone.annotations.Var;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * ノードに割り当てられた在庫の数量（トークン）を保持するストライプ化されたカウンター
+ *
+ * <p>トークンを複数のストライプに分けて保持し、スレッドごとに異なるストライプから {@code compareAndSet} で取り出すため、
+ * 同じ商品の予約が集中してもロックを取らず、1つのカウンターでの競合も起きにくくなります。 ストライプはキャッシュラインを共有しないよう間隔を空けて配置します。
+ *
+ * <p>トークンの合計が要求以上でも1つのストライプに足りない場合は、複数のストライプから集めます。集めきれなかった分は戻すため、取り出しが部分的に成功することはありません。
+ */
+final class StripedTokenPool {
+
+  /** ストライプの間隔（{@code int} 16個 = 64バイト） */
+  private static final int PADDING = 16;
+
+  private final int stripes;
+  private final AtomicIntegerArray tokens;
+
+  /**
+   * コンストラクター
+   *
+   * @param stripes ストライプの数（2のべき乗に切り上げ）
+   */
+  StripedTokenPool(int stripes) {
+    this.stripes = IntMath.ceilingPowerOfTwo(stripes);
+    this.tokens = new AtomicIntegerArray(this.stripes * PADDING);
+  }
+
+  /**
+   * トークンを取り出します
+   *
+   * @param quantity 取り出す数量
+   * @return 取り出せた場合はtrue。足りない場合は何も取り出さずにfalse
+   */
+  boolean tryAcquire(int quantity) {
+    int start = homeStripe();
+    for (int i = 0; i < stripes; i++) {
+      int slot = slot(start + i);
+      while (true) {
+        int current = tokens.get(slot);
+        if (current < quantity) {
+          break;
+        }
+        if (tokens.compareAndSet(slot, current, current - quantity)) {
+          return true;
+        }
+      }
+    }
+
+    @Var int gathered = 0;
+    for (int i = 0; i < stripes && gathered < quantity; i++) {
+      gathered += takeUpTo(slot(start + i), quantity - gathered);
+    }
+    if (gathered == quantity) {
+      return true;
+    }
+    add(gathered);
+    return false;
+  }
+
+  /**
+   * トークンを追加します。追加した数量はストライプに均等に分けます
+   *
+   * @param quantity 追加する数量
+   */
+  void add(int quantity) {
+    if (quantity <= 0) {
+      return;
+    }
+    int start = homeStripe();
+    int share = quantity / stripes;
+    int remainder = quantity % stripes;
+    for (int i = 0; i < stripes; i++) {
+      int amount = share + (i < remainder ? 1 : 0);
+      if (amount > 0) {
+        tokens.getAndAdd(slot(start + i), amount);
+      }
+    }
+  }
+
+  /**
+   * すべてのトークンを取り出します
+   *
+   * @return 取り出した数量
+   */
+  int drain() {
+    @Var int drained = 0;
+    for (int i = 0; i < stripes; i++) {
+      drained += tokens.getAndSet(slot(i), 0);
+    }
+    return drained;
+  }
+
+  /**
+   * 残っているトークンの数量を返します
+   *
+   * @return 残っている数量（同時に取り出されている場合は概算）
+   */
+  int available() {
+    @Var int sum = 0;
+    for (int i = 0; i < stripes; i++) {
+      sum += tokens.get(slot(i));
+    }
+    return sum;
+  }
+
+  /** 可能な限り {@code quantity} までのトークンを1つのストライプから取り出します */
+  private int takeUpTo(int slot, int quantity) {
+    while (true) {
+      int current = tokens.get(slot);
+      int taken = Math.min(current, quantity);
+      if (taken <= 0 || tokens.compareAndSet(slot, current, current - taken)) {
+        return Math.max(taken, 0);
+      }
+    }
+  }
+
+  private int homeStripe() {
+    return (int) Thread.currentThread().threadId();
+  }
+
+  private int slot(int stripe) {
+    return (stripe & (stripes - 1)) * PADDING;
+  }
+}
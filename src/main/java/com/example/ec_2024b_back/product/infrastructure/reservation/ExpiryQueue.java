@@ -0,0 +1,81 @@
+package com.example.ec_2024b_back.product.infrastructure.reservation;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.Var;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * ホールドの期限を期限の早い順に保持するヒープ
+ *
+ * <p>期限切れのホールドの取り出しは先頭から期限切れの分だけを見るため、コストは登録されているホールドの総数ではなく期限切れの件数に比例します。
+ * 取り消したホールドはヒープからすぐには取り除かず、取り出す際に読み飛ばします。読み飛ばす予定のエントリが増えた場合はヒープを作り直します。
+ */
+final class ExpiryQueue {
+
+  /** ヒープを作り直す、読み飛ばす予定のエントリ数の下限 */
+  private static final int COMPACTION_THRESHOLD = 1024;
+
+  private final PriorityQueue<Entry> heap =
+      new PriorityQueue<>(Comparator.comparing(Entry::expiresAt));
+  private final Map<String, Instant> deadlines = new HashMap<>();
+
+  /**
+   * ホールドの期限を登録します。登録済みの場合は期限を置き換えます
+   *
+   * @param id ホールドのID
+   * @param expiresAt 期限
+   */
+  synchronized void schedule(String id, Instant expiresAt) {
+    deadlines.put(id, expiresAt);
+    heap.add(new Entry(id, expiresAt));
+  }
+
+  /**
+   * ホールドの期限の登録を取り消します
+   *
+   * @param id ホールドのID
+   */
+  synchronized void cancel(String id) {
+    if (deadlines.remove(id) != null && heap.size() > 2 * deadlines.size() + COMPACTION_THRESHOLD) {
+      heap.clear();
+      deadlines.forEach((key, expiresAt) -> heap.add(new Entry(key, expiresAt)));
+    }
+  }
+
+  /**
+   * 期限切れのホールドを期限の早い順に取り出します
+   *
+   * @param now 現在日時
+   * @param limit 取り出す件数の上限
+   * @return 期限切れのホールドのID
+   */
+  synchronized ImmutableList<String> pollExpired(Instant now, int limit) {
+    var expired = ImmutableList.<String>builderWithExpectedSize(Math.min(limit, deadlines.size()));
+    @Var int count = 0;
+    while (count < limit) {
+      var head = heap.peek();
+      if (head == null || head.expiresAt().isAfter(now)) {
+        break;
+      }
+      heap.poll();
+      // 取り消された、または期限を置き換えられたエントリは読み飛ばす
+      if (head.expiresAt().equals(deadlines.get(head.id()))) {
+        deadlines.remove(head.id());
+        expired.add(head.id());
+        count++;
+      }
+    }
+    return expired.build();
+  }
+
+  /** 登録されているホールドの件数 */
+  synchronized int size() {
+    return deadlines.size();
+  }
+
+  private record Entry(String id, Instant expiresAt) {}
+}
@@ -0,0 +1,76 @@
+package com.example.ec_2024b_back.product.infrastructure.reservation;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.repositories.InventoryReservations;
+import com.example.ec_2024b_back.product.domain.repositories.ReservationHolds;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 在庫予約（ホールド）のMongoDBによる実装
+ *
+ * <p>在庫は {@link InventoryReservations} で予約し、ホールドのドキュメントに予約した数量と期限を記録したうえで、期限を {@link
+ * ReservationExpirySweeper} に登録します。確定・取り消しではドキュメントを削除するため、その後にスイーパーが解除することはありません。
+ * スイーパーが解除のために確保しているホールドは、期限切れとして解除されるため確定・取り消しできません。
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoReservationHolds implements ReservationHolds {
+
+  private final InventoryReservations reservations;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final ReservationExpirySweeper sweeper;
+  private final Clock clock = Clock.systemUTC();
+
+  @Override
+  public Mono<Void> hold(String holdId, Map<ProductId, Integer> quantities, Instant expiresAt) {
+    var document = ReservationHoldDocument.of(holdId, quantities, expiresAt);
+    return reservations
+        .reserveAll(quantities)
+        .then(
+            mongoTemplate
+                .insert(document)
+                // 記録できなかった予約は期限で解除されないため、すぐに解除する
+                .onErrorResume(e -> releaseAll(quantities).then(Mono.error(e))))
+        .doOnNext(saved -> sweeper.track(saved.id(), saved.expiresAt()))
+        .then();
+  }
+
+  @Override
+  public Mono<Boolean> confirm(String holdId) {
+    return remove(holdId).hasElement();
+  }
+
+  @Override
+  public Mono<Boolean> cancel(String holdId) {
+    return remove(holdId)
+        .flatMap(hold -> releaseAll(hold.quantities()).thenReturn(true))
+        .defaultIfEmpty(false);
+  }
+
+  private Mono<ReservationHoldDocument> remove(String holdId) {
+    return mongoTemplate
+        .findAndRemove(
+            query(
+                where("id")
+                    .is(holdId)
+                    .andOperator(ReservationExpirySweeper.unclaimed(clock.instant()))),
+            ReservationHoldDocument.class)
+        .doOnNext(hold -> sweeper.untrack(hold.id()));
+  }
+
+  private Mono<Void> releaseAll(Map<ProductId, Integer> quantities) {
+    return Flux.fromIterable(quantities.entrySet())
+        .flatMap(line -> reservations.release(line.getKey(), line.getValue()))
+        .then();
+  }
+}
@@ -0,0 +1,335 @@
+package com.example.ec_2024b_back.product.infrastructure.reservation;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.repositories.InventoryReservations;
+import com.example.ec_2024b_back.product.infrastructure.config.ReservationExpiryProperties;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 期限切れの在庫予約（ホールド）をまとめて解除するスイーパー
+ *
+ * <p>ホールドの期限はメモリ上の {@link ExpiryQueue} で管理し、起動時にMongoDBのすべてのホールドから作り直します。
+ * 停止した他のノードが登録したホールドや、他のノードが確保したまま確保の期限を過ぎたホールドはこのノードのヒープにないため、{@link
+ * ReservationExpiryProperties#rescanInterval()} ごとに期限のインデックスで期限切れかつ確保されていないホールドを読み込み、ヒープに加えます。
+ *
+ * <p>一定間隔で期限切れのホールドだけをバッチで取り出し、商品ごとに合計した数量を {@link InventoryReservations}
+ * で商品ごとに解除するため、確認のコストは注文やホールドの総数ではなく期限切れの件数に比例します。解除はホットSKUの割り当てを含めて予約と同じ経路で行い、イベントも予約と同様に書き込まれます。
+ *
+ * <p>解除の前にホールドを確保するため、複数のノードが同じホールドを読み込んでいても同時に解除することはなく、確保されたホールドは確定・取り消しもできません。
+ * ホールドは解除できた商品の分だけを減らし、すべての商品を解除できた場合にのみ削除します。解除できなかった商品は {@link
+ * ReservationExpiryProperties#retryDelay()} 後に再試行します。
+ *
+ * <p>商品ごとに、解除する商品をホールドから除いて記録してから在庫の予約を解除します。トランザクションが有効な場合は記録と解除を1つのトランザクションで行います。
+ * 無効な場合は解除に失敗すると記録を戻しますが、記録と解除の間にノードが停止すると在庫は予約されたまま残ります（二重に解除することはありません）。
+ */
+@Slf4j
+@Component
+public class ReservationExpirySweeper implements SmartLifecycle {
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final InventoryReservations reservations;
+  private final ReservationExpiryProperties properties;
+  private final Optional<TransactionalOperator> transactionalOperator;
+  private final Clock clock = Clock.systemUTC();
+  private final ExpiryQueue queue = new ExpiryQueue();
+
+  /** 次に期限切れのホールドをMongoDBから読み込む日時 */
+  private volatile Instant nextRescan = Instant.EPOCH;
+
+  private volatile @Nullable Disposable subscription;
+
+  public ReservationExpirySweeper(
+      ReactiveMongoTemplate mongoTemplate,
+      InventoryReservations reservations,
+      ReservationExpiryProperties properties,
+      Optional<TransactionalOperator> transactionalOperator) {
+    this.mongoTemplate = mongoTemplate;
+    this.reservations = reservations;
+    this.properties = properties;
+    this.transactionalOperator = transactionalOperator;
+  }
+
+  /**
+   * ホールドの期限を登録します
+   *
+   * @param holdId ホールドのID
+   * @param expiresAt 予約を自動的に解除する日時
+   */
+  void track(String holdId, Instant expiresAt) {
+    queue.schedule(holdId, expiresAt);
+  }
+
+  /**
+   * ホールドの期限の登録を取り消します
+   *
+   * @param holdId ホールドのID
+   */
+  void untrack(String holdId) {
+    queue.cancel(holdId);
+  }
+
+  @Override
+  public boolean isAutoStartup() {
+    return properties.enabled();
+  }
+
+  @Override
+  public void start() {
+    nextRescan = clock.instant().plus(properties.rescanInterval());
+    subscription =
+        rebuild()
+            .onErrorResume(
+                e -> {
+                  log.warn("在庫予約の期限の読み込みに失敗しました", e);
+                  return Mono.just(0L);
+                })
+            .thenMany(Flux.interval(properties.sweepInterval()))
+            .onBackpressureDrop()
+            .concatMap(tick -> rescanIfDue().then(sweep()), 1)
+            .subscribe();
+  }
+
+  @Override
+  public void stop() {
+    var current = subscription;
+    if (current != null) {
+      current.dispose();
+    }
+    subscription = null;
+  }
+
+  @Override
+  public boolean isRunning() {
+    var current = subscription;
+    return current != null && !current.isDisposed();
+  }
+
+  /**
+   * MongoDBのすべてのホールドの期限を読み込みます
+   *
+   * @return 読み込んだホールドの件数
+   */
+  Mono<Long> rebuild() {
+    var all = new Query();
+    all.fields().include("expiresAt");
+    return mongoTemplate
+        .find(all, ReservationHoldDocument.class)
+        .doOnNext(hold -> queue.schedule(hold.id(), hold.expiresAt()))
+        .count()
+        .doOnNext(count -> log.info("在庫予約の期限を読み込みました（{}件）", count));
+  }
+
+  /**
+   * 期限を過ぎても確保されていないホールドをMongoDBから読み込みます
+   *
+   * <p>このノードのヒープにないホールドも解除できるよう、期限のインデックスで読み込んでヒープに加えます。ヒープに登録済みのホールドは期限を置き換えます。
+   *
+   * @return 読み込んだホールドの件数
+   */
+  Mono<Long> rescan() {
+    return Mono.defer(
+        () -> {
+          var now = clock.instant();
+          var overdue = query(where("expiresAt").lte(now).andOperator(unclaimed(now)));
+          overdue.fields().include("expiresAt");
+          return mongoTemplate
+              .find(overdue, ReservationHoldDocument.class)
+              .doOnNext(hold -> queue.schedule(hold.id(), hold.expiresAt()))
+              .count();
+        });
+  }
+
+  private Mono<Long> rescanIfDue() {
+    var now = clock.instant();
+    if (now.isBefore(nextRescan)) {
+      return Mono.just(0L);
+    }
+    nextRescan = now.plus(properties.rescanInterval());
+    return rescan()
+        .onErrorResume(
+            e -> {
+              log.warn("期限切れの在庫予約の読み込みに失敗しました", e);
+              return Mono.just(0L);
+            });
+  }
+
+  /**
+   * 期限切れのホールドがなくなるまでバッチごとに解除します
+   *
+   * @return 解除したホールドの件数
+   */
+  Mono<Long> sweep() {
+    return releaseBatch()
+        .expand(
+            released -> released.polled() == properties.batchSize() ? releaseBatch() : Mono.empty())
+        .map(Swept::released)
+        .reduce(0L, Long::sum)
+        .onErrorResume(
+            e -> {
+              log.warn("期限切れの在庫予約の解除に失敗しました", e);
+              return Mono.just(0L);
+            });
+  }
+
+  /** 期限切れのホールドを1バッチ分取り出して解除します */
+  private Mono<Swept> releaseBatch() {
+    return Mono.defer(
+        () -> {
+          var now = clock.instant();
+          var expired = queue.pollExpired(now, properties.batchSize());
+          if (expired.isEmpty()) {
+            return Mono.just(new Swept(0, 0));
+          }
+          var retryAt = now.plus(properties.retryDelay());
+          // 確定・取り消し済みのホールドは削除されているため確保できない
+          return Flux.fromIterable(expired)
+              .flatMap(holdId -> claim(holdId, now, retryAt))
+              .collectList()
+              .flatMap(this::release)
+              .map(released -> new Swept(expired.size(), released));
+        });
+  }
+
+  /**
+   * 期限切れのホールドを再試行する日時まで確保します
+   *
+   * <p>解除が終わる前にこのノードが停止した場合も、再試行する日時を過ぎれば再び確保できます。
+   */
+  private Mono<ReservationHoldDocument> claim(String holdId, Instant now, Instant retryAt) {
+    return mongoTemplate
+        .findAndModify(
+            query(
+                where("id")
+                    .is(holdId)
+                    .and("expiresAt")
+                    .lte(now)
+                    .andOperator(unclaimed(now))),
+            new Update().set("claimedUntil", retryAt),
+            ReservationHoldDocument.class)
+        .doOnNext(hold -> queue.schedule(hold.id(), retryAt));
+  }
+
+  /**
+   * 確保したホールドの数量を商品ごとに合計して {@link InventoryReservations} で解除し、すべての商品を解除できたホールドを削除します
+   *
+   * <p>解除できなかった商品はホールドに残し、確保した期限（再試行する日時）に再び解除します。
+   *
+   * @return 削除したホールドの件数
+   */
+  private Mono<Long> release(List<ReservationHoldDocument> claimed) {
+    if (claimed.isEmpty()) {
+      return Mono.just(0L);
+    }
+    Map<String, List<HeldLine>> linesByProduct =
+        claimed.stream()
+            .flatMap(hold -> hold.lines().stream().map(line -> new HeldLine(hold.id(), line)))
+            .collect(Collectors.groupingBy(held -> held.line().productId()));
+    return Flux.fromIterable(linesByProduct.entrySet())
+        .flatMap(product -> releaseProduct(product.getKey(), product.getValue()))
+        .then(removeReleased(claimed));
+  }
+
+  /**
+   * 商品をホールドから除いて解除を記録し、ホールドの数量の合計を解除します
+   *
+   * <p>解除に失敗した場合は、トランザクションのロールバックまたはホールドへの書き戻しで商品をホールドに戻します。
+   */
+  private Mono<Void> releaseProduct(String productId, List<HeldLine> lines) {
+    int quantity = lines.stream().mapToInt(held -> held.line().quantity()).sum();
+    var holdIds = lines.stream().map(HeldLine::holdId).toList();
+    var recordAndRelease =
+        mongoTemplate
+            .updateMulti(
+                query(where("id").in(holdIds)),
+                new Update().pull("lines", new Document("productId", productId)),
+                ReservationHoldDocument.class)
+            .then(Mono.defer(() -> reservations.release(ProductId.of(productId), quantity)))
+            .then();
+    return transactionalOperator
+        .map(operator -> operator.transactional(recordAndRelease))
+        .orElseGet(
+            () ->
+                recordAndRelease.onErrorResume(
+                    e -> restore(productId, lines).then(Mono.error(e))))
+        .onErrorResume(
+            e -> {
+              log.warn(
+                  "商品 {} の期限切れの予約 {} 個を解除できませんでした。{}後に再試行します",
+                  productId,
+                  quantity,
+                  properties.retryDelay(),
+                  e);
+              return Mono.empty();
+            });
+  }
+
+  /** 解除できなかった商品をホールドに書き戻します（書き戻し済みのホールドには追加しません） */
+  private Mono<Void> restore(String productId, List<HeldLine> lines) {
+    return Flux.fromIterable(lines)
+        .concatMap(
+            held ->
+                mongoTemplate.updateFirst(
+                    query(where("id").is(held.holdId()).and("lines.productId").ne(productId)),
+                    new Update().push("lines", held.line()),
+                    ReservationHoldDocument.class))
+        .then();
+  }
+
+  /** すべての商品を解除できたホールドを削除します */
+  private Mono<Long> removeReleased(List<ReservationHoldDocument> claimed) {
+    var holdIds = claimed.stream().map(ReservationHoldDocument::id).toList();
+    return mongoTemplate
+        .findAllAndRemove(
+            query(where("id").in(holdIds).and("lines").size(0)), ReservationHoldDocument.class)
+        .doOnNext(hold -> queue.cancel(hold.id()))
+        .count();
+  }
+
+  /**
+   * 確保されていない、または確保の期限を過ぎたホールドの条件
+   *
+   * @param now 現在日時
+   * @return 条件
+   */
+  static Criteria unclaimed(Instant now) {
+    return new Criteria()
+        .orOperator(where("claimedUntil").is(null), where("claimedUntil").lte(now));
+  }
+
+  /**
+   * 1バッチの解除結果
+   *
+   * @param polled 期限切れとして取り出したホールドの件数
+   * @param released 解除したホールドの件数
+   */
+  private record Swept(int polled, long released) {}
+
+  /**
+   * ホールドに記録された商品と数量
+   *
+   * @param holdId ホールドのID
+   * @param line 商品と数量
+   */
+  private record HeldLine(String holdId, ReservationHoldDocument.Line line) {}
+}
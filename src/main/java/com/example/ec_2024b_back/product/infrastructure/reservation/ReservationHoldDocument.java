@@ -0,0 +1,64 @@
+package com.example.ec_2024b_back.product.infrastructure.reservation;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Instant;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * 期限付きの在庫予約（ホールド）のドキュメントクラス. 起動時にスイーパーが期限を読み込むため、期限にインデックスを持ちます。
+ *
+ * @param id ホールドのID
+ * @param lines 予約した商品と数量
+ * @param expiresAt 予約を自動的に解除する日時
+ * @param claimedUntil スイーパーが解除のために確保している期限（確保されていない場合はnull）
+ */
+@Document(collection = "reservation_holds")
+public record ReservationHoldDocument(
+    @Id String id,
+    ImmutableList<Line> lines,
+    @Indexed Instant expiresAt,
+    @Nullable Instant claimedUntil) {
+
+  /** SpringData用のNo-argコンストラクタ */
+  public ReservationHoldDocument() {
+    this("", ImmutableList.of(), Instant.EPOCH, null);
+  }
+
+  /**
+   * 予約した商品と数量からドキュメントを作成
+   *
+   * @param id ホールドのID
+   * @param quantities 商品IDごとの予約した数量
+   * @param expiresAt 予約を自動的に解除する日時
+   * @return ドキュメント
+   */
+  public static ReservationHoldDocument of(
+      String id, Map<ProductId, Integer> quantities, Instant expiresAt) {
+    var lines =
+        quantities.entrySet().stream()
+            .map(line -> new Line(line.getKey().toString(), line.getValue()))
+            .collect(ImmutableList.toImmutableList());
+    return new ReservationHoldDocument(id, lines, expiresAt, null);
+  }
+
+  /** 予約した商品IDごとの数量 */
+  public ImmutableMap<ProductId, Integer> quantities() {
+    return lines.stream()
+        .collect(
+            ImmutableMap.toImmutableMap(line -> ProductId.of(line.productId()), Line::quantity));
+  }
+
+  /**
+   * 予約した商品と数量
+   *
+   * @param productId 商品ID
+   * @param quantity 予約した数量
+   */
+  public record Line(String productId, int quantity) {}
+}
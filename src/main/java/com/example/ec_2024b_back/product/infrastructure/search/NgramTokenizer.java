@@ -0,0 +1,84 @@
+package com.example.ec_2024b_back.product.infrastructure.search;
+
+import com.google.errorprone.annotations.Var;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 検索用に文字列をN-gramに分割するトークナイザー
+ *
+ * <p>日本語は単語の区切りがないため、形態素解析の代わりに文字のバイグラム（2文字ずつ）で索引を作ります。文字列はNFKCで正規化（全角英数字・半角カナの統一）し、
+ * 英字は小文字に揃えます。文字・数字以外の文字（空白や記号）は区切りとして扱います。
+ */
+final class NgramTokenizer {
+
+  private NgramTokenizer() {}
+
+  /**
+   * 索引に登録するN-gramを返します
+   *
+   * @param text 対象の文字列
+   * @param withUnigrams 1文字のN-gramも含めるかどうか（1文字の検索語に一致させたい項目で指定）
+   * @return N-gram（出現回数を数えるため重複を含む）
+   */
+  static List<String> tokenize(String text, boolean withUnigrams) {
+    var grams = new ArrayList<String>();
+    for (var segment : segments(text)) {
+      for (int i = 0; i < segment.length; i++) {
+        if (withUnigrams || segment.length == 1) {
+          grams.add(Character.toString(segment[i]));
+        }
+        if (i + 1 < segment.length) {
+          grams.add(new String(segment, i, 2));
+        }
+      }
+    }
+    return grams;
+  }
+
+  /**
+   * 検索語のN-gramを返します
+   *
+   * <p>2文字以上の区切りはバイグラムのみ、1文字の区切りはその1文字を返します。
+   *
+   * @param query 検索語
+   * @return 重複を除いたN-gram
+   */
+  static Set<String> queryGrams(String query) {
+    var grams = new LinkedHashSet<String>();
+    for (var segment : segments(query)) {
+      if (segment.length == 1) {
+        grams.add(Character.toString(segment[0]));
+      }
+      for (int i = 0; i + 1 < segment.length; i++) {
+        grams.add(new String(segment, i, 2));
+      }
+    }
+    return grams;
+  }
+
+  /** 正規化した文字列を文字・数字の連続ごとにコードポイントの配列で返します */
+  private static List<int[]> segments(String text) {
+    int[] codePoints =
+        Normalizer.normalize(text, Normalizer.Form.NFKC)
+            .toLowerCase(Locale.ROOT)
+            .codePoints()
+            .toArray();
+    var segments = new ArrayList<int[]>();
+    @Var int start = 0;
+    for (int i = 0; i <= codePoints.length; i++) {
+      if (i == codePoints.length || !Character.isLetterOrDigit(codePoints[i])) {
+        if (i > start) {
+          segments.add(Arrays.copyOfRange(codePoints, start, i));
+        }
+        start = i + 1;
+      }
+    }
+    return segments;
+  }
+}
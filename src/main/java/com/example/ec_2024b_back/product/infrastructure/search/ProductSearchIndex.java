@@ -0,0 +1,302 @@
+package com.example.ec_2024b_back.product.infrastructure.search;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.Var;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * 商品の全文検索用のインメモリ転置インデックス
+ *
+ * <p>商品名・SKU・説明を {@link NgramTokenizer} でN-gramに分割し、N-gramごとに商品の内部番号と重みの配列（ポスティング）を保持します。
+ * 検索では検索語のすべてのN-gramを含む商品を、件数の少ないポスティングから順に二分探索で絞り込み、TF-IDFのスコアが高い順に返します。 重みは項目ごとの係数（SKU &gt; 商品名
+ * &gt; 説明）と出現回数の対数の積です。
+ *
+ * <p>商品の更新・削除は古い内部番号を無効にして新しい番号で追加するため、ポスティングは常に内部番号の昇順に並びます。
+ * 無効な番号が有効な番号より多くなった時点で、ポスティングから取り除き、有効な番号を詰めて振り直します。
+ * IDFには各ポスティングに含まれる有効な商品の件数を使うため、無効な番号が残っていてもスコアは変わりません。
+ *
+ * <p>検索は読み取りロック、更新は書き込みロックで排他します。
+ */
+@Component
+public class ProductSearchIndex {
+
+  private static final float SKU_WEIGHT = 5.0f;
+  private static final float NAME_WEIGHT = 3.0f;
+  private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+  /** スコアの降順、同点の場合は先に登録された商品を優先 */
+  private static final Comparator<Match> RANKING =
+      Comparator.comparingDouble(Match::score).reversed().thenComparingInt(Match::doc);
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Postings> postings = new HashMap<>();
+  private final Map<ProductId, Integer> docs = new HashMap<>();
+
+  /** 内部番号から登録内容への対応（無効になった番号はnull） */
+  private List<@Nullable Entry> entries = new ArrayList<>();
+
+  private int removed;
+
+  /**
+   * 商品を索引に登録します。登録済みの場合は置き換えます
+   *
+   * @param productId 商品ID
+   * @param name 商品名
+   * @param description 商品説明
+   * @param sku SKU
+   */
+  public void index(ProductId productId, String name, String description, String sku) {
+    var weights = new HashMap<String, Float>();
+    addWeights(weights, NgramTokenizer.tokenize(sku, true), SKU_WEIGHT);
+    addWeights(weights, NgramTokenizer.tokenize(name, true), NAME_WEIGHT);
+    addWeights(weights, NgramTokenizer.tokenize(description, false), DESCRIPTION_WEIGHT);
+
+    lock.writeLock().lock();
+    try {
+      invalidate(productId);
+      int doc = entries.size();
+      entries.add(new Entry(productId, ImmutableList.copyOf(weights.keySet())));
+      docs.put(productId, doc);
+      weights.forEach(
+          (gram, weight) -> postings.computeIfAbsent(gram, g -> new Postings()).add(doc, weight));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * 商品を索引から削除します
+   *
+   * @param productId 商品ID
+   */
+  public void remove(ProductId productId) {
+    lock.writeLock().lock();
+    try {
+      invalidate(productId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * 検索語のすべてのN-gramを含む商品を関連度の高い順に検索します
+   *
+   * @param query 検索語
+   * @param offset 読み飛ばす件数
+   * @param limit 返す件数の上限
+   * @return 検索結果
+   */
+  public SearchResult search(String query, int offset, int limit) {
+    if (offset < 0 || limit < 0) {
+      throw new IllegalArgumentException("offset と limit は0以上である必要があります");
+    }
+    var grams = NgramTokenizer.queryGrams(query);
+    if (grams.isEmpty()) {
+      return SearchResult.EMPTY;
+    }
+
+    lock.readLock().lock();
+    try {
+      var lists = new ArrayList<Postings>(grams.size());
+      for (var gram : grams) {
+        var list = postings.get(gram);
+        if (list == null) {
+          return SearchResult.EMPTY;
+        }
+        lists.add(list);
+      }
+      lists.sort(Comparator.comparingInt(Postings::size));
+
+      int wanted = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+      var top = new PriorityQueue<Match>(RANKING.reversed());
+      int total = collectMatches(lists, wanted, top);
+
+      var ranked = new ArrayList<>(top);
+      ranked.sort(RANKING);
+      var page =
+          ranked.stream()
+              .skip(offset)
+              .map(match -> Objects.requireNonNull(entries.get(match.doc())).productId())
+              .collect(ImmutableList.toImmutableList());
+      return new SearchResult(page, total);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * 索引に登録されている商品の件数を返します
+   *
+   * @return 商品の件数
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return docs.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * すべてのポスティングに含まれる商品のスコアを計算し、上位 {@code wanted} 件を {@code top} に残します
+   *
+   * @return 一致した商品の件数
+   */
+  private int collectMatches(List<Postings> lists, int wanted, PriorityQueue<Match> top) {
+    int live = docs.size();
+    var idf = new double[lists.size()];
+    for (int i = 0; i < lists.size(); i++) {
+      idf[i] = Math.log(1 + (double) live / lists.get(i).live);
+    }
+
+    @Var int total = 0;
+    var rarest = lists.getFirst();
+    candidates:
+    for (int j = 0; j < rarest.size; j++) {
+      int doc = rarest.docs[j];
+      if (entries.get(doc) == null) {
+        continue;
+      }
+      @Var double score = idf[0] * rarest.weights[j];
+      for (int i = 1; i < lists.size(); i++) {
+        var list = lists.get(i);
+        int found = Arrays.binarySearch(list.docs, 0, list.size, doc);
+        if (found < 0) {
+          continue candidates;
+        }
+        score += idf[i] * list.weights[found];
+      }
+      total++;
+      if (wanted > 0) {
+        top.add(new Match(doc, score));
+        if (top.size() > wanted) {
+          top.poll();
+        }
+      }
+    }
+    return total;
+  }
+
+  private void invalidate(ProductId productId) {
+    var doc = docs.remove(productId);
+    if (doc == null) {
+      return;
+    }
+    var entry = Objects.requireNonNull(entries.set(doc, null));
+    for (var gram : entry.grams()) {
+      var list = postings.get(gram);
+      if (list != null && --list.live == 0) {
+        postings.remove(gram);
+      }
+    }
+    removed++;
+    if (removed > docs.size()) {
+      compact();
+    }
+  }
+
+  /** 無効な番号をポスティングから取り除き、有効な番号を登録順のまま0から振り直します */
+  private void compact() {
+    var renumbered = new int[entries.size()];
+    var live = new ArrayList<@Nullable Entry>(docs.size());
+    for (int doc = 0; doc < entries.size(); doc++) {
+      var entry = entries.get(doc);
+      if (entry == null) {
+        renumbered[doc] = -1;
+        continue;
+      }
+      renumbered[doc] = live.size();
+      docs.put(entry.productId(), live.size());
+      live.add(entry);
+    }
+    postings.values().forEach(list -> list.renumber(renumbered));
+    entries = live;
+    removed = 0;
+  }
+
+  private static void addWeights(Map<String, Float> weights, List<String> grams, float boost) {
+    var counts = new HashMap<String, Integer>();
+    grams.forEach(gram -> counts.merge(gram, 1, Integer::sum));
+    counts.forEach(
+        (gram, count) -> weights.merge(gram, boost * (1 + (float) Math.log(count)), Float::sum));
+  }
+
+  /**
+   * 検索結果
+   *
+   * @param productIds 関連度の高い順の商品ID
+   * @param total 検索語に一致した商品の総件数
+   */
+  public record SearchResult(ImmutableList<ProductId> productIds, int total) {
+
+    static final SearchResult EMPTY = new SearchResult(ImmutableList.of(), 0);
+  }
+
+  private record Match(int doc, double score) {}
+
+  /**
+   * 索引に登録された商品
+   *
+   * @param productId 商品ID
+   * @param grams 商品を含むポスティングのN-gram
+   */
+  private record Entry(ProductId productId, ImmutableList<String> grams) {}
+
+  /** 1つのN-gramを含む商品の内部番号（昇順）と重み */
+  private static final class Postings {
+
+    private int[] docs = new int[4];
+    private float[] weights = new float[4];
+    private int size;
+
+    /** 有効な番号の件数 */
+    private int live;
+
+    int size() {
+      return size;
+    }
+
+    void add(int doc, float weight) {
+      if (size == docs.length) {
+        docs = Arrays.copyOf(docs, size * 2);
+        weights = Arrays.copyOf(weights, size * 2);
+      }
+      docs[size] = doc;
+      weights[size] = weight;
+      size++;
+      live++;
+    }
+
+    /** 無効になった番号（振り直し後の番号が負）を取り除き、残った番号を振り直します */
+    void renumber(int[] renumbered) {
+      @Var int kept = 0;
+      for (int i = 0; i < size; i++) {
+        int doc = renumbered[docs[i]];
+        if (doc >= 0) {
+          docs[kept] = doc;
+          weights[kept] = weights[i];
+          kept++;
+        }
+      }
+      size = kept;
+      // 大きく減った場合は配列も縮める
+      if (size < docs.length / 4) {
+        docs = Arrays.copyOf(docs, Math.max(4, size));
+        weights = Arrays.copyOf(weights, Math.max(4, size));
+      }
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package com.example.ec_2024b_back.product.infrastructure.search;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductActivated;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductCreated;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductDeactivated;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductInfoUpdated;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductRetired;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductStatus;
+import com.example.ec_2024b_back.product.infrastructure.repository.ProductDocument;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Replicated;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * 商品の検索インデックスを最新の状態に保ちます
+ *
+ * <p>起動時に販売中のすべての商品を索引に登録し、以降はアウトボックスから各ノードに配信される商品の作成・更新・ステータス変更のイベントを受けて、
+ * 該当する商品を登録し直します。イベントには商品説明やステータスが含まれないため、検索対象の項目とステータスをデータベースから読み込み、 販売中（{@link
+ * ProductStatus#ACTIVE}）でない商品は索引から取り除きます。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class ProductSearchIndexer {
+
+  private static final Duration LOAD_TIMEOUT = Duration.ofSeconds(10);
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final ProductSearchIndex index;
+
+  /** 起動時に販売中のすべての商品を索引に登録します */
+  @EventListener(ApplicationReadyEvent.class)
+  public void indexAll() {
+    load(query(where("status").is(ProductStatus.ACTIVE.name())))
+        .count()
+        .subscribe(
+            count -> log.info("商品の検索インデックスを作成しました（{}件）", count),
+            e -> log.warn("商品の検索インデックスの作成に失敗しました", e));
+  }
+
+  /**
+   * 作成された商品を索引に登録します
+   *
+   * @param event 商品作成イベント
+   */
+  @EventListener
+  public void onCreated(Replicated<ProductCreated> event) {
+    reindex(event.event().productId());
+  }
+
+  /**
+   * 更新された商品を索引に登録し直します
+   *
+   * @param event 商品情報更新イベント
+   */
+  @EventListener
+  public void onInfoUpdated(Replicated<ProductInfoUpdated> event) {
+    reindex(event.event().productId());
+  }
+
+  /**
+   * 販売を開始した商品を索引に登録します
+   *
+   * @param event 商品有効化イベント
+   */
+  @EventListener
+  public void onActivated(Replicated<ProductActivated> event) {
+    reindex(event.event().productId());
+  }
+
+  /**
+   * 販売を停止した商品を索引から取り除きます
+   *
+   * @param event 商品販売停止イベント
+   */
+  @EventListener
+  public void onDeactivated(Replicated<ProductDeactivated> event) {
+    reindex(event.event().productId());
+  }
+
+  /**
+   * 廃止された商品を索引から取り除きます
+   *
+   * @param event 商品廃止イベント
+   */
+  @EventListener
+  public void onRetired(Replicated<ProductRetired> event) {
+    reindex(event.event().productId());
+  }
+
+  /** 配信のワーカースレッドで呼び出されるため、読み込みの完了を待ちます（失敗時は再試行されます） */
+  private void reindex(ProductId productId) {
+    load(query(where("id").is(productId.toString()))).then().block(LOAD_TIMEOUT);
+  }
+
+  /** 販売中の商品は索引に登録し、それ以外の商品は索引から取り除きます */
+  private Flux<ProductDocument> load(Query query) {
+    query.fields().include("name", "description", "sku", "status");
+    return mongoTemplate
+        .find(query, ProductDocument.class)
+        .doOnNext(
+            document -> {
+              var productId = ProductId.of(document.id());
+              if (ProductStatus.ACTIVE.name().equals(document.status())) {
+                index.index(productId, document.name(), document.description(), document.sku());
+              } else {
+                index.remove(productId);
+              }
+            });
+  }
+}
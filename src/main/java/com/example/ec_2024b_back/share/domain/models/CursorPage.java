@@ -0,0 +1,29 @@
+package com.example.ec_2024b_back.share.domain.models;
+
+import com.google.common.collect.ImmutableList;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * キーセットページネーションの1ページ分の結果
+ *
+ * <p>カーソルはページの最後の要素のソートキーを符号化した文字列で、クライアントは内容を解釈せずに次のページの取得時にそのまま渡します。
+ *
+ * @param items ページ内の要素
+ * @param nextCursor 次のページのカーソル（最後のページの場合はnull）
+ * @param <T> 要素の型
+ */
+public record CursorPage<T>(ImmutableList<T> items, @Nullable String nextCursor) {
+
+  /**
+   * 要素を変換したページを返します
+   *
+   * @param mapper 変換関数
+   * @param <R> 変換後の要素の型
+   * @return 変換後のページ
+   */
+  public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+    return new CursorPage<>(
+        items.stream().map(mapper).collect(ImmutableList.toImmutableList()), nextCursor);
+  }
+}
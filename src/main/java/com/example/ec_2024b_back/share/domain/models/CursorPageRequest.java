@@ -0,0 +1,34 @@
+package com.example.ec_2024b_back.share.domain.models;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * キーセットページネーションのページ指定
+ *
+ * @param cursor 前のページで返されたカーソル（最初のページの場合はnull）
+ * @param limit 1ページあたりの件数
+ */
+public record CursorPageRequest(@Nullable String cursor, int limit) {
+
+  /** 件数を指定しない場合の1ページあたりの件数 */
+  public static final int DEFAULT_LIMIT = 20;
+
+  /** 1ページあたりの件数の上限 */
+  public static final int MAX_LIMIT = 100;
+
+  public CursorPageRequest {
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new IllegalArgumentException("1ページあたりの件数は1以上" + MAX_LIMIT + "以下である必要があります");
+    }
+  }
+
+  /**
+   * 最初のページを指定します
+   *
+   * @param limit 1ページあたりの件数
+   * @return ページ指定
+   */
+  public static CursorPageRequest first(int limit) {
+    return new CursorPageRequest(null, limit);
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.ec_2024b_back.share.infrastructure.api;
+
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+/** 一覧系APIのクエリパラメーター（{@code cursor} / {@code limit}）からページ指定を作成するクラス. */
+public final class CursorPageParameters {
+
+  private CursorPageParameters() {}
+
+  /**
+   * リクエストのクエリパラメーターからページ指定を作成します
+   *
+   * @param request リクエスト
+   * @return ページ指定
+   * @throws IllegalArgumentException 件数が数値でない、または範囲外の場合
+   */
+  public static CursorPageRequest from(ServerRequest request) {
+    int limit =
+        request.queryParam("limit").map(Integer::parseInt).orElse(CursorPageRequest.DEFAULT_LIMIT);
+    var cursor = request.queryParam("cursor").filter(value -> !value.isEmpty()).orElse(null);
+    return new CursorPageRequest(cursor, limit);
+  }
+}
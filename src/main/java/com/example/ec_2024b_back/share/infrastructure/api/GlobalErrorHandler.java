@@ -10,6 +10,7 @@ import org.springframework.boot.autoconfigure.web.reactive.error.AbstractErrorWe
 import org.springframework.boot.web.reactive.error.ErrorAttributes;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerCodecConfigurer;
@@ -68,6 +69,9 @@ public class GlobalErrorHandler extends AbstractErrorWebExceptionHandler {
       if (actualError instanceof ServerWebInputException swie) {
         return handleServerWebInputException(swie, request);
       }
+      if (actualError instanceof OptimisticLockingFailureException) {
+        return handleOptimisticLockingFailure(request);
+      }
       actualError = actualError.getCause();
     }
 
@@ -134,6 +138,21 @@ public class GlobalErrorHandler extends AbstractErrorWebExceptionHandler {
         .body(BodyInserters.fromValue(response));
   }
 
+  /** 楽観的排他制御の競合のハンドリング. リトライしても解消しなかった競合はConflictとして扱います。 */
+  private static Mono<ServerResponse> handleOptimisticLockingFailure(ServerRequest request) {
+    HttpStatus status = HttpStatus.CONFLICT;
+    var response =
+        ErrorResponse.of(
+            status.getReasonPhrase(),
+            status.value(),
+            "The resource was modified concurrently. Please retry.",
+            request.path());
+
+    return ServerResponse.status(status)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(BodyInserters.fromValue(response));
+  }
+
   /** 汎用的な例外ハンドリング. 想定外の例外はInternal Server Errorとして扱います。 */
   private static Mono<ServerResponse> handleGenericException(ServerRequest request) {
     HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
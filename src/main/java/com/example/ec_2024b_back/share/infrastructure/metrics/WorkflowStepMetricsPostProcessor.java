@@ -0,0 +1,193 @@
+package com.example.ec_2024b_back.share.infrastructure.metrics;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.jspecify.annotations.Nullable;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * ワークフローの各ステップの処理時間・エラー・実行中の件数を記録するポストプロセッサー
+ *
+ * <p>{@code *Workflow} に宣言された {@code *Step} インターフェース（{@code Function<Context, Mono<Context>>}）を実装する
+ * Beanをプロキシで包み、ステップが返すMonoの購読から完了までを次のメトリクスとして記録します。タグには {@code workflow}（ワークフロー名）と
+ * {@code step}（ステップ名）を付与します。
+ *
+ * <ul>
+ *   <li>{@code workflow.step}: 処理時間のヒストグラム（{@code outcome} タグにsuccess/error/cancelled）
+ *   <li>{@code workflow.step.errors}: エラーの件数（{@code exception} タグに例外クラス名）
+ *   <li>{@code workflow.step.active}: 実行中のステップ
+ * </ul>
+ *
+ * <p>ステップはいずれも {@code apply} メソッドで呼び出されるため、呼び出しからステップを特定できません。
+ * 複数のステップのインターフェースを実装するBeanはタグを決められないため、起動時にエラーとします。
+ */
+@Component
+public class WorkflowStepMetricsPostProcessor implements BeanPostProcessor {
+
+  private final ObjectProvider<MeterRegistry> registry;
+
+  /**
+   * コンストラクター
+   *
+   * @param registry メトリクスの登録先（ポストプロセッサーは他のBeanより先に生成されるため遅延して取得する）
+   */
+  public WorkflowStepMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    return findStepInterface(bean.getClass(), beanName)
+        .<Object>map(
+            step -> {
+              var workflow = Objects.requireNonNull(step.getEnclosingClass()).getSimpleName();
+              var proxyFactory = new ProxyFactory(bean);
+              proxyFactory.addAdvice(new StepInterceptor(workflow, step.getSimpleName(), registry));
+              return proxyFactory.getProxy(bean.getClass().getClassLoader());
+            })
+        .orElse(bean);
+  }
+
+  /** ワークフローに宣言された、Monoを返すステップのインターフェースを探します */
+  private static Optional<Class<?>> findStepInterface(Class<?> beanClass, String beanName) {
+    List<Class<?>> steps =
+        ClassUtils.getAllInterfacesForClassAsSet(beanClass).stream()
+            .filter(type -> type.getSimpleName().endsWith("Step"))
+            .filter(
+                type ->
+                    type.getEnclosingClass() != null
+                        && type.getEnclosingClass().getSimpleName().endsWith("Workflow"))
+            .filter(
+                type ->
+                    Mono.class.equals(
+                        ResolvableType.forClass(type).as(Function.class).getGeneric(1).resolve()))
+            .toList();
+    if (steps.size() > 1) {
+      throw new BeanInitializationException(
+          "Bean '" + beanName + "' implements multiple workflow steps: " + steps);
+    }
+    return steps.stream().findFirst();
+  }
+
+  /** ステップの呼び出しを計測するインターセプター */
+  private static final class StepInterceptor implements MethodInterceptor {
+
+    private final Supplier<StepMeters> meters;
+
+    private StepInterceptor(
+        String workflow, String step, ObjectProvider<MeterRegistry> registryProvider) {
+      this.meters = Suppliers.memoize(() -> StepMeters.register(registryProvider, workflow, step));
+    }
+
+    @Override
+    public @Nullable Object invoke(MethodInvocation invocation) throws Throwable {
+      var method = invocation.getMethod();
+      if (!method.getName().equals("apply") || method.getParameterCount() != 1) {
+        return invocation.proceed();
+      }
+
+      var stepMeters = meters.get();
+      return Mono.defer(
+          () -> {
+            var active = stepMeters.active().start();
+            var sample = Timer.start(stepMeters.registry());
+            return proceed(invocation)
+                .doOnError(stepMeters::recordError)
+                .doFinally(
+                    signal -> {
+                      active.stop();
+                      sample.stop(stepMeters.timer(signal));
+                    });
+          });
+    }
+
+    private static Mono<?> proceed(MethodInvocation invocation) {
+      try {
+        return (Mono<?>) Objects.requireNonNull(invocation.proceed());
+      } catch (Throwable e) {
+        return Mono.error(e);
+      }
+    }
+  }
+
+  /**
+   * ステップごとのメトリクス
+   *
+   * @param registry 登録先
+   * @param tags ワークフロー名とステップ名のタグ
+   * @param success 正常に完了した処理の時間
+   * @param error エラーになった処理の時間
+   * @param cancelled キャンセルされた処理の時間
+   * @param active 実行中のステップ
+   */
+  private record StepMeters(
+      MeterRegistry registry,
+      Tags tags,
+      Timer success,
+      Timer error,
+      Timer cancelled,
+      LongTaskTimer active) {
+
+    static StepMeters register(
+        ObjectProvider<MeterRegistry> registryProvider, String workflow, String step) {
+      var registry = registryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+      var tags = Tags.of("workflow", workflow, "step", step);
+      return new StepMeters(
+          registry,
+          tags,
+          timer(registry, tags, "success"),
+          timer(registry, tags, "error"),
+          timer(registry, tags, "cancelled"),
+          LongTaskTimer.builder("workflow.step.active")
+              .description("実行中のワークフローステップ")
+              .tags(tags)
+              .register(registry));
+    }
+
+    Timer timer(SignalType signal) {
+      return switch (signal) {
+        case ON_ERROR -> error;
+        case CANCEL -> cancelled;
+        default -> success;
+      };
+    }
+
+    void recordError(Throwable error) {
+      Counter.builder("workflow.step.errors")
+          .description("ワークフローステップで発生したエラーの件数")
+          .tags(tags)
+          .tag("exception", error.getClass().getSimpleName())
+          .register(registry)
+          .increment();
+    }
+
+    private static Timer timer(MeterRegistry registry, Tags tags, String outcome) {
+      return Timer.builder("workflow.step")
+          .description("ワークフローステップの処理時間")
+          .tags(tags)
+          .tag("outcome", outcome)
+          .publishPercentileHistogram()
+          .register(registry);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package com.example.ec_2024b_back.share.infrastructure.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.jmolecules.event.types.DomainEvent;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * 集約の保存と同時にドメインイベントをアウトボックス（{@code outbox} コレクション）に書き込みます
+ *
+ * <p>書き込まれたイベントは {@link OutboxRelay} がリクエストとは別に配信するため、イベントに反応する処理はリクエストのレイテンシに含まれません。
+ *
+ * <p>集約の保存とイベントの書き込みが同時に反映されることは、{@code share.transactions.enabled=true}
+ * で2つの書き込みを1つのトランザクションでコミットする場合にのみ保証されます（MongoDBのレプリカセットが必要）。
+ * トランザクションが無効な場合は集約を保存してからイベントを書き込むため、その間にプロセスが停止するとイベントは失われます。その場合は起動時に警告を記録します。
+ */
+@Slf4j
+@Component
+public class Outbox {
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final OutboxEventCodec codec;
+  private final Optional<TransactionalOperator> transactionalOperator;
+
+  public Outbox(
+      ReactiveMongoTemplate mongoTemplate,
+      ObjectMapper objectMapper,
+      Optional<TransactionalOperator> transactionalOperator) {
+    this.mongoTemplate = mongoTemplate;
+    this.codec = new OutboxEventCodec(objectMapper);
+    this.transactionalOperator = transactionalOperator;
+    if (transactionalOperator.isEmpty()) {
+      log.warn("トランザクションが無効なため、集約の保存後にイベントの書き込みが失敗するとイベントは失われます");
+    }
+  }
+
+  /**
+   * 集約を保存し、続けて集約に蓄積されたイベントをアウトボックスに書き込みます
+   *
+   * @param save 集約を保存する処理
+   * @param aggregateId 集約のID
+   * @param events 集約に蓄積された未保存のイベント
+   * @return 保存された集約
+   */
+  public <T> Mono<T> saveWithEvents(
+      Mono<T> save, String aggregateId, List<? extends DomainEvent> events) {
+    if (events.isEmpty()) {
+      return save;
+    }
+    return saveWithEvents(save, saved -> aggregateId, saved -> events);
+  }
+
+  /**
+   * 集約を保存し、続けて保存の結果から求めたイベントをアウトボックスに書き込みます
+   *
+   * <p>{@code $inc} による条件付き更新のように、保存するまでイベントの内容（更新後の数量など）が決まらない場合に使います。
+   *
+   * @param save 集約を保存する処理
+   * @param aggregateId 保存された集約から集約のIDを求める関数
+   * @param events 保存された集約から書き込むイベントを求める関数
+   * @return 保存された集約
+   */
+  public <T> Mono<T> saveWithEvents(
+      Mono<T> save,
+      Function<? super T, String> aggregateId,
+      Function<? super T, ? extends List<? extends DomainEvent>> events) {
+    var writes =
+        save.flatMap(
+            saved -> append(aggregateId.apply(saved), events.apply(saved)).thenReturn(saved));
+    return transactionalOperator.map(operator -> operator.transactional(writes)).orElse(writes);
+  }
+
+  private Mono<Void> append(String aggregateId, List<? extends DomainEvent> events) {
+    if (events.isEmpty()) {
+      return Mono.empty();
+    }
+    return Mono.fromCallable(() -> toDocuments(aggregateId, events))
+        .flatMapMany(documents -> mongoTemplate.insertAll(documents))
+        .then();
+  }
+
+  private List<OutboxDocument> toDocuments(
+      String aggregateId, List<? extends DomainEvent> events) {
+    var now = Instant.now();
+    return events.stream()
+        .map(
+            event ->
+                new OutboxDocument(
+                    new ObjectId().toHexString(),
+                    aggregateId,
+                    event.getClass().getName(),
+                    codec.encode(event),
+                    now,
+                    0,
+                    null,
+                    null))
+        .toList();
+  }
+}
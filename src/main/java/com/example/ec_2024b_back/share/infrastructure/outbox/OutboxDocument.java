@@ -0,0 +1,37 @@
+package com.example.ec_2024b_back.share.infrastructure.outbox;
+
+import java.time.Instant;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * アウトボックスに書き込まれたドメインイベントのドキュメントクラス
+ *
+ * <p>IDは {@link org.bson.types.ObjectId} の16進表現で、辞書順に並べると書き込み順になります。
+ *
+ * <p>各ノードの {@link OutboxReplicator} が書き込み日時の順に読み込むため、{@code createdAt}・{@code _id}
+ * の複合インデックスを持ちます。配信を終えたイベントも保持期間の間は削除せずに残します。
+ *
+ * @param id ID
+ * @param aggregateId イベントを発行した集約のID
+ * @param eventType イベントのクラス名
+ * @param payload イベントのJSON表現
+ * @param createdAt 書き込み日時
+ * @param attempts 配信に失敗した回数
+ * @param lastError 最後に配信に失敗した理由
+ * @param publishedAt {@link OutboxRelay} が配信を終えた日時（未配信の場合はnull）
+ */
+@Document(collection = "outbox")
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': 1, '_id': 1}")
+public record OutboxDocument(
+    @Id String id,
+    String aggregateId,
+    String eventType,
+    String payload,
+    Instant createdAt,
+    int attempts,
+    @Nullable String lastError,
+    @Indexed @Nullable Instant publishedAt) {}
@@ -0,0 +1,51 @@
+package com.example.ec_2024b_back.share.infrastructure.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import org.jmolecules.event.types.DomainEvent;
+
+/**
+ * ドメインイベントとアウトボックスに保存するJSONを相互に変換します
+ *
+ * <p>イベントは {@code ImmutableList} などのGuavaのコレクションを含むため、アプリケーションの {@link ObjectMapper} に {@link
+ * GuavaModule} を加えたものを使用します。
+ */
+final class OutboxEventCodec {
+
+  private final ObjectMapper objectMapper;
+
+  OutboxEventCodec(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper.copy().registerModule(new GuavaModule());
+  }
+
+  /**
+   * イベントをJSONに変換します
+   *
+   * @param event ドメインイベント
+   * @return JSON
+   */
+  String encode(DomainEvent event) {
+    try {
+      return objectMapper.writeValueAsString(event);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(
+          "イベントをJSONに変換できません: " + event.getClass().getName(), e);
+    }
+  }
+
+  /**
+   * アウトボックスのドキュメントからイベントを復元します
+   *
+   * @param document アウトボックスのドキュメント
+   * @return ドメインイベント
+   */
+  DomainEvent decode(OutboxDocument document) {
+    try {
+      var type = Class.forName(document.eventType()).asSubclass(DomainEvent.class);
+      return objectMapper.readValue(document.payload(), type);
+    } catch (ClassNotFoundException | JsonProcessingException e) {
+      throw new IllegalStateException("イベントを復元できません: " + document.eventType(), e);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.ec_2024b_back.share.infrastructure.outbox;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * アウトボックスのイベントを配信するノードを決めるリースのドキュメントクラス
+ *
+ * <p>{@link OutboxRelay} は期限までリースを持つ間だけ配信し、配信のたびに期限を延ばします。期限を過ぎたリースは他のノードが取得できます。
+ *
+ * @param id リースの名前
+ * @param owner リースを持つノードのID
+ * @param leasedUntil リースの期限
+ */
+@Document(collection = "outbox_leases")
+public record OutboxLeaseDocument(@Id String id, String owner, Instant leasedUntil) {}
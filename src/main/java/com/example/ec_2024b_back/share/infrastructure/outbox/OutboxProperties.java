@@ -0,0 +1,29 @@
+package com.example.ec_2024b_back.share.infrastructure.outbox;
+
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * アウトボックスのドメインイベントを配信するリレーの設定プロパティ
+ *
+ * @param enabled リレーを有効にするかどうか
+ * @param batchSize 1回に読み込んで配信するイベントの件数
+ * @param pollInterval 未配信のイベントを確認する間隔
+ * @param maxAttempts 配信に失敗したイベントを再試行する回数の上限（超えたイベントと同じ集約の後続のイベントは配信対象から外す）
+ * @param replicationGrace 各ノードへの配信で、読み込み済みの位置より前に遡って読み直す時間（書き込みからコミットまでの遅れとノード間の時刻のずれを吸収する）
+ * @param retention 配信を終えたイベントをアウトボックスに残す時間（{@code replicationGrace} より長くする）
+ * @param leaseDuration 配信するノードが持つリースの期間（1バッチの配信にかかる時間より長くする）
+ */
+@Validated
+@ConfigurationProperties("share.outbox")
+public record OutboxProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("100") @Positive int batchSize,
+    @DefaultValue("1s") Duration pollInterval,
+    @DefaultValue("10") @Positive int maxAttempts,
+    @DefaultValue("10s") Duration replicationGrace,
+    @DefaultValue("10m") Duration retention,
+    @DefaultValue("30s") Duration leaseDuration) {}
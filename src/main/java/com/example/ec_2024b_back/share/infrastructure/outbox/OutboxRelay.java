@@ -0,0 +1,288 @@
+package com.example.ec_2024b_back.share.infrastructure.outbox;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.result.DeleteResult;
+import java.time.Duration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * アウトボックスに書き込まれたドメインイベントを配信するリレー
+ *
+ * <p>一定間隔で未配信のイベントを書き込み順にバッチで読み込み、{@link ApplicationEventPublisher} でアプリケーションモジュールに配信します。
+ * 集約ごとの順序を保つため、配信するのは {@link OutboxLeaseDocument リース} を持つ1つのノードだけです。リースはバッチごとに {@link
+ * OutboxProperties#leaseDuration()} だけ延ばし、停止したノードのリースは期限を過ぎると他のノードが引き継ぎます。
+ * 配信を終えたイベントには配信日時を記録し、{@link OutboxReplicator} が各ノードに配信できるよう {@link OutboxProperties#retention()}
+ * の間は残してから削除します。 バッチの処理中に次の確認時刻が来ても新たなバッチは読み込まず（背圧）、バッチが満杯だった場合は間隔を待たずに続けて読み込みます。
+ *
+ * <p>配信は少なくとも1回（at-least-once）です。配信日時の記録前のノードの停止や配信中のリースの期限切れでは同じイベントが再び配信されるため、
+ * リスナーの処理は冪等にします。配信に失敗したイベントは順序を保つためそこでバッチを打ち切り、次回に再試行します。失敗が {@link
+ * OutboxProperties#maxAttempts()} 回に達したイベントはアウトボックスに残し、順序を保つため同じ集約の後続のイベントも配信を止めます。 原因を取り除いたうえで
+ * {@code attempts} を戻すと配信が再開されます。
+ *
+ * <p>{@code share.outbox.enabled=false} の場合はリレーを登録せず、イベントはアウトボックスに蓄積されます。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(
+    prefix = "share.outbox",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class OutboxRelay implements SmartLifecycle {
+
+  private static final String LEASE_ID = "outbox-relay";
+  private static final Duration RELEASE_TIMEOUT = Duration.ofSeconds(5);
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final OutboxEventCodec codec;
+  private final ApplicationEventPublisher publisher;
+  private final OutboxProperties properties;
+  private final Counter published;
+  private final Counter failed;
+
+  /** リースの持ち主としてこのノードを表すID */
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private volatile @Nullable Disposable subscription;
+
+  public OutboxRelay(
+      ReactiveMongoTemplate mongoTemplate,
+      ObjectMapper objectMapper,
+      ApplicationEventPublisher publisher,
+      OutboxProperties properties,
+      MeterRegistry registry) {
+    this.mongoTemplate = mongoTemplate;
+    this.codec = new OutboxEventCodec(objectMapper);
+    this.publisher = publisher;
+    this.properties = properties;
+    this.published =
+        Counter.builder("outbox.events.published")
+            .description("アウトボックスから配信したイベントの件数")
+            .register(registry);
+    this.failed =
+        Counter.builder("outbox.events.failed")
+            .description("アウトボックスからの配信に失敗したイベントの件数")
+            .register(registry);
+  }
+
+  @Override
+  public void start() {
+    subscription =
+        Flux.interval(properties.pollInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> drain().then(purge()), 1)
+            .subscribe();
+  }
+
+  @Override
+  public void stop() {
+    var current = subscription;
+    if (current != null) {
+      current.dispose();
+    }
+    subscription = null;
+    releaseLease();
+  }
+
+  @Override
+  public boolean isRunning() {
+    var current = subscription;
+    return current != null && !current.isDisposed();
+  }
+
+  /**
+   * 未配信のイベントがなくなるまでバッチごとに配信します
+   *
+   * @return 配信したイベントの件数
+   */
+  Mono<Long> drain() {
+    return relayBatchWhileLeased()
+        .expand(
+            relayed ->
+                relayed.hasMore(properties.batchSize()) ? relayBatchWhileLeased() : Mono.empty())
+        .map(relayed -> (long) relayed.completed().size())
+        .reduce(0L, Long::sum)
+        .onErrorResume(
+            e -> {
+              log.warn("アウトボックスのイベントの配信に失敗しました", e);
+              return Mono.just(0L);
+            });
+  }
+
+  /**
+   * 保持期間を過ぎた配信済みのイベントを削除します
+   *
+   * @return 削除したイベントの件数
+   */
+  Mono<Long> purge() {
+    var expired = query(where("publishedAt").lt(Instant.now().minus(properties.retention())));
+    return mongoTemplate
+        .remove(expired, OutboxDocument.class)
+        .map(DeleteResult::getDeletedCount)
+        .onErrorResume(
+            e -> {
+              log.warn("配信済みのイベントの削除に失敗しました", e);
+              return Mono.just(0L);
+            });
+  }
+
+  /** リースを取得または延長できた場合に限り、1バッチ分のイベントを配信します */
+  private Mono<Relayed> relayBatchWhileLeased() {
+    return acquireLease().filter(Boolean::booleanValue).flatMap(leased -> relayBatch());
+  }
+
+  /**
+   * リースを取得するか、このノードが持つリースの期限を延ばします
+   *
+   * @return リースを持っているかどうか
+   */
+  Mono<Boolean> acquireLease() {
+    var now = Instant.now();
+    var available =
+        query(
+            where("id")
+                .is(LEASE_ID)
+                .orOperator(where("owner").is(nodeId), where("leasedUntil").lte(now)));
+    var lease =
+        new Update().set("owner", nodeId).set("leasedUntil", now.plus(properties.leaseDuration()));
+    return mongoTemplate
+        .findAndModify(
+            available,
+            lease,
+            FindAndModifyOptions.options().upsert(true).returnNew(true),
+            OutboxLeaseDocument.class)
+        .map(document -> true)
+        .defaultIfEmpty(false)
+        // 他のノードが期限内のリースを持つ場合は、条件に一致せず挿入しようとしてIDが重複する
+        .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+  }
+
+  /** 停止時に他のノードがすぐに引き継げるよう、このノードが持つリースを手放します */
+  private void releaseLease() {
+    mongoTemplate
+        .updateFirst(
+            query(where("id").is(LEASE_ID).and("owner").is(nodeId)),
+            new Update().set("leasedUntil", Instant.now()),
+            OutboxLeaseDocument.class)
+        .then()
+        .timeout(RELEASE_TIMEOUT)
+        .onErrorResume(
+            e -> {
+              log.warn("アウトボックスのリースを手放せませんでした", e);
+              return Mono.empty();
+            })
+        .block();
+  }
+
+  /** 1バッチ分のイベントを書き込み順に配信します */
+  private Mono<Relayed> relayBatch() {
+    return blockedAggregateIds()
+        .flatMap(
+            blocked -> mongoTemplate.find(pending(blocked), OutboxDocument.class).collectList())
+        .flatMap(
+            documents ->
+                Mono.fromCallable(() -> publish(documents))
+                    // リスナーはブロッキングする可能性があるためイベントループ外で呼び出す
+                    .subscribeOn(Schedulers.boundedElastic()))
+        .flatMap(relayed -> complete(relayed).thenReturn(relayed));
+  }
+
+  /** 配信を止めている集約を除いた未配信のイベントを書き込み順に読み込むクエリ */
+  private Query pending(List<String> blockedAggregateIds) {
+    return query(
+            where("publishedAt")
+                .is(null)
+                .and("attempts")
+                .lt(properties.maxAttempts())
+                .and("aggregateId")
+                .nin(blockedAggregateIds))
+        .with(Sort.by("id"))
+        .limit(properties.batchSize());
+  }
+
+  /** 再試行の上限に達したイベントがあり、後続のイベントの配信を止めている集約のID */
+  private Mono<List<String>> blockedAggregateIds() {
+    var exhausted =
+        query(where("publishedAt").is(null).and("attempts").gte(properties.maxAttempts()));
+    return mongoTemplate
+        .findDistinct(exhausted, "aggregateId", OutboxDocument.class, String.class)
+        .collectList();
+  }
+
+  private Relayed publish(List<OutboxDocument> documents) {
+    var completed = new ArrayList<String>(documents.size());
+    for (var document : documents) {
+      try {
+        publisher.publishEvent(codec.decode(document));
+      } catch (RuntimeException e) {
+        failed.increment();
+        log.warn("イベント {} の配信に失敗しました", document.id(), e);
+        return new Relayed(completed, document, e);
+      }
+      completed.add(document.id());
+      published.increment();
+    }
+    return new Relayed(completed, null, null);
+  }
+
+  private Mono<Void> complete(Relayed relayed) {
+    Mono<?> marking =
+        relayed.completed().isEmpty()
+            ? Mono.empty()
+            : mongoTemplate.updateMulti(
+                query(where("id").in(relayed.completed())),
+                new Update().set("publishedAt", Instant.now()),
+                OutboxDocument.class);
+    var failure = relayed.failure();
+    var error = relayed.error();
+    if (failure == null || error == null) {
+      return marking.then();
+    }
+    var update = new Update().inc("attempts", 1).set("lastError", String.valueOf(error));
+    return marking
+        .then(
+            mongoTemplate.updateFirst(
+                query(where("id").is(failure.id())), update, OutboxDocument.class))
+        .then();
+  }
+
+  /**
+   * 1バッチの配信結果
+   *
+   * @param completed 配信を終えたイベントのID
+   * @param failure 配信に失敗したイベント（失敗がなければnull）
+   * @param error 配信に失敗した理由
+   */
+  private record Relayed(
+      List<String> completed, @Nullable OutboxDocument failure, @Nullable Throwable error) {
+
+    /** 失敗せずにバッチの上限まで配信した場合は、まだ未配信のイベントが残っている可能性があります */
+    boolean hasMore(int batchSize) {
+      return failure == null && completed.size() == batchSize;
+    }
+  }
+}
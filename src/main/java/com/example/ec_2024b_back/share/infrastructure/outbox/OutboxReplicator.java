@@ -0,0 +1,242 @@
+package com.example.ec_2024b_back.share.infrastructure.outbox;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.errorprone.annotations.Var;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * アウトボックスに書き込まれたドメインイベントを、このノードのリスナーに {@link Replicated} として配信します
+ *
+ * <p>{@link OutboxRelay} がリースを持つ1つのノードからだけ配信するのに対し、各ノードがそれぞれ読み込み済みの位置（書き込み日時）を持ち、
+ * すべてのイベントを書き込み日時の順に配信します。書き込み日時は各ノードの時刻でコミットより前に決まるため、読み込み済みの位置より {@link
+ * OutboxProperties#replicationGrace()} だけ遡って読み直し、配信済みのイベントはIDで除きます。
+ *
+ * <p>配信に失敗したイベントはそこで打ち切って次回に再試行し、失敗が {@link OutboxProperties#maxAttempts()}
+ * 回に達した場合は読み飛ばします。起動時は起動した時刻から読み始めるため、リスナーはそれまでの状態をデータベースから読み込みます。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(
+    prefix = "share.outbox",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class OutboxReplicator implements SmartLifecycle {
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final OutboxEventCodec codec;
+  private final ApplicationEventPublisher publisher;
+  private final OutboxProperties properties;
+  private final Counter replicated;
+  private final Counter failed;
+
+  /** 配信済みのイベントのIDと書き込み日時（読み直す範囲にあるもののみ保持） */
+  private final Map<String, Instant> delivered = new ConcurrentHashMap<>();
+
+  /** 配信に失敗したイベントのIDと失敗した回数 */
+  private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+
+  /** この日時までに書き込まれたイベントは配信済み */
+  private volatile Instant position = Instant.now();
+
+  private volatile @Nullable Disposable subscription;
+
+  public OutboxReplicator(
+      ReactiveMongoTemplate mongoTemplate,
+      ObjectMapper objectMapper,
+      ApplicationEventPublisher publisher,
+      OutboxProperties properties,
+      MeterRegistry registry) {
+    this.mongoTemplate = mongoTemplate;
+    this.codec = new OutboxEventCodec(objectMapper);
+    this.publisher = publisher;
+    this.properties = properties;
+    this.replicated =
+        Counter.builder("outbox.events.replicated")
+            .description("アウトボックスからこのノードに配信したイベントの件数")
+            .register(registry);
+    this.failed =
+        Counter.builder("outbox.events.replication.failed")
+            .description("アウトボックスからこのノードへの配信に失敗したイベントの件数")
+            .register(registry);
+  }
+
+  @Override
+  public void start() {
+    subscription =
+        Flux.interval(properties.pollInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> drain(), 1)
+            .subscribe();
+  }
+
+  @Override
+  public void stop() {
+    var current = subscription;
+    if (current != null) {
+      current.dispose();
+    }
+    subscription = null;
+  }
+
+  @Override
+  public boolean isRunning() {
+    var current = subscription;
+    return current != null && !current.isDisposed();
+  }
+
+  /**
+   * 読み込み済みの位置以降のイベントをバッチごとに配信します
+   *
+   * @return 配信したイベントの件数
+   */
+  Mono<Long> drain() {
+    var from = new Key(position.minus(properties.replicationGrace()), "");
+    return replicateBatch(from)
+        .expand(
+            batch ->
+                batch.hasMore(properties.batchSize())
+                    ? replicateBatch(batch.last())
+                    : Mono.empty())
+        .reduce(new Progress(position, 0L), Progress::advancedBy)
+        .doOnNext(this::moveTo)
+        .map(Progress::replicated)
+        .onErrorResume(
+            e -> {
+              log.warn("アウトボックスのイベントのこのノードへの配信に失敗しました", e);
+              return Mono.just(0L);
+            });
+  }
+
+  /** 指定した位置より後に書き込まれたイベントを1バッチ分配信します */
+  private Mono<Batch> replicateBatch(Key after) {
+    var next =
+        query(
+                new Criteria()
+                    .orOperator(
+                        where("createdAt").gt(after.createdAt()),
+                        where("createdAt").is(after.createdAt()).and("id").gt(after.id())))
+            .with(Sort.by("createdAt", "id"))
+            .limit(properties.batchSize());
+    return mongoTemplate
+        .find(next, OutboxDocument.class)
+        .collectList()
+        .flatMap(
+            documents ->
+                Mono.fromCallable(() -> publish(documents))
+                    // リスナーはブロッキングする可能性があるためイベントループ外で呼び出す
+                    .subscribeOn(Schedulers.boundedElastic()));
+  }
+
+  private Batch publish(List<OutboxDocument> documents) {
+    @Var long count = 0;
+    for (var document : documents) {
+      if (delivered.containsKey(document.id())) {
+        continue;
+      }
+      try {
+        publisher.publishEvent(new Replicated<>(codec.decode(document)));
+        replicated.increment();
+        count++;
+      } catch (RuntimeException e) {
+        failed.increment();
+        int attempts = failures.merge(document.id(), 1, Integer::sum);
+        if (attempts < properties.maxAttempts()) {
+          log.warn("イベント {} のこのノードへの配信に失敗しました", document.id(), e);
+          return new Batch(documents, count, document.createdAt());
+        }
+        log.error(
+            "イベント {} のこのノードへの配信を{}回失敗したため読み飛ばします", document.id(), attempts, e);
+      }
+      failures.remove(document.id());
+      delivered.put(document.id(), document.createdAt());
+    }
+    return new Batch(documents, count, null);
+  }
+
+  /** 読み込み済みの位置を進め、読み直す範囲より前の配信済みのイベントを忘れます */
+  private void moveTo(Progress progress) {
+    position = progress.position();
+    var horizon = position.minus(properties.replicationGrace());
+    delivered.values().removeIf(createdAt -> createdAt.isBefore(horizon));
+  }
+
+  /**
+   * 書き込み日時とIDによる読み込みの位置
+   *
+   * @param createdAt 書き込み日時
+   * @param id ID
+   */
+  private record Key(Instant createdAt, String id) {}
+
+  /**
+   * 1バッチの配信結果
+   *
+   * @param documents 読み込んだイベント
+   * @param replicated 配信したイベントの件数
+   * @param failedAt 配信に失敗したイベントの書き込み日時（失敗がなければnull）
+   */
+  private record Batch(
+      List<OutboxDocument> documents, long replicated, @Nullable Instant failedAt) {
+
+    /** 失敗せずにバッチの上限まで読み込んだ場合は、まだ読み込んでいないイベントが残っている可能性があります */
+    boolean hasMore(int batchSize) {
+      return failedAt == null && documents.size() == batchSize;
+    }
+
+    Key last() {
+      var document = documents.getLast();
+      return new Key(document.createdAt(), document.id());
+    }
+  }
+
+  /**
+   * 1回の配信全体の結果
+   *
+   * @param position 配信を終えた位置
+   * @param replicated 配信したイベントの件数
+   */
+  private record Progress(Instant position, long replicated) {
+
+    /** 失敗したイベントがあれば、次回そのイベントから読み直せるよう位置を進めません */
+    Progress advancedBy(Batch batch) {
+      var failedAt = batch.failedAt();
+      if (failedAt != null) {
+        return new Progress(min(position, failedAt), replicated + batch.replicated());
+      }
+      if (batch.documents().isEmpty()) {
+        return new Progress(position, replicated + batch.replicated());
+      }
+      return new Progress(max(position, batch.last().createdAt()), replicated + batch.replicated());
+    }
+
+    private static Instant min(Instant a, Instant b) {
+      return a.isBefore(b) ? a : b;
+    }
+
+    private static Instant max(Instant a, Instant b) {
+      return a.isAfter(b) ? a : b;
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.ec_2024b_back.share.infrastructure.outbox;
+
+import org.jmolecules.event.types.DomainEvent;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+/**
+ * すべてのノードに配信されるドメインイベント
+ *
+ * <p>{@link OutboxRelay} はリースを持つ1つのノードからイベントを配信するため、データベースへの反映など共有の状態を更新する処理に向きます。
+ * メモリ上の索引のようにノードごとに持つ状態は、{@link OutboxReplicator} が各ノードに配信する {@code Replicated<イベントの型>}
+ * を受け取るリスナーで更新します。同じイベントが再び配信されることがあるため、リスナーの処理は冪等にします。
+ *
+ * @param event ドメインイベント
+ */
+public record Replicated<E extends DomainEvent>(E event) implements ResolvableTypeProvider {
+
+  /** リスナーがイベントの型で購読できるよう、イベントの実際の型を型引数として返します */
+  @Override
+  public ResolvableType getResolvableType() {
+    return ResolvableType.forClassWithGenerics(Replicated.class, event.getClass());
+  }
+}
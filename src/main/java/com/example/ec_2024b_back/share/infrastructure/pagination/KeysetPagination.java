@@ -0,0 +1,71 @@
+package com.example.ec_2024b_back.share.infrastructure.pagination;
+
+import com.example.ec_2024b_back.share.domain.models.CursorPage;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * キーセットページネーションのカーソルの符号化とページの組み立て
+ *
+ * <p>カーソルはページの最後の要素のソートキー（同じ値の要素を区別するための {@code _id} を含む）を連結し、URLセーフなBase64で符号化したものです。
+ * 次のページは「ソートキーがカーソルより後」の条件で索引から直接読み始めるため、ページの深さによらず読み込む件数は一定です。
+ */
+public final class KeysetPagination {
+
+  private static final char SEPARATOR = '\n';
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private KeysetPagination() {}
+
+  /**
+   * ソートキーをカーソルに符号化します
+   *
+   * @param keys ソートキー（ソートの優先順）
+   * @return カーソル
+   */
+  public static String encode(String... keys) {
+    return ENCODER.encodeToString(
+        String.join(String.valueOf(SEPARATOR), keys).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * カーソルをソートキーに復号します
+   *
+   * @param cursor カーソル
+   * @param keyCount ソートキーの数
+   * @return ソートキー（ソートの優先順）
+   * @throws IllegalArgumentException カーソルの形式が不正な場合
+   */
+  public static List<String> decode(String cursor, int keyCount) {
+    var keys =
+        Splitter.on(SEPARATOR)
+            .splitToList(new String(DECODER.decode(cursor), StandardCharsets.UTF_8));
+    if (keys.size() != keyCount || keys.contains("")) {
+      throw new IllegalArgumentException("カーソルの形式が不正です");
+    }
+    return keys;
+  }
+
+  /**
+   * 1ページの件数より1件多く読み込んだ結果からページを組み立てます
+   *
+   * @param fetched 読み込んだ要素（最大で {@code limit + 1} 件）
+   * @param limit 1ページあたりの件数
+   * @param cursorOf 要素からカーソルを作る関数
+   * @param <T> 要素の型
+   * @return ページ（{@code limit} 件を超えて読み込めた場合のみ次のカーソルを持つ）
+   */
+  public static <T> CursorPage<T> toPage(
+      List<T> fetched, int limit, Function<? super T, String> cursorOf) {
+    if (fetched.size() <= limit) {
+      return new CursorPage<>(ImmutableList.copyOf(fetched), null);
+    }
+    var items = ImmutableList.copyOf(fetched.subList(0, limit));
+    return new CursorPage<>(items, cursorOf.apply(items.getLast()));
+  }
+}
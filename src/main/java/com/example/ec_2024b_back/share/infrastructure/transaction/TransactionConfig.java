@@ -0,0 +1,38 @@
+package com.example.ec_2024b_back.share.infrastructure.transaction;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * 各モジュールで共有するトランザクションの設定
+ *
+ * <p>{@code share.transactions.enabled} が有効な場合のみ {@link TransactionalOperator}
+ * を登録します（MongoDBのレプリカセットが必要）。
+ * 集約の保存とアウトボックスへのイベントの書き込みや、注文の保存とカートのクリアは、登録されている場合に1つのトランザクションでコミットされます。
+ */
+@Configuration
+public class TransactionConfig {
+
+  /**
+   * 複数の書き込みを1つのトランザクションでコミットするためのオペレーターを提供
+   *
+   * @param transactionManager 登録済みのトランザクションマネージャー（なければMongoDBのものを作成）
+   * @param databaseFactory MongoDBのデータベースファクトリ
+   * @return トランザクションオペレーター
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "share.transactions", name = "enabled", havingValue = "true")
+  public TransactionalOperator transactionalOperator(
+      ObjectProvider<ReactiveTransactionManager> transactionManager,
+      ReactiveMongoDatabaseFactory databaseFactory) {
+    return TransactionalOperator.create(
+        transactionManager.getIfAvailable(
+            () -> new ReactiveMongoTransactionManager(databaseFactory)));
+  }
+}
@@ -37,4 +37,20 @@ public interface ShoppingHandlers {
    * @return the server response
    */
   Mono<ServerResponse> initiatePayment(ServerRequest request);
+
+  /**
+   * List orders handler.
+   *
+   * @param request the server request
+   * @return the server response
+   */
+  Mono<ServerResponse> listOrders(ServerRequest request);
+
+  /**
+   * Stream orders handler.
+   *
+   * @param request the server request
+   * @return the server response
+   */
+  Mono<ServerResponse> streamOrders(ServerRequest request);
 }
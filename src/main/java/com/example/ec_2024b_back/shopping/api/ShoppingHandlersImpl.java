@@ -4,6 +4,7 @@ import com.example.ec_2024b_back.shopping.infrastructure.api.AddItemToCartHandle
 import com.example.ec_2024b_back.shopping.infrastructure.api.CreateOrderFromCartHandler;
 import com.example.ec_2024b_back.shopping.infrastructure.api.GetOrCreateCartHandler;
 import com.example.ec_2024b_back.shopping.infrastructure.api.InitiatePaymentHandler;
+import com.example.ec_2024b_back.shopping.infrastructure.api.ListOrdersHandler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
@@ -19,6 +20,7 @@ public class ShoppingHandlersImpl implements ShoppingHandlers {
   private final AddItemToCartHandler addItemToCartHandler;
   private final CreateOrderFromCartHandler createOrderFromCartHandler;
   private final InitiatePaymentHandler initiatePaymentHandler;
+  private final ListOrdersHandler listOrdersHandler;
 
   @Override
   public Mono<ServerResponse> getOrCreateCart(ServerRequest request) {
@@ -39,4 +41,14 @@ public class ShoppingHandlersImpl implements ShoppingHandlers {
   public Mono<ServerResponse> initiatePayment(ServerRequest request) {
     return initiatePaymentHandler.initiatePayment(request);
   }
+
+  @Override
+  public Mono<ServerResponse> listOrders(ServerRequest request) {
+    return listOrdersHandler.listOrders(request);
+  }
+
+  @Override
+  public Mono<ServerResponse> streamOrders(ServerRequest request) {
+    return listOrdersHandler.streamOrders(request);
+  }
 }
@@ -4,7 +4,6 @@ import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.product.ProductId;
 import com.example.ec_2024b_back.shopping.application.workflow.AddItemToCartWorkflow;
 import com.example.ec_2024b_back.shopping.domain.models.Cart;
-import java.math.BigDecimal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
@@ -24,20 +23,13 @@ public class AddItemToCartUsecase {
    *
    * @param accountId アカウントID
    * @param productId 追加する商品ID
-   * @param productName 追加する商品名
-   * @param unitPrice 単価
    * @param quantity 数量
    * @return 更新されたカートを含むMono
    */
   @Transactional
-  public Mono<Cart> execute(
-      AccountId accountId,
-      ProductId productId,
-      String productName,
-      int quantity,
-      BigDecimal unitPrice) {
+  public Mono<Cart> execute(AccountId accountId, ProductId productId, int quantity) {
     return addItemToCartWorkflow
-        .execute(accountId, productId, productName, unitPrice, quantity)
+        .execute(accountId, productId, quantity)
         .onErrorMap(
             e ->
                 new CartOperationFailedException(
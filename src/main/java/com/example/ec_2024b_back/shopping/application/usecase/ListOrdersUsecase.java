@@ -0,0 +1,45 @@
+package com.example.ec_2024b_back.shopping.application.usecase;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.share.domain.models.CursorPage;
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
+import com.example.ec_2024b_back.shopping.domain.models.OrderSummary;
+import com.example.ec_2024b_back.shopping.domain.repositories.OrderSummaries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 注文履歴の一覧ユースケースを実装するクラス.
+ *
+ * <p>注文の集約ではなく、注文の保存と同時に書き込まれる概要を読みます。 概要の書き込みに失敗した場合（トランザクションが無効な場合のみ）は、
+ * 注文のイベントから概要が更新されるまで一覧への反映が遅れます。
+ */
+@Service
+@RequiredArgsConstructor
+public class ListOrdersUsecase {
+
+  private final OrderSummaries orderSummaries;
+
+  /**
+   * アカウントの注文を新しい順に1ページ分取得します.
+   *
+   * @param accountId アカウントID
+   * @param page ページ指定
+   * @return 注文のページを含むMono
+   */
+  public Mono<CursorPage<OrderSummary>> execute(AccountId accountId, CursorPageRequest page) {
+    return orderSummaries.findByAccountId(accountId, page);
+  }
+
+  /**
+   * アカウントの注文をすべて新しい順にストリームで取得します.
+   *
+   * @param accountId アカウントID
+   * @return 注文のストリーム
+   */
+  public Flux<OrderSummary> stream(AccountId accountId) {
+    return orderSummaries.findByAccountId(accountId);
+  }
+}
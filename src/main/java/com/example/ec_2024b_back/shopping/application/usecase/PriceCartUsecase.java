@@ -0,0 +1,26 @@
+package com.example.ec_2024b_back.shopping.application.usecase;
+
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.PricedCart;
+import com.example.ec_2024b_back.shopping.domain.services.CartPricing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/** カートの金額計算ユースケースを実装するクラス. */
+@Service
+@RequiredArgsConstructor
+public class PriceCartUsecase {
+
+  private final CartPricing cartPricing;
+
+  /**
+   * カートの金額を商品の現在の価格で計算します.
+   *
+   * @param cart カート
+   * @return 計算したカートの金額を含むMono
+   */
+  public Mono<PricedCart> execute(Cart cart) {
+    return cartPricing.price(cart);
+  }
+}
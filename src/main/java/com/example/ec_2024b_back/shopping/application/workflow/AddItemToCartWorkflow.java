@@ -4,7 +4,7 @@ import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.product.ProductId;
 import com.example.ec_2024b_back.share.domain.exceptions.DomainException;
 import com.example.ec_2024b_back.shopping.domain.models.Cart;
-import java.math.BigDecimal;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
 import java.util.function.Function;
 import reactor.core.publisher.Mono;
 
@@ -36,42 +36,30 @@ public interface AddItemToCartWorkflow {
      *
      * @param accountId アカウントID
      * @param productId 商品ID
-     * @param productName 商品名
-     * @param unitPrice 単価
      * @param quantity 数量
      */
-    record Input(
-        AccountId accountId,
-        ProductId productId,
-        String productName,
-        BigDecimal unitPrice,
-        int quantity)
-        implements Context {}
+    record Input(AccountId accountId, ProductId productId, int quantity) implements Context {}
 
     /**
      * カート見つかりコンテキスト
      *
      * @param cart カート
      * @param productId 商品ID
-     * @param productName 商品名
-     * @param unitPrice 単価
      * @param quantity 数量
      */
-    record CartFound(
-        Cart cart, ProductId productId, String productName, BigDecimal unitPrice, int quantity)
-        implements Context {}
+    record CartFound(Cart cart, ProductId productId, int quantity) implements Context {}
 
     /**
      * 検証済みコンテキスト
      *
      * @param cart カート
      * @param productId 商品ID
-     * @param productName 商品名
-     * @param unitPrice 単価
+     * @param productName 商品名（商品カタログの値）
+     * @param unitPrice 単価（商品カタログの割引後の価格）
      * @param quantity 数量
      */
     record Validated(
-        Cart cart, ProductId productId, String productName, BigDecimal unitPrice, int quantity)
+        Cart cart, ProductId productId, String productName, Money unitPrice, int quantity)
         implements Context {}
 
     /**
@@ -92,19 +80,14 @@ public interface AddItemToCartWorkflow {
   /**
    * カートに商品を追加します
    *
+   * <p>商品名と単価は商品カタログから取得します。
+   *
    * @param accountId アカウントID
    * @param productId 商品ID
-   * @param productName 商品名
-   * @param unitPrice 単価
    * @param quantity 数量
    * @return 更新されたカート
    */
-  Mono<Cart> execute(
-      AccountId accountId,
-      ProductId productId,
-      String productName,
-      BigDecimal unitPrice,
-      int quantity);
+  Mono<Cart> execute(AccountId accountId, ProductId productId, int quantity);
 
   /** カートが見つからない場合の例外 */
   class CartNotFoundException extends DomainException {
@@ -3,6 +3,7 @@ package com.example.ec_2024b_back.shopping.application.workflow;
 import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.share.domain.exceptions.DomainException;
 import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
 import com.example.ec_2024b_back.shopping.domain.models.Order;
 import java.math.BigDecimal;
 import java.util.function.Function;
@@ -64,7 +65,7 @@ public interface CreateOrderFromCartWorkflow {
      * @param shippingCost 配送料
      * @param taxRate 税率
      */
-    record Validated(Cart cart, String shippingAddress, BigDecimal shippingCost, BigDecimal taxRate)
+    record Validated(Cart cart, String shippingAddress, Money shippingCost, BigDecimal taxRate)
         implements Context {}
 
     /**
@@ -120,4 +121,11 @@ public interface CreateOrderFromCartWorkflow {
       super(message);
     }
   }
+
+  /** 販売されていない商品がカートに含まれる場合の例外 */
+  class UnavailableProductException extends DomainException {
+    public UnavailableProductException(String message) {
+      super(message);
+    }
+  }
 }
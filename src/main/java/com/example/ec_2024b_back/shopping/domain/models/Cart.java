@@ -7,10 +7,10 @@ import com.example.ec_2024b_back.shopping.domain.models.CartEvent.CartCleared;
 import com.example.ec_2024b_back.shopping.domain.models.CartEvent.ItemAddedToCart;
 import com.example.ec_2024b_back.shopping.domain.models.CartEvent.ItemQuantityChanged;
 import com.example.ec_2024b_back.shopping.domain.models.CartEvent.ItemRemovedFromCart;
-import java.math.BigDecimal;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.annotations.Var;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -20,17 +20,31 @@ import lombok.RequiredArgsConstructor;
 import org.jmolecules.ddd.types.AggregateRoot;
 import org.jspecify.annotations.Nullable;
 
-/** ショッピングカートを表す集約ルート */
+/**
+ * ショッピングカートを表す集約ルート
+ *
+ * <p>カート内アイテムは商品IDをキーとした挿入順のマップで保持し、変更操作での商品の検索をO(1)で行います。
+ *
+ * <p>集約は不変のため、変更操作はアイテムのマップと未保存のイベントのリストを1回ずつ複製し、コストはアイテム数に比例します（構造の共有は行いません）。
+ * カートはリクエストごとにドキュメントから復元され、その復元もアイテム数に比例するため、1回のリクエストで行う少数の変更ではコストの次数は変わりません。
+ * 1つのインスタンスに多数の変更を続けて適用する用途には向きません。
+ */
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 @Getter
 public class Cart implements AggregateRoot<Cart, CartId> {
   private final CartId id;
   private final AccountId accountId;
-  private final List<CartItem> items;
-  private final List<CartEvent> events;
+
+  @Getter(AccessLevel.NONE)
+  private final ImmutableMap<ProductId, CartItem> items;
+
+  private final ImmutableList<CartEvent> events;
   private final Instant createdAt;
   private final Instant updatedAt;
 
+  /** 楽観的排他制御のためのバージョン（未保存の場合はnull） */
+  private final @Nullable Long version;
+
   /**
    * 新しいカートを作成します
    *
@@ -40,7 +54,7 @@ public class Cart implements AggregateRoot<Cart, CartId> {
    * @return 作成されたカート
    */
   public static Cart create(CartId id, AccountId accountId, Instant now) {
-    return new Cart(id, accountId, Collections.emptyList(), Collections.emptyList(), now, now);
+    return new Cart(id, accountId, ImmutableMap.of(), ImmutableList.of(), now, now, null);
   }
 
   /**
@@ -48,14 +62,26 @@ public class Cart implements AggregateRoot<Cart, CartId> {
    *
    * @param id カートID
    * @param accountId アカウントID
-   * @param items カート内アイテム
+   * @param items カート内アイテム（表示順）
    * @param createdAt 作成日時
    * @param updatedAt 更新日時
+   * @param version バージョン
    * @return 復元されたカート
+   * @throws IllegalArgumentException 同じ商品のアイテムが複数含まれる場合
    */
   public static Cart reconstruct(
-      CartId id, AccountId accountId, List<CartItem> items, Instant createdAt, Instant updatedAt) {
-    return new Cart(id, accountId, items, Collections.emptyList(), createdAt, updatedAt);
+      CartId id,
+      AccountId accountId,
+      List<CartItem> items,
+      Instant createdAt,
+      Instant updatedAt,
+      @Nullable Long version) {
+    var itemMap = ImmutableMap.<ProductId, CartItem>builderWithExpectedSize(items.size());
+    for (var item : items) {
+      itemMap.put(item.productId(), item);
+    }
+    return new Cart(
+        id, accountId, itemMap.buildOrThrow(), ImmutableList.of(), createdAt, updatedAt, version);
   }
 
   /**
@@ -69,43 +95,44 @@ public class Cart implements AggregateRoot<Cart, CartId> {
    * @return 更新されたカート
    */
   public Cart addItem(
-      ProductId productId, String productName, BigDecimal unitPrice, int quantity, Instant now) {
+      ProductId productId, String productName, Money unitPrice, int quantity, Instant now) {
 
     if (quantity <= 0) {
       throw new IllegalArgumentException("数量は1以上でなければなりません");
     }
 
-    var newItems = new ArrayList<>(this.items);
-    var newEvents = new ArrayList<>(this.events);
-
-    // 既に同じ商品がカートにあるか確認
-    var existingItem = findItemByProductId(productId);
+    var existingItem = items.get(productId);
 
-    if (existingItem.isPresent()) {
-      // 既存アイテムの数量を更新
-      var item = existingItem.get();
-      var oldQuantity = item.quantity();
+    if (existingItem != null) {
+      // 既存アイテムの数量を更新（表示順は維持する）
+      var oldQuantity = existingItem.quantity();
       var newQuantity = oldQuantity + quantity;
 
-      // 既存アイテムを削除して新しいアイテムを追加
-      newItems.removeIf(i -> i.productId().equals(productId));
-      newItems.add(item.withQuantity(newQuantity));
-
-      newEvents.add(new ItemQuantityChanged(id, productId, oldQuantity, newQuantity, now));
-    } else {
-      // 新しいアイテムをカートに追加
-      var newItem = new CartItem(productId, productName, quantity, unitPrice);
-      newItems.add(newItem);
-      newEvents.add(new ItemAddedToCart(id, productId, productName, quantity, now));
+      return new Cart(
+          id,
+          accountId,
+          replaceItem(existingItem.withQuantity(newQuantity)),
+          appendEvent(new ItemQuantityChanged(id, productId, oldQuantity, newQuantity, now)),
+          createdAt,
+          now,
+          version);
     }
 
+    // 新しいアイテムをカートの末尾に追加
+    var newItems =
+        ImmutableMap.<ProductId, CartItem>builderWithExpectedSize(items.size() + 1)
+            .putAll(items)
+            .put(productId, new CartItem(productId, productName, quantity, unitPrice))
+            .buildOrThrow();
+
     return new Cart(
         id,
         accountId,
-        Collections.unmodifiableList(newItems),
-        Collections.unmodifiableList(newEvents),
+        newItems,
+        appendEvent(new ItemAddedToCart(id, productId, productName, quantity, now)),
         createdAt,
-        now);
+        now,
+        version);
   }
 
   /**
@@ -116,25 +143,25 @@ public class Cart implements AggregateRoot<Cart, CartId> {
    * @return 更新されたカート
    */
   public Cart removeItem(ProductId productId, Instant now) {
-    var existingItem = findItemByProductId(productId);
-
-    if (existingItem.isEmpty()) {
+    if (!items.containsKey(productId)) {
       return this; // 変更なし
     }
 
-    var newItems = new ArrayList<>(this.items);
-    var newEvents = new ArrayList<>(this.events);
-
-    newItems.removeIf(item -> item.productId().equals(productId));
-    newEvents.add(new ItemRemovedFromCart(id, productId, now));
+    var newItems = ImmutableMap.<ProductId, CartItem>builderWithExpectedSize(items.size() - 1);
+    for (var entry : items.entrySet()) {
+      if (!entry.getKey().equals(productId)) {
+        newItems.put(entry);
+      }
+    }
 
     return new Cart(
         id,
         accountId,
-        Collections.unmodifiableList(newItems),
-        Collections.unmodifiableList(newEvents),
+        newItems.buildOrThrow(),
+        appendEvent(new ItemRemovedFromCart(id, productId, now)),
         createdAt,
-        now);
+        now,
+        version);
   }
 
   /**
@@ -151,35 +178,26 @@ public class Cart implements AggregateRoot<Cart, CartId> {
       return removeItem(productId, now);
     }
 
-    var existingItem = findItemByProductId(productId);
+    var item = items.get(productId);
 
-    if (existingItem.isEmpty()) {
+    if (item == null) {
       return this; // 変更なし
     }
 
-    var item = existingItem.get();
     var oldQuantity = item.quantity();
 
     if (oldQuantity == newQuantity) {
       return this; // 変更なし
     }
 
-    var newItems = new ArrayList<>(this.items);
-    var newEvents = new ArrayList<>(this.events);
-
-    // 既存アイテムを削除して新しいアイテムを追加
-    newItems.removeIf(i -> i.productId().equals(productId));
-    newItems.add(item.withQuantity(newQuantity));
-
-    newEvents.add(new ItemQuantityChanged(id, productId, oldQuantity, newQuantity, now));
-
     return new Cart(
         id,
         accountId,
-        Collections.unmodifiableList(newItems),
-        Collections.unmodifiableList(newEvents),
+        replaceItem(item.withQuantity(newQuantity)),
+        appendEvent(new ItemQuantityChanged(id, productId, oldQuantity, newQuantity, now)),
         createdAt,
-        now);
+        now,
+        version);
   }
 
   /**
@@ -193,16 +211,14 @@ public class Cart implements AggregateRoot<Cart, CartId> {
       return this; // 変更なし
     }
 
-    var newEvents = new ArrayList<>(this.events);
-    newEvents.add(new CartCleared(id, now));
-
     return new Cart(
         id,
         accountId,
-        Collections.emptyList(),
-        Collections.unmodifiableList(newEvents),
+        ImmutableMap.of(),
+        appendEvent(new CartCleared(id, now)),
         createdAt,
-        now);
+        now,
+        version);
   }
 
   /**
@@ -210,10 +226,22 @@ public class Cart implements AggregateRoot<Cart, CartId> {
    *
    * @return 合計金額
    */
-  public BigDecimal calculateTotal() {
-    return items.stream()
-        .map(item -> item.unitPrice().multiply(BigDecimal.valueOf(item.quantity())))
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+  public Money calculateTotal() {
+    // 明細ごとの金額オブジェクトを生成せずに合計する
+    @Var long total = 0;
+    for (var item : items.values()) {
+      total = Math.addExact(total, Math.multiplyExact(item.unitPrice().yen(), item.quantity()));
+    }
+    return Money.ofYen(total);
+  }
+
+  /**
+   * カート内のアイテムを追加された順に取得します
+   *
+   * @return カート内アイテムの不変リスト
+   */
+  public ImmutableList<CartItem> getItems() {
+    return items.values().asList();
   }
 
   /**
@@ -223,7 +251,26 @@ public class Cart implements AggregateRoot<Cart, CartId> {
    * @return 見つかったアイテム（存在しない場合は空）
    */
   public Optional<CartItem> findItemByProductId(ProductId productId) {
-    return items.stream().filter(item -> item.productId().equals(productId)).findFirst();
+    return Optional.ofNullable(items.get(productId));
+  }
+
+  /** 同じ商品のアイテムを表示順を保ったまま置き換えたマップを作成します */
+  private ImmutableMap<ProductId, CartItem> replaceItem(CartItem replacement) {
+    var newItems = ImmutableMap.<ProductId, CartItem>builderWithExpectedSize(items.size());
+    for (var entry : items.entrySet()) {
+      newItems.put(
+          entry.getKey(),
+          entry.getKey().equals(replacement.productId()) ? replacement : entry.getValue());
+    }
+    return newItems.buildOrThrow();
+  }
+
+  /** イベントを末尾に追加したリストを作成します */
+  private ImmutableList<CartEvent> appendEvent(CartEvent event) {
+    return ImmutableList.<CartEvent>builderWithExpectedSize(events.size() + 1)
+        .addAll(events)
+        .add(event)
+        .build();
   }
 
   @Override
@@ -251,13 +298,15 @@ public class Cart implements AggregateRoot<Cart, CartId> {
         + ", accountId="
         + accountId
         + ", items="
-        + items
+        + items.values()
         + ", events="
         + events
         + ", createdAt="
         + createdAt
         + ", updatedAt="
         + updatedAt
+        + ", version="
+        + version
         + '}';
   }
 }
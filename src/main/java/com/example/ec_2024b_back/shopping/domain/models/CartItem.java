@@ -1,13 +1,12 @@
 package com.example.ec_2024b_back.shopping.domain.models;
 
 import com.example.ec_2024b_back.product.ProductId;
-import java.math.BigDecimal;
 import java.util.Objects;
 import org.jspecify.annotations.Nullable;
 
 /** カート内の商品アイテムを表す値オブジェクト */
 public record CartItem(
-    ProductId productId, String productName, int quantity, BigDecimal unitPrice) {
+    ProductId productId, String productName, int quantity, Money unitPrice) {
 
   /** カートアイテムの検証を行うコンストラクタ */
   public CartItem {
@@ -17,7 +16,7 @@ public record CartItem(
     if (quantity <= 0) {
       throw new IllegalArgumentException("数量は1以上でなければなりません");
     }
-    if (unitPrice.compareTo(BigDecimal.ZERO) < 0) {
+    if (unitPrice.isNegative()) {
       throw new IllegalArgumentException("単価は0以上でなければなりません");
     }
   }
@@ -37,8 +36,8 @@ public record CartItem(
    *
    * @return 合計金額
    */
-  public BigDecimal calculateTotal() {
-    return unitPrice.multiply(BigDecimal.valueOf(quantity));
+  public Money calculateTotal() {
+    return unitPrice.times(quantity);
   }
 
   @Override
@@ -53,7 +52,7 @@ public record CartItem(
     return quantity == cartItem.quantity
         && Objects.equals(productId, cartItem.productId)
         && Objects.equals(productName, cartItem.productName)
-        && unitPrice.compareTo(cartItem.unitPrice) == 0;
+        && unitPrice.equals(cartItem.unitPrice);
   }
 
   @Override
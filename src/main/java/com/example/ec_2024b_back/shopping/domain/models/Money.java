@@ -0,0 +1,126 @@
+package com.example.ec_2024b_back.shopping.domain.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 円建ての金額を表す値オブジェクト
+ *
+ * <p>日本円には補助通貨単位がないため、金額を1円単位の {@code long} で保持します。 加算や数量の乗算は {@link BigDecimal}
+ * を生成せずに整数演算で行い、桁あふれした場合は {@link ArithmeticException} を投げます。
+ *
+ * @param yen 金額（円）
+ */
+public record Money(long yen) implements Comparable<Money> {
+
+  /** 0円 */
+  public static final Money ZERO = new Money(0);
+
+  /**
+   * 円単位の金額を作成します
+   *
+   * @param yen 金額（円）
+   * @return 金額
+   */
+  public static Money ofYen(long yen) {
+    return yen == 0 ? ZERO : new Money(yen);
+  }
+
+  /**
+   * {@link BigDecimal} の金額を変換します
+   *
+   * @param amount 金額（円）
+   * @return 金額
+   * @throws IllegalArgumentException 1円未満の端数がある場合
+   * @throws ArithmeticException {@code long} の範囲を超える場合
+   */
+  public static Money of(BigDecimal amount) {
+    try {
+      return ofYen(amount.setScale(0, RoundingMode.UNNECESSARY).longValueExact());
+    } catch (ArithmeticException e) {
+      if (amount.stripTrailingZeros().scale() > 0) {
+        throw new IllegalArgumentException("金額に1円未満の端数があります: " + amount, e);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * 金額を加算します
+   *
+   * @param other 加算する金額
+   * @return 合計金額
+   */
+  public Money plus(Money other) {
+    return ofYen(Math.addExact(yen, other.yen));
+  }
+
+  /**
+   * 金額を減算します
+   *
+   * @param other 減算する金額
+   * @return 差額
+   */
+  public Money minus(Money other) {
+    return ofYen(Math.subtractExact(yen, other.yen));
+  }
+
+  /**
+   * 数量を乗算します
+   *
+   * @param quantity 数量
+   * @return 金額と数量の積
+   */
+  public Money times(int quantity) {
+    return ofYen(Math.multiplyExact(yen, quantity));
+  }
+
+  /**
+   * 率を乗算し、1円未満を丸めます
+   *
+   * @param rate 率（例: 税率 0.10）
+   * @param roundingMode 1円未満の丸め方
+   * @return 金額と率の積
+   */
+  public Money times(BigDecimal rate, RoundingMode roundingMode) {
+    return ofYen(
+        BigDecimal.valueOf(yen).multiply(rate).setScale(0, roundingMode).longValueExact());
+  }
+
+  /**
+   * 金額が負かどうかを返します
+   *
+   * @return 0円未満の場合true
+   */
+  public boolean isNegative() {
+    return yen < 0;
+  }
+
+  /**
+   * 金額が正かどうかを返します
+   *
+   * @return 1円以上の場合true
+   */
+  public boolean isPositive() {
+    return yen > 0;
+  }
+
+  /**
+   * {@link BigDecimal} に変換します
+   *
+   * @return 金額（円）
+   */
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(yen);
+  }
+
+  @Override
+  public int compareTo(Money other) {
+    return Long.compare(yen, other.yen);
+  }
+
+  @Override
+  public String toString() {
+    return Long.toString(yen);
+  }
+}
@@ -31,10 +31,10 @@ public class Order implements AggregateRoot<Order, OrderId> {
   private final OrderId id;
   private final AccountId accountId;
   private final List<OrderItem> items;
-  private final BigDecimal subtotal;
-  private final BigDecimal tax;
-  private final BigDecimal shippingCost;
-  private final BigDecimal totalAmount;
+  private final Money subtotal;
+  private final Money tax;
+  private final Money shippingCost;
+  private final Money totalAmount;
   private final OrderStatus status;
   private final String shippingAddress;
   private final @Nullable String trackingNumber;
@@ -44,6 +44,9 @@ public class Order implements AggregateRoot<Order, OrderId> {
   private final Instant createdAt;
   private final Instant updatedAt;
 
+  /** 楽観的排他制御のためのバージョン（未保存の場合はnull） */
+  private final @Nullable Long version;
+
   /**
    * カートから新しい注文を作成します
    *
@@ -59,7 +62,7 @@ public class Order implements AggregateRoot<Order, OrderId> {
       OrderId id,
       Cart cart,
       String shippingAddress,
-      BigDecimal shippingCost,
+      Money shippingCost,
       BigDecimal taxRate,
       Instant now) {
 
@@ -71,11 +74,11 @@ public class Order implements AggregateRoot<Order, OrderId> {
       throw new IllegalArgumentException("配送先住所は空白であってはなりません");
     }
 
-    if (shippingCost.compareTo(BigDecimal.ZERO) < 0) {
+    if (shippingCost.isNegative()) {
       throw new IllegalArgumentException("配送料は0以上でなければなりません");
     }
 
-    if (taxRate.compareTo(BigDecimal.ZERO) < 0) {
+    if (taxRate.signum() < 0) {
       throw new IllegalArgumentException("税率は0以上でなければなりません");
     }
 
@@ -86,10 +89,10 @@ public class Order implements AggregateRoot<Order, OrderId> {
     var subtotal = cart.calculateTotal();
 
     // 税額の計算
-    var tax = subtotal.multiply(taxRate).setScale(0, RoundingMode.HALF_UP);
+    var tax = subtotal.times(taxRate, RoundingMode.HALF_UP);
 
     // 合計金額の計算
-    var totalAmount = subtotal.add(tax).add(shippingCost);
+    var totalAmount = subtotal.plus(tax).plus(shippingCost);
 
     // イベント作成
     var events = new ArrayList<OrderEvent>();
@@ -117,7 +120,8 @@ public class Order implements AggregateRoot<Order, OrderId> {
         null,
         Collections.unmodifiableList(events),
         now,
-        now);
+        now,
+        null);
   }
 
   /**
@@ -137,6 +141,7 @@ public class Order implements AggregateRoot<Order, OrderId> {
    * @param paymentMethod 支払い方法
    * @param createdAt 作成日時
    * @param updatedAt 更新日時
+   * @param version バージョン
    * @return 復元された注文
    */
   @SuppressWarnings("TooManyParameters")
@@ -144,17 +149,18 @@ public class Order implements AggregateRoot<Order, OrderId> {
       OrderId id,
       AccountId accountId,
       List<OrderItem> items,
-      BigDecimal subtotal,
-      BigDecimal tax,
-      BigDecimal shippingCost,
-      BigDecimal totalAmount,
+      Money subtotal,
+      Money tax,
+      Money shippingCost,
+      Money totalAmount,
       OrderStatus status,
       String shippingAddress,
       @Nullable String trackingNumber,
       @Nullable PaymentId paymentId,
       @Nullable String paymentMethod,
       Instant createdAt,
-      Instant updatedAt) {
+      Instant updatedAt,
+      @Nullable Long version) {
     return new Order(
         id,
         accountId,
@@ -170,7 +176,8 @@ public class Order implements AggregateRoot<Order, OrderId> {
         paymentMethod,
         Collections.emptyList(), // 復元時は空のイベントリスト
         createdAt,
-        updatedAt);
+        updatedAt,
+        version);
   }
 
   /**
@@ -208,7 +215,8 @@ public class Order implements AggregateRoot<Order, OrderId> {
         paymentMethod,
         Collections.unmodifiableList(newEvents),
         createdAt,
-        now);
+        now,
+        version);
   }
 
   /**
@@ -247,7 +255,8 @@ public class Order implements AggregateRoot<Order, OrderId> {
         paymentMethod,
         Collections.unmodifiableList(newEvents),
         createdAt,
-        now);
+        now,
+        version);
   }
 
   /**
@@ -286,7 +295,8 @@ public class Order implements AggregateRoot<Order, OrderId> {
         paymentMethod,
         Collections.unmodifiableList(newEvents),
         createdAt,
-        now);
+        now,
+        version);
   }
 
   /**
@@ -320,7 +330,8 @@ public class Order implements AggregateRoot<Order, OrderId> {
         paymentMethod,
         Collections.unmodifiableList(newEvents),
         createdAt,
-        now);
+        now,
+        version);
   }
 
   /**
@@ -353,7 +364,8 @@ public class Order implements AggregateRoot<Order, OrderId> {
         paymentMethod,
         Collections.unmodifiableList(newEvents),
         createdAt,
-        now);
+        now,
+        version);
   }
 
   @Override
@@ -409,6 +421,8 @@ public class Order implements AggregateRoot<Order, OrderId> {
         + createdAt
         + ", updatedAt="
         + updatedAt
+        + ", version="
+        + version
         + '}';
   }
 }
@@ -4,7 +4,6 @@ import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.shopping.OrderId;
 import com.example.ec_2024b_back.shopping.PaymentId;
 import com.google.common.collect.ImmutableList;
-import java.math.BigDecimal;
 import java.time.Instant;
 import org.jmolecules.event.types.DomainEvent;
 import org.jspecify.annotations.Nullable;
@@ -26,7 +25,7 @@ public sealed interface OrderEvent extends DomainEvent {
       OrderId orderId,
       AccountId accountId,
       ImmutableList<OrderItem> items,
-      BigDecimal totalAmount,
+      Money totalAmount,
       String shippingAddress,
       Instant occurredAt)
       implements OrderEvent {}
@@ -53,7 +52,7 @@ public sealed interface OrderEvent extends DomainEvent {
       OrderId orderId,
       PaymentId paymentId,
       String paymentMethod,
-      BigDecimal amount,
+      Money amount,
       Instant occurredAt)
       implements OrderEvent {}
 
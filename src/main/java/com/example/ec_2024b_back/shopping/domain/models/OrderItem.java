@@ -1,7 +1,6 @@
 package com.example.ec_2024b_back.shopping.domain.models;
 
 import com.example.ec_2024b_back.product.ProductId;
-import java.math.BigDecimal;
 import java.util.Objects;
 import java.util.UUID;
 import org.jspecify.annotations.Nullable;
@@ -11,8 +10,8 @@ public record OrderItem(
     ProductId productId,
     String productName,
     int quantity,
-    BigDecimal unitPrice,
-    BigDecimal subtotal) {
+    Money unitPrice,
+    Money subtotal) {
 
   /** 注文アイテムの検証を行うコンストラクタ */
   public OrderItem {
@@ -22,16 +21,16 @@ public record OrderItem(
     if (quantity <= 0) {
       throw new IllegalArgumentException("数量は1以上でなければなりません");
     }
-    if (unitPrice.compareTo(BigDecimal.ZERO) < 0) {
+    if (unitPrice.isNegative()) {
       throw new IllegalArgumentException("単価は0以上でなければなりません");
     }
-    if (subtotal.compareTo(BigDecimal.ZERO) < 0) {
+    if (subtotal.isNegative()) {
       throw new IllegalArgumentException("小計は0以上でなければなりません");
     }
 
     // 小計が正しいことを検証
-    var calculatedSubtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
-    if (subtotal.compareTo(calculatedSubtotal) != 0) {
+    var calculatedSubtotal = unitPrice.times(quantity);
+    if (!subtotal.equals(calculatedSubtotal)) {
       throw new IllegalArgumentException("小計が一致しません: " + subtotal + " != " + calculatedSubtotal);
     }
   }
@@ -43,13 +42,12 @@ public record OrderItem(
    * @return 作成された注文アイテム
    */
   public static OrderItem fromCartItem(CartItem cartItem) {
-    var subtotal = cartItem.unitPrice().multiply(BigDecimal.valueOf(cartItem.quantity()));
     return new OrderItem(
         cartItem.productId(),
         cartItem.productName(),
         cartItem.quantity(),
         cartItem.unitPrice(),
-        subtotal);
+        cartItem.calculateTotal());
   }
 
   /**
@@ -62,10 +60,9 @@ public record OrderItem(
    * @return 復元された注文アイテム
    */
   public static OrderItem fromDatabase(
-      UUID productId, String productName, BigDecimal unitPrice, int quantity) {
+      UUID productId, String productName, Money unitPrice, int quantity) {
     var productIdObj = new ProductId(productId);
-    var subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
-    return new OrderItem(productIdObj, productName, quantity, unitPrice, subtotal);
+    return new OrderItem(productIdObj, productName, quantity, unitPrice, unitPrice.times(quantity));
   }
 
   @Override
@@ -80,8 +77,8 @@ public record OrderItem(
     return quantity == orderItem.quantity
         && Objects.equals(productId, orderItem.productId)
         && Objects.equals(productName, orderItem.productName)
-        && unitPrice.compareTo(orderItem.unitPrice) == 0
-        && subtotal.compareTo(orderItem.subtotal) == 0;
+        && unitPrice.equals(orderItem.unitPrice)
+        && subtotal.equals(orderItem.subtotal);
   }
 
   @Override
@@ -0,0 +1,25 @@
+package com.example.ec_2024b_back.shopping.domain.models;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.shopping.OrderId;
+import java.time.Instant;
+
+/**
+ * 注文履歴の一覧に表示する注文の概要（読み取りモデル）
+ *
+ * <p>注文のイベントから作られるため、注文の集約より少し遅れて更新されます。
+ *
+ * @param orderId 注文ID
+ * @param accountId アカウントID
+ * @param status 注文状態
+ * @param totalAmount 合計金額
+ * @param itemCount 注文内商品の種類数
+ * @param createdAt 作成日時
+ */
+public record OrderSummary(
+    OrderId orderId,
+    AccountId accountId,
+    OrderStatus status,
+    Money totalAmount,
+    int itemCount,
+    Instant createdAt) {}
@@ -8,7 +8,6 @@ import com.example.ec_2024b_back.shopping.domain.models.PaymentEvent.PaymentAuth
 import com.example.ec_2024b_back.shopping.domain.models.PaymentEvent.PaymentCaptured;
 import com.example.ec_2024b_back.shopping.domain.models.PaymentEvent.PaymentFailed;
 import com.example.ec_2024b_back.shopping.domain.models.PaymentEvent.PaymentRefunded;
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -27,7 +26,7 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
 
   private final PaymentId id;
   private final OrderId orderId;
-  private final BigDecimal amount;
+  private final Money amount;
   private final PaymentStatus status;
   private final String paymentMethod;
   private final @Nullable String externalTransactionId;
@@ -35,6 +34,9 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
   private final List<PaymentEvent> events;
   private final AuditInfo auditInfo;
 
+  /** 楽観的排他制御のためのバージョン（未保存の場合はnull） */
+  private final @Nullable Long version;
+
   /**
    * 新しい支払いを開始します
    *
@@ -46,9 +48,9 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
    * @return 作成された支払い
    */
   public static Payment initiate(
-      PaymentId id, OrderId orderId, BigDecimal amount, String paymentMethod, Instant now) {
+      PaymentId id, OrderId orderId, Money amount, String paymentMethod, Instant now) {
 
-    if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    if (!amount.isPositive()) {
       throw new IllegalArgumentException("金額は0より大きい値でなければなりません");
     }
 
@@ -65,7 +67,8 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
         null,
         PaymentError.empty(),
         Collections.emptyList(),
-        AuditInfo.create(now));
+        AuditInfo.create(now),
+        null);
   }
 
   /**
@@ -81,20 +84,22 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
    * @param errorMessage エラーメッセージ
    * @param createdAt 作成日時
    * @param updatedAt 更新日時
+   * @param version バージョン
    * @return 復元された支払い
    */
   @SuppressWarnings("TooManyParameters")
   public static Payment reconstruct(
       PaymentId id,
       OrderId orderId,
-      BigDecimal amount,
+      Money amount,
       PaymentStatus status,
       String paymentMethod,
       @Nullable String externalTransactionId,
       @Nullable String errorCode,
       @Nullable String errorMessage,
       Instant createdAt,
-      Instant updatedAt) {
+      Instant updatedAt,
+      @Nullable Long version) {
     return new Payment(
         id,
         orderId,
@@ -104,7 +109,8 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
         externalTransactionId,
         PaymentError.reconstruct(errorCode, errorMessage),
         Collections.emptyList(), // 復元時は空のイベントリスト
-        AuditInfo.reconstruct(createdAt, updatedAt));
+        AuditInfo.reconstruct(createdAt, updatedAt),
+        version);
   }
 
   /**
@@ -137,7 +143,8 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
         externalTransactionId,
         error,
         Collections.unmodifiableList(newEvents),
-        auditInfo.update(now));
+        auditInfo.update(now),
+        version);
   }
 
   /**
@@ -165,7 +172,8 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
         externalTransactionId,
         error,
         Collections.unmodifiableList(newEvents),
-        auditInfo.update(now));
+        auditInfo.update(now),
+        version);
   }
 
   /**
@@ -196,7 +204,8 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
         externalTransactionId,
         newError,
         Collections.unmodifiableList(newEvents),
-        auditInfo.update(now));
+        auditInfo.update(now),
+        version);
   }
 
   /**
@@ -210,14 +219,14 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
    * @throws DomainException 支払いの状態更新ができない場合
    */
   public Payment refund(
-      BigDecimal refundAmount, String reason, @Nullable String externalTransactionId, Instant now) {
+      Money refundAmount, String reason, @Nullable String externalTransactionId, Instant now) {
 
     if (reason.isBlank()) {
       throw new IllegalArgumentException("返金理由は空白であってはなりません");
     }
 
     // 返金金額のチェック
-    if (refundAmount.compareTo(BigDecimal.ZERO) <= 0) {
+    if (!refundAmount.isPositive()) {
       throw new IllegalArgumentException("返金金額は0より大きい値でなければなりません");
     }
     if (refundAmount.compareTo(amount) > 0) {
@@ -225,7 +234,7 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
     }
 
     PaymentStatus newStatus;
-    if (refundAmount.compareTo(amount) == 0) {
+    if (refundAmount.equals(amount)) {
       // 全額返金
       if (!status.canTransitionTo(PaymentStatus.REFUNDED)) {
         throw new DomainException("現在の状態 " + status + " の支払いは返金できません");
@@ -252,7 +261,8 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
         externalTransactionId,
         error,
         Collections.unmodifiableList(newEvents),
-        auditInfo.update(now));
+        auditInfo.update(now),
+        version);
   }
 
   /**
@@ -331,6 +341,8 @@ public class Payment implements AggregateRoot<Payment, PaymentId> {
         + events
         + ", auditInfo="
         + auditInfo
+        + ", version="
+        + version
         + '}';
   }
 }
@@ -2,7 +2,6 @@ package com.example.ec_2024b_back.shopping.domain.models;
 
 import com.example.ec_2024b_back.shopping.OrderId;
 import com.example.ec_2024b_back.shopping.PaymentId;
-import java.math.BigDecimal;
 import java.time.Instant;
 import org.jmolecules.event.types.DomainEvent;
 import org.jspecify.annotations.Nullable;
@@ -24,7 +23,7 @@ public sealed interface PaymentEvent extends DomainEvent {
   record PaymentAuthorized(
       PaymentId paymentId,
       OrderId orderId,
-      BigDecimal amount,
+      Money amount,
       String paymentMethod,
       Instant authorizedAt,
       @Nullable String externalTransactionId,
@@ -43,7 +42,7 @@ public sealed interface PaymentEvent extends DomainEvent {
   record PaymentCaptured(
       PaymentId paymentId,
       OrderId orderId,
-      BigDecimal amount,
+      Money amount,
       @Nullable String externalTransactionId,
       Instant occurredAt)
       implements PaymentEvent {}
@@ -61,7 +60,7 @@ public sealed interface PaymentEvent extends DomainEvent {
   record PaymentFailed(
       PaymentId paymentId,
       OrderId orderId,
-      BigDecimal amount,
+      Money amount,
       @Nullable String errorCode,
       String errorMessage,
       Instant occurredAt)
@@ -80,7 +79,7 @@ public sealed interface PaymentEvent extends DomainEvent {
   record PaymentRefunded(
       PaymentId paymentId,
       OrderId orderId,
-      BigDecimal amount,
+      Money amount,
       String reason,
       @Nullable String externalTransactionId,
       Instant occurredAt)
@@ -0,0 +1,160 @@
+package com.example.ec_2024b_back.shopping.domain.models;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.catalog.CatalogPrice;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.Var;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * 商品の現在の価格で計算したカートの金額
+ *
+ * <p>販売中でなくなった商品のアイテムは価格を決められないため、金額の計算から除いて {@link Line#available()} がfalseの明細として残します。
+ *
+ * @param cartId カートID
+ * @param version 計算したカートのバージョン
+ * @param lines 明細（カートの表示順）
+ * @param subtotal 割引後の小計
+ * @param discount 割引額の合計
+ * @param taxRate 税率
+ * @param tax 税額
+ * @param shippingCost 配送料
+ */
+public record PricedCart(
+    CartId cartId,
+    @Nullable Long version,
+    ImmutableList<Line> lines,
+    Money subtotal,
+    Money discount,
+    BigDecimal taxRate,
+    Money tax,
+    Money shippingCost) {
+
+  /**
+   * カートの金額を計算します
+   *
+   * <p>税額は注文と同じく小計に税率を掛けて円未満を四捨五入し、配送料は商品が1つ以上ある場合にだけかかります。
+   *
+   * @param cart カート
+   * @param prices 商品IDごとの現在の価格
+   * @param rules 税と配送料のルール
+   * @return 計算したカートの金額
+   * @throws IllegalArgumentException 商品の価格に1円未満の端数がある場合
+   */
+  public static PricedCart of(Cart cart, Map<ProductId, CatalogPrice> prices, PricingRules rules) {
+    var lines = ImmutableList.<Line>builderWithExpectedSize(cart.getItems().size());
+    @Var long subtotal = 0;
+    @Var long discount = 0;
+    for (var item : cart.getItems()) {
+      var price = prices.get(item.productId());
+      if (price == null) {
+        lines.add(
+            new Line(
+                item.productId(),
+                item.productName(),
+                item.quantity(),
+                item.unitPrice(),
+                item.unitPrice(),
+                false));
+        continue;
+      }
+      var basePrice = Money.of(price.basePrice());
+      var unitPrice = Money.of(price.unitPrice());
+      subtotal = Math.addExact(subtotal, Math.multiplyExact(unitPrice.yen(), item.quantity()));
+      discount =
+          Math.addExact(
+              discount, Math.multiplyExact(basePrice.yen() - unitPrice.yen(), item.quantity()));
+      lines.add(
+          new Line(item.productId(), price.name(), item.quantity(), basePrice, unitPrice, true));
+    }
+    var built = lines.build();
+    var subtotalMoney = Money.ofYen(subtotal);
+    var tax = subtotalMoney.times(rules.taxRate(), RoundingMode.HALF_UP);
+    var shippingCost =
+        built.stream().anyMatch(Line::available)
+            ? rules.shippingCostFor(subtotalMoney)
+            : Money.ZERO;
+    return new PricedCart(
+        cart.getId(),
+        cart.getVersion(),
+        built,
+        subtotalMoney,
+        Money.ofYen(discount),
+        rules.taxRate(),
+        tax,
+        shippingCost);
+  }
+
+  /**
+   * 支払い総額を返します
+   *
+   * @return 小計、税額、配送料の合計
+   */
+  public Money total() {
+    return subtotal.plus(tax).plus(shippingCost);
+  }
+
+  /**
+   * 販売中でない商品が含まれるかどうかを返します
+   *
+   * @return 価格を決められない明細がある場合true
+   */
+  public boolean hasUnavailableItems() {
+    return lines.stream().anyMatch(line -> !line.available());
+  }
+
+  /**
+   * カートのアイテムを計算した商品名と単価に置き換えます
+   *
+   * @param cart 計算したカート
+   * @return アイテムを置き換えたカート（販売中でない商品のアイテムはそのまま）
+   */
+  public Cart applyTo(Cart cart) {
+    var items =
+        lines.stream()
+            .map(
+                line ->
+                    new CartItem(
+                        line.productId(), line.productName(), line.quantity(), line.unitPrice()))
+            .toList();
+    return Cart.reconstruct(
+        cart.getId(),
+        cart.getAccountId(),
+        items,
+        cart.getCreatedAt(),
+        cart.getUpdatedAt(),
+        cart.getVersion());
+  }
+
+  /**
+   * 明細
+   *
+   * @param productId 商品ID
+   * @param productName 商品名
+   * @param quantity 数量
+   * @param basePrice 割引前の単価
+   * @param unitPrice 割引後の単価
+   * @param available 販売中の商品かどうか
+   */
+  public record Line(
+      ProductId productId,
+      String productName,
+      int quantity,
+      Money basePrice,
+      Money unitPrice,
+      boolean available) {
+
+    /**
+     * 明細の金額を返します
+     *
+     * @return 割引後の単価と数量の積
+     */
+    public Money total() {
+      return unitPrice.times(quantity);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.ec_2024b_back.shopping.domain.models;
+
+import java.math.BigDecimal;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * カートの価格計算に使う税と配送料のルール
+ *
+ * @param taxRate 税率（例: 0.10）
+ * @param shippingFee 配送料
+ * @param freeShippingThreshold 配送料を無料にする小計の下限（nullの場合は常に配送料がかかる）
+ */
+public record PricingRules(
+    BigDecimal taxRate, Money shippingFee, @Nullable Money freeShippingThreshold) {
+
+  /** 価格計算のルールの検証を行うコンストラクタ */
+  public PricingRules {
+    if (taxRate.signum() < 0) {
+      throw new IllegalArgumentException("税率は0以上でなければなりません");
+    }
+    if (shippingFee.isNegative()) {
+      throw new IllegalArgumentException("配送料は0以上でなければなりません");
+    }
+  }
+
+  /**
+   * 小計に対する配送料を返します
+   *
+   * @param subtotal 小計
+   * @return 配送料（無料配送の条件を満たす場合は0）
+   */
+  public Money shippingCostFor(Money subtotal) {
+    if (freeShippingThreshold != null && subtotal.compareTo(freeShippingThreshold) >= 0) {
+      return Money.ZERO;
+    }
+    return shippingFee;
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.ec_2024b_back.shopping.domain.repositories;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.share.domain.models.CursorPage;
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
+import com.example.ec_2024b_back.shopping.domain.models.OrderSummary;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/** 注文の概要（読み取りモデル）を検索するインターフェース */
+public interface OrderSummaries {
+
+  /**
+   * アカウントIDに紐づく注文の概要をすべて新しい順に検索します
+   *
+   * <p>概要は下流の要求に応じて少しずつ読み込むため、注文の多いアカウントでもすべてをメモリに載せることはありません。
+   *
+   * @param accountId アカウントID
+   * @return 注文の概要のストリーム
+   */
+  Flux<OrderSummary> findByAccountId(AccountId accountId);
+
+  /**
+   * アカウントIDに紐づく注文の概要を新しい順に1ページ分検索します
+   *
+   * @param accountId アカウントID
+   * @param page ページ指定
+   * @return 注文の概要のページを含むMono
+   * @throws IllegalArgumentException カーソルの形式が不正な場合（Monoのエラーとして通知）
+   */
+  Mono<CursorPage<OrderSummary>> findByAccountId(AccountId accountId, CursorPageRequest page);
+}
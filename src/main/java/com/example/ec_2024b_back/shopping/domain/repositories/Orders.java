@@ -1,6 +1,8 @@
 package com.example.ec_2024b_back.shopping.domain.repositories;
 
 import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.share.domain.models.CursorPage;
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
 import com.example.ec_2024b_back.shopping.OrderId;
 import com.example.ec_2024b_back.shopping.domain.models.Order;
 import com.example.ec_2024b_back.shopping.domain.models.OrderStatus;
@@ -20,13 +22,25 @@ public interface Orders extends Repository<Order, OrderId> {
   Mono<Order> findById(OrderId id);
 
   /**
-   * アカウントIDに紐づく注文をすべて検索します
+   * アカウントIDに紐づく注文をすべて新しい順に検索します
+   *
+   * <p>注文は下流の要求に応じて少しずつ読み込むため、注文の多いアカウントでもすべてをメモリに載せることはありません。
    *
    * @param accountId アカウントID
    * @return 注文のストリーム
    */
   Flux<Order> findByAccountId(AccountId accountId);
 
+  /**
+   * アカウントIDに紐づく注文を新しい順に1ページ分検索します
+   *
+   * @param accountId アカウントID
+   * @param page ページ指定
+   * @return 注文のページを含むMono
+   * @throws IllegalArgumentException カーソルの形式が不正な場合（Monoのエラーとして通知）
+   */
+  Mono<CursorPage<Order>> findByAccountId(AccountId accountId, CursorPageRequest page);
+
   /**
    * アカウントIDと注文ステータスに紐づく注文をすべて検索します
    *
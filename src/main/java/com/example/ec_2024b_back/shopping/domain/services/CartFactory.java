@@ -25,6 +25,6 @@ public class CartFactory {
     var cartId = new CartId(idGenerator.newId());
     var now = Instant.now(clock);
 
-    return Cart.reconstruct(cartId, accountId, Collections.emptyList(), now, now);
+    return Cart.reconstruct(cartId, accountId, Collections.emptyList(), now, now, null);
   }
 }
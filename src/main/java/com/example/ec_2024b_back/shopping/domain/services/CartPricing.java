@@ -0,0 +1,17 @@
+package com.example.ec_2024b_back.shopping.domain.services;
+
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.PricedCart;
+import reactor.core.publisher.Mono;
+
+/** カートの金額を商品の現在の価格で計算するサービス */
+public interface CartPricing {
+
+  /**
+   * カートの金額を計算します
+   *
+   * @param cart カート
+   * @return 計算したカートの金額を含むMono
+   */
+  Mono<PricedCart> price(Cart cart);
+}
@@ -3,6 +3,7 @@ package com.example.ec_2024b_back.shopping.domain.services;
 import com.example.ec_2024b_back.share.domain.services.IdGenerator;
 import com.example.ec_2024b_back.shopping.OrderId;
 import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
 import com.example.ec_2024b_back.shopping.domain.models.Order;
 import java.math.BigDecimal;
 import java.time.Clock;
@@ -25,7 +26,7 @@ public class OrderFactory {
    * @return 作成された注文
    */
   public Order createFromCart(
-      Cart cart, String shippingAddress, BigDecimal shippingCost, BigDecimal taxRate) {
+      Cart cart, String shippingAddress, Money shippingCost, BigDecimal taxRate) {
 
     var orderId = new OrderId(idGenerator.newId());
     var now = Instant.now(clock);
@@ -3,7 +3,6 @@ package com.example.ec_2024b_back.shopping.infrastructure.api;
 import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.product.ProductId;
 import com.example.ec_2024b_back.shopping.application.usecase.AddItemToCartUsecase;
-import java.math.BigDecimal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
@@ -23,11 +22,7 @@ public class AddItemToCartHandler {
         .flatMap(
             req ->
                 addItemToCartUsecase.execute(
-                    AccountId.of(req.accountId()),
-                    ProductId.of(req.productId()),
-                    req.productName(),
-                    req.quantity(),
-                    req.unitPrice()))
+                    AccountId.of(req.accountId()), ProductId.of(req.productId()), req.quantity()))
         .flatMap(
             cart ->
                 ServerResponse.ok()
@@ -35,20 +30,17 @@ public class AddItemToCartHandler {
                         new AddItemToCartResponse(
                             cart.getId().toString(),
                             "Item added to cart successfully",
-                            cart.calculateTotal())));
+                            cart.calculateTotal().yen())));
   }
 
   /**
-   * カートに商品追加リクエストのDTO.
+   * カートに商品追加リクエストのDTO. 商品名と単価はサーバー側で商品カタログから取得します.
    *
    * @param accountId アカウントID
    * @param productId 追加する商品ID
-   * @param productName 追加する商品名
    * @param quantity 数量
-   * @param unitPrice 単価
    */
-  record AddItemToCartRequest(
-      String accountId, String productId, String productName, int quantity, BigDecimal unitPrice) {}
+  record AddItemToCartRequest(String accountId, String productId, int quantity) {}
 
   /**
    * 商品追加成功時のレスポンスDTO.
@@ -57,5 +49,5 @@ public class AddItemToCartHandler {
    * @param message 成功メッセージ
    * @param total 更新後の合計金額
    */
-  record AddItemToCartResponse(String cartId, String message, BigDecimal total) {}
+  record AddItemToCartResponse(String cartId, String message, long total) {}
 }
@@ -3,7 +3,6 @@ package com.example.ec_2024b_back.shopping.infrastructure.api;
 import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.shopping.application.usecase.CreateOrderFromCartUsecase;
 import com.google.common.collect.ImmutableList;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
@@ -39,8 +38,8 @@ public class CreateOrderFromCartHandler {
                                   item.productId().toString(),
                                   item.productName(),
                                   item.quantity(),
-                                  item.unitPrice(),
-                                  item.subtotal()))
+                                  item.unitPrice().yen(),
+                                  item.subtotal().yen()))
                       .toList();
 
               // レスポンスを作成
@@ -50,10 +49,10 @@ public class CreateOrderFromCartHandler {
                           order.getId().toString(),
                           order.getAccountId().toString(),
                           ImmutableList.copyOf(items),
-                          order.getSubtotal(),
-                          order.getTax(),
-                          order.getShippingCost(),
-                          order.getTotalAmount(),
+                          order.getSubtotal().yen(),
+                          order.getTax().yen(),
+                          order.getShippingCost().yen(),
+                          order.getTotalAmount().yen(),
                           order.getStatus().toString(),
                           order.getShippingAddress(),
                           LocalDateTime.ofInstant(order.getCreatedAt(), ZoneId.systemDefault())));
@@ -81,11 +80,7 @@ public class CreateOrderFromCartHandler {
    * @param subtotal 小計
    */
   record OrderItemResponse(
-      String productId,
-      String productName,
-      int quantity,
-      BigDecimal unitPrice,
-      BigDecimal subtotal) {}
+      String productId, String productName, int quantity, long unitPrice, long subtotal) {}
 
   /**
    * 注文作成成功時のレスポンスDTO.
@@ -105,10 +100,10 @@ public class CreateOrderFromCartHandler {
       String orderId,
       String accountId,
       ImmutableList<OrderItemResponse> items,
-      BigDecimal subtotal,
-      BigDecimal tax,
-      BigDecimal shippingCost,
-      BigDecimal totalAmount,
+      long subtotal,
+      long tax,
+      long shippingCost,
+      long totalAmount,
       String status,
       String shippingAddress,
       LocalDateTime createdAt) {}
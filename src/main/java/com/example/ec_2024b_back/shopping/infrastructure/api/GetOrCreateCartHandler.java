@@ -2,11 +2,12 @@ package com.example.ec_2024b_back.shopping.infrastructure.api;
 
 import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.shopping.application.usecase.GetOrCreateCartUsecase;
+import com.example.ec_2024b_back.shopping.application.usecase.PriceCartUsecase;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.PricedCart;
 import com.google.common.collect.ImmutableList;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
@@ -19,6 +20,7 @@ import reactor.core.publisher.Mono;
 public class GetOrCreateCartHandler {
 
   private final GetOrCreateCartUsecase getOrCreateCartUsecase;
+  private final PriceCartUsecase priceCartUsecase;
 
   public Mono<ServerResponse> getOrCreateCart(ServerRequest request) {
     // パスからアカウントIDを取得
@@ -27,50 +29,59 @@ public class GetOrCreateCartHandler {
 
     return getOrCreateCartUsecase
         .execute(accountId)
-        .flatMap(
-            cart -> {
-              // カート内の商品情報をDTOに変換
-              List<CartItemResponse> items =
-                  cart.getItems().stream()
-                      .map(
-                          item ->
-                              new CartItemResponse(
-                                  item.productId().toString(),
-                                  item.productName(),
-                                  item.quantity(),
-                                  item.unitPrice(),
-                                  item.calculateTotal()))
-                      .toList();
-
-              // レスポンスを作成
-              return ServerResponse.ok()
-                  .bodyValue(
-                      new CartResponse(
-                          cart.getId().toString(),
-                          cart.getAccountId().toString(),
-                          ImmutableList.copyOf(items),
-                          cart.calculateTotal(),
-                          LocalDateTime.ofInstant(cart.getCreatedAt(), ZoneId.systemDefault()),
-                          LocalDateTime.ofInstant(cart.getUpdatedAt(), ZoneId.systemDefault())));
-            })
+        .flatMap(cart -> priceCartUsecase.execute(cart).map(priced -> toResponse(cart, priced)))
+        .flatMap(response -> ServerResponse.ok().bodyValue(response))
         .onErrorResume(e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
   }
 
+  private static CartResponse toResponse(Cart cart, PricedCart priced) {
+    // カート内の商品情報をDTOに変換
+    var items =
+        priced.lines().stream()
+            .map(
+                line ->
+                    new CartItemResponse(
+                        line.productId().toString(),
+                        line.productName(),
+                        line.quantity(),
+                        line.basePrice().yen(),
+                        line.unitPrice().yen(),
+                        line.total().yen(),
+                        line.available()))
+            .collect(ImmutableList.toImmutableList());
+
+    return new CartResponse(
+        cart.getId().toString(),
+        cart.getAccountId().toString(),
+        items,
+        priced.subtotal().yen(),
+        priced.discount().yen(),
+        priced.tax().yen(),
+        priced.shippingCost().yen(),
+        priced.total().yen(),
+        LocalDateTime.ofInstant(cart.getCreatedAt(), ZoneId.systemDefault()),
+        LocalDateTime.ofInstant(cart.getUpdatedAt(), ZoneId.systemDefault()));
+  }
+
   /**
    * カート内商品レスポンスのDTO.
    *
    * @param productId 商品ID
    * @param productName 商品名
    * @param quantity 数量
-   * @param unitPrice 単価
+   * @param basePrice 割引前の単価
+   * @param unitPrice 割引後の単価
    * @param subtotal 小計
+   * @param available 販売中の商品かどうか（販売中でない商品は合計金額に含まない）
    */
   record CartItemResponse(
       String productId,
       String productName,
       int quantity,
-      BigDecimal unitPrice,
-      BigDecimal subtotal) {}
+      long basePrice,
+      long unitPrice,
+      long subtotal,
+      boolean available) {}
 
   /**
    * カートレスポンスのDTO.
@@ -78,7 +89,11 @@ public class GetOrCreateCartHandler {
    * @param cartId カートID
    * @param accountId アカウントID
    * @param items カート内商品一覧
-   * @param total 合計金額
+   * @param subtotal 割引後の小計
+   * @param discount 割引額の合計
+   * @param tax 税額
+   * @param shippingCost 配送料
+   * @param total 支払い総額（小計、税額、配送料の合計）
    * @param createdAt 作成日時
    * @param updatedAt 更新日時
    */
@@ -86,7 +101,11 @@ public class GetOrCreateCartHandler {
       String cartId,
       String accountId,
       ImmutableList<CartItemResponse> items,
-      BigDecimal total,
+      long subtotal,
+      long discount,
+      long tax,
+      long shippingCost,
+      long total,
       LocalDateTime createdAt,
       LocalDateTime updatedAt) {}
 }
@@ -3,7 +3,6 @@ package com.example.ec_2024b_back.shopping.infrastructure.api;
 import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.shopping.OrderId;
 import com.example.ec_2024b_back.shopping.application.usecase.InitiatePaymentUsecase;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import lombok.RequiredArgsConstructor;
@@ -34,7 +33,7 @@ public class InitiatePaymentHandler {
                         new InitiatePaymentResponse(
                             payment.getId().toString(),
                             payment.getOrderId().toString(),
-                            payment.getAmount(),
+                            payment.getAmount().yen(),
                             payment.getStatus().toString(),
                             payment.getPaymentMethod(),
                             LocalDateTime.ofInstant(payment.getCreatedAt(), ZoneId.systemDefault()),
@@ -67,7 +66,7 @@ public class InitiatePaymentHandler {
   record InitiatePaymentResponse(
       String paymentId,
       String orderId,
-      BigDecimal amount,
+      long amount,
       String status,
       String paymentMethod,
       LocalDateTime createdAt,
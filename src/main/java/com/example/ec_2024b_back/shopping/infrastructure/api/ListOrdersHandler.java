@@ -0,0 +1,92 @@
+package com.example.ec_2024b_back.shopping.infrastructure.api;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.share.infrastructure.api.CursorPageParameters;
+import com.example.ec_2024b_back.shopping.application.usecase.ListOrdersUsecase;
+import com.example.ec_2024b_back.shopping.domain.models.OrderSummary;
+import com.google.common.collect.ImmutableList;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * 注文履歴の一覧を処理するハンドラークラス. クエリパラメーター {@code cursor} / {@code limit} でページを指定します。
+ *
+ * <p>{@link #streamOrders} はページに分けず、すべての注文を1行1件のNDJSONで返します。
+ * 注文は書き込みの要求に応じて読み込むため、注文の多いアカウントでもメモリの使用量は増えません。
+ *
+ * <p>どちらも注文の概要（{@code order_summaries}）を返します。作成・更新した注文は通常その応答の時点で一覧に反映されていますが、
+ * トランザクションが無効で概要の書き込みに失敗した場合は、アウトボックスのリレーが注文のイベントを配信するまで（リレーが無効な場合は {@code POST
+ * /actuator/ordersummaries} で作り直すまで）古い状態を返すか、一覧に含みません。
+ */
+@Component
+@RequiredArgsConstructor
+public class ListOrdersHandler {
+
+  private final ListOrdersUsecase listOrdersUsecase;
+
+  public Mono<ServerResponse> listOrders(ServerRequest request) {
+    return Mono.fromCallable(() -> AccountId.of(request.pathVariable("accountId")))
+        .flatMap(
+            accountId -> listOrdersUsecase.execute(accountId, CursorPageParameters.from(request)))
+        .flatMap(
+            page ->
+                ServerResponse.ok()
+                    .bodyValue(
+                        new OrderPageResponse(
+                            page.map(ListOrdersHandler::toResponse).items(), page.nextCursor())))
+        .onErrorResume(
+            IllegalArgumentException.class,
+            e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
+  }
+
+  public Mono<ServerResponse> streamOrders(ServerRequest request) {
+    return Mono.fromCallable(() -> AccountId.of(request.pathVariable("accountId")))
+        .flatMap(
+            accountId ->
+                ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(
+                        listOrdersUsecase.stream(accountId).map(ListOrdersHandler::toResponse),
+                        OrderSummaryResponse.class))
+        .onErrorResume(
+            IllegalArgumentException.class,
+            e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
+  }
+
+  private static OrderSummaryResponse toResponse(OrderSummary summary) {
+    return new OrderSummaryResponse(
+        summary.orderId().toString(),
+        summary.itemCount(),
+        summary.totalAmount().yen(),
+        summary.status().toString(),
+        LocalDateTime.ofInstant(summary.createdAt(), ZoneId.systemDefault()));
+  }
+
+  /**
+   * 注文の概要レスポンスのDTO.
+   *
+   * @param orderId 注文ID
+   * @param itemCount 注文内商品の種類数
+   * @param totalAmount 合計金額
+   * @param status 注文状態
+   * @param createdAt 作成日時
+   */
+  record OrderSummaryResponse(
+      String orderId, int itemCount, long totalAmount, String status, LocalDateTime createdAt) {}
+
+  /**
+   * 注文履歴レスポンスのDTO.
+   *
+   * @param items 注文の概要一覧
+   * @param nextCursor 次のページのカーソル（最後のページの場合はnull）
+   */
+  record OrderPageResponse(
+      ImmutableList<OrderSummaryResponse> items, @Nullable String nextCursor) {}
+}
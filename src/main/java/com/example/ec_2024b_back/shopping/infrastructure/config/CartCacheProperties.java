@@ -0,0 +1,21 @@
+package com.example.ec_2024b_back.shopping.infrastructure.config;
+
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * カートキャッシュの設定プロパティ
+ *
+ * @param enabled キャッシュを有効にするかどうか
+ * @param maximumSize キャッシュするカートの最大件数
+ * @param expireAfterWrite 書き込みからキャッシュが失効するまでの時間
+ */
+@Validated
+@ConfigurationProperties("shopping.cart-cache")
+public record CartCacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("10000") @Positive long maximumSize,
+    @DefaultValue("5m") Duration expireAfterWrite) {}
@@ -0,0 +1,15 @@
+package com.example.ec_2024b_back.shopping.infrastructure.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * 注文履歴の設定プロパティ
+ *
+ * @param streamBatchSize 注文履歴のストリーミングで、MongoDBのカーソルから1回に読み込み、下流に要求する注文の件数
+ */
+@Validated
+@ConfigurationProperties("shopping.order-history")
+public record OrderHistoryProperties(@DefaultValue("100") @Positive int streamBatchSize) {}
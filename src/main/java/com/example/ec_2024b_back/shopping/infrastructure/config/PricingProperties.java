@@ -0,0 +1,29 @@
+package com.example.ec_2024b_back.shopping.infrastructure.config;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.math.BigDecimal;
+import java.time.Duration;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * カートの価格計算の設定プロパティ
+ *
+ * @param taxRate 税率
+ * @param shippingFee 配送料（円）
+ * @param freeShippingThreshold 配送料を無料にする小計の下限（円。未設定の場合は常に配送料がかかる）
+ * @param cacheMaximumSize 計算結果をキャッシュするカートの最大件数
+ * @param cacheExpireAfterWrite 計算結果のキャッシュが失効するまでの時間（商品の価格やプロモーションの変更が反映されるまでの最大の遅れ）
+ */
+@Validated
+@ConfigurationProperties("shopping.pricing")
+public record PricingProperties(
+    @DefaultValue("0.10") @DecimalMin("0") BigDecimal taxRate,
+    @DefaultValue("500") @PositiveOrZero long shippingFee,
+    @Nullable Long freeShippingThreshold,
+    @DefaultValue("10000") @Positive long cacheMaximumSize,
+    @DefaultValue("30s") Duration cacheExpireAfterWrite) {}
@@ -0,0 +1,12 @@
+package com.example.ec_2024b_back.shopping.infrastructure.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({
+  CartCacheProperties.class,
+  OrderHistoryProperties.class,
+  PricingProperties.class
+})
+public class ShoppingConfig {}
@@ -0,0 +1,125 @@
+package com.example.ec_2024b_back.shopping.infrastructure.projection;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.share.domain.models.CursorPage;
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
+import com.example.ec_2024b_back.share.infrastructure.pagination.KeysetPagination;
+import com.example.ec_2024b_back.shopping.domain.models.Order;
+import com.example.ec_2024b_back.shopping.domain.models.OrderSummary;
+import com.example.ec_2024b_back.shopping.domain.repositories.OrderSummaries;
+import com.example.ec_2024b_back.shopping.infrastructure.config.OrderHistoryProperties;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 注文の概要のMongoDBによる実装
+ *
+ * <p>{@code order_summaries} を作成日時と {@code _id} の降順に読みます。 ページのカーソルは注文リポジトリのものと同じ形式です。
+ * ストリーミングは注文リポジトリと同じく、カーソルのバッチサイズと下流への要求件数を {@link OrderHistoryProperties#streamBatchSize()}
+ * にそろえます。
+ *
+ * <p>概要は注文リポジトリが注文の保存と同時に {@link #save(Order)} で書き込み、アウトボックスのリレーが無効な場合も保存した注文がすぐに一覧に現れます。 {@link
+ * OrderSummaryProjector} は同じ概要を注文のイベントからも更新し、書き込みに失敗した概要を補います。
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoOrderSummaries implements OrderSummaries {
+
+  private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final OrderHistoryProperties orderHistoryProperties;
+
+  @Override
+  public Flux<OrderSummary> findByAccountId(AccountId accountId) {
+    var batchSize = orderHistoryProperties.streamBatchSize();
+    return mongoTemplate
+        .find(
+            query(where("accountId").is(accountId.toString()))
+                .with(NEWEST_FIRST)
+                .cursorBatchSize(batchSize),
+            OrderSummaryDocument.class)
+        .limitRate(batchSize)
+        .map(OrderSummaryDocument::toDomain);
+  }
+
+  @Override
+  public Mono<CursorPage<OrderSummary>> findByAccountId(
+      AccountId accountId, CursorPageRequest page) {
+    return Mono.defer(
+        () -> {
+          var criteria = where("accountId").is(accountId.toString());
+          var cursor = page.cursor();
+          if (cursor != null) {
+            // 作成日時が同じ注文は _id で順序を決める
+            var keys = KeysetPagination.decode(cursor, 2);
+            var createdAt = Instant.ofEpochMilli(Long.parseLong(keys.get(0)));
+            criteria.orOperator(
+                where("createdAt").lt(createdAt),
+                where("createdAt").is(createdAt).and("id").lt(keys.get(1)));
+          }
+          return mongoTemplate
+              .find(
+                  query(criteria).with(NEWEST_FIRST).limit(page.limit() + 1),
+                  OrderSummaryDocument.class)
+              .map(OrderSummaryDocument::toDomain)
+              .collectList()
+              .map(
+                  summaries ->
+                      KeysetPagination.toPage(
+                          summaries, page.limit(), MongoOrderSummaries::cursorOf));
+        });
+  }
+
+  /**
+   * 保存した注文の状態を概要に書き込みます
+   *
+   * <p>イベントによる更新と同じく、反映済みの状態より古い注文では概要を変更しません。概要がなければ作成します。
+   *
+   * @param order 保存した注文
+   * @return 書き込みの完了
+   */
+  public Mono<Void> save(Order order) {
+    var id = order.getId().toString();
+    var state =
+        new Update()
+            .set("status", order.getStatus().name())
+            .set("totalAmount", order.getTotalAmount().yen())
+            .set("itemCount", order.getItems().size())
+            .set("updatedAt", order.getUpdatedAt());
+    var created =
+        new Update()
+            .setOnInsert("accountId", order.getAccountId().toString())
+            .setOnInsert("status", order.getStatus().name())
+            .setOnInsert("totalAmount", order.getTotalAmount().yen())
+            .setOnInsert("itemCount", order.getItems().size())
+            .setOnInsert("createdAt", order.getCreatedAt())
+            .setOnInsert("updatedAt", order.getUpdatedAt());
+    return mongoTemplate
+        .updateFirst(
+            query(where("id").is(id).and("updatedAt").lte(order.getUpdatedAt())),
+            state,
+            OrderSummaryDocument.class)
+        .filter(result -> result.getMatchedCount() == 0)
+        // 一致しないのは反映済みの状態より古い場合か、概要がまだない場合
+        .flatMap(
+            unmatched ->
+                mongoTemplate.upsert(
+                    query(where("id").is(id)), created, OrderSummaryDocument.class))
+        .then();
+  }
+
+  private static String cursorOf(OrderSummary summary) {
+    return KeysetPagination.encode(
+        String.valueOf(summary.createdAt().toEpochMilli()), summary.orderId().toString());
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.ec_2024b_back.shopping.infrastructure.projection;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.shopping.OrderId;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.shopping.domain.models.OrderStatus;
+import com.example.ec_2024b_back.shopping.domain.models.OrderSummary;
+import java.time.Instant;
+import java.util.UUID;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * 注文の概要のドキュメントクラス
+ *
+ * <p>注文の保存と同時に {@link MongoOrderSummaries} が書き込み、{@link OrderSummaryProjector} が注文のイベントからも作成・更新します。
+ * 注文アイテムを持たないため、注文履歴の一覧は {@code orders} より小さなドキュメントを読むだけで済みます。 {@code orders}
+ * と同じく、アカウントごとに新しい順に読むための複合インデックスを持ちます。
+ *
+ * @param id 注文ID
+ * @param accountId アカウントID
+ * @param status 注文状態
+ * @param totalAmount 合計金額（円）
+ * @param itemCount 注文内商品の種類数
+ * @param createdAt 作成日時
+ * @param updatedAt 最後に反映したイベントの発生時刻
+ */
+@Document(collection = OrderSummaryDocument.COLLECTION)
+@CompoundIndex(
+    name = "accountId_createdAt_id",
+    def = "{'accountId': 1, 'createdAt': -1, '_id': -1}")
+public record OrderSummaryDocument(
+    @Id String id,
+    String accountId,
+    String status,
+    long totalAmount,
+    int itemCount,
+    Instant createdAt,
+    Instant updatedAt) {
+
+  /** コレクション名 */
+  public static final String COLLECTION = "order_summaries";
+
+  /** SpringData用のNo-argコンストラクタ */
+  public OrderSummaryDocument() {
+    this("", "", OrderStatus.CREATED.name(), 0L, 0, Instant.now(), Instant.now());
+  }
+
+  /** ドキュメントから読み取りモデルに変換 */
+  public OrderSummary toDomain() {
+    return new OrderSummary(
+        new OrderId(UUID.fromString(id)),
+        new AccountId(UUID.fromString(accountId)),
+        OrderStatus.valueOf(status),
+        Money.ofYen(totalAmount),
+        itemCount,
+        createdAt);
+  }
+}
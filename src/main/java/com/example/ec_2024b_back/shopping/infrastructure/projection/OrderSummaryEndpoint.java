@@ -0,0 +1,37 @@
+package com.example.ec_2024b_back.shopping.infrastructure.projection;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 注文の概要を管理するActuatorエンドポイント
+ *
+ * <p>{@code POST /actuator/ordersummaries} で、注文の概要を {@code orders} から作り直します（認証が必要です）。
+ */
+@Component
+@Endpoint(id = "ordersummaries")
+@RequiredArgsConstructor
+public class OrderSummaryEndpoint {
+
+  private final OrderSummaryProjector projector;
+
+  /**
+   * 注文の概要を作り直します
+   *
+   * @return 作成した概要の件数
+   */
+  @WriteOperation
+  public Mono<RebuildResponse> rebuild() {
+    return projector.rebuild().map(RebuildResponse::new);
+  }
+
+  /**
+   * 作り直しの結果
+   *
+   * @param count 作成した概要の件数
+   */
+  public record RebuildResponse(long count) {}
+}
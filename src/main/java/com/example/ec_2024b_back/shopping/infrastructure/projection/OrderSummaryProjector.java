@@ -0,0 +1,172 @@
+package com.example.ec_2024b_back.shopping.infrastructure.projection;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.out;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.shopping.OrderId;
+import com.example.ec_2024b_back.shopping.domain.models.OrderEvent;
+import com.example.ec_2024b_back.shopping.domain.models.OrderEvent.OrderCancelled;
+import com.example.ec_2024b_back.shopping.domain.models.OrderEvent.OrderCompleted;
+import com.example.ec_2024b_back.shopping.domain.models.OrderEvent.OrderDelivered;
+import com.example.ec_2024b_back.shopping.domain.models.OrderEvent.OrderPaid;
+import com.example.ec_2024b_back.shopping.domain.models.OrderEvent.OrderPlaced;
+import com.example.ec_2024b_back.shopping.domain.models.OrderEvent.OrderShipped;
+import com.example.ec_2024b_back.shopping.domain.models.OrderStatus;
+import com.example.ec_2024b_back.shopping.infrastructure.repository.OrderDocument;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation.WhenDocumentsDontMatch;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation.WhenDocumentsMatch;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 注文の概要（{@code order_summaries}）を注文のイベントから更新します
+ *
+ * <p>概要は注文の保存と同時に {@link MongoOrderSummaries#save} で書き込まれ、このクラスは書き込みに失敗した概要をイベントから補います。
+ * アウトボックスから配信される {@link OrderPlaced} で概要を作成し、以降のイベントで注文状態を更新します。
+ * 配信は少なくとも1回のため、作成は未作成の場合のみ行い、状態の更新は反映済みのイベントより古いイベントを無視します。
+ *
+ * <p>作り直しの間に配信された場合など、状態を更新するイベントの時点で概要がなければ {@code orders} から概要を作成します。
+ * その概要は注文の現在の状態を表し作成より新しいため、後から配信された {@link OrderPlaced} は概要を変更しません。
+ *
+ * <p>{@link #rebuild()} は {@code orders} から概要を集計し直し、コレクションを置き換えます。 起動時に概要が1件もなければ作り直します。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class OrderSummaryProjector {
+
+  private static final Duration WRITE_TIMEOUT = Duration.ofSeconds(10);
+
+  private final ReactiveMongoTemplate mongoTemplate;
+
+  /** 起動時に概要が1件もなければ、注文から作り直します */
+  @EventListener(ApplicationReadyEvent.class)
+  public void initialize() {
+    mongoTemplate
+        .exists(new Query(), OrderSummaryDocument.class)
+        .filter(exists -> !exists)
+        .flatMap(empty -> rebuild())
+        .subscribe(
+            count -> log.info("注文の概要を作成しました（{}件）", count),
+            e -> log.warn("注文の概要の作成に失敗しました", e));
+  }
+
+  /**
+   * 注文のイベントを概要に反映します
+   *
+   * <p>リレーのワーカースレッドで呼び出されるため、書き込みの完了を待ちます（失敗時はリレーが再試行します）。
+   *
+   * @param event 注文イベント
+   */
+  @EventListener
+  public void on(OrderEvent event) {
+    apply(event).then().block(WRITE_TIMEOUT);
+  }
+
+  /**
+   * 注文から概要を作り直し、{@code order_summaries} を置き換えます
+   *
+   * <p>集計と置き換えはMongoDBの {@code $out} で行い、既存のインデックスは引き継がれます。
+   * 作り直しの間に配信されたイベントは置き換え前のコレクションに反映されるため、失われることがあります。
+   *
+   * @return 作成した概要の件数
+   */
+  Mono<Long> rebuild() {
+    var aggregation =
+        newAggregation(
+            OrderDocument.class, summaryProjection(), out(OrderSummaryDocument.COLLECTION));
+    return mongoTemplate
+        .aggregate(aggregation, OrderSummaryDocument.class)
+        .then(mongoTemplate.count(new Query(), OrderSummaryDocument.class));
+  }
+
+  private Mono<?> apply(OrderEvent event) {
+    return switch (event) {
+      case OrderPlaced placed -> place(placed);
+      case OrderPaid paid -> transition(paid.orderId(), OrderStatus.PAID, paid.occurredAt());
+      case OrderShipped shipped ->
+          transition(shipped.orderId(), OrderStatus.SHIPPED, shipped.occurredAt());
+      case OrderDelivered delivered ->
+          transition(delivered.orderId(), OrderStatus.DELIVERED, delivered.occurredAt());
+      case OrderCancelled cancelled ->
+          transition(cancelled.orderId(), OrderStatus.CANCELLED, cancelled.occurredAt());
+      case OrderCompleted completed ->
+          transition(completed.orderId(), OrderStatus.COMPLETED, completed.occurredAt());
+    };
+  }
+
+  private Mono<?> place(OrderPlaced event) {
+    var update =
+        new Update()
+            .setOnInsert("accountId", event.accountId().toString())
+            .setOnInsert("status", OrderStatus.CREATED.name())
+            .setOnInsert("totalAmount", event.totalAmount().yen())
+            .setOnInsert("itemCount", event.items().size())
+            .setOnInsert("createdAt", event.occurredAt())
+            .setOnInsert("updatedAt", event.occurredAt());
+    return mongoTemplate.upsert(
+        query(where("id").is(event.orderId().toString())), update, OrderSummaryDocument.class);
+  }
+
+  private Mono<?> transition(OrderId orderId, OrderStatus status, Instant occurredAt) {
+    var byId = query(where("id").is(orderId.toString()));
+    return mongoTemplate
+        .updateFirst(
+            query(where("id").is(orderId.toString()).and("updatedAt").lte(occurredAt)),
+            new Update().set("status", status.name()).set("updatedAt", occurredAt),
+            OrderSummaryDocument.class)
+        .filter(result -> result.getMatchedCount() == 0)
+        // 一致しないのは反映済みのイベントより古い場合か、概要がまだない場合
+        .flatMap(unmatched -> mongoTemplate.exists(byId, OrderSummaryDocument.class))
+        .filter(exists -> !exists)
+        .flatMap(missing -> summarize(orderId));
+  }
+
+  /**
+   * 注文から1件の概要を作成します。その間に作成された概要があればそちらを残します
+   *
+   * <p>注文がまだ読めない場合はエラーとし、リレーに再試行させます。
+   */
+  private Mono<Boolean> summarize(OrderId orderId) {
+    var byId = where("id").is(orderId.toString());
+    var aggregation =
+        newAggregation(
+            OrderDocument.class,
+            match(byId),
+            summaryProjection(),
+            MergeOperation.builder()
+                .intoCollection(OrderSummaryDocument.COLLECTION)
+                .whenMatched(WhenDocumentsMatch.keepExistingDocument())
+                .whenDocumentsDontMatch(WhenDocumentsDontMatch.insertNewDocument())
+                .build());
+    return mongoTemplate
+        .aggregate(aggregation, OrderSummaryDocument.class)
+        .then(mongoTemplate.exists(query(byId), OrderSummaryDocument.class))
+        .filter(Boolean::booleanValue)
+        .switchIfEmpty(
+            Mono.error(() -> new IllegalStateException("注文 " + orderId + " の概要を作成できません")));
+  }
+
+  /** 注文のドキュメントを概要のドキュメントに変換する射影 */
+  private static ProjectionOperation summaryProjection() {
+    return project("accountId", "status", "totalAmount", "createdAt", "updatedAt")
+        .and("items")
+        .size()
+        .as("itemCount");
+  }
+}
@@ -0,0 +1,172 @@
+package com.example.ec_2024b_back.shopping.infrastructure.repository;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.repositories.Carts;
+import com.example.ec_2024b_back.shopping.infrastructure.config.CartCacheProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * アカウントIDをキーにカートをメモリ上にキャッシュする {@link Carts} の実装
+ *
+ * <p>読み込みはキャッシュを優先し、保存と削除は {@link MongoCarts} に委譲したうえでキャッシュにも反映します（ライトスルー）。
+ * キャッシュは件数と書き込みからの経過時間で破棄されます。
+ *
+ * <p>他のインスタンスによる更新はキャッシュに反映されないため、読み込みは最大で有効期限までの間古いカートを返すことがあります。
+ * 古いカートに対する保存は楽観的排他制御で検出され、その際にキャッシュも破棄されるため、更新が失われることはありません。
+ *
+ * <p>カートIDによる削除でキャッシュを走査しないよう、キャッシュ中のカートについてカートIDからアカウントIDへの対応を保持します。
+ */
+@Primary
+@Component
+@ConditionalOnProperty(
+    prefix = "shopping.cart-cache",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class CachingCarts implements Carts {
+
+  private final MongoCarts delegate;
+  private final Cache<AccountId, Cart> cache;
+  private final ConcurrentMap<CartId, AccountId> accountIds = new ConcurrentHashMap<>();
+
+  public CachingCarts(MongoCarts delegate, CartCacheProperties properties, MeterRegistry registry) {
+    this.delegate = delegate;
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfterWrite(properties.expireAfterWrite())
+            .recordStats()
+            .removalListener(this::onRemoval)
+            .build();
+    GuavaCacheMetrics.monitor(registry, cache, "carts");
+  }
+
+  @Override
+  public Mono<Cart> findById(CartId id) {
+    return delegate.findById(id);
+  }
+
+  @Override
+  public Mono<Cart> findByAccountId(AccountId accountId) {
+    return Mono.defer(
+        () -> {
+          var cached = cache.getIfPresent(accountId);
+          if (cached != null) {
+            return Mono.just(cached);
+          }
+          return delegate.findByAccountId(accountId).doOnNext(this::cache);
+        });
+  }
+
+  @Override
+  public Mono<Cart> save(Cart cart) {
+    return delegate
+        .save(cart)
+        .flatMap(saved -> cacheOnCommit(saved).thenReturn(saved))
+        .doOnError(
+            OptimisticLockingFailureException.class,
+            e -> cache.invalidate(cart.getAccountId())); // 再試行時にデータベースから読み直す
+  }
+
+  @Override
+  public Mono<Void> deleteById(CartId id) {
+    return delegate
+        .deleteById(id)
+        .doOnSuccess(
+            unused -> {
+              var accountId = accountIds.remove(id);
+              if (accountId != null) {
+                cache.invalidate(accountId);
+              }
+            });
+  }
+
+  /**
+   * 保存したカートをキャッシュに反映します
+   *
+   * <p>トランザクション内で保存した場合は、ロールバックされた変更を返さないようコミットされるまで反映せず、それまでの間は古いカートも返さないよう破棄しておきます。
+   */
+  private Mono<Void> cacheOnCommit(Cart cart) {
+    return TransactionSynchronizationManager.forCurrentTransaction()
+        .filter(TransactionSynchronizationManager::isSynchronizationActive)
+        .map(
+            synchronizations -> {
+              cache.invalidate(cart.getAccountId());
+              synchronizations.registerSynchronization(new CacheOnCommit(cart));
+              return true;
+            })
+        .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+        .switchIfEmpty(Mono.fromRunnable(() -> cache(cart)))
+        .then();
+  }
+
+  /** 保存と読み込みの完了順が前後しても古いカートで上書きしないよう、バージョンが新しい方を残します */
+  private void cache(Cart cart) {
+    cache.asMap().merge(cart.getAccountId(), cart, CachingCarts::newer);
+    accountIds.put(cart.getId(), cart.getAccountId());
+  }
+
+  /**
+   * キャッシュから破棄されたカートの対応を削除します
+   *
+   * <p>新しいバージョンへの置き換えなど、同じカートが引き続きキャッシュされている場合は対応を残します。
+   */
+  private void onRemoval(RemovalNotification<AccountId, Cart> notification) {
+    var accountId = notification.getKey();
+    var removed = notification.getValue();
+    if (accountId == null || removed == null) {
+      return;
+    }
+    var current = cache.getIfPresent(accountId);
+    if (current == null || !current.getId().equals(removed.getId())) {
+      accountIds.remove(removed.getId(), accountId);
+    }
+  }
+
+  private static Cart newer(Cart current, Cart candidate) {
+    var currentVersion = current.getVersion();
+    var candidateVersion = candidate.getVersion();
+    if (currentVersion == null || candidateVersion == null) {
+      return candidate;
+    }
+    return candidateVersion >= currentVersion ? candidate : current;
+  }
+
+  /** トランザクションの完了時にカートをキャッシュへ反映する同期処理 */
+  private final class CacheOnCommit implements TransactionSynchronization {
+
+    private final Cart cart;
+
+    private CacheOnCommit(Cart cart) {
+      this.cart = cart;
+    }
+
+    @Override
+    public Mono<Void> afterCompletion(int status) {
+      return Mono.fromRunnable(
+          () -> {
+            if (status == STATUS_COMMITTED) {
+              cache(cart);
+            } else {
+              cache.invalidate(cart.getAccountId());
+            }
+          });
+    }
+  }
+}
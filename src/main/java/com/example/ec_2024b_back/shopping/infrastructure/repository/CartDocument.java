@@ -5,11 +5,13 @@ import com.example.ec_2024b_back.product.ProductId;
 import com.example.ec_2024b_back.shopping.CartId;
 import com.example.ec_2024b_back.shopping.domain.models.Cart;
 import com.example.ec_2024b_back.shopping.domain.models.CartItem;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
 import com.google.common.collect.ImmutableList;
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
+import org.jspecify.annotations.Nullable;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -20,11 +22,12 @@ public record CartDocument(
     @Indexed String accountId,
     ImmutableList<CartItemDocument> items,
     Instant createdAt,
-    Instant updatedAt) {
+    Instant updatedAt,
+    @Version @Nullable Long version) {
 
   /** SpringData用のNo-argコンストラクタ */
   public CartDocument() {
-    this("", "", ImmutableList.of(), Instant.now(), Instant.now());
+    this("", "", ImmutableList.of(), Instant.now(), Instant.now(), null);
   }
 
   /** ドメインモデルからドキュメントに変換 */
@@ -39,7 +42,8 @@ public record CartDocument(
         cart.getAccountId().toString(),
         itemDocuments,
         cart.getCreatedAt(),
-        cart.getUpdatedAt());
+        cart.getUpdatedAt(),
+        cart.getVersion());
   }
 
   /** ドキュメントからドメインモデルに変換 */
@@ -52,16 +56,18 @@ public record CartDocument(
         new AccountId(UUID.fromString(accountId)),
         domainItems,
         createdAt,
-        updatedAt);
+        updatedAt,
+        // バージョン導入前に保存されたドキュメントはバージョン0として扱う（DocumentVersionBackfill を参照）
+        version != null ? version : 0L);
   }
 
   /** カート内アイテムのドキュメントクラス */
   public record CartItemDocument(
-      String productId, String productName, String unitPrice, int quantity) {
+      String productId, String productName, long unitPrice, int quantity) {
 
     /** SpringData用のNo-argコンストラクタ */
     public CartItemDocument() {
-      this("", "", "0", 0);
+      this("", "", 0L, 0);
     }
 
     /** ドメインモデルからドキュメントに変換 */
@@ -69,14 +75,13 @@ public record CartDocument(
       return new CartItemDocument(
           item.productId().toString(),
           item.productName(),
-          item.unitPrice().toString(),
+          item.unitPrice().yen(),
           item.quantity());
     }
 
     /** ドキュメントからドメインモデルに変換 */
     public CartItem toDomain() {
-      return new CartItem(
-          ProductId.of(productId), productName, quantity, new BigDecimal(unitPrice));
+      return new CartItem(ProductId.of(productId), productName, quantity, Money.ofYen(unitPrice));
     }
   }
 }
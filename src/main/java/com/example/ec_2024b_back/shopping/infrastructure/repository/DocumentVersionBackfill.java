@@ -0,0 +1,75 @@
+package com.example.ec_2024b_back.shopping.infrastructure.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.mongodb.client.result.UpdateResult;
+import java.time.Duration;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * バージョンを持たないカート・注文・決済のドキュメントにバージョン0を設定します
+ *
+ * <p>楽観的排他制御の導入前に保存されたドキュメントには {@code version} がなく、そのまま保存すると新規作成として挿入され {@code _id}
+ * の重複で失敗します。起動時に一括で補完し、補完が終わるまでの間に読み込まれたドキュメントは各ドキュメントクラスでバージョン0として扱います。
+ * 補完に失敗した場合は間隔を空けて成功するまで再試行します。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class DocumentVersionBackfill {
+
+  private static final List<Class<?>> VERSIONED_DOCUMENTS =
+      List.of(CartDocument.class, OrderDocument.class, PaymentDocument.class);
+  private static final Duration MIN_RETRY_BACKOFF = Duration.ofSeconds(1);
+  private static final Duration MAX_RETRY_BACKOFF = Duration.ofMinutes(1);
+
+  private final ReactiveMongoTemplate mongoTemplate;
+
+  /** 起動時にバージョンを持たないドキュメントを補完します */
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    backfill()
+        .retryWhen(
+            Retry.backoff(Long.MAX_VALUE, MIN_RETRY_BACKOFF)
+                .maxBackoff(MAX_RETRY_BACKOFF)
+                .doBeforeRetry(
+                    signal -> log.warn("ドキュメントのバージョンの補完に失敗したため再試行します", signal.failure())))
+        .subscribe();
+  }
+
+  /**
+   * バージョンを持たないドキュメントにバージョン0を設定します
+   *
+   * @return 補完の完了
+   */
+  Mono<Void> backfill() {
+    return Flux.fromIterable(VERSIONED_DOCUMENTS).concatMap(this::backfill).then();
+  }
+
+  private Mono<Long> backfill(Class<?> documentClass) {
+    return mongoTemplate
+        .updateMulti(
+            query(where("version").exists(false)), new Update().set("version", 0L), documentClass)
+        .map(UpdateResult::getModifiedCount)
+        .doOnNext(
+            modified -> {
+              if (modified > 0) {
+                log.info(
+                    "{} のバージョンを補完しました（{}件）",
+                    mongoTemplate.getCollectionName(documentClass),
+                    modified);
+              }
+            });
+  }
+}
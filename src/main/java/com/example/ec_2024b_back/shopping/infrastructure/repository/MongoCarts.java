@@ -1,19 +1,45 @@
 package com.example.ec_2024b_back.shopping.infrastructure.repository;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
 import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
 import com.example.ec_2024b_back.shopping.CartId;
 import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.CartEvent;
+import com.example.ec_2024b_back.shopping.domain.models.CartEvent.CartCleared;
+import com.example.ec_2024b_back.shopping.domain.models.CartEvent.ItemAddedToCart;
+import com.example.ec_2024b_back.shopping.domain.models.CartEvent.ItemQuantityChanged;
+import com.example.ec_2024b_back.shopping.domain.models.CartEvent.ItemRemovedFromCart;
 import com.example.ec_2024b_back.shopping.domain.repositories.Carts;
+import com.example.ec_2024b_back.shopping.infrastructure.repository.CartDocument.CartItemDocument;
+import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
-/** カートリポジトリのMongoDBによる実装 */
+/**
+ * カートリポジトリのMongoDBによる実装
+ *
+ * <p>読み込み後に変更されたカートは、集約に蓄積された {@link CartEvent} を部分更新（$push / $set / $pull）に変換して保存し、
+ * ドキュメント全体の書き換えを避けます。どちらの保存方法でもバージョンによる楽観的排他制御を行い、競合時は {@link OptimisticLockingFailureException}
+ * を通知します。集約に蓄積されたイベントは {@link Outbox} に書き込みます。
+ */
 @Component
 @RequiredArgsConstructor
 public class MongoCarts implements Carts {
 
   private final CartDocumentRepository repository;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final Outbox outbox;
 
   @Override
   public Mono<Cart> findById(CartId id) {
@@ -27,12 +53,102 @@ public class MongoCarts implements Carts {
 
   @Override
   public Mono<Cart> save(Cart cart) {
-    CartDocument document = CartDocument.fromDomain(cart);
-    return repository.save(document).map(CartDocument::toDomain);
+    return outbox.saveWithEvents(write(cart), cart.getId().toString(), cart.getEvents());
+  }
+
+  private Mono<Cart> write(Cart cart) {
+    var version = cart.getVersion();
+    var update = deltaUpdateFor(cart);
+    if (version == null || update.isEmpty()) {
+      // 新規作成、または1回の部分更新で表せない変更はドキュメント全体を保存
+      return saveDocument(cart);
+    }
+    long expectedVersion = version;
+    return mongoTemplate
+        .updateFirst(queryFor(cart, expectedVersion), update.get(), CartDocument.class)
+        .flatMap(
+            result ->
+                result.getMatchedCount() == 1
+                    ? Mono.just(persisted(cart, expectedVersion + 1))
+                    : Mono.error(
+                        new OptimisticLockingFailureException(
+                            "カート " + cart.getId() + " は他の更新と競合しました")));
   }
 
   @Override
   public Mono<Void> deleteById(CartId id) {
     return repository.deleteById(id.toString());
   }
+
+  private Mono<Cart> saveDocument(Cart cart) {
+    CartDocument document = CartDocument.fromDomain(cart);
+    return repository.save(document).map(CartDocument::toDomain);
+  }
+
+  /**
+   * 集約に蓄積されたイベントを1回のアトミックな部分更新に変換します
+   *
+   * <p>複数の更新を順に適用すると途中で他の更新と競合した場合に中途半端な状態が残るため、単一のイベントまたは新しい商品の追加のみで、1回の更新で表せる場合に限って部分更新を行います。
+   *
+   * @return 部分更新（1回の更新で表せない場合は空）
+   */
+  private static Optional<Update> deltaUpdateFor(Cart cart) {
+    var events = cart.getEvents();
+    if (events.isEmpty()) {
+      return Optional.empty();
+    }
+    var update = new Update().set("updatedAt", cart.getUpdatedAt()).inc("version", 1);
+    if (events.size() == 1) {
+      return Optional.of(applyEvent(update, cart, events.getFirst()));
+    }
+    if (events.stream().allMatch(ItemAddedToCart.class::isInstance)) {
+      var added =
+          events.stream()
+              .map(event -> ((ItemAddedToCart) event).productId())
+              .distinct()
+              .flatMap(productId -> cart.findItemByProductId(productId).stream())
+              .map(CartItemDocument::fromDomain)
+              .toArray();
+      return Optional.of(update.push("items").each(added));
+    }
+    return Optional.empty();
+  }
+
+  private static Query queryFor(Cart cart, long version) {
+    Criteria criteria = where("id").is(cart.getId().toString());
+    // バージョン0はバージョンを補完する前のドキュメント（version なし）も対象にする
+    criteria =
+        version == 0 ? criteria.and("version").in(0L, null) : criteria.and("version").is(version);
+    if (cart.getEvents().size() == 1
+        && cart.getEvents().getFirst() instanceof ItemQuantityChanged changed) {
+      // 位置指定演算子 ($) で対象アイテムを更新するため配列要素を条件に含める
+      criteria = criteria.and("items.productId").is(changed.productId().toString());
+    }
+    return query(criteria);
+  }
+
+  private static Update applyEvent(Update update, Cart cart, CartEvent event) {
+    return switch (event) {
+      case ItemAddedToCart added ->
+          // 単価はイベントに含まれないため、集約の最新状態のアイテムを追加する
+          cart.findItemByProductId(added.productId())
+              .map(item -> update.push("items", CartItemDocument.fromDomain(item)))
+              .orElse(update);
+      case ItemQuantityChanged changed -> update.set("items.$.quantity", changed.newQuantity());
+      case ItemRemovedFromCart removed ->
+          update.pull("items", new Document("productId", removed.productId().toString()));
+      case CartCleared _ -> update.set("items", List.of());
+    };
+  }
+
+  /** 保存後の状態として、未保存のイベントを持たないカートを返します */
+  private static Cart persisted(Cart cart, long version) {
+    return Cart.reconstruct(
+        cart.getId(),
+        cart.getAccountId(),
+        cart.getItems(),
+        cart.getCreatedAt(),
+        cart.getUpdatedAt(),
+        version);
+  }
 }
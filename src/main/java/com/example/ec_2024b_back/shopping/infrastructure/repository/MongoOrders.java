@@ -1,21 +1,51 @@
 package com.example.ec_2024b_back.shopping.infrastructure.repository;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
 import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.share.domain.models.CursorPage;
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import com.example.ec_2024b_back.share.infrastructure.pagination.KeysetPagination;
 import com.example.ec_2024b_back.shopping.OrderId;
 import com.example.ec_2024b_back.shopping.domain.models.Order;
 import com.example.ec_2024b_back.shopping.domain.models.OrderStatus;
 import com.example.ec_2024b_back.shopping.domain.repositories.Orders;
+import com.example.ec_2024b_back.shopping.infrastructure.config.OrderHistoryProperties;
+import com.example.ec_2024b_back.shopping.infrastructure.projection.MongoOrderSummaries;
+import java.time.Instant;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-/** 注文リポジトリのMongoDBによる実装 */
+/**
+ * 注文リポジトリのMongoDBによる実装. 集約に蓄積されたイベントは {@link Outbox} に書き込みます。
+ *
+ * <p>注文の保存と同時に {@link MongoOrderSummaries} で注文の概要も書き込み、トランザクションが有効な場合は同じトランザクションで書き込みます。
+ *
+ * <p>アカウントごとの注文履歴は作成日時と {@code _id} の降順をキーとするキーセットページネーションで、{@code accountId_createdAt_id}
+ * インデックスを順に読みます。
+ *
+ * <p>注文履歴のストリーミングは、カーソルのバッチサイズと下流への要求件数を {@link OrderHistoryProperties#streamBatchSize()}
+ * にそろえ、HTTPレスポンスの書き込みが追いつかない間はカーソルの読み進めを止めます。
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class MongoOrders implements Orders {
 
+  private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
   private final OrderDocumentRepository repository;
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final Outbox outbox;
+  private final OrderHistoryProperties orderHistoryProperties;
+  private final MongoOrderSummaries orderSummaries;
 
   @Override
   public Mono<Order> findById(OrderId id) {
@@ -24,7 +54,38 @@ public class MongoOrders implements Orders {
 
   @Override
   public Flux<Order> findByAccountId(AccountId accountId) {
-    return repository.findByAccountId(accountId.toString()).map(OrderDocument::toDomain);
+    var batchSize = orderHistoryProperties.streamBatchSize();
+    return mongoTemplate
+        .find(
+            query(where("accountId").is(accountId.toString()))
+                .with(NEWEST_FIRST)
+                .cursorBatchSize(batchSize),
+            OrderDocument.class)
+        .limitRate(batchSize)
+        .map(OrderDocument::toDomain);
+  }
+
+  @Override
+  public Mono<CursorPage<Order>> findByAccountId(AccountId accountId, CursorPageRequest page) {
+    return Mono.defer(
+        () -> {
+          var criteria = where("accountId").is(accountId.toString());
+          var cursor = page.cursor();
+          if (cursor != null) {
+            // 作成日時が同じ注文は _id で順序を決める
+            var keys = KeysetPagination.decode(cursor, 2);
+            var createdAt = Instant.ofEpochMilli(Long.parseLong(keys.get(0)));
+            criteria.orOperator(
+                where("createdAt").lt(createdAt),
+                where("createdAt").is(createdAt).and("id").lt(keys.get(1)));
+          }
+          return mongoTemplate
+              .find(
+                  query(criteria).with(NEWEST_FIRST).limit(page.limit() + 1), OrderDocument.class)
+              .map(OrderDocument::toDomain)
+              .collectList()
+              .map(orders -> KeysetPagination.toPage(orders, page.limit(), MongoOrders::cursorOf));
+        });
   }
 
   @Override
@@ -42,6 +103,26 @@ public class MongoOrders implements Orders {
   @Override
   public Mono<Order> save(Order order) {
     OrderDocument document = OrderDocument.fromDomain(order);
-    return repository.save(document).map(OrderDocument::toDomain);
+    var saved =
+        repository
+            .save(document)
+            .map(OrderDocument::toDomain)
+            .flatMap(
+                savedOrder ->
+                    orderSummaries
+                        .save(savedOrder)
+                        .onErrorResume(
+                            e -> {
+                              // 注文は保存済みのため失敗させず、概要はイベントからの更新で補う
+                              log.warn("注文 {} の概要を書き込めませんでした", savedOrder.getId(), e);
+                              return Mono.empty();
+                            })
+                        .thenReturn(savedOrder));
+    return outbox.saveWithEvents(saved, order.getId().toString(), order.getEvents());
+  }
+
+  private static String cursorOf(Order order) {
+    return KeysetPagination.encode(
+        String.valueOf(order.getCreatedAt().toEpochMilli()), order.getId().toString());
   }
 }
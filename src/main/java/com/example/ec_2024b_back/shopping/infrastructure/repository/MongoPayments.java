@@ -1,5 +1,6 @@
 package com.example.ec_2024b_back.shopping.infrastructure.repository;
 
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
 import com.example.ec_2024b_back.shopping.OrderId;
 import com.example.ec_2024b_back.shopping.PaymentId;
 import com.example.ec_2024b_back.shopping.domain.models.Payment;
@@ -10,16 +11,20 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-/** 支払いリポジトリのMongoDB実装 */
+/** 支払いリポジトリのMongoDB実装. 集約に蓄積されたイベントは {@link Outbox} に書き込みます。 */
 @Repository
 public class MongoPayments implements Payments {
 
   private final PaymentDocumentRepository documentRepository;
+  private final Outbox outbox;
 
   public MongoPayments(
-      ReactiveMongoTemplate mongoTemplate, PaymentDocumentRepository documentRepository) {
+      ReactiveMongoTemplate mongoTemplate,
+      PaymentDocumentRepository documentRepository,
+      Outbox outbox) {
 
     this.documentRepository = documentRepository;
+    this.outbox = outbox;
   }
 
   @Override
@@ -40,6 +45,9 @@ public class MongoPayments implements Payments {
   @Override
   public Mono<Payment> save(Payment payment) {
     PaymentDocument document = PaymentDocument.fromDomain(payment);
-    return documentRepository.save(document).map(PaymentDocument::toDomain);
+    return outbox.saveWithEvents(
+        documentRepository.save(document).map(PaymentDocument::toDomain),
+        payment.getId().toString(),
+        payment.getEvents());
   }
 }
@@ -3,35 +3,46 @@ package com.example.ec_2024b_back.shopping.infrastructure.repository;
 import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.shopping.OrderId;
 import com.example.ec_2024b_back.shopping.PaymentId;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
 import com.example.ec_2024b_back.shopping.domain.models.Order;
 import com.example.ec_2024b_back.shopping.domain.models.OrderItem;
 import com.example.ec_2024b_back.shopping.domain.models.OrderStatus;
 import com.google.common.collect.ImmutableList;
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 import org.jspecify.annotations.Nullable;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-/** 注文のドキュメントクラス */
+/**
+ * 注文のドキュメントクラス
+ *
+ * <p>アカウントごとの注文履歴を新しい順に読むため、{@code accountId}・{@code createdAt}・{@code _id} の複合インデックスを持ちます（{@code
+ * accountId} のみの検索もこのインデックスで処理します）。
+ */
 @Document(collection = "orders")
+@CompoundIndex(
+    name = "accountId_createdAt_id",
+    def = "{'accountId': 1, 'createdAt': -1, '_id': -1}")
 public record OrderDocument(
     @Id String id,
-    @Indexed String accountId,
+    String accountId,
     ImmutableList<OrderItemDocument> items,
-    String subtotal,
-    String tax,
-    String shippingCost,
-    String totalAmount,
+    long subtotal,
+    long tax,
+    long shippingCost,
+    long totalAmount,
     @Indexed String status,
     String shippingAddress,
     @Nullable String trackingNumber,
     @Nullable String paymentId,
     @Nullable String paymentMethod,
     Instant createdAt,
-    Instant updatedAt) {
+    Instant updatedAt,
+    @Version @Nullable Long version) {
 
   /** SpringData用のNo-argコンストラクタ */
   public OrderDocument() {
@@ -39,17 +50,18 @@ public record OrderDocument(
         "",
         "",
         ImmutableList.of(),
-        "0",
-        "0",
-        "0",
-        "0",
+        0L,
+        0L,
+        0L,
+        0L,
         OrderStatus.CREATED.name(),
         "",
         null,
         null,
         null,
         Instant.now(),
-        Instant.now());
+        Instant.now(),
+        null);
   }
 
   /** ドメインモデルからドキュメントに変換 */
@@ -63,17 +75,18 @@ public record OrderDocument(
         order.getId().toString(),
         order.getAccountId().toString(),
         itemDocuments,
-        order.getSubtotal().toString(),
-        order.getTax().toString(),
-        order.getShippingCost().toString(),
-        order.getTotalAmount().toString(),
+        order.getSubtotal().yen(),
+        order.getTax().yen(),
+        order.getShippingCost().yen(),
+        order.getTotalAmount().yen(),
         order.getStatus().name(),
         order.getShippingAddress(),
         order.getTrackingNumber(),
         order.getPaymentId() != null ? order.getPaymentId().toString() : null,
         order.getPaymentMethod(),
         order.getCreatedAt(),
-        order.getUpdatedAt());
+        order.getUpdatedAt(),
+        order.getVersion());
   }
 
   /** ドキュメントからドメインモデルに変換 */
@@ -87,26 +100,28 @@ public record OrderDocument(
         new OrderId(UUID.fromString(id)),
         new AccountId(UUID.fromString(accountId)),
         domainItems,
-        new BigDecimal(subtotal),
-        new BigDecimal(tax),
-        new BigDecimal(shippingCost),
-        new BigDecimal(totalAmount),
+        Money.ofYen(subtotal),
+        Money.ofYen(tax),
+        Money.ofYen(shippingCost),
+        Money.ofYen(totalAmount),
         OrderStatus.valueOf(status),
         shippingAddress,
         trackingNumber,
         paymentIdObj,
         paymentMethod,
         createdAt,
-        updatedAt);
+        updatedAt,
+        // バージョン導入前に保存されたドキュメントはバージョン0として扱う（DocumentVersionBackfill を参照）
+        version != null ? version : 0L);
   }
 
   /** 注文アイテムのドキュメントクラス */
   public record OrderItemDocument(
-      String productId, String productName, String unitPrice, int quantity) {
+      String productId, String productName, long unitPrice, int quantity) {
 
     /** SpringData用のNo-argコンストラクタ */
     public OrderItemDocument() {
-      this("", "", "0", 0);
+      this("", "", 0L, 0);
     }
 
     /** ドメインモデルからドキュメントに変換 */
@@ -114,14 +129,14 @@ public record OrderDocument(
       return new OrderItemDocument(
           item.productId().toString(),
           item.productName(),
-          item.unitPrice().toString(),
+          item.unitPrice().yen(),
           item.quantity());
     }
 
     /** ドキュメントからドメインモデルに変換 */
     public OrderItem toDomain() {
       return OrderItem.fromDatabase(
-          UUID.fromString(productId), productName, new BigDecimal(unitPrice), quantity);
+          UUID.fromString(productId), productName, Money.ofYen(unitPrice), quantity);
     }
   }
 }
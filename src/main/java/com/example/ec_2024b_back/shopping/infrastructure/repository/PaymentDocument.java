@@ -2,12 +2,13 @@ package com.example.ec_2024b_back.shopping.infrastructure.repository;
 
 import com.example.ec_2024b_back.shopping.OrderId;
 import com.example.ec_2024b_back.shopping.PaymentId;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
 import com.example.ec_2024b_back.shopping.domain.models.Payment;
 import com.example.ec_2024b_back.shopping.domain.models.PaymentStatus;
-import java.math.BigDecimal;
 import java.time.Instant;
 import org.jspecify.annotations.Nullable;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -16,7 +17,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 public record PaymentDocument(
     @Id String id,
     @Indexed String orderId,
-    BigDecimal amount,
+    long amount,
     @Indexed String status,
     String paymentMethod,
     @Nullable String externalTransactionId,
@@ -25,21 +26,23 @@ public record PaymentDocument(
     @Nullable String errorMessage,
     // 監査情報
     Instant createdAt,
-    Instant updatedAt) {
+    Instant updatedAt,
+    @Version @Nullable Long version) {
 
   /** SpringData用のNo-argコンストラクタ */
   public PaymentDocument() {
     this(
         "",
         "",
-        BigDecimal.ZERO,
+        0L,
         PaymentStatus.PENDING.name(),
         "",
         null,
         null,
         null,
         Instant.now(),
-        Instant.now());
+        Instant.now(),
+        null);
   }
 
   /**
@@ -52,14 +55,15 @@ public record PaymentDocument(
     return new PaymentDocument(
         payment.getId().id().toString(),
         payment.getOrderId().id().toString(),
-        payment.getAmount(),
+        payment.getAmount().yen(),
         payment.getStatus().name(),
         payment.getPaymentMethod(),
         payment.getExternalTransactionId(),
         payment.getErrorCode(),
         payment.getErrorMessage(),
         payment.getCreatedAt(),
-        payment.getUpdatedAt());
+        payment.getUpdatedAt(),
+        payment.getVersion());
   }
 
   /**
@@ -71,13 +75,15 @@ public record PaymentDocument(
     return Payment.reconstruct(
         PaymentId.of(id),
         OrderId.of(orderId),
-        amount,
+        Money.ofYen(amount),
         PaymentStatus.valueOf(status),
         paymentMethod,
         externalTransactionId,
         errorCode,
         errorMessage,
         createdAt,
-        updatedAt);
+        updatedAt,
+        // バージョン導入前に保存されたドキュメントはバージョン0として扱う（DocumentVersionBackfill を参照）
+        version != null ? version : 0L);
   }
 }
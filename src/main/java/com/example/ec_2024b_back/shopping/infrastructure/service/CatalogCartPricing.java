@@ -0,0 +1,84 @@
+package com.example.ec_2024b_back.shopping.infrastructure.service;
+
+import com.example.ec_2024b_back.product.catalog.CatalogPrice;
+import com.example.ec_2024b_back.product.catalog.PriceCatalog;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.CartItem;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.shopping.domain.models.PricedCart;
+import com.example.ec_2024b_back.shopping.domain.models.PricingRules;
+import com.example.ec_2024b_back.shopping.domain.services.CartPricing;
+import com.example.ec_2024b_back.shopping.infrastructure.config.PricingProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link PriceCatalog} の価格でカートの金額を計算する {@link CartPricing} の実装
+ *
+ * <p>計算結果はカートIDとバージョンをキーにキャッシュし、同じバージョンのカートを繰り返し表示しても価格を取得し直しません。
+ * カートを変更するとバージョンが変わるため古い結果は使われず、商品の価格やプロモーションの変更は最大でキャッシュの有効期限の間だけ遅れて反映されます。
+ * 保存前のカート（バージョンがnull）はキャッシュしません。
+ */
+@Service
+public class CatalogCartPricing implements CartPricing {
+
+  private final PriceCatalog priceCatalog;
+  private final PricingRules rules;
+  private final Cache<CacheKey, PricedCart> cache;
+
+  public CatalogCartPricing(
+      PriceCatalog priceCatalog, PricingProperties properties, MeterRegistry registry) {
+    this.priceCatalog = priceCatalog;
+    var freeShippingThreshold = properties.freeShippingThreshold();
+    this.rules =
+        new PricingRules(
+            properties.taxRate(),
+            Money.ofYen(properties.shippingFee()),
+            freeShippingThreshold != null ? Money.ofYen(freeShippingThreshold) : null);
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(properties.cacheMaximumSize())
+            .expireAfterWrite(properties.cacheExpireAfterWrite())
+            .recordStats()
+            .build();
+    GuavaCacheMetrics.monitor(registry, cache, "priced_carts");
+  }
+
+  @Override
+  public Mono<PricedCart> price(Cart cart) {
+    return Mono.defer(
+        () -> {
+          var version = cart.getVersion();
+          if (version == null) {
+            return calculate(cart);
+          }
+          var key = new CacheKey(cart.getId(), version);
+          var cached = cache.getIfPresent(key);
+          if (cached != null) {
+            return Mono.just(cached);
+          }
+          return calculate(cart).doOnNext(priced -> cache.put(key, priced));
+        });
+  }
+
+  private Mono<PricedCart> calculate(Cart cart) {
+    var productIds = cart.getItems().stream().map(CartItem::productId).toList();
+    return priceCatalog
+        .findPrices(productIds)
+        .collectMap(CatalogPrice::productId)
+        .map(prices -> PricedCart.of(cart, prices, rules));
+  }
+
+  /**
+   * キャッシュのキー
+   *
+   * @param cartId カートID
+   * @param version カートのバージョン
+   */
+  private record CacheKey(CartId cartId, long version) {}
+}
@@ -26,10 +26,6 @@ public class GetCartForAddItemStepImpl implements GetCartStep {
         .map(
             cart ->
                 new AddItemToCartWorkflow.Context.CartFound(
-                    cart,
-                    context.productId(),
-                    context.productName(),
-                    context.unitPrice(),
-                    context.quantity()));
+                    cart, context.productId(), context.quantity()));
   }
 }
@@ -2,19 +2,21 @@ package com.example.ec_2024b_back.shopping.infrastructure.stepimpl;
 
 import com.example.ec_2024b_back.shopping.application.workflow.CreateOrderFromCartWorkflow;
 import com.example.ec_2024b_back.shopping.application.workflow.CreateOrderFromCartWorkflow.ValidateCartStep;
-import java.math.BigDecimal;
+import com.example.ec_2024b_back.shopping.domain.services.CartPricing;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
-/** カートの内容を検証するステップの実装 */
+/**
+ * カートの内容を検証するステップの実装
+ *
+ * <p>カートのアイテムの単価は {@link CartPricing} で計算した商品の現在の価格に置き換え、税率と配送料も価格計算のルールから決めます。
+ */
 @Component
 @RequiredArgsConstructor
 public class ValidateCartStepImpl implements ValidateCartStep {
 
-  // 税率と配送料（今回は簡易的に固定値）
-  private static final BigDecimal TAX_RATE = new BigDecimal("0.10"); // 10%
-  private static final BigDecimal SHIPPING_COST = new BigDecimal("500"); // 500円
+  private final CartPricing cartPricing;
 
   @Override
   public Mono<CreateOrderFromCartWorkflow.Context.Validated> apply(
@@ -32,9 +34,24 @@ public class ValidateCartStepImpl implements ValidateCartStep {
           new CreateOrderFromCartWorkflow.InvalidShippingAddressException("配送先住所は必須です"));
     }
 
-    // バリデーション成功
-    return Mono.just(
-        new CreateOrderFromCartWorkflow.Context.Validated(
-            cart, context.shippingAddress(), SHIPPING_COST, TAX_RATE));
+    return cartPricing
+        .price(cart)
+        .flatMap(
+            priced -> {
+              // 販売中でなくなった商品は注文できない
+              if (priced.hasUnavailableItems()) {
+                return Mono.error(
+                    new CreateOrderFromCartWorkflow.UnavailableProductException(
+                        "販売されていない商品がカートに含まれています"));
+              }
+
+              // バリデーション成功
+              return Mono.just(
+                  new CreateOrderFromCartWorkflow.Context.Validated(
+                      priced.applyTo(cart),
+                      context.shippingAddress(),
+                      priced.shippingCost(),
+                      priced.taxRate()));
+            });
   }
 }
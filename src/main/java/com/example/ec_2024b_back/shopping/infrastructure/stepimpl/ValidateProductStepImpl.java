@@ -1,42 +1,48 @@
 package com.example.ec_2024b_back.shopping.infrastructure.stepimpl;
 
+import com.example.ec_2024b_back.product.catalog.PriceCatalog;
 import com.example.ec_2024b_back.shopping.application.workflow.AddItemToCartWorkflow;
 import com.example.ec_2024b_back.shopping.application.workflow.AddItemToCartWorkflow.ValidateProductStep;
-import java.math.BigDecimal;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
-/** 商品情報を検証するステップの実装 */
+/**
+ * 商品情報を検証するステップの実装
+ *
+ * <p>商品名と単価はクライアントから受け取らず、{@link PriceCatalog} から販売中の商品の現在の値を取得します。
+ */
 @Component
 @RequiredArgsConstructor
 public class ValidateProductStepImpl implements ValidateProductStep {
 
+  private final PriceCatalog priceCatalog;
+
   @Override
   public Mono<AddItemToCartWorkflow.Context.Validated> apply(
       AddItemToCartWorkflow.Context.CartFound context) {
-    // 商品名のバリデーション
-    if (context.productName() == null || context.productName().isBlank()) {
-      return Mono.error(new AddItemToCartWorkflow.InvalidProductInfoException("商品名は必須です"));
-    }
-
-    // 単価のバリデーション
-    if (context.unitPrice() == null || context.unitPrice().compareTo(BigDecimal.ZERO) < 0) {
-      return Mono.error(new AddItemToCartWorkflow.InvalidProductInfoException("単価は0以上の値が必要です"));
-    }
-
     // 数量のバリデーション
     if (context.quantity() <= 0) {
       return Mono.error(new AddItemToCartWorkflow.InvalidProductInfoException("数量は1以上の値が必要です"));
     }
 
-    // バリデーション成功
-    return Mono.just(
-        new AddItemToCartWorkflow.Context.Validated(
-            context.cart(),
-            context.productId(),
-            context.productName(),
-            context.unitPrice(),
-            context.quantity()));
+    // 販売中の商品の価格を取得
+    return priceCatalog
+        .findPrices(List.of(context.productId()))
+        .next()
+        .switchIfEmpty(
+            Mono.error(
+                new AddItemToCartWorkflow.InvalidProductInfoException(
+                    "商品ID: " + context.productId() + " の商品は販売されていません")))
+        .map(
+            price ->
+                new AddItemToCartWorkflow.Context.Validated(
+                    context.cart(),
+                    context.productId(),
+                    price.name(),
+                    Money.of(price.unitPrice()),
+                    context.quantity()));
   }
 }
@@ -4,36 +4,310 @@ import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.product.ProductId;
 import com.example.ec_2024b_back.shopping.application.workflow.AddItemToCartWorkflow;
 import com.example.ec_2024b_back.shopping.domain.models.Cart;
-import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
-/** カートに商品を追加するワークフローの実装 */
+/**
+ * カートに商品を追加するワークフローの実装
+ *
+ * <p>同じアカウントに対する追加リクエストが処理中のバッチと重なった場合、後続のリクエストはキューに溜めておき、処理中のバッチの完了後に
+ * まとめて1回の読み込み・適用・保存で処理します。保存後のカートは待っていたすべての呼び出し元に返されます。 単発のリクエストは待ち時間なしでそのまま処理されます。
+ *
+ * <p>バッチは、キューの先頭で待っているリクエスト（リーダー）の購読の中で処理します。そのため、バッチの各ステップにはリーダーのReactorコンテキストが引き継がれ、
+ * リーダーがキャンセルされればバッチの処理もキャンセルされます。バッチが終わると、キューに残っている先頭のリクエストに次のリーダーを引き継ぎます。
+ *
+ * <p>キューへの追加・取り出し・リーダーの引き継ぎ・キューの破棄は、すべてアカウントごとの {@link ConcurrentHashMap#compute} の中で行います。
+ */
 @Component
 @RequiredArgsConstructor
 public class AddItemToCartWorkflowImpl implements AddItemToCartWorkflow {
 
+  /** 1回のバッチで処理するリクエストの上限 */
+  private static final int MAX_BATCH_SIZE = 32;
+
   private final GetCartStep getCartStep;
   private final ValidateProductStep validateProductStep;
   private final AddItemStep addItemStep;
   private final SaveCartStep saveCartStep;
 
+  private final Map<AccountId, AccountQueue> queues = new ConcurrentHashMap<>();
+
   @Override
-  public Mono<Cart> execute(
-      AccountId accountId,
-      ProductId productId,
-      String productName,
-      BigDecimal unitPrice,
-      int quantity) {
+  public Mono<Cart> execute(AccountId accountId, ProductId productId, int quantity) {
 
-    var input = new Context.Input(accountId, productId, productName, unitPrice, quantity);
+    var input = new Context.Input(accountId, productId, quantity);
+
+    return Mono.defer(
+        () -> {
+          var request = new PendingRequest(input, Sinks.one());
+          enqueue(accountId, request);
+          return request
+              .outcome()
+              .asMono()
+              .flatMap(
+                  outcome ->
+                      outcome instanceof Done done
+                          ? Mono.just(done.cart())
+                          : lead(accountId, request))
+              .doOnCancel(() -> withdraw(accountId, request));
+        });
+  }
+
+  /** リクエストをキューに追加します。処理中のバッチもリーダーもいなければ、このリクエストをリーダーにします */
+  private void enqueue(AccountId accountId, PendingRequest request) {
+    var promoted = new AtomicReference<@Nullable PendingRequest>();
+    queues.compute(
+        accountId,
+        (id, current) -> {
+          var queue = current != null ? current : new AccountQueue();
+          queue.requests.add(request);
+          if (queue.isIdle()) {
+            queue.leader = request;
+            promoted.set(request);
+          }
+          return queue;
+        });
+    promote(promoted.get());
+  }
+
+  /** キューに溜まっているリクエストを、リーダーの購読の中で1つのバッチとして処理します */
+  private Mono<Cart> lead(AccountId accountId, PendingRequest leader) {
+    return Mono.defer(
+        () -> {
+          var batch = takeBatch(accountId, leader);
+          var saving = new AtomicBoolean();
+          return processBatch(batch, saving)
+              .doOnCancel(() -> abandon(accountId, batch, saving.get()))
+              .doFinally(signal -> handOff(accountId));
+        });
+  }
+
+  /** リーダーのリクエストを先頭に、キューから1バッチ分のリクエストを取り出します */
+  private List<PendingRequest> takeBatch(AccountId accountId, PendingRequest leader) {
+    var batch = new ArrayList<PendingRequest>();
+    queues.computeIfPresent(
+        accountId,
+        (id, queue) -> {
+          queue.leader = null;
+          queue.running = true;
+          queue.requests.remove(leader);
+          batch.add(leader);
+          while (batch.size() < MAX_BATCH_SIZE) {
+            var next = queue.requests.poll();
+            if (next == null) {
+              break;
+            }
+            batch.add(next);
+          }
+          return queue;
+        });
+    return batch;
+  }
+
+  /** バッチの完了後、キューに残っている先頭のリクエストをリーダーにします。残っていなければキューを破棄します */
+  private void handOff(AccountId accountId) {
+    var promoted = new AtomicReference<@Nullable PendingRequest>();
+    queues.computeIfPresent(
+        accountId,
+        (id, queue) -> {
+          queue.running = false;
+          var next = queue.requests.peek();
+          if (next == null) {
+            return null;
+          }
+          queue.leader = next;
+          promoted.set(next);
+          return queue;
+        });
+    promote(promoted.get());
+  }
+
+  /**
+   * キャンセルされたリクエストをキューから取り除きます
+   *
+   * <p>リーダーになったばかりでバッチを始めていない場合は、次のリクエストにリーダーを引き継ぎます。
+   */
+  private void withdraw(AccountId accountId, PendingRequest request) {
+    var promoted = new AtomicReference<@Nullable PendingRequest>();
+    queues.computeIfPresent(
+        accountId,
+        (id, queue) -> {
+          if (!queue.requests.remove(request) || queue.leader != request) {
+            return queue;
+          }
+          var next = queue.requests.peek();
+          queue.leader = next;
+          promoted.set(next);
+          return next != null ? queue : null;
+        });
+    promote(promoted.get());
+  }
+
+  /**
+   * リーダーがキャンセルされた場合に、バッチ内の他のリクエストを後始末します
+   *
+   * <p>保存を始める前であれば何も反映されていないため、キューの先頭に戻して次のリーダーに処理させます。
+   * 保存を始めた後は反映されたかどうかが分からないため、再度適用して二重に追加しないよう、エラーを返します。
+   */
+  private void abandon(AccountId accountId, List<PendingRequest> batch, boolean saving) {
+    var others = batch.subList(1, batch.size());
+    if (saving) {
+      others.forEach(
+          request ->
+              request
+                  .outcome()
+                  .tryEmitError(
+                      new IllegalStateException("同じカートへの先行するリクエストがキャンセルされたため、追加の結果を確認できません")));
+      return;
+    }
+    queues.computeIfPresent(
+        accountId,
+        (id, queue) -> {
+          others.reversed().forEach(queue.requests::addFirst);
+          return queue;
+        });
+  }
+
+  private static void promote(@Nullable PendingRequest request) {
+    if (request != null) {
+      request.outcome().tryEmitValue(Lead.INSTANCE);
+    }
+  }
+
+  /**
+   * バッチを処理し、リーダー以外のリクエストの呼び出し元に結果を通知します
+   *
+   * @return リーダーのリクエストの結果
+   */
+  private Mono<Cart> processBatch(List<PendingRequest> batch, AtomicBoolean saving) {
+    Map<PendingRequest, Throwable> rejections = new IdentityHashMap<>();
+    var leader = batch.getFirst();
+    var others = batch.subList(1, batch.size());
+
+    // 同じカートへの同時更新と競合した場合は、カートの読み込みからやり直す
+    return Mono.defer(() -> applyBatch(batch, rejections, saving))
+        .retryWhen(OptimisticLockRetry.onConflict())
+        .doOnNext(
+            cart ->
+                others.forEach(
+                    request -> {
+                      var rejection = rejections.get(request);
+                      if (rejection != null) {
+                        request.outcome().tryEmitError(rejection);
+                      } else {
+                        request.outcome().tryEmitValue(new Done(cart));
+                      }
+                    }))
+        .doOnError(
+            error ->
+                others.forEach(
+                    request ->
+                        request.outcome().tryEmitError(rejections.getOrDefault(request, error))))
+        .onErrorMap(error -> rejections.getOrDefault(leader, error))
+        .flatMap(
+            cart -> {
+              var rejection = rejections.get(leader);
+              return rejection != null ? Mono.error(rejection) : Mono.just(cart);
+            });
+  }
+
+  /**
+   * カートを1回読み込み、バッチ内のリクエストを順に適用して1回だけ保存します
+   *
+   * <p>検証に失敗したリクエストはカートに適用せず、そのリクエストの呼び出し元にのみエラーを返します。
+   */
+  private Mono<Cart> applyBatch(
+      List<PendingRequest> batch, Map<PendingRequest, Throwable> rejections, AtomicBoolean saving) {
+    rejections.clear();
 
     return getCartStep
-        .apply(input)
-        .flatMap(validateProductStep)
+        .apply(batch.getFirst().input())
+        .flatMap(
+            found -> {
+              var current = new AtomicReference<>(found.cart());
+              return Flux.fromIterable(batch)
+                  .concatMap(
+                      request ->
+                          applyRequest(current.get(), request, rejections).doOnNext(current::set))
+                  .then(Mono.fromSupplier(current::get));
+            })
+        .flatMap(
+            cart ->
+                rejections.size() == batch.size()
+                    ? Mono.just(cart) // 変更がないため保存しない
+                    : Mono.defer(
+                        () -> {
+                          saving.set(true);
+                          return saveCartStep
+                              .apply(new Context.Added(cart))
+                              .map(Context.Complete::cart);
+                        }));
+  }
+
+  private Mono<Cart> applyRequest(
+      Cart cart, PendingRequest request, Map<PendingRequest, Throwable> rejections) {
+    var input = request.input();
+
+    return validateProductStep
+        .apply(
+            new Context.CartFound(cart, input.productId(), input.quantity()))
         .flatMap(addItemStep)
-        .flatMap(saveCartStep)
-        .map(Context.Complete::cart);
+        .map(Context.Added::cart)
+        .onErrorResume(
+            error -> {
+              rejections.put(request, error);
+              return Mono.just(cart);
+            });
+  }
+
+  /**
+   * 結果を待っている追加リクエスト
+   *
+   * @param input 入力コンテキスト
+   * @param outcome 結果、またはリーダーになったことの通知先
+   */
+  private record PendingRequest(Context.Input input, Sinks.One<Outcome> outcome) {}
+
+  /** 待っているリクエストへの通知 */
+  private sealed interface Outcome permits Done, Lead {}
+
+  /**
+   * 他のリクエストのバッチで処理が終わった
+   *
+   * @param cart 保存後のカート
+   */
+  private record Done(Cart cart) implements Outcome {}
+
+  /** リーダーとしてバッチを処理する */
+  private enum Lead implements Outcome {
+    INSTANCE
+  }
+
+  /**
+   * アカウントごとのリクエストキュー. フィールドは {@link ConcurrentHashMap#compute} の中でのみ読み書きします
+   *
+   * <p>リーダーになったがまだバッチを始めていないリクエスト（{@code leader}）と処理中のバッチ（{@code running}）は同時には存在しません。
+   */
+  private static final class AccountQueue {
+    private final Deque<PendingRequest> requests = new ArrayDeque<>();
+    private @Nullable PendingRequest leader;
+    private boolean running;
+
+    private boolean isIdle() {
+      return leader == null && !running;
+    }
   }
 }
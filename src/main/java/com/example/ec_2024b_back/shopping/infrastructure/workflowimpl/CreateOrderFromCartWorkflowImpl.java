@@ -3,11 +3,18 @@ package com.example.ec_2024b_back.shopping.infrastructure.workflowimpl;
 import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.shopping.application.workflow.CreateOrderFromCartWorkflow;
 import com.example.ec_2024b_back.shopping.domain.models.Order;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
 
-/** カートから注文を作成するワークフローの実装 */
+/**
+ * カートから注文を作成するワークフローの実装
+ *
+ * <p>{@code share.transactions.enabled} が有効な場合、カートのクリアと注文の保存を1つのトランザクションでコミットし、
+ * カートだけがクリアされて注文が失われる状態を防ぎます。
+ */
 @Component
 @RequiredArgsConstructor
 public class CreateOrderFromCartWorkflowImpl implements CreateOrderFromCartWorkflow {
@@ -17,17 +24,27 @@ public class CreateOrderFromCartWorkflowImpl implements CreateOrderFromCartWorkf
   private final CreateOrderStep createOrderStep;
   private final ClearCartStep clearCartStep;
   private final SaveOrderStep saveOrderStep;
+  private final Optional<TransactionalOperator> transactionalOperator;
 
   @Override
   public Mono<Order> execute(AccountId accountId, String shippingAddress) {
     var input = new Context.Input(accountId, shippingAddress);
 
-    return getCartStep
-        .apply(input)
-        .flatMap(validateCartStep)
-        .flatMap(createOrderStep)
-        .flatMap(clearCartStep)
-        .flatMap(saveOrderStep)
+    // カートのクリアが同時更新と競合した場合は、注文を保存する前にカートの読み込みからやり直す
+    return Mono.defer(
+            () ->
+                getCartStep
+                    .apply(input)
+                    .flatMap(validateCartStep)
+                    .flatMap(createOrderStep)
+                    .flatMap(this::clearCartAndSaveOrder))
+        .retryWhen(OptimisticLockRetry.onConflict())
         .map(Context.Complete::order);
   }
+
+  /** カートをクリアして注文を保存します。トランザクションが有効な場合は両方をまとめてコミットします */
+  private Mono<Context.Complete> clearCartAndSaveOrder(Context.Created created) {
+    var writes = clearCartStep.apply(created).flatMap(saveOrderStep);
+    return transactionalOperator.map(operator -> operator.transactional(writes)).orElse(writes);
+  }
 }
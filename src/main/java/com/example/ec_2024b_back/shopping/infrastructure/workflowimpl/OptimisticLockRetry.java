@@ -0,0 +1,44 @@
+package com.example.ec_2024b_back.shopping.infrastructure.workflowimpl;
+
+import java.time.Duration;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+/**
+ * 楽観的排他制御の競合時にワークフローを再実行するためのリトライ設定
+ *
+ * <p>複数のリクエストが同時に同じ集約を更新した場合、読み込みからやり直すことで後から保存する側も最新の状態に変更を適用できます。
+ * 再試行のタイミングが揃って再び競合しないよう、待ち時間にはジッターを加えます。
+ */
+final class OptimisticLockRetry {
+
+  /** 最大リトライ回数 */
+  private static final int MAX_RETRIES = 3;
+
+  /** 初回リトライまでの待ち時間 */
+  private static final Duration MIN_BACKOFF = Duration.ofMillis(20);
+
+  /** リトライ間隔の上限 */
+  private static final Duration MAX_BACKOFF = Duration.ofMillis(200);
+
+  /** 待ち時間に加えるジッターの割合 */
+  private static final double JITTER = 0.5;
+
+  private OptimisticLockRetry() {}
+
+  /**
+   * 競合時のみリトライする設定を作成します
+   *
+   * <p>リトライ回数を超えた場合は最後に発生した {@link OptimisticLockingFailureException} をそのまま通知します。
+   *
+   * @return リトライ設定
+   */
+  static RetryBackoffSpec onConflict() {
+    return Retry.backoff(MAX_RETRIES, MIN_BACKOFF)
+        .maxBackoff(MAX_BACKOFF)
+        .jitter(JITTER)
+        .filter(OptimisticLockingFailureException.class::isInstance)
+        .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+  }
+}
@@ -1,4 +1,4 @@
 @org.springframework.modulith.ApplicationModule(
-    allowedDependencies = {"share", "auth", "product"},
+    allowedDependencies = {"share", "auth", "product", "product :: catalog"},
     type = org.springframework.modulith.ApplicationModule.Type.CLOSED)
 package com.example.ec_2024b_back.shopping;
@@ -17,11 +17,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
 @Fast
@@ -106,4 +108,28 @@ class LoginWithEmailHandlerTest {
         .expectStatus()
         .isUnauthorized();
   }
+
+  @Test
+  void login_shouldReturnServiceUnavailable_whenPasswordHashingIsSaturated() {
+    // Given
+    var emailStr = "test@example.com";
+    var password = "password";
+
+    when(loginUsecase.execute(any(Email.class), anyString()))
+        .thenReturn(
+            Mono.error(
+                new AuthenticationFailedException(
+                    new ResponseStatusException(
+                        HttpStatus.SERVICE_UNAVAILABLE, "Too many authentication requests"))));
+
+    // When & Then
+    webTestClient
+        .post()
+        .uri("/api/authentication/login")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new LoginRequest(emailStr, password))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+  }
 }
@@ -1,12 +1,18 @@
 package com.example.ec_2024b_back.auth.infrastructure.security;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.auth.domain.models.Account;
 import com.example.ec_2024b_back.utils.Fast;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
@@ -124,4 +130,42 @@ class JsonWebTokenProviderTest {
         .expectError()
         .verify();
   }
+
+  @Test
+  void validateToken_shouldReuseAlgorithm_whenSameTokenValidatedRepeatedly() {
+    // Arrange
+    setupMocks();
+    var account = mock(Account.class);
+    when(account.getId()).thenReturn(new AccountId(accountId));
+    String token = tokenProvider.generateToken(account);
+
+    // Act
+    for (int i = 0; i < 3; i++) {
+      StepVerifier.create(tokenProvider.validateToken(token, accountId.toString()))
+          .expectNext(true)
+          .verifyComplete();
+    }
+
+    // Assert
+    verify(properties, times(1)).secret();
+  }
+
+  @Test
+  void extractUserId_shouldThrowException_whenCachedTokenHasExpired() {
+    // Arrange
+    when(properties.secret()).thenReturn(TEST_SECRET);
+    when(properties.expirationMillis()).thenReturn(1000L);
+    var account = mock(Account.class);
+    when(account.getId()).thenReturn(new AccountId(accountId));
+    String token = tokenProvider.generateToken(account);
+    assertThat(tokenProvider.extractUserId(token)).isEqualTo(accountId.toString());
+
+    // Act & Assert
+    await()
+        .atMost(Duration.ofSeconds(3))
+        .untilAsserted(
+            () ->
+                assertThatThrownBy(() -> tokenProvider.extractUserId(token))
+                    .isInstanceOf(TokenExpiredException.class));
+  }
 }
@@ -0,0 +1,140 @@
+package com.example.ec_2024b_back.auth.infrastructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.utils.Fast;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.test.StepVerifier;
+
+@Fast
+class LoginThrottlingFilterTest {
+
+  private static final String LOGIN_PATH = "/api/authentication/login";
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final List<String> forwardedBodies = new ArrayList<>();
+  private LoginThrottlingFilter filter;
+
+  /** 後続の処理としてリクエストボディを読み込んで記録するチェーン */
+  private final WebFilterChain chain =
+      exchange ->
+          DataBufferUtils.join(exchange.getRequest().getBody())
+              .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+              .doOnNext(forwardedBodies::add)
+              .then();
+
+  @BeforeEach
+  void setUp() {
+    var properties = new LoginThrottlingProperties(true, Duration.ofMinutes(1), 5, 2, 1024);
+    filter = new LoginThrottlingFilter(properties, new ObjectMapper(), registry);
+  }
+
+  @Test
+  void filter_shouldForwardLoginWithOriginalBody_whenUnderLimit() {
+    // Act & Assert
+    StepVerifier.create(filter.filter(login("10.0.0.1", "user@example.com"), chain))
+        .verifyComplete();
+    assertThat(forwardedBodies).containsExactly(body("user@example.com"));
+  }
+
+  @Test
+  void filter_shouldRejectLogin_whenEmailExceedsLimit() {
+    // Arrange: 大文字小文字の違いは同じメールアドレスとして数える
+    attempt(login("10.0.0.1", "user@example.com"));
+    attempt(login("10.0.0.2", "USER@example.com"));
+
+    // Act & Assert
+    StepVerifier.create(filter.filter(login("10.0.0.3", "user@example.com"), chain))
+        .expectErrorSatisfies(LoginThrottlingFilterTest::assertTooManyRequests)
+        .verify();
+    assertThat(forwardedBodies).hasSize(2);
+    assertThat(registry.get("auth.login.throttled").tag("reason", "email").counter().count())
+        .isEqualTo(1.0);
+
+    // 他のメールアドレスには影響しない
+    StepVerifier.create(filter.filter(login("10.0.0.3", "other@example.com"), chain))
+        .verifyComplete();
+  }
+
+  @Test
+  void filter_shouldNotRejectOtherEmails_whenDistinctEmailsAreSprayedFromManyIps() {
+    // Arrange: 多数のIPアドレスから、保持できる数を超える種類のメールアドレスを試す
+    for (int i = 0; i < 2_000; i++) {
+      attempt(login("10.0." + (i / 250) + "." + (i % 250), "spray" + i + "@example.com"));
+    }
+
+    // Act & Assert
+    StepVerifier.create(filter.filter(login("10.1.0.1", "user@example.com"), chain))
+        .verifyComplete();
+    assertThat(registry.get("auth.login.throttled").tag("reason", "email").counter().count())
+        .isZero();
+  }
+
+  @Test
+  void filter_shouldRejectLoginBeforeReadingBody_whenIpExceedsLimit() {
+    // Arrange
+    for (int i = 0; i < 5; i++) {
+      attempt(login("10.0.0.1", "user" + i + "@example.com"));
+    }
+
+    // Act & Assert
+    StepVerifier.create(filter.filter(login("10.0.0.1", "another@example.com"), chain))
+        .expectErrorSatisfies(LoginThrottlingFilterTest::assertTooManyRequests)
+        .verify();
+    assertThat(registry.get("auth.login.throttled").tag("reason", "ip").counter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void filter_shouldNotThrottleOtherRoutes() {
+    // Act & Assert
+    for (int i = 0; i < 10; i++) {
+      var signup =
+          MockServerWebExchange.from(
+              MockServerHttpRequest.post("/api/authentication/signup")
+                  .remoteAddress(new InetSocketAddress("10.0.0.1", 12345))
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .body(body("user@example.com")));
+      StepVerifier.create(filter.filter(signup, chain)).verifyComplete();
+    }
+  }
+
+  private void attempt(ServerWebExchange exchange) {
+    filter.filter(exchange, chain).block();
+  }
+
+  private static MockServerWebExchange login(String ip, String email) {
+    return MockServerWebExchange.from(
+        MockServerHttpRequest.post(LOGIN_PATH)
+            .remoteAddress(new InetSocketAddress(ip, 12345))
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body(email)));
+  }
+
+  private static String body(String email) {
+    return "{\"email\":\"" + email + "\",\"password\":\"password\"}";
+  }
+
+  private static void assertTooManyRequests(Throwable error) {
+    assertThat(error)
+        .isInstanceOfSatisfying(
+            ResponseStatusException.class,
+            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+  }
+}
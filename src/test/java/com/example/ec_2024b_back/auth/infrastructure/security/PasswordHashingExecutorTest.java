@@ -0,0 +1,156 @@
+package com.example.ec_2024b_back.auth.infrastructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.example.ec_2024b_back.utils.Slow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+@Slow
+class PasswordHashingExecutorTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private PasswordHashingExecutor executor = executor(2, 100);
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    executor.destroy();
+  }
+
+  @Test
+  void execute_shouldLimitConcurrencyAndExposeQueueDepth() {
+    // Arrange
+    var results = Flux.range(0, 10).flatMap(i -> executor.execute(this::blockUntilReleased));
+
+    // Act
+    var completed = results.collectList().toFuture();
+
+    // Assert
+    await()
+        .atMost(Duration.ofSeconds(5))
+        .untilAsserted(
+            () -> {
+              assertThat(executor.activeTasks()).isEqualTo(2);
+              assertThat(executor.queuedTasks()).isEqualTo(8);
+              assertThat(registry.get("auth.password.hashing.queued").gauge().value())
+                  .isEqualTo(8.0);
+            });
+
+    release.countDown();
+    assertThat(completed.join()).hasSize(10);
+    assertThat(executor.activeTasks()).isZero();
+    assertThat(executor.queuedTasks()).isZero();
+  }
+
+  @Test
+  void execute_shouldRejectWithServiceUnavailable_whenQueueIsFull() {
+    // Arrange
+    executor.destroy();
+    executor = executor(1, 1);
+    var running = executor.execute(this::blockUntilReleased).subscribe();
+    await().atMost(Duration.ofSeconds(5)).until(() -> executor.activeTasks() == 1);
+    var queued = executor.execute(this::blockUntilReleased).subscribe();
+
+    // Act & Assert
+    StepVerifier.create(executor.execute(() -> true))
+        .expectErrorSatisfies(
+            error ->
+                assertThat(error)
+                    .isInstanceOfSatisfying(
+                        ResponseStatusException.class,
+                        e ->
+                            assertThat(e.getStatusCode())
+                                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)))
+        .verify(Duration.ofSeconds(5));
+    await().atMost(Duration.ofSeconds(5)).until(() -> executor.queuedTasks() == 1);
+
+    running.dispose();
+    queued.dispose();
+  }
+
+  @Test
+  void execute_shouldBoundQueuedTasksAcrossAllThreads() {
+    // Arrange: スレッドごとではなく全体で1件までしか待たせない
+    executor.destroy();
+    executor = executor(2, 1);
+    var running =
+        Flux.range(0, 2).flatMap(i -> executor.execute(this::blockUntilReleased)).subscribe();
+    await().atMost(Duration.ofSeconds(5)).until(() -> executor.activeTasks() == 2);
+    var queued = executor.execute(this::blockUntilReleased).subscribe();
+    await().atMost(Duration.ofSeconds(5)).until(() -> executor.queuedTasks() == 1);
+
+    // Act & Assert
+    StepVerifier.create(executor.execute(() -> true))
+        .expectError(ResponseStatusException.class)
+        .verify(Duration.ofSeconds(5));
+    assertThat(executor.queuedTasks()).isEqualTo(1);
+
+    running.dispose();
+    queued.dispose();
+  }
+
+  @Test
+  void execute_shouldKeepEventLoopLatencyFlat_duringLoginSpike() throws Exception {
+    // Arrange
+    var encoder = new BCryptPasswordEncoder();
+    var hashed = encoder.encode("password");
+    var start = System.nanoTime();
+    encoder.matches("password", hashed);
+    var singleVerification = Duration.ofNanos(System.nanoTime() - start);
+
+    Scheduler eventLoop = Schedulers.newSingle("event-loop");
+    var lags = new ConcurrentLinkedQueue<Duration>();
+    try {
+      // Act: イベントループ上から照合を大量に要求しつつ、同じループの応答遅延を計測する
+      var spike =
+          Flux.range(0, 20)
+              .flatMap(
+                  i ->
+                      Mono.defer(() -> executor.execute(() -> encoder.matches("password", hashed)))
+                          .subscribeOn(eventLoop))
+              .collectList()
+              .toFuture();
+
+      while (!spike.isDone()) {
+        var scheduledAt = System.nanoTime();
+        eventLoop.schedule(() -> lags.add(Duration.ofNanos(System.nanoTime() - scheduledAt)));
+        TimeUnit.MILLISECONDS.sleep(5);
+      }
+      List<Boolean> verified = spike.get(30, TimeUnit.SECONDS);
+
+      // Assert: BCryptをループ上で実行していれば、1回の照合時間だけ他の処理が待たされる
+      assertThat(verified).hasSize(20).containsOnly(true);
+      assertThat(lags)
+          .isNotEmpty()
+          .allSatisfy(lag -> assertThat(lag).isLessThan(singleVerification));
+    } finally {
+      eventLoop.dispose();
+    }
+  }
+
+  private PasswordHashingExecutor executor(int maxConcurrency, int maxQueuedTasks) {
+    return new PasswordHashingExecutor(
+        new PasswordHashingProperties(maxConcurrency, maxQueuedTasks), registry);
+  }
+
+  private Boolean blockUntilReleased() throws InterruptedException {
+    return release.await(10, TimeUnit.SECONDS);
+  }
+}
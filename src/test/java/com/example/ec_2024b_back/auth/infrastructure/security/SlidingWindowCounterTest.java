@@ -0,0 +1,96 @@
+package com.example.ec_2024b_back.auth.infrastructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.ec_2024b_back.utils.Fast;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@Fast
+class SlidingWindowCounterTest {
+
+  private static final long WINDOW_START = 1_000 * 60_000L;
+
+  private final Clock clock = mock(Clock.class);
+  private SlidingWindowCounter counter;
+
+  @BeforeEach
+  void setUp() {
+    when(clock.millis()).thenReturn(WINDOW_START);
+    counter = new SlidingWindowCounter(1024, Duration.ofMinutes(1), clock);
+  }
+
+  @Test
+  void incrementAndEstimate_shouldCountAttemptsPerKey() {
+    // Act
+    counter.incrementAndEstimate("alice@example.com");
+    counter.incrementAndEstimate("alice@example.com");
+    var alice = counter.incrementAndEstimate("alice@example.com");
+
+    // Assert
+    assertThat(alice).isEqualTo(3);
+    assertThat(counter.estimate("bob@example.com")).isZero();
+  }
+
+  @Test
+  void estimate_shouldWeightPreviousWindowByRemainingOverlap() {
+    // Arrange
+    attempt("key", 10);
+
+    // Act & Assert: 次のウィンドウの1/4が経過した時点では、直前のウィンドウの3/4が残る
+    when(clock.millis()).thenReturn(WINDOW_START + 75_000);
+    assertThat(counter.estimate("key")).isEqualTo(7);
+    assertThat(counter.incrementAndEstimate("key")).isEqualTo(8);
+  }
+
+  @Test
+  void estimate_shouldForgetAttemptsOlderThanTwoWindows() {
+    // Arrange
+    attempt("key", 10);
+
+    // Act
+    when(clock.millis()).thenReturn(WINDOW_START + 120_000);
+
+    // Assert
+    assertThat(counter.estimate("key")).isZero();
+  }
+
+  @Test
+  void incrementAndEstimate_shouldNotInflateOtherKeys_whenDistinctKeysAreSprayed() {
+    // Arrange
+    counter.incrementAndEstimate("alice@example.com");
+
+    // Act: 保持できる数を大きく超える種類のキーを送りつける
+    IntStream.range(0, 100_000).forEach(i -> counter.incrementAndEstimate("spray" + i));
+
+    // Assert: 他のキーの件数が過大に見積もられることはない
+    assertThat(counter.estimate("bob@example.com")).isZero();
+    assertThat(counter.incrementAndEstimate("bob@example.com")).isEqualTo(1);
+    assertThat(counter.estimate("alice@example.com")).isLessThanOrEqualTo(1);
+  }
+
+  @Test
+  void incrementAndEstimate_shouldNotLoseConcurrentIncrements() {
+    // Act
+    var futures =
+        IntStream.range(0, 8)
+            .mapToObj(i -> CompletableFuture.runAsync(() -> attempt("key", 1_000)))
+            .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(futures).join();
+
+    // Assert
+    assertThat(counter.estimate("key")).isEqualTo(8_000);
+  }
+
+  private void attempt(String key, int times) {
+    for (int i = 0; i < times; i++) {
+      counter.incrementAndEstimate(key);
+    }
+  }
+}
@@ -7,13 +7,18 @@ import com.example.ec_2024b_back.auth.AccountId;
 import com.example.ec_2024b_back.auth.application.workflow.LoginWorkflow;
 import com.example.ec_2024b_back.auth.domain.models.Account;
 import com.example.ec_2024b_back.auth.domain.models.EmailAuthentication;
+import com.example.ec_2024b_back.auth.infrastructure.security.PasswordHashingExecutor;
+import com.example.ec_2024b_back.auth.infrastructure.security.PasswordHashingProperties;
 import com.example.ec_2024b_back.share.domain.models.Email;
 import com.example.ec_2024b_back.utils.Fast;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -25,7 +30,22 @@ class VerifyWithPasswordStepImplTest {
 
   @Mock private PasswordEncoder passwordEncoder;
 
-  @InjectMocks private VerifyWithPasswordStepImpl verifyWithPasswordStep;
+  private PasswordHashingExecutor passwordHashingExecutor;
+  private VerifyWithPasswordStepImpl verifyWithPasswordStep;
+
+  @BeforeEach
+  void setUp() {
+    passwordHashingExecutor =
+        new PasswordHashingExecutor(
+            new PasswordHashingProperties(2, 100), new SimpleMeterRegistry());
+    verifyWithPasswordStep =
+        new VerifyWithPasswordStepImpl(passwordEncoder, passwordHashingExecutor);
+  }
+
+  @AfterEach
+  void tearDown() {
+    passwordHashingExecutor.destroy();
+  }
 
   @Test
   void apply_shouldReturnVerifiedContext_whenValidPasswordProvided() {
@@ -83,4 +103,28 @@ class VerifyWithPasswordStepImplTest {
         .expectError(LoginWorkflow.NoEmailAuthenticationException.class)
         .verify();
   }
+
+  @Test
+  void apply_shouldVerifyPasswordOffTheCallingThread() {
+    // Arrange
+    var email = new Email("test@example.com");
+    var rawPassword = "raw-password";
+    var hashedPassword = "$2a$10$abcdefghijklmnopqrstuvwxyno12345678901234567890123abc";
+    var authentication =
+        new EmailAuthentication(email, new EmailAuthentication.HashedPassword(hashedPassword));
+    var account = Account.reconstruct(new AccountId(UUID.randomUUID()), List.of(authentication));
+    var context = new LoginWorkflow.Context.Founded(account, rawPassword);
+    var verifyingThread = new AtomicReference<String>();
+
+    when(passwordEncoder.matches(rawPassword, hashedPassword))
+        .thenAnswer(
+            invocation -> {
+              verifyingThread.set(Thread.currentThread().getName());
+              return true;
+            });
+
+    // Act & Assert
+    StepVerifier.create(verifyWithPasswordStep.apply(context)).expectNextCount(1).verifyComplete();
+    assertThat(verifyingThread.get()).startsWith("password-hashing");
+  }
 }
@@ -0,0 +1,115 @@
+package com.example.ec_2024b_back.product.infrastructure.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.PromotionId;
+import com.example.ec_2024b_back.product.domain.models.Product;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductStatus;
+import com.example.ec_2024b_back.product.domain.models.Promotion;
+import com.example.ec_2024b_back.product.domain.models.Promotion.DiscountType;
+import com.example.ec_2024b_back.product.domain.repositories.Products;
+import com.example.ec_2024b_back.product.domain.repositories.Promotions;
+import com.example.ec_2024b_back.product.infrastructure.config.ProductLoaderProperties;
+import com.example.ec_2024b_back.product.infrastructure.loader.ProductLoader;
+import com.example.ec_2024b_back.utils.Fast;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@Fast
+@ExtendWith(MockitoExtension.class)
+class ProductPriceCatalogTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 15, 12, 0);
+
+  @Mock private Products products;
+  @Mock private Promotions promotions;
+
+  private ProductPriceCatalog catalog;
+
+  private final ProductId coffee = new ProductId(UUID.randomUUID());
+
+  @BeforeEach
+  void setUp() {
+    var loader = new ProductLoader(products, new ProductLoaderProperties(Duration.ofMillis(1)));
+    catalog = new ProductPriceCatalog(loader, promotions, () -> NOW);
+  }
+
+  @Test
+  void findPrices_shouldApplyLargestDiscountRoundedDown() {
+    // Arrange
+    when(products.findAllById(Set.of(coffee)))
+        .thenReturn(Flux.just(product(coffee, "1999", ProductStatus.ACTIVE)));
+    when(promotions.findApplicable(coffee, NOW))
+        .thenReturn(
+            Flux.just(
+                promotion(DiscountType.PERCENTAGE, "15"), // 299.85円
+                promotion(DiscountType.FIXED_AMOUNT, "250")));
+
+    // Act & Assert
+    StepVerifier.create(catalog.findPrices(List.of(coffee)))
+        .assertNext(
+            price -> {
+              assertThat(price.name()).isEqualTo("コーヒー");
+              assertThat(price.discount()).isEqualByComparingTo("299");
+              assertThat(price.unitPrice()).isEqualByComparingTo("1700");
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void findPrices_shouldUseBasePrice_whenNoPromotionApplies() {
+    // Arrange
+    when(products.findAllById(Set.of(coffee)))
+        .thenReturn(Flux.just(product(coffee, "500", ProductStatus.ACTIVE)));
+    when(promotions.findApplicable(coffee, NOW)).thenReturn(Flux.empty());
+
+    // Act & Assert
+    StepVerifier.create(catalog.findPrices(List.of(coffee)))
+        .assertNext(price -> assertThat(price.unitPrice()).isEqualByComparingTo("500"))
+        .verifyComplete();
+  }
+
+  @Test
+  void findPrices_shouldSkipMissingAndInactiveProducts() {
+    // Arrange
+    var draft = new ProductId(UUID.randomUUID());
+    var missing = new ProductId(UUID.randomUUID());
+    when(products.findAllById(any()))
+        .thenReturn(Flux.just(product(draft, "500", ProductStatus.DRAFT)));
+
+    // Act & Assert
+    StepVerifier.create(catalog.findPrices(List.of(draft, missing))).verifyComplete();
+  }
+
+  private static Product product(ProductId id, String basePrice, ProductStatus status) {
+    return Product.reconstruct(
+        id, "コーヒー", "説明", new BigDecimal(basePrice), "SKU", Set.of(), status, List.of());
+  }
+
+  private static Promotion promotion(DiscountType type, String value) {
+    return Promotion.reconstruct(
+        new PromotionId(UUID.randomUUID()),
+        "セール",
+        "説明",
+        type,
+        new BigDecimal(value),
+        NOW.minusDays(1),
+        NOW.plusDays(1),
+        true,
+        Set.of());
+  }
+}
@@ -0,0 +1,115 @@
+package com.example.ec_2024b_back.product.infrastructure.category;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.product.CategoryId;
+import com.example.ec_2024b_back.product.domain.models.Category;
+import com.example.ec_2024b_back.utils.Fast;
+import java.util.List;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+@Fast
+class CategoryTreeTest {
+
+  private final CategoryTree tree = new CategoryTree();
+
+  private final Category food = category("食品", null);
+  private final Category drink = category("飲料", food);
+  private final Category coffee = category("コーヒー", drink);
+  private final Category tea = category("お茶", drink);
+  private final Category books = category("本", null);
+
+  @Test
+  void rootsAndChildren_shouldBeSortedByName() {
+    // Arrange
+    tree.loadAll(List.of(coffee, books, drink, tea, food));
+
+    // Act & Assert
+    assertThat(tree.roots()).containsExactly(books, food);
+    assertThat(tree.children(drink.getId())).containsExactly(tea, coffee);
+    assertThat(tree.children(coffee.getId())).isEmpty();
+  }
+
+  @Test
+  void pathAndSubtree_shouldFollowParentCategories() {
+    // Arrange
+    tree.loadAll(List.of(food, drink, coffee, tea, books));
+
+    // Act & Assert
+    assertThat(tree.path(coffee.getId()))
+        .containsExactly(food.getId(), drink.getId(), coffee.getId());
+    assertThat(tree.subtree(food.getId()))
+        .containsExactlyInAnyOrder(food.getId(), drink.getId(), coffee.getId(), tea.getId());
+    assertThat(tree.subtree(books.getId())).containsExactly(books.getId());
+  }
+
+  @Test
+  void put_shouldAttachCategoryToExistingTree() {
+    // Arrange
+    tree.loadAll(List.of(food, drink));
+
+    // Act
+    tree.put(coffee);
+
+    // Assert
+    assertThat(tree.get(coffee.getId())).isEqualTo(coffee);
+    assertThat(tree.subtree(food.getId())).contains(coffee.getId());
+    assertThat(tree.size()).isEqualTo(3);
+  }
+
+  @Test
+  void isLoaded_shouldBeFalse_untilAllCategoriesAreLoaded() {
+    // Act
+    tree.put(coffee);
+
+    // Assert
+    assertThat(tree.isLoaded()).isFalse();
+    tree.loadAll(List.of(food, drink, coffee));
+    assertThat(tree.isLoaded()).isTrue();
+  }
+
+  @Test
+  void subtree_shouldContainOnlyItself_whenCategoryIsUnknown() {
+    // Arrange
+    var unknown = new CategoryId(UUID.randomUUID());
+
+    // Act & Assert
+    assertThat(tree.subtree(unknown)).containsExactly(unknown);
+    assertThat(tree.path(unknown)).isEmpty();
+  }
+
+  @Test
+  void loadAll_shouldKeepCategoriesPutWhileLoading() {
+    // Arrange: 読み込みの後に作成され、読み込んだ一覧には含まれないカテゴリ
+    tree.put(tea);
+
+    // Act
+    tree.loadAll(List.of(food, drink));
+
+    // Assert
+    assertThat(tree.isLoaded()).isTrue();
+    assertThat(tree.get(tea.getId())).isEqualTo(tea);
+    assertThat(tree.subtree(food.getId()))
+        .containsExactlyInAnyOrder(food.getId(), drink.getId(), tea.getId());
+  }
+
+  @Test
+  void path_shouldStopAtCycle() {
+    // Arrange
+    var a = new CategoryId(UUID.randomUUID());
+    var b = new CategoryId(UUID.randomUUID());
+    tree.loadAll(
+        List.of(Category.reconstruct(a, "A", "", b), Category.reconstruct(b, "B", "", a)));
+
+    // Act & Assert
+    assertThat(tree.path(a)).containsExactly(b, a);
+    assertThat(tree.roots()).isEmpty();
+  }
+
+  private static Category category(String name, @Nullable Category parent) {
+    return Category.reconstruct(
+        new CategoryId(UUID.randomUUID()), name, "", parent != null ? parent.getId() : null);
+  }
+}
@@ -0,0 +1,145 @@
+package com.example.ec_2024b_back.product.infrastructure.loader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Product;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductStatus;
+import com.example.ec_2024b_back.product.domain.repositories.Products;
+import com.example.ec_2024b_back.product.infrastructure.config.ProductLoaderProperties;
+import com.example.ec_2024b_back.utils.Fast;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Fast
+@ExtendWith(MockitoExtension.class)
+class ProductLoaderTest {
+
+  @Mock private Products products;
+
+  private ProductLoader loader;
+
+  private final Product coffee = product("コーヒー");
+  private final Product tea = product("紅茶");
+
+  @BeforeEach
+  void setUp() {
+    loader = new ProductLoader(products, new ProductLoaderProperties(Duration.ofMillis(20)));
+  }
+
+  @Test
+  void load_shouldCoalesceRequestsWithinBatchWindow() {
+    // Arrange
+    when(products.findAllById(Set.of(coffee.getId(), tea.getId())))
+        .thenReturn(Flux.just(tea, coffee));
+
+    // Act
+    var loaded =
+        Flux.merge(
+                loader.load(coffee.getId()),
+                loader.load(tea.getId()),
+                loader.load(coffee.getId()))
+            .contextWrite(loader::withBatch)
+            .collectList()
+            .block();
+
+    // Assert
+    assertThat(loaded).containsExactlyInAnyOrder(coffee, tea, coffee);
+    verify(products, times(1)).findAllById(any());
+  }
+
+  @Test
+  void loadAll_shouldReuseLoadedProductsWithinRequest() {
+    // Arrange
+    when(products.findAllById(Set.of(coffee.getId()))).thenReturn(Flux.just(coffee));
+    when(products.findAllById(Set.of(tea.getId()))).thenReturn(Flux.just(tea));
+
+    // Act
+    var loaded =
+        loader
+            .loadAll(List.of(coffee.getId()))
+            .thenMany(loader.loadAll(List.of(tea.getId(), coffee.getId(), tea.getId())))
+            .contextWrite(loader::withBatch)
+            .collectList()
+            .block();
+
+    // Assert
+    assertThat(loaded).containsExactly(tea, coffee);
+    verify(products, times(1)).findAllById(Set.of(coffee.getId()));
+    verify(products, times(1)).findAllById(Set.of(tea.getId()));
+  }
+
+  @Test
+  void load_shouldCompleteEmpty_whenProductDoesNotExist() {
+    // Arrange
+    var missing = new ProductId(UUID.randomUUID());
+    when(products.findAllById(Set.of(missing))).thenReturn(Flux.empty());
+
+    // Act
+    var loaded = loader.load(missing).contextWrite(loader::withBatch).blockOptional();
+
+    // Assert
+    assertThat(loaded).isEmpty();
+  }
+
+  @Test
+  void load_shouldRetry_whenPreviousLoadFailed() {
+    // Arrange
+    when(products.findAllById(Set.of(coffee.getId())))
+        .thenReturn(Flux.error(new IllegalStateException("接続エラー")))
+        .thenReturn(Flux.just(coffee));
+
+    // Act
+    var loaded =
+        loader
+            .load(coffee.getId())
+            .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+            .then(loader.load(coffee.getId()))
+            .contextWrite(loader::withBatch)
+            .block();
+
+    // Assert
+    assertThat(loaded).isEqualTo(coffee);
+    verify(products, times(2)).findAllById(Set.of(coffee.getId()));
+  }
+
+  @Test
+  void load_shouldQueryRepositoryDirectly_whenNoBatchIsRegistered() {
+    // Arrange
+    when(products.findById(coffee.getId())).thenReturn(Mono.just(coffee));
+
+    // Act
+    var loaded = loader.load(coffee.getId()).block();
+
+    // Assert
+    assertThat(loaded).isEqualTo(coffee);
+    verify(products, never()).findAllById(any());
+  }
+
+  private static Product product(String name) {
+    return Product.reconstruct(
+        new ProductId(UUID.randomUUID()),
+        name,
+        "",
+        BigDecimal.TEN,
+        "SKU-" + name,
+        Set.of(),
+        ProductStatus.ACTIVE,
+        List.of());
+  }
+}
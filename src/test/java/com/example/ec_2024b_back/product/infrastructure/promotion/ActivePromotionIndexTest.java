@@ -0,0 +1,99 @@
+package com.example.ec_2024b_back.product.infrastructure.promotion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.PromotionId;
+import com.example.ec_2024b_back.product.domain.models.Promotion;
+import com.example.ec_2024b_back.product.domain.models.Promotion.DiscountType;
+import com.example.ec_2024b_back.utils.Fast;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+@Fast
+class ActivePromotionIndexTest {
+
+  private static final LocalDateTime JAN_1 = LocalDateTime.of(2025, 1, 1, 0, 0);
+  private static final LocalDateTime JAN_31 = LocalDateTime.of(2025, 1, 31, 23, 59);
+
+  private final ActivePromotionIndex index = new ActivePromotionIndex();
+  private final ProductId coffee = new ProductId(UUID.randomUUID());
+  private final ProductId tea = new ProductId(UUID.randomUUID());
+
+  @Test
+  void applicableTo_shouldCombineGlobalAndProductPromotions() {
+    // Arrange
+    var storewide = promotion("全品割引", JAN_1, JAN_31, true, Set.of());
+    var coffeeSale = promotion("コーヒー割引", JAN_1, JAN_31, true, Set.of(coffee));
+    index.replaceAll(List.of(storewide, coffeeSale));
+
+    // Act & Assert
+    assertThat(index.applicableTo(coffee, JAN_1.plusDays(3)))
+        .containsExactly(storewide, coffeeSale);
+    assertThat(index.applicableTo(tea, JAN_1.plusDays(3))).containsExactly(storewide);
+  }
+
+  @Test
+  void applicableTo_shouldIncludeBothEndsOfPeriod() {
+    // Arrange
+    var sale = promotion("1月のセール", JAN_1, JAN_31, true, Set.of(coffee));
+    index.put(sale);
+
+    // Act & Assert
+    assertThat(index.applicableTo(coffee, JAN_1.minusNanos(1))).isEmpty();
+    assertThat(index.applicableTo(coffee, JAN_1)).containsExactly(sale);
+    assertThat(index.applicableTo(coffee, JAN_31)).containsExactly(sale);
+    assertThat(index.applicableTo(coffee, JAN_31.plusNanos(1))).isEmpty();
+  }
+
+  @Test
+  void applicableTo_shouldResolveOverlappingPeriods() {
+    // Arrange
+    var january = promotion("1月のセール", JAN_1, JAN_31, true, Set.of(coffee));
+    var weekend = promotion("週末セール", JAN_1.plusDays(10), JAN_1.plusDays(12), true, Set.of(coffee));
+    index.replaceAll(List.of(january, weekend));
+
+    // Act & Assert
+    assertThat(index.applicableTo(coffee, JAN_1.plusDays(5))).containsExactly(january);
+    assertThat(index.applicableTo(coffee, JAN_1.plusDays(11)))
+        .containsExactlyInAnyOrder(january, weekend);
+    assertThat(index.applicableTo(coffee, JAN_1.plusDays(20))).containsExactly(january);
+  }
+
+  @Test
+  void put_shouldRemovePromotion_whenDeactivated() {
+    // Arrange
+    var sale = promotion("コーヒー割引", JAN_1, JAN_31, true, Set.of(coffee));
+    index.put(sale);
+    index.put(promotion("無効な割引", JAN_1, JAN_31, false, Set.of()));
+
+    // Act
+    index.put(sale.deactivate());
+
+    // Assert
+    assertThat(index.applicableTo(coffee, JAN_1)).isEmpty();
+    assertThat(index.size()).isZero();
+  }
+
+  private static Promotion promotion(
+      String name,
+      LocalDateTime start,
+      LocalDateTime end,
+      boolean active,
+      Set<ProductId> products) {
+    return Promotion.reconstruct(
+        new PromotionId(UUID.randomUUID()),
+        name,
+        "",
+        DiscountType.PERCENTAGE,
+        new BigDecimal("10"),
+        start,
+        end,
+        active,
+        products);
+  }
+}
@@ -0,0 +1,128 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.config.TestMongoConfig;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Inventory.InsufficientStockException;
+import com.example.ec_2024b_back.product.infrastructure.config.HotSkuProperties;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import com.example.ec_2024b_back.utils.IntegrationTest;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * HotSkuInventoryReservationsの統合テスト。
+ *
+ * <p>同じMongoDBを共有する複数のインスタンスを複数のノードに見立て、同時に予約しても在庫を超えないことと、メモリ上の予約がMongoDBに反映されることを検証します。
+ */
+@Testcontainers
+@IntegrationTest
+@Import(TestMongoConfig.class)
+class HotSkuInventoryReservationsTest {
+
+  @Autowired private MongoInventoryReservations mongoReservations;
+
+  @Autowired private ReactiveMongoTemplate mongoTemplate;
+
+  @Autowired private Outbox outbox;
+
+  @Autowired private InventoryDocumentRepository inventoryDocumentRepository;
+
+  private final ProductId hotSku = new ProductId(UUID.randomUUID());
+  private final ProductId regular = new ProductId(UUID.randomUUID());
+
+  @BeforeEach
+  void setUp() {
+    inventoryDocumentRepository.deleteAll().block();
+    stock(hotSku, 100);
+    stock(regular, 10);
+  }
+
+  @Test
+  void shouldNeverOversell_whenNodesReserveConcurrently() {
+    // Given: 3つのノードが7個ずつ割り当てを受けながら予約する
+    var nodes = IntStream.range(0, 3).mapToObj(i -> node()).toList();
+
+    // When: 在庫100に対して300人が同時に1個ずつ予約する
+    var succeeded =
+        Flux.range(0, 300)
+            .flatMap(
+                i ->
+                    nodes
+                        .get(i % nodes.size())
+                        .reserve(hotSku, 1)
+                        .map(inventory -> true)
+                        .onErrorResume(InsufficientStockException.class, e -> Mono.just(false)),
+                300)
+            .filter(Boolean::booleanValue)
+            .count()
+            .block();
+    nodes.forEach(HotSkuInventoryReservations::stop);
+
+    // Then
+    assertThat(succeeded).isEqualTo(100);
+    assertStock(hotSku, 0, 100, 0);
+  }
+
+  @Test
+  void shouldReconcileLocalReservationsAndReturnUnusedAllocation() {
+    // Given
+    var node = node();
+
+    // When
+    StepVerifier.create(node.reserve(hotSku, 5))
+        .assertNext(inventory -> assertThat(inventory.getAvailableQuantity()).isEqualTo(2))
+        .verifyComplete();
+    StepVerifier.create(node.release(hotSku, 2)).expectNextCount(1).verifyComplete();
+
+    // Then: 反映前はMongoDBには割り当てだけが記録されている
+    assertStock(hotSku, 93, 0, 7);
+    node.flush().block();
+    assertStock(hotSku, 93, 3, 4);
+    node.stop();
+    assertStock(hotSku, 97, 3, 0);
+  }
+
+  @Test
+  void shouldDelegateOtherProductsToMongo() {
+    // Given
+    var node = node();
+
+    // When & Then
+    StepVerifier.create(node.reserve(regular, 3)).expectNextCount(1).verifyComplete();
+    assertStock(regular, 7, 3, 0);
+  }
+
+  private HotSkuInventoryReservations node() {
+    var properties =
+        new HotSkuProperties(true, Set.of(hotSku.toString()), 7, Duration.ofMillis(50));
+    return new HotSkuInventoryReservations(mongoReservations, mongoTemplate, outbox, properties);
+  }
+
+  private void stock(ProductId productId, int quantity) {
+    inventoryDocumentRepository
+        .save(
+            new InventoryDocument(
+                UUID.randomUUID().toString(), productId.toString(), quantity, 0, 0, null))
+        .block();
+  }
+
+  private void assertStock(ProductId productId, int available, int reserved, int allocated) {
+    var document = inventoryDocumentRepository.findByProductId(productId.toString()).block();
+    assertThat(document.availableQuantity()).isEqualTo(available);
+    assertThat(document.reservedQuantity()).isEqualTo(reserved);
+    assertThat(document.allocatedQuantity()).isEqualTo(allocated);
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import com.example.ec_2024b_back.config.TestMongoConfig;
+import com.example.ec_2024b_back.product.CategoryId;
+import com.example.ec_2024b_back.product.domain.models.Category;
+import com.example.ec_2024b_back.product.infrastructure.category.CategoryTree;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import com.example.ec_2024b_back.utils.IntegrationTest;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+/** MongoCategoriesリポジトリの統合テスト。 ルートカテゴリとサブカテゴリの検索と、カテゴリツリーの読み込みが終わるまでのデータベースからの検索を検証します。 */
+@Testcontainers
+@IntegrationTest
+@Import(TestMongoConfig.class)
+class MongoCategoriesTest {
+
+  @Autowired private MongoCategories mongoCategories;
+
+  @Autowired private CategoryDocumentRepository categoryDocumentRepository;
+
+  @Autowired private CategoryTree categoryTree;
+
+  @Autowired private Outbox outbox;
+
+  @BeforeEach
+  void setUp() {
+    categoryDocumentRepository.deleteAll().block();
+    // カテゴリツリーを読み込み済みにする
+    categoryTree.loadAll(List.of());
+  }
+
+  @Test
+  void shouldFindRootAndChildCategories() {
+    // Given
+    var root = Category.create(new CategoryId(UUID.randomUUID()), "食品", "", null);
+    var child = Category.create(new CategoryId(UUID.randomUUID()), "飲料", "", root.getId());
+    mongoCategories.save(root).block();
+    mongoCategories.save(child).block();
+
+    // When & Then
+    StepVerifier.create(mongoCategories.findRootCategories().map(Category::getId))
+        .expectNext(root.getId())
+        .verifyComplete();
+    StepVerifier.create(mongoCategories.findByParentId(root.getId()).map(Category::getName))
+        .expectNext("飲料")
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldFindRootAndChildCategoriesFromDatabase_untilTreeIsLoaded() {
+    // Given: まだカテゴリツリーを読み込んでいないノード
+    var food = Category.reconstruct(new CategoryId(UUID.randomUUID()), "食品", "", null);
+    var books = Category.reconstruct(new CategoryId(UUID.randomUUID()), "書籍", "", null);
+    var drink = Category.reconstruct(new CategoryId(UUID.randomUUID()), "飲料", "", food.getId());
+    categoryDocumentRepository
+        .saveAll(List.of(food, books, drink).stream().map(CategoryDocument::fromDomain).toList())
+        .blockLast();
+    var unloaded = new MongoCategories(categoryDocumentRepository, new CategoryTree(), outbox);
+
+    // When & Then
+    StepVerifier.create(unloaded.findRootCategories().map(Category::getName))
+        .expectNext("書籍", "食品")
+        .verifyComplete();
+    StepVerifier.create(unloaded.findByParentId(food.getId()).map(Category::getName))
+        .expectNext("飲料")
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldFindByIdFromDatabase_whenCategoryIsNotInTree() {
+    // Given
+    var category = Category.reconstruct(new CategoryId(UUID.randomUUID()), "雑貨", "", null);
+    categoryDocumentRepository.save(CategoryDocument.fromDomain(category)).block();
+
+    // When & Then
+    StepVerifier.create(mongoCategories.findById(category.getId()).map(Category::getName))
+        .expectNext("雑貨")
+        .verifyComplete();
+  }
+}
@@ -0,0 +1,174 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.ec_2024b_back.config.TestMongoConfig;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Inventory;
+import com.example.ec_2024b_back.product.domain.models.Inventory.InsufficientStockException;
+import com.example.ec_2024b_back.utils.IntegrationTest;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * MongoInventoryReservationsの統合テスト。
+ *
+ * <p>条件付き更新による予約が同時に行われても在庫を超えないことと、複数商品の予約が失敗した場合の解除、読み込んでから保存する更新との競合の検出、保存時にノードへの割り当てが残ることを検証します。
+ */
+@Testcontainers
+@IntegrationTest
+@Import(TestMongoConfig.class)
+class MongoInventoryReservationsTest {
+
+  @Autowired private MongoInventoryReservations reservations;
+
+  @Autowired private MongoInventories inventories;
+
+  @Autowired private InventoryDocumentRepository inventoryDocumentRepository;
+
+  private final ProductId coffee = new ProductId(UUID.randomUUID());
+  private final ProductId tea = new ProductId(UUID.randomUUID());
+
+  @BeforeEach
+  void setUp() {
+    inventoryDocumentRepository.deleteAll().block();
+    stock(coffee, 20);
+    stock(tea, 1);
+  }
+
+  @Test
+  void shouldMoveQuantityFromAvailableToReserved() {
+    // When & Then
+    StepVerifier.create(reservations.reserve(coffee, 3))
+        .assertNext(
+            inventory -> {
+              assertThat(inventory.getAvailableQuantity()).isEqualTo(17);
+              assertThat(inventory.getReservedQuantity()).isEqualTo(3);
+            })
+        .verifyComplete();
+    StepVerifier.create(reservations.release(coffee, 2))
+        .assertNext(inventory -> assertThat(inventory.getAvailableQuantity()).isEqualTo(19))
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldRejectReservation_whenStockIsInsufficient() {
+    // When & Then
+    StepVerifier.create(reservations.reserve(coffee, 21))
+        .expectError(InsufficientStockException.class)
+        .verify();
+    StepVerifier.create(reservations.release(coffee, 1))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+    assertStock(coffee, 20, 0);
+  }
+
+  @Test
+  void shouldNeverOversell_whenManyBuyersReserveConcurrently() {
+    // When: 在庫20に対して50人が同時に1個ずつ予約する
+    var succeeded =
+        Flux.range(0, 50)
+            .flatMap(
+                i ->
+                    reservations
+                        .reserve(coffee, 1)
+                        .map(inventory -> true)
+                        .onErrorResume(InsufficientStockException.class, e -> Mono.just(false)),
+                50)
+            .filter(Boolean::booleanValue)
+            .count()
+            .block();
+
+    // Then
+    assertThat(succeeded).isEqualTo(20);
+    assertStock(coffee, 0, 20);
+  }
+
+  @Test
+  void shouldReleaseReservedLines_whenAnyLineOfBatchFails() {
+    // When & Then
+    StepVerifier.create(reservations.reserveAll(Map.of(coffee, 5, tea, 2)))
+        .expectError(InsufficientStockException.class)
+        .verify();
+    assertStock(coffee, 20, 0);
+    assertStock(tea, 1, 0);
+
+    StepVerifier.create(reservations.reserveAll(Map.of(coffee, 5, tea, 1)))
+        .assertNext(inventories -> assertThat(inventories).hasSize(2))
+        .verifyComplete();
+    assertStock(coffee, 15, 5);
+    assertStock(tea, 0, 1);
+  }
+
+  @Test
+  void shouldRejectSave_whenReservedAfterRead() {
+    // Given: 在庫を読み込んだ後に条件付き更新で予約される
+    var stale = inventories.findByProductId(coffee).block();
+    reservations.reserve(coffee, 3).block();
+
+    // When & Then: 読み込んだ時点の在庫で上書きせず、競合を通知する
+    assertThatThrownBy(() -> inventories.save(stale.adjustQuantity(10)).block())
+        .isInstanceOf(OptimisticLockingFailureException.class);
+    assertStock(coffee, 17, 3);
+
+    var current = inventories.findByProductId(coffee).block();
+    StepVerifier.create(inventories.save(current.adjustQuantity(10)))
+        .assertNext(inventory -> assertThat(inventory.getAvailableQuantity()).isEqualTo(27))
+        .verifyComplete();
+    assertStock(coffee, 27, 3);
+  }
+
+  @Test
+  void shouldKeepAllocatedQuantity_whenSaved() {
+    // Given: 10個が在庫に、5個がノードに割り当てられている
+    var hotSku = new ProductId(UUID.randomUUID());
+    inventoryDocumentRepository
+        .save(
+            new InventoryDocument(UUID.randomUUID().toString(), hotSku.toString(), 10, 0, 5, null))
+        .block();
+    var inventory = inventories.findByProductId(hotSku).block();
+    assertThat(inventory.getAvailableQuantity()).isEqualTo(15);
+
+    // When
+    inventories.save(inventory.adjustQuantity(10)).block();
+
+    // Then: 割り当ては在庫に戻さず、入荷分だけ在庫が増える
+    var stored = inventoryDocumentRepository.findByProductId(hotSku.toString()).block();
+    assertThat(stored.availableQuantity()).isEqualTo(20);
+    assertThat(stored.allocatedQuantity()).isEqualTo(5);
+    assertThatThrownBy(
+            () ->
+                inventories
+                    .save(inventories.findByProductId(hotSku).block().adjustQuantity(-21))
+                    .block())
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private void stock(ProductId productId, int quantity) {
+    inventoryDocumentRepository
+        .save(
+            new InventoryDocument(
+                UUID.randomUUID().toString(), productId.toString(), quantity, 0, 0, null))
+        .block();
+  }
+
+  private void assertStock(ProductId productId, int available, int reserved) {
+    Inventory inventory =
+        inventoryDocumentRepository
+            .findByProductId(productId.toString())
+            .map(InventoryDocument::toDomain)
+            .block();
+    assertThat(inventory.getAvailableQuantity()).isEqualTo(available);
+    assertThat(inventory.getReservedQuantity()).isEqualTo(reserved);
+  }
+}
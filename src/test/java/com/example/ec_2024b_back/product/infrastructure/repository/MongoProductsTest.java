@@ -0,0 +1,281 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.config.TestMongoConfig;
+import com.example.ec_2024b_back.product.CategoryId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Category;
+import com.example.ec_2024b_back.product.domain.models.Product;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductImage;
+import com.example.ec_2024b_back.product.domain.models.Product.ProductStatus;
+import com.example.ec_2024b_back.product.infrastructure.category.CategoryTree;
+import com.example.ec_2024b_back.product.infrastructure.search.ProductSearchIndex;
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
+import com.example.ec_2024b_back.share.infrastructure.outbox.Outbox;
+import com.example.ec_2024b_back.utils.IntegrationTest;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+/**
+ * MongoProductsリポジトリの統合テスト。
+ *
+ * <p>ドキュメントとの相互変換、カテゴリとステータスによる絞り込み、子孫カテゴリを含む検索、キーセットページネーション、関連度順のキーワード検索、SKUの一意制約を検証します。
+ */
+@Testcontainers
+@IntegrationTest
+@Import(TestMongoConfig.class)
+class MongoProductsTest {
+
+  @Autowired private MongoProducts mongoProducts;
+
+  @Autowired private ProductDocumentRepository productDocumentRepository;
+
+  @Autowired private ReactiveMongoTemplate mongoTemplate;
+
+  @Autowired private ProductSearchIndex searchIndex;
+
+  @Autowired private CategoryTree categoryTree;
+
+  @Autowired private CategoryDocumentRepository categoryDocumentRepository;
+
+  @Autowired private Outbox outbox;
+
+  private final CategoryId food = new CategoryId(UUID.randomUUID());
+  private final CategoryId drink = new CategoryId(UUID.randomUUID());
+
+  @BeforeEach
+  void setUp() {
+    productDocumentRepository.deleteAll().block();
+    // カテゴリツリーを読み込み済みにする
+    categoryTree.loadAll(List.of());
+
+    // テスト用の設定ではインデックスが自動作成されないため、ドキュメントの定義から作成する
+    var resolver =
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+    var indexOps = mongoTemplate.indexOps(ProductDocument.class);
+    Flux.fromIterable(resolver.resolveIndexFor(ProductDocument.class))
+        .concatMap(indexOps::ensureIndex)
+        .blockLast();
+  }
+
+  @Test
+  void shouldSaveAndFindBySku() {
+    // Given
+    var product =
+        Product.create(
+            UUID.randomUUID(),
+            "緑茶",
+            "静岡県産の緑茶",
+            new BigDecimal("1280.50"),
+            "TEA-001",
+            Set.of(food, drink),
+            List.of(new ProductImage("https://example.com/tea.png", "緑茶", true)));
+    mongoProducts.save(product).block();
+
+    // When & Then
+    StepVerifier.create(mongoProducts.findBySku("TEA-001"))
+        .assertNext(
+            found -> {
+              assertThat(found.getId()).isEqualTo(product.getId());
+              assertThat(found.getBasePrice()).isEqualTo(new BigDecimal("1280.50"));
+              assertThat(found.getCategories()).containsExactlyInAnyOrder(food, drink);
+              assertThat(found.getImages()).isEqualTo(product.getImages());
+              assertThat(found.getDomainEvents()).isEmpty();
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldFindAllByIdInOneQuery() {
+    // Given
+    var apple = save("ALL-1", "りんご", food, ProductStatus.ACTIVE);
+    var coffee = save("ALL-2", "コーヒー", drink, ProductStatus.ACTIVE);
+    save("ALL-3", "みかん", food, ProductStatus.ACTIVE);
+
+    var missing = new ProductId(UUID.randomUUID());
+
+    // When
+    var found =
+        mongoProducts
+            .findAllById(List.of(apple.getId(), coffee.getId(), missing))
+            .map(Product::getId)
+            .collectList()
+            .block();
+
+    // Then
+    assertThat(found).containsExactlyInAnyOrder(apple.getId(), coffee.getId());
+    StepVerifier.create(mongoProducts.findAllById(List.of())).verifyComplete();
+  }
+
+  @Test
+  void shouldFindProductsByCategoryAndStatus() {
+    // Given
+    var active = save("ACTIVE-1", "りんご", food, ProductStatus.ACTIVE);
+    save("DRAFT-1", "みかん", food, ProductStatus.DRAFT);
+    save("ACTIVE-2", "コーヒー", drink, ProductStatus.ACTIVE);
+
+    // When & Then
+    StepVerifier.create(mongoProducts.findByCategoryAndStatus(food, ProductStatus.ACTIVE))
+        .assertNext(found -> assertThat(found.getId()).isEqualTo(active.getId()))
+        .verifyComplete();
+    StepVerifier.create(mongoProducts.findByCategory(food)).expectNextCount(2).verifyComplete();
+  }
+
+  @Test
+  void shouldPageThroughCategoryInIdOrder() {
+    // Given
+    var ids = new ArrayList<String>();
+    for (int i = 0; i < 5; i++) {
+      ids.add(save("PAGE-" + i, "商品" + i, food, ProductStatus.ACTIVE).getId().toString());
+    }
+    save("OTHER-1", "他のカテゴリの商品", drink, ProductStatus.ACTIVE);
+    Collections.sort(ids);
+
+    // When
+    var first = mongoProducts.findByCategory(food, CursorPageRequest.first(2)).block();
+    var second =
+        mongoProducts.findByCategory(food, new CursorPageRequest(first.nextCursor(), 2)).block();
+    var third =
+        mongoProducts.findByCategory(food, new CursorPageRequest(second.nextCursor(), 2)).block();
+
+    // Then
+    assertThat(
+            Stream.of(first, second, third)
+                .flatMap(page -> page.items().stream())
+                .map(product -> product.getId().toString()))
+        .containsExactlyElementsOf(ids);
+    assertThat(third.items()).hasSize(1);
+    assertThat(third.nextCursor()).isNull();
+  }
+
+  @Test
+  void shouldFindProductsInCategorySubtree() {
+    // Given
+    var coffee = new CategoryId(UUID.randomUUID());
+    categoryTree.loadAll(
+        List.of(
+            Category.reconstruct(food, "食品", "", null),
+            Category.reconstruct(drink, "飲料", "", food),
+            Category.reconstruct(coffee, "コーヒー", "", drink)));
+    var apple = save("SUB-1", "りんご", food, ProductStatus.ACTIVE);
+    var beans = save("SUB-2", "コーヒー豆", coffee, ProductStatus.ACTIVE);
+    save("SUB-3", "他のカテゴリの商品", new CategoryId(UUID.randomUUID()), ProductStatus.ACTIVE);
+
+    // When
+    var underFood = mongoProducts.findByCategorySubtree(food, CursorPageRequest.first(10)).block();
+    var underDrink =
+        mongoProducts.findByCategorySubtree(drink, CursorPageRequest.first(10)).block();
+
+    // Then
+    assertThat(underFood.items())
+        .extracting(Product::getId)
+        .containsExactlyInAnyOrder(apple.getId(), beans.getId());
+    assertThat(underDrink.items()).extracting(Product::getId).containsExactly(beans.getId());
+  }
+
+  @Test
+  void shouldFindProductsInCategorySubtreeFromDatabase_untilTreeIsLoaded() {
+    // Given: まだカテゴリツリーを読み込んでいないノード
+    var coffee = new CategoryId(UUID.randomUUID());
+    categoryDocumentRepository
+        .saveAll(
+            Stream.of(
+                    Category.reconstruct(food, "食品", "", null),
+                    Category.reconstruct(drink, "飲料", "", food),
+                    Category.reconstruct(coffee, "コーヒー", "", drink))
+                .map(CategoryDocument::fromDomain)
+                .toList())
+        .blockLast();
+    var apple = save("SUB-1", "りんご", food, ProductStatus.ACTIVE);
+    var beans = save("SUB-2", "コーヒー豆", coffee, ProductStatus.ACTIVE);
+    save("SUB-3", "他のカテゴリの商品", new CategoryId(UUID.randomUUID()), ProductStatus.ACTIVE);
+    var unloaded =
+        new MongoProducts(
+            productDocumentRepository, mongoTemplate, searchIndex, new CategoryTree(), outbox);
+
+    // When
+    var underFood = unloaded.findByCategorySubtree(food, CursorPageRequest.first(10)).block();
+    var underCoffee = unloaded.findByCategorySubtree(coffee, CursorPageRequest.first(10)).block();
+
+    // Then
+    assertThat(underFood.items())
+        .extracting(Product::getId)
+        .containsExactlyInAnyOrder(apple.getId(), beans.getId());
+    assertThat(underCoffee.items()).extracting(Product::getId).containsExactly(beans.getId());
+  }
+
+  @Test
+  void shouldSearchByKeywordInRelevanceOrder() {
+    // Given
+    var inName = create("SKU-1", "コーヒー豆", "深煎りのブレンド");
+    var inDescription = create("SKU-2", "マグカップ", "コーヒーに合う陶器のマグ");
+    var unrelated = create("SKU-3", "緑茶", "静岡県産");
+    Flux.just(inDescription, inName, unrelated)
+        .concatMap(mongoProducts::save)
+        .doOnNext(
+            product ->
+                searchIndex.index(
+                    product.getId(),
+                    product.getName(),
+                    product.getDescription(),
+                    product.getSku()))
+        .blockLast();
+
+    // When & Then
+    StepVerifier.create(mongoProducts.search("コーヒー").map(Product::getId))
+        .expectNext(inName.getId(), inDescription.getId())
+        .verifyComplete();
+    StepVerifier.create(mongoProducts.search("コーヒー", 1, 10).map(Product::getId))
+        .expectNext(inDescription.getId())
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldRejectDuplicateSku() {
+    // Given
+    save("DUP-1", "商品A", food, ProductStatus.ACTIVE);
+
+    // When & Then
+    StepVerifier.create(
+            mongoProducts.save(
+                Product.create(
+                    UUID.randomUUID(),
+                    "商品B",
+                    "",
+                    BigDecimal.ONE,
+                    "DUP-1",
+                    Set.of(food),
+                    List.of())))
+        .expectError(DuplicateKeyException.class)
+        .verify();
+  }
+
+  private Product create(String sku, String name, String description) {
+    return Product.create(
+        UUID.randomUUID(), name, description, BigDecimal.TEN, sku, Set.of(drink), List.of());
+  }
+
+  private Product save(String sku, String name, CategoryId category, ProductStatus status) {
+    var product =
+        Product.create(
+                UUID.randomUUID(), name, "", BigDecimal.TEN, sku, Set.of(category), List.of())
+            .changeStatus(status);
+    return mongoProducts.save(product).block();
+  }
+}
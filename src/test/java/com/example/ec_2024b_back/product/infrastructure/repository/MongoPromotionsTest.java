@@ -0,0 +1,118 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.config.TestMongoConfig;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.PromotionId;
+import com.example.ec_2024b_back.product.domain.models.Promotion;
+import com.example.ec_2024b_back.product.domain.models.Promotion.DiscountType;
+import com.example.ec_2024b_back.product.infrastructure.promotion.ActivePromotionIndex;
+import com.example.ec_2024b_back.utils.IntegrationTest;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+/**
+ * MongoPromotionsリポジトリの統合テスト。
+ *
+ * <p>有効なプロモーションの適用対象商品による検索と、期間による検索、インデックスからの適用できるプロモーションの検索を検証します。
+ */
+@Testcontainers
+@IntegrationTest
+@Import(TestMongoConfig.class)
+class MongoPromotionsTest {
+
+  @Autowired private MongoPromotions mongoPromotions;
+
+  @Autowired private PromotionDocumentRepository promotionDocumentRepository;
+
+  @Autowired private ActivePromotionIndex activePromotionIndex;
+
+  private final ProductId coffee = new ProductId(UUID.randomUUID());
+  private final ProductId tea = new ProductId(UUID.randomUUID());
+  private final LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+  private final LocalDateTime end = LocalDateTime.of(2025, 1, 31, 23, 59);
+
+  @BeforeEach
+  void setUp() {
+    promotionDocumentRepository.deleteAll().block();
+    activePromotionIndex.replaceAll(List.of());
+  }
+
+  @Test
+  void shouldFindActivePromotionsApplicableToProduct() {
+    // Given
+    save("コーヒー割引", Set.of(coffee), true);
+    save("全品割引", Set.of(), true);
+    save("紅茶割引", Set.of(tea), true);
+    save("終了したコーヒー割引", Set.of(coffee), false);
+
+    // When & Then
+    StepVerifier.create(mongoPromotions.findActiveByProductId(coffee).map(Promotion::getName))
+        .recordWith(ArrayList::new)
+        .expectNextCount(2)
+        .consumeRecordedWith(
+            names -> assertThat(names).containsExactlyInAnyOrder("コーヒー割引", "全品割引"))
+        .verifyComplete();
+    StepVerifier.create(mongoPromotions.findActive()).expectNextCount(3).verifyComplete();
+  }
+
+  @Test
+  void shouldFindPromotionsByDateTimeWithinPeriod() {
+    // Given
+    var saved = save("1月のセール", Set.of(), false);
+
+    // When & Then
+    StepVerifier.create(mongoPromotions.findByDateTime(start.plusDays(10)))
+        .assertNext(
+            found -> {
+              assertThat(found.getId()).isEqualTo(saved.getId());
+              assertThat(found.getDiscountValue()).isEqualTo(new BigDecimal("10"));
+              assertThat(found.getStartDateTime()).isEqualTo(start);
+            })
+        .verifyComplete();
+    StepVerifier.create(mongoPromotions.findByDateTime(end.plusMinutes(1))).verifyComplete();
+  }
+
+  @Test
+  void shouldFindApplicablePromotionsFromIndexAfterSave() {
+    // Given
+    var saved = save("1月のコーヒー割引", Set.of(coffee), true);
+
+    // When & Then
+    StepVerifier.create(mongoPromotions.findApplicable(coffee, start.plusDays(1)))
+        .assertNext(found -> assertThat(found.getId()).isEqualTo(saved.getId()))
+        .verifyComplete();
+    StepVerifier.create(mongoPromotions.findApplicable(coffee, end.plusDays(1))).verifyComplete();
+
+    // 非アクティブにして保存するとインデックスから取り除かれる
+    mongoPromotions.save(saved.deactivate()).block();
+    StepVerifier.create(mongoPromotions.findApplicable(coffee, start.plusDays(1)))
+        .verifyComplete();
+  }
+
+  private Promotion save(String name, Set<ProductId> products, boolean active) {
+    var promotion =
+        Promotion.reconstruct(
+            new PromotionId(UUID.randomUUID()),
+            name,
+            "",
+            DiscountType.PERCENTAGE,
+            new BigDecimal("10"),
+            start,
+            end,
+            active,
+            products);
+    return mongoPromotions.save(promotion).block();
+  }
+}
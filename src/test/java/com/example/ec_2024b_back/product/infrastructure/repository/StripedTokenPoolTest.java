@@ -0,0 +1,66 @@
+package com.example.ec_2024b_back.product.infrastructure.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.utils.Fast;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+@Fast
+class StripedTokenPoolTest {
+
+  private final StripedTokenPool pool = new StripedTokenPool(4);
+
+  @Test
+  void tryAcquire_shouldGatherTokensAcrossStripes() {
+    // Arrange: 4つのストライプに1個ずつ配られる
+    pool.add(4);
+
+    // Act & Assert
+    assertThat(pool.tryAcquire(3)).isTrue();
+    assertThat(pool.available()).isEqualTo(1);
+  }
+
+  @Test
+  void tryAcquire_shouldTakeNothing_whenTokensAreInsufficient() {
+    // Arrange
+    pool.add(5);
+
+    // Act & Assert
+    assertThat(pool.tryAcquire(6)).isFalse();
+    assertThat(pool.available()).isEqualTo(5);
+    assertThat(pool.drain()).isEqualTo(5);
+    assertThat(pool.available()).isZero();
+  }
+
+  @Test
+  void tryAcquire_shouldNeverHandOutMoreThanAdded_whenThreadsCompete() throws Exception {
+    // Arrange
+    pool.add(1000);
+    var acquired = new AtomicInteger();
+    var start = new CountDownLatch(1);
+
+    // Act: 16スレッドが1個または2個ずつ取り出し続ける
+    try (var executor = Executors.newFixedThreadPool(16)) {
+      for (int t = 0; t < 16; t++) {
+        int quantity = t % 2 + 1;
+        executor.submit(
+            () -> {
+              start.await();
+              for (int i = 0; i < 200; i++) {
+                if (pool.tryAcquire(quantity)) {
+                  acquired.addAndGet(quantity);
+                }
+              }
+              return null;
+            });
+      }
+      start.countDown();
+    }
+
+    // Assert
+    assertThat(acquired.get() + pool.available()).isEqualTo(1000);
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.ec_2024b_back.product.infrastructure.reservation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.utils.Fast;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+@Fast
+class ExpiryQueueTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+  private final ExpiryQueue queue = new ExpiryQueue();
+
+  @Test
+  void pollExpired_shouldReturnExpiredHoldsInDeadlineOrder() {
+    // Arrange
+    queue.schedule("late", NOW.minusSeconds(1));
+    queue.schedule("future", NOW.plusSeconds(60));
+    queue.schedule("early", NOW.minusSeconds(10));
+
+    // Act & Assert
+    assertThat(queue.pollExpired(NOW, 10)).containsExactly("early", "late");
+    assertThat(queue.pollExpired(NOW, 10)).isEmpty();
+    assertThat(queue.size()).isEqualTo(1);
+  }
+
+  @Test
+  void pollExpired_shouldStopAtLimit() {
+    // Arrange
+    for (int i = 0; i < 5; i++) {
+      queue.schedule("hold-" + i, NOW.minusSeconds(5 - i));
+    }
+
+    // Act & Assert
+    assertThat(queue.pollExpired(NOW, 2)).containsExactly("hold-0", "hold-1");
+    assertThat(queue.pollExpired(NOW, 10)).containsExactly("hold-2", "hold-3", "hold-4");
+  }
+
+  @Test
+  void pollExpired_shouldSkipCancelledAndRescheduledHolds() {
+    // Arrange
+    queue.schedule("cancelled", NOW.minusSeconds(3));
+    queue.schedule("extended", NOW.minusSeconds(2));
+    queue.schedule("expired", NOW.minusSeconds(1));
+    queue.cancel("cancelled");
+    queue.schedule("extended", NOW.plusSeconds(60));
+
+    // Act & Assert
+    assertThat(queue.pollExpired(NOW, 10)).containsExactly("expired");
+    assertThat(queue.pollExpired(NOW.plusSeconds(60), 10)).containsExactly("extended");
+  }
+
+  @Test
+  void cancel_shouldKeepRemainingHolds_whenHeapIsCompacted() {
+    // Arrange: 取り消しが閾値を超えるとヒープが作り直される
+    for (int i = 0; i < 3000; i++) {
+      queue.schedule("hold-" + i, NOW.minusSeconds(3000 - i));
+    }
+    for (int i = 0; i < 2990; i++) {
+      queue.cancel("hold-" + i);
+    }
+
+    // Act & Assert
+    assertThat(queue.size()).isEqualTo(10);
+    assertThat(queue.pollExpired(NOW, 100)).hasSize(10).first().isEqualTo("hold-2990");
+  }
+}
@@ -0,0 +1,233 @@
+package com.example.ec_2024b_back.product.infrastructure.reservation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.example.ec_2024b_back.config.TestMongoConfig;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.domain.models.Inventory.InsufficientStockException;
+import com.example.ec_2024b_back.product.domain.repositories.InventoryReservations;
+import com.example.ec_2024b_back.product.infrastructure.config.ReservationExpiryProperties;
+import com.example.ec_2024b_back.product.infrastructure.repository.InventoryDocument;
+import com.example.ec_2024b_back.product.infrastructure.repository.InventoryDocumentRepository;
+import com.example.ec_2024b_back.utils.IntegrationTest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+/**
+ * MongoReservationHoldsとReservationExpirySweeperの統合テスト。
+ *
+ * <p>期限切れのホールドがまとめて解除されることと、確定したホールドが解除されないこと、起動時にMongoDBからホールドを読み込み直すこと、
+ * 他のノードが登録したホールドや確保の期限を過ぎたホールドを定期的に読み込むこと、解除できなかった商品がホールドに残り再試行されることを検証します。
+ */
+@Testcontainers
+@IntegrationTest
+@Import(TestMongoConfig.class)
+class MongoReservationHoldsTest {
+
+  @Autowired private InventoryReservations reservations;
+
+  @Autowired private ReactiveMongoTemplate mongoTemplate;
+
+  @Autowired private InventoryDocumentRepository inventoryDocumentRepository;
+
+  private final ProductId coffee = new ProductId(UUID.randomUUID());
+  private final ProductId tea = new ProductId(UUID.randomUUID());
+  private final Instant past = Instant.now().minusSeconds(60);
+  private final Instant future = Instant.now().plusSeconds(3600);
+
+  private ReservationExpirySweeper sweeper;
+  private MongoReservationHolds holds;
+
+  @BeforeEach
+  void setUp() {
+    inventoryDocumentRepository.deleteAll().block();
+    mongoTemplate.dropCollection(ReservationHoldDocument.class).block();
+    stock(coffee, 20);
+    stock(tea, 5);
+    sweeper = newSweeper();
+    holds = new MongoReservationHolds(reservations, mongoTemplate, sweeper);
+  }
+
+  @Test
+  void shouldReleaseExpiredHoldsInBulk() {
+    // Given
+    for (int i = 0; i < 5; i++) {
+      holds.hold("cart-" + i, Map.of(coffee, 2, tea, 1), past).block();
+    }
+    holds.hold("cart-active", Map.of(coffee, 1), future).block();
+    assertStock(coffee, 9, 11);
+
+    // When & Then: バッチの上限（2件）を超える分も続けて解除する
+    StepVerifier.create(sweeper.sweep()).expectNext(5L).verifyComplete();
+    assertStock(coffee, 19, 1);
+    assertStock(tea, 5, 0);
+    assertThat(mongoTemplate.count(new Query(), ReservationHoldDocument.class).block())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void shouldKeepStockReserved_whenHoldIsConfirmed() {
+    // Given
+    holds.hold("order-1", Map.of(coffee, 3), past).block();
+
+    // When
+    StepVerifier.create(holds.confirm("order-1")).expectNext(true).verifyComplete();
+
+    // Then
+    StepVerifier.create(sweeper.sweep()).expectNext(0L).verifyComplete();
+    assertStock(coffee, 17, 3);
+    StepVerifier.create(holds.confirm("order-1")).expectNext(false).verifyComplete();
+  }
+
+  @Test
+  void shouldReleaseImmediately_whenHoldIsCancelled() {
+    // Given
+    holds.hold("cart-1", Map.of(coffee, 3, tea, 2), future).block();
+
+    // When & Then
+    StepVerifier.create(holds.cancel("cart-1")).expectNext(true).verifyComplete();
+    assertStock(coffee, 20, 0);
+    assertStock(tea, 5, 0);
+  }
+
+  @Test
+  void shouldNotRecordHold_whenStockIsInsufficient() {
+    // When & Then
+    StepVerifier.create(holds.hold("cart-1", Map.of(coffee, 1, tea, 6), past))
+        .expectError(InsufficientStockException.class)
+        .verify();
+    assertStock(coffee, 20, 0);
+    StepVerifier.create(sweeper.sweep()).expectNext(0L).verifyComplete();
+  }
+
+  @Test
+  void shouldReleaseHoldsOfPreviousRun_afterRebuild() {
+    // Given: 前回の起動で登録されたホールド
+    holds.hold("cart-1", Map.of(coffee, 4), past).block();
+    var restarted = newSweeper();
+
+    // When & Then
+    StepVerifier.create(restarted.rebuild()).expectNext(1L).verifyComplete();
+    StepVerifier.create(restarted.sweep()).expectNext(1L).verifyComplete();
+    assertStock(coffee, 20, 0);
+  }
+
+  @Test
+  void shouldReleaseHoldsOfOtherNode_afterRescan() {
+    // Given: 他のノードが登録し、このノードのヒープにないホールド
+    var otherNode = new MongoReservationHolds(reservations, mongoTemplate, newSweeper());
+    otherNode.hold("cart-1", Map.of(coffee, 4), past).block();
+    otherNode.hold("cart-active", Map.of(coffee, 1), future).block();
+    StepVerifier.create(sweeper.sweep()).expectNext(0L).verifyComplete();
+
+    // When & Then: 期限切れのホールドだけを読み込んで解除する
+    StepVerifier.create(sweeper.rescan()).expectNext(1L).verifyComplete();
+    StepVerifier.create(sweeper.sweep()).expectNext(1L).verifyComplete();
+    assertStock(coffee, 19, 1);
+  }
+
+  @Test
+  void shouldReleaseHold_whenOtherNodesClaimHasLapsed() {
+    // Given: 他のノードが確保したまま停止し、確保の期限を過ぎたホールド
+    var otherNode = new MongoReservationHolds(reservations, mongoTemplate, newSweeper());
+    otherNode.hold("cart-1", Map.of(coffee, 3), past).block();
+    claimUntil("cart-1", future);
+
+    // When & Then: 確保の期限内は読み込まない
+    StepVerifier.create(sweeper.rescan()).expectNext(0L).verifyComplete();
+
+    // When & Then: 確保の期限を過ぎると読み込んで解除する
+    claimUntil("cart-1", past);
+    StepVerifier.create(sweeper.rescan()).expectNext(1L).verifyComplete();
+    StepVerifier.create(sweeper.sweep()).expectNext(1L).verifyComplete();
+    assertStock(coffee, 20, 0);
+  }
+
+  @Test
+  void shouldKeepUnreleasedLinesInHold_untilTheirReleaseSucceeds() {
+    // Given: coffee の予約数がホールドの数量より少なくなっている
+    holds.hold("cart-1", Map.of(coffee, 3, tea, 2), past).block();
+    setReserved(coffee, 1);
+
+    // When & Then: 解除できた tea だけをホールドから除く
+    StepVerifier.create(sweeper.sweep()).expectNext(0L).verifyComplete();
+    assertStock(tea, 5, 0);
+    assertStock(coffee, 17, 1);
+    var hold = mongoTemplate.findById("cart-1", ReservationHoldDocument.class).block();
+    assertThat(hold.quantities()).containsOnlyKeys(coffee);
+
+    // When & Then: 予約数が戻れば再試行で解除し、ホールドを削除する
+    setReserved(coffee, 3);
+    StepVerifier.create(sweeper.sweep()).expectNext(1L).verifyComplete();
+    assertStock(coffee, 20, 0);
+    assertThat(mongoTemplate.count(new Query(), ReservationHoldDocument.class).block()).isZero();
+  }
+
+  @Test
+  void shouldNotCancelHold_whileSweeperHasClaimedIt() {
+    // Given: 他のノードのスイーパーが解除のために確保している
+    holds.hold("cart-1", Map.of(coffee, 3), past).block();
+    claimUntil("cart-1", future);
+
+    // When & Then: 取り消しで解除すると二重に解除されるため取り消さない
+    StepVerifier.create(holds.cancel("cart-1")).expectNext(false).verifyComplete();
+    StepVerifier.create(sweeper.sweep()).expectNext(0L).verifyComplete();
+    assertStock(coffee, 17, 3);
+  }
+
+  private ReservationExpirySweeper newSweeper() {
+    // 再試行までの時間を0にし、次の解除ですぐに再試行する
+    return new ReservationExpirySweeper(
+        mongoTemplate,
+        reservations,
+        new ReservationExpiryProperties(
+            true, Duration.ofSeconds(1), 2, Duration.ZERO, Duration.ofMinutes(1)),
+        Optional.empty());
+  }
+
+  private void claimUntil(String holdId, Instant claimedUntil) {
+    mongoTemplate
+        .updateFirst(
+            query(where("id").is(holdId)),
+            new Update().set("claimedUntil", claimedUntil),
+            ReservationHoldDocument.class)
+        .block();
+  }
+
+  private void setReserved(ProductId productId, int reserved) {
+    mongoTemplate
+        .updateFirst(
+            query(where("productId").is(productId.toString())),
+            new Update().set("reservedQuantity", reserved),
+            InventoryDocument.class)
+        .block();
+  }
+
+  private void stock(ProductId productId, int quantity) {
+    inventoryDocumentRepository
+        .save(
+            new InventoryDocument(
+                UUID.randomUUID().toString(), productId.toString(), quantity, 0, 0, null))
+        .block();
+  }
+
+  private void assertStock(ProductId productId, int available, int reserved) {
+    var document = inventoryDocumentRepository.findByProductId(productId.toString()).block();
+    assertThat(document.availableQuantity()).isEqualTo(available);
+    assertThat(document.reservedQuantity()).isEqualTo(reserved);
+  }
+}
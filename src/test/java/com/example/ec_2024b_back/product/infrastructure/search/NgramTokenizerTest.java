@@ -0,0 +1,43 @@
+package com.example.ec_2024b_back.product.infrastructure.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.utils.Fast;
+import org.junit.jupiter.api.Test;
+
+@Fast
+class NgramTokenizerTest {
+
+  @Test
+  void tokenize_shouldSplitJapaneseIntoBigrams() {
+    // Act & Assert
+    assertThat(NgramTokenizer.tokenize("緑茶ラテ", false)).containsExactly("緑茶", "茶ラ", "ラテ");
+  }
+
+  @Test
+  void tokenize_shouldIncludeUnigrams_whenRequested() {
+    // Act & Assert
+    assertThat(NgramTokenizer.tokenize("緑茶", true)).containsExactly("緑", "緑茶", "茶");
+  }
+
+  @Test
+  void tokenize_shouldNormalizeWidthAndCaseAndSplitOnSymbols() {
+    // Act & Assert: 全角英数字・半角カナを統一し、記号と空白で区切る
+    assertThat(NgramTokenizer.tokenize("ＴＥＡ-01 ｺｰﾋｰ", false))
+        .containsExactly("te", "ea", "01", "コー", "ーヒ", "ヒー");
+  }
+
+  @Test
+  void tokenize_shouldKeepSingleCharacterSegments() {
+    // Act & Assert
+    assertThat(NgramTokenizer.tokenize("A 茶", false)).containsExactly("a", "茶");
+  }
+
+  @Test
+  void queryGrams_shouldReturnDistinctBigrams() {
+    // Act & Assert
+    assertThat(NgramTokenizer.queryGrams("ココア ココア")).containsExactly("ココ", "コア");
+    assertThat(NgramTokenizer.queryGrams("茶")).containsExactly("茶");
+    assertThat(NgramTokenizer.queryGrams(" - ")).isEmpty();
+  }
+}
@@ -0,0 +1,145 @@
+package com.example.ec_2024b_back.product.infrastructure.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.utils.Fast;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+@Fast
+class ProductSearchIndexTest {
+
+  private final ProductSearchIndex index = new ProductSearchIndex();
+
+  @Test
+  void search_shouldRankSkuAndNameAboveDescription() {
+    // Arrange
+    var inDescription = index("マグカップ", "コーヒーに合うマグ", "MUG-01");
+    var inName = index("コーヒー豆", "深煎り", "BEAN-01");
+    var inSku = index("ドリップバッグ", "", "COFFEE-01");
+
+    // Act
+    var result = index.search("コーヒー", 0, 10);
+    var bySku = index.search("coffee", 0, 10);
+
+    // Assert
+    assertThat(result.productIds()).containsExactly(inName, inDescription);
+    assertThat(result.total()).isEqualTo(2);
+    assertThat(bySku.productIds()).containsExactly(inSku);
+  }
+
+  @Test
+  void search_shouldRequireAllTermsOfQuery() {
+    // Arrange
+    var both = index("有機緑茶ティーバッグ", "", "TEA-01");
+    index("有機コーヒー", "", "COF-01");
+    index("緑茶", "", "TEA-02");
+
+    // Act & Assert
+    assertThat(index.search("有機 緑茶", 0, 10).productIds()).containsExactly(both);
+    assertThat(index.search("紅茶", 0, 10).productIds()).isEmpty();
+  }
+
+  @Test
+  void search_shouldMatchSingleCharacterQueryAndFullWidthInput() {
+    // Arrange
+    var tea = index("緑茶", "", "TEA-01");
+
+    // Act & Assert
+    assertThat(index.search("茶", 0, 10).productIds()).containsExactly(tea);
+    assertThat(index.search("ｔｅａ－０１", 0, 10).productIds()).containsExactly(tea);
+  }
+
+  @Test
+  void search_shouldReturnRequestedPageAndTotal() {
+    // Arrange: 同点の場合は登録順
+    var first = index("緑茶 1", "", "A-1");
+    var second = index("緑茶 2", "", "A-2");
+    var third = index("緑茶 3", "", "A-3");
+
+    // Act
+    var page = index.search("緑茶", 1, 1);
+
+    // Assert
+    assertThat(page.productIds()).containsExactly(second);
+    assertThat(page.total()).isEqualTo(3);
+    assertThat(index.search("緑茶", 0, 3).productIds()).containsExactly(first, second, third);
+    assertThat(index.search("緑茶", 0, 0).productIds()).isEmpty();
+  }
+
+  @Test
+  void index_shouldReplacePreviousEntry_whenProductIsUpdated() {
+    // Arrange
+    var productId = index("緑茶", "", "TEA-01");
+
+    // Act
+    index.index(productId, "ほうじ茶", "", "TEA-01");
+
+    // Assert
+    assertThat(index.search("緑茶", 0, 10).productIds()).isEmpty();
+    assertThat(index.search("ほうじ茶", 0, 10).productIds()).containsExactly(productId);
+    assertThat(index.size()).isEqualTo(1);
+  }
+
+  @Test
+  void remove_shouldExcludeProductFromResults() {
+    // Arrange: 削除が登録件数を上回ってポスティングが詰め直されても検索できること
+    var kept = index("緑茶", "", "TEA-01");
+    for (int i = 0; i < 3; i++) {
+      index.remove(index("緑茶ラテ", "", "LATTE-" + i));
+    }
+
+    // Act & Assert
+    assertThat(index.search("緑茶", 0, 10).productIds()).containsExactly(kept);
+    assertThat(index.search("ラテ", 0, 10).total()).isZero();
+    assertThat(index.size()).isEqualTo(1);
+  }
+
+  @Test
+  void index_shouldKeepRegistrationOrder_whenUpdatesRenumberEntries() {
+    // Arrange: 更新を繰り返して番号が振り直されても、同点の場合は最後に登録された順に並ぶこと
+    var first = index("緑茶", "", "TEA-01");
+    var second = index("緑茶", "", "TEA-02");
+    for (int i = 0; i < 10; i++) {
+      index.index(first, "緑茶", "", "TEA-01");
+    }
+
+    // Act & Assert
+    assertThat(index.search("緑茶", 0, 10).productIds()).containsExactly(second, first);
+    assertThat(index.size()).isEqualTo(2);
+  }
+
+  @Test
+  void search_shouldComputeIdfFromLiveEntries() {
+    // Arrange: 「緑茶」を含む有効な商品は「玄米」より少ないため、「緑茶」が商品名にある方が上位になる
+    var greenTeaInName = index("緑茶", "玄米", "P-1");
+    var brownRiceInName = index("玄米", "緑茶", "P-2");
+    index("玄米", "", "Q-1");
+    index("玄米", "", "Q-2");
+
+    // Act: 「緑茶」を含まなくなった更新が無効な番号として残っても順位は変わらない
+    for (int i = 0; i < 3; i++) {
+      var renamed = index("緑茶", "", "Z-" + i);
+      index.index(renamed, "ほうじ茶", "", "Z-" + i);
+    }
+
+    // Assert
+    assertThat(index.search("緑茶 玄米", 0, 10).productIds())
+        .containsExactly(greenTeaInName, brownRiceInName);
+  }
+
+  @Test
+  void search_shouldRejectNegativeRange() {
+    // Act & Assert
+    assertThatThrownBy(() -> index.search("緑茶", -1, 10))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private ProductId index(String name, String description, String sku) {
+    var productId = new ProductId(UUID.randomUUID());
+    index.index(productId, name, description, sku);
+    return productId;
+  }
+}
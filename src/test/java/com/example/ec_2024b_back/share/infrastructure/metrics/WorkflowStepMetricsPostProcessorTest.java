@@ -0,0 +1,122 @@
+package com.example.ec_2024b_back.share.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.ec_2024b_back.utils.Fast;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@Fast
+class WorkflowStepMetricsPostProcessorTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final WorkflowStepMetricsPostProcessor postProcessor =
+      new WorkflowStepMetricsPostProcessor(
+          new StaticListableBeanFactory(Map.of("meterRegistry", registry))
+              .getBeanProvider(MeterRegistry.class));
+
+  /** テスト用のワークフロー */
+  interface SampleWorkflow {
+    interface GreetStep extends Function<String, Mono<String>> {}
+
+    interface FarewellStep extends Function<String, Mono<String>> {}
+  }
+
+  /** 複数のステップを実装するBean */
+  static final class GreetAndFarewellStep
+      implements SampleWorkflow.GreetStep, SampleWorkflow.FarewellStep {
+    @Override
+    public Mono<String> apply(String name) {
+      return Mono.just(name);
+    }
+  }
+
+  @Test
+  void postProcessAfterInitialization_shouldRecordLatencyOfSuccessfulStep() {
+    // Arrange
+    SampleWorkflow.GreetStep step = name -> Mono.just("Hello, " + name);
+    var decorated = decorate(step);
+
+    // Act & Assert
+    StepVerifier.create(decorated.apply("world")).expectNext("Hello, world").verifyComplete();
+    var timer =
+        registry
+            .get("workflow.step")
+            .tags("workflow", "SampleWorkflow", "step", "GreetStep", "outcome", "success")
+            .timer();
+    assertThat(timer.count()).isEqualTo(1);
+  }
+
+  @Test
+  void postProcessAfterInitialization_shouldCountErrorsByException() {
+    // Arrange
+    SampleWorkflow.GreetStep step = name -> Mono.error(new IllegalArgumentException(name));
+    var decorated = decorate(step);
+
+    // Act & Assert
+    StepVerifier.create(decorated.apply("world"))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+    assertThat(
+            registry
+                .get("workflow.step.errors")
+                .tags("step", "GreetStep", "exception", "IllegalArgumentException")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+    assertThat(registry.get("workflow.step").tag("outcome", "error").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void postProcessAfterInitialization_shouldTrackInFlightSteps() {
+    // Arrange
+    var result = Sinks.<String>one();
+    SampleWorkflow.GreetStep step = name -> result.asMono();
+    var decorated = decorate(step);
+
+    // Act & Assert
+    StepVerifier.create(decorated.apply("world"))
+        .then(
+            () -> {
+              assertThat(registry.get("workflow.step.active").longTaskTimer().activeTasks())
+                  .isEqualTo(1);
+              result.tryEmitValue("done");
+            })
+        .expectNext("done")
+        .verifyComplete();
+    assertThat(registry.get("workflow.step.active").longTaskTimer().activeTasks()).isZero();
+  }
+
+  @Test
+  void postProcessAfterInitialization_shouldLeaveOtherBeansUntouched() {
+    // Arrange
+    Function<String, Mono<String>> function = Mono::just;
+
+    // Act & Assert
+    assertThat(postProcessor.postProcessAfterInitialization(function, "f")).isSameAs(function);
+  }
+
+  @Test
+  void postProcessAfterInitialization_shouldRejectBeanImplementingMultipleSteps() {
+    // Act & Assert: どちらのステップとして計測するか決められない
+    assertThatThrownBy(
+            () -> postProcessor.postProcessAfterInitialization(new GreetAndFarewellStep(), "step"))
+        .isInstanceOf(BeanInitializationException.class)
+        .hasMessageContaining("GreetStep")
+        .hasMessageContaining("FarewellStep");
+  }
+
+  private SampleWorkflow.GreetStep decorate(SampleWorkflow.GreetStep step) {
+    return (SampleWorkflow.GreetStep) postProcessor.postProcessAfterInitialization(step, "step");
+  }
+}
@@ -0,0 +1,259 @@
+package com.example.ec_2024b_back.share.infrastructure.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.config.TestMongoConfig;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.OrderId;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.CartEvent.ItemAddedToCart;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.shopping.domain.models.Order;
+import com.example.ec_2024b_back.shopping.domain.models.OrderEvent.OrderPlaced;
+import com.example.ec_2024b_back.shopping.infrastructure.repository.MongoCarts;
+import com.example.ec_2024b_back.shopping.infrastructure.repository.MongoOrders;
+import com.example.ec_2024b_back.utils.IntegrationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.bson.types.ObjectId;
+import org.jmolecules.event.types.DomainEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+/**
+ * アウトボックスとリレーの統合テスト。
+ *
+ * <p>集約の保存と同時に書き込まれたイベントが、リレーによって書き込み順に配信され保持期間の後に削除されることと、配信に失敗した場合の再試行を検証します。
+ * 複数のノードのうちリースを持つノードだけが配信することも検証します。自動での配信が検証に干渉しないよう、確認間隔を長くしてリレーを直接呼び出します。
+ */
+@Testcontainers
+@IntegrationTest
+@Import({TestMongoConfig.class, OutboxRelayTest.RecordingListener.class})
+@TestPropertySource(properties = {"share.outbox.poll-interval=1h", "share.outbox.max-attempts=2"})
+class OutboxRelayTest {
+
+  @Autowired private MongoCarts mongoCarts;
+  @Autowired private MongoOrders mongoOrders;
+  @Autowired private OutboxRelay relay;
+  @Autowired private ReactiveMongoTemplate mongoTemplate;
+  @Autowired private RecordingListener listener;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private ApplicationEventPublisher eventPublisher;
+  @Autowired private OutboxProperties properties;
+  @Autowired private MeterRegistry meterRegistry;
+
+  // MongoDBの日付はミリ秒精度のため切り捨てておく
+  private final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+  private final ProductId productA = new ProductId(UUID.randomUUID());
+  private final ProductId productB = new ProductId(UUID.randomUUID());
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.dropCollection(OutboxDocument.class).block();
+    mongoTemplate.dropCollection(OutboxLeaseDocument.class).block();
+    // 他のテストのコンテキストのリレーが配信しないよう、このコンテキストのリレーがリースを持つ
+    relay.acquireLease().block();
+    listener.received.clear();
+    listener.failOn = null;
+  }
+
+  @Test
+  void shouldWriteEventsToOutboxWhenAggregateIsSaved() {
+    // When
+    mongoCarts.save(newCart()).block();
+
+    // Then
+    StepVerifier.create(mongoTemplate.findAll(OutboxDocument.class))
+        .expectNextCount(2)
+        .verifyComplete();
+    assertThat(listener.received).isEmpty();
+  }
+
+  @Test
+  void shouldPublishEventsInWriteOrderAndMarkThemPublished() {
+    // Given
+    var cart = newCart();
+    mongoCarts.save(cart).block();
+    var order =
+        Order.createFromCart(
+            new OrderId(UUID.randomUUID()), cart, "東京都", Money.ZERO, BigDecimal.ZERO, now);
+    mongoOrders.save(order).block();
+
+    // When & Then
+    StepVerifier.create(relay.drain()).expectNext(3L).verifyComplete();
+    assertThat(listener.received)
+        .containsExactly(
+            cart.getEvents().get(0), cart.getEvents().get(1), order.getEvents().getFirst());
+    assertThat(listener.received.get(2)).isInstanceOf(OrderPlaced.class);
+    StepVerifier.create(mongoTemplate.findAll(OutboxDocument.class))
+        .thenConsumeWhile(document -> document.publishedAt() != null)
+        .verifyComplete();
+
+    // 配信済みのイベントは再び配信しない
+    StepVerifier.create(relay.drain()).expectNext(0L).verifyComplete();
+    assertThat(listener.received).hasSize(3);
+  }
+
+  @Test
+  void shouldPurgePublishedEvents_afterRetention() {
+    // Given
+    var hourAgo = now.minus(1, ChronoUnit.HOURS);
+    var expired = outboxDocument(hourAgo, 0, hourAgo);
+    var retained = outboxDocument(now, 0, now);
+    var deadLettered = outboxDocument(hourAgo, 2, null);
+    mongoTemplate.insertAll(List.of(expired, retained, deadLettered)).blockLast();
+
+    // When & Then: 保持期間を過ぎた配信済みのイベントだけを削除する
+    StepVerifier.create(relay.purge()).expectNext(1L).verifyComplete();
+    StepVerifier.create(mongoTemplate.findAll(OutboxDocument.class).map(OutboxDocument::id))
+        .recordWith(ArrayList::new)
+        .thenConsumeWhile(id -> true)
+        .consumeRecordedWith(
+            ids -> assertThat(ids).containsExactlyInAnyOrder(retained.id(), deadLettered.id()))
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldKeepFailedEventAndRetryIt_whenListenerFails() {
+    // Given
+    var cart = newCart();
+    mongoCarts.save(cart).block();
+    listener.failOn = productA;
+
+    // When: 1件目で失敗し、順序を保つため2件目も配信しない
+    StepVerifier.create(relay.drain()).expectNext(0L).verifyComplete();
+
+    // Then
+    assertThat(listener.received).isEmpty();
+    StepVerifier.create(
+            mongoTemplate
+                .find(new Query().with(Sort.by("id")), OutboxDocument.class)
+                .map(OutboxDocument::attempts))
+        .expectNext(1, 0)
+        .verifyComplete();
+
+    // When: 失敗が解消すれば再試行で配信される
+    listener.failOn = null;
+    StepVerifier.create(relay.drain()).expectNext(2L).verifyComplete();
+    assertThat(listener.received).containsExactlyElementsOf(cart.getEvents());
+  }
+
+  @Test
+  void shouldBlockLaterEventsOfSameAggregate_whenAttemptsAreExhausted() {
+    // Given
+    var cart = newCart();
+    mongoCarts.save(cart).block();
+    listener.failOn = productA;
+    relay.drain().block();
+    relay.drain().block();
+    var order =
+        Order.createFromCart(
+            new OrderId(UUID.randomUUID()), cart, "東京都", Money.ZERO, BigDecimal.ZERO, now);
+    mongoOrders.save(order).block();
+
+    // When: 上限に達したイベントの後続は順序を保つため配信せず、他の集約のイベントは配信する
+    StepVerifier.create(relay.drain()).expectNext(1L).verifyComplete();
+
+    // Then
+    assertThat(listener.received).containsExactly(order.getEvents().getFirst());
+    StepVerifier.create(
+            mongoTemplate.find(
+                Query.query(Criteria.where("aggregateId").is(cart.getId().toString()))
+                    .with(Sort.by("id")),
+                OutboxDocument.class))
+        .assertNext(
+            document -> {
+              assertThat(document.attempts()).isEqualTo(2);
+              assertThat(document.lastError()).contains("listener failed");
+              assertThat(document.publishedAt()).isNull();
+            })
+        .assertNext(
+            document -> {
+              assertThat(document.attempts()).isZero();
+              assertThat(document.publishedAt()).isNull();
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldPublishOnlyFromLeaseHolder_untilItsLeaseExpires() {
+    // Given
+    var cart = newCart();
+    mongoCarts.save(cart).block();
+    StepVerifier.create(relay.acquireLease()).expectNext(true).verifyComplete();
+    var otherNode =
+        new OutboxRelay(mongoTemplate, objectMapper, eventPublisher, properties, meterRegistry);
+
+    // When & Then: 期限内のリースを持つノードがある間は他のノードは配信しない
+    StepVerifier.create(otherNode.drain()).expectNext(0L).verifyComplete();
+    assertThat(listener.received).isEmpty();
+
+    // When & Then: リースの期限が切れると他のノードが引き継ぐ
+    mongoTemplate
+        .updateFirst(
+            new Query(),
+            Update.update("leasedUntil", now.minusSeconds(1)),
+            OutboxLeaseDocument.class)
+        .block();
+    StepVerifier.create(otherNode.drain()).expectNext(2L).verifyComplete();
+    assertThat(listener.received).containsExactlyElementsOf(cart.getEvents());
+    StepVerifier.create(relay.acquireLease()).expectNext(false).verifyComplete();
+  }
+
+  private OutboxDocument outboxDocument(Instant createdAt, int attempts, Instant publishedAt) {
+    return new OutboxDocument(
+        new ObjectId().toHexString(),
+        UUID.randomUUID().toString(),
+        ItemAddedToCart.class.getName(),
+        "{}",
+        createdAt,
+        attempts,
+        null,
+        publishedAt);
+  }
+
+  private Cart newCart() {
+    return Cart.create(new CartId(UUID.randomUUID()), new AccountId(UUID.randomUUID()), now)
+        .addItem(productA, "商品A", Money.ofYen(100), 1, now)
+        .addItem(productB, "商品B", Money.ofYen(250), 2, now);
+  }
+
+  /** 配信されたドメインイベントを記録するリスナー */
+  @TestConfiguration
+  static class RecordingListener {
+
+    private final List<DomainEvent> received = new CopyOnWriteArrayList<>();
+    private volatile ProductId failOn;
+
+    @EventListener
+    void on(DomainEvent event) {
+      if (event instanceof ItemAddedToCart added && added.productId().equals(failOn)) {
+        throw new IllegalStateException("listener failed");
+      }
+      received.add(event);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.example.ec_2024b_back.share.infrastructure.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.config.TestMongoConfig;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.CartEvent.ItemAddedToCart;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.shopping.infrastructure.repository.MongoCarts;
+import com.example.ec_2024b_back.utils.IntegrationTest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.jmolecules.event.types.DomainEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+/**
+ * アウトボックスから各ノードへの配信の統合テスト。
+ *
+ * <p>リレーが配信済みのイベントもこのノードのリスナーに書き込み順に1回ずつ配信されることと、遅れてコミットされたイベントや配信に失敗したイベントの扱いを検証します。
+ * 自動での配信が検証に干渉しないよう、確認間隔を長くして直接呼び出します。
+ */
+@Testcontainers
+@IntegrationTest
+@Import({TestMongoConfig.class, OutboxReplicatorTest.RecordingListener.class})
+@TestPropertySource(properties = {"share.outbox.poll-interval=1h", "share.outbox.max-attempts=2"})
+class OutboxReplicatorTest {
+
+  @Autowired private MongoCarts mongoCarts;
+  @Autowired private OutboxRelay relay;
+  @Autowired private OutboxReplicator replicator;
+  @Autowired private ReactiveMongoTemplate mongoTemplate;
+  @Autowired private RecordingListener listener;
+
+  private final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+  private final ProductId productA = new ProductId(UUID.randomUUID());
+  private final ProductId productB = new ProductId(UUID.randomUUID());
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.dropCollection(OutboxDocument.class).block();
+    listener.received.clear();
+    listener.failOn = null;
+  }
+
+  @Test
+  void shouldReplicateEventsInWriteOrder_evenAfterRelayPublishedThem() {
+    // Given
+    var cart = newCart();
+    mongoCarts.save(cart).block();
+    relay.drain().block();
+
+    // When & Then
+    StepVerifier.create(replicator.drain()).expectNext(2L).verifyComplete();
+    assertThat(listener.received).containsExactlyElementsOf(cart.getEvents());
+
+    // 配信済みのイベントは再び配信しない
+    StepVerifier.create(replicator.drain()).expectNext(0L).verifyComplete();
+    assertThat(listener.received).hasSize(2);
+  }
+
+  @Test
+  void shouldReplicateEventWrittenBeforePosition_whenCommittedLate() {
+    // Given
+    mongoCarts.save(newCart()).block();
+    replicator.drain().block();
+
+    // When: 読み込み済みの位置より前の書き込み日時で、後からコミットされたイベント
+    var late = newCart();
+    mongoCarts.save(late).block();
+    mongoTemplate
+        .updateMulti(
+            Query.query(Criteria.where("aggregateId").is(late.getId().toString())),
+            new Update().set("createdAt", now.minusSeconds(2)),
+            OutboxDocument.class)
+        .block();
+
+    // Then
+    StepVerifier.create(replicator.drain()).expectNext(2L).verifyComplete();
+    assertThat(listener.received).hasSize(4);
+    assertThat(listener.received.subList(2, 4)).containsExactlyElementsOf(late.getEvents());
+  }
+
+  @Test
+  void shouldRetryFailedEventInOrder() {
+    // Given
+    var cart = newCart();
+    mongoCarts.save(cart).block();
+    listener.failOn = productA;
+
+    // When: 1件目で失敗し、順序を保つため2件目も配信しない
+    StepVerifier.create(replicator.drain()).expectNext(0L).verifyComplete();
+    assertThat(listener.received).isEmpty();
+
+    // Then: 失敗が解消すれば再試行で配信される
+    listener.failOn = null;
+    StepVerifier.create(replicator.drain()).expectNext(2L).verifyComplete();
+    assertThat(listener.received).containsExactlyElementsOf(cart.getEvents());
+  }
+
+  private Cart newCart() {
+    return Cart.create(new CartId(UUID.randomUUID()), new AccountId(UUID.randomUUID()), now)
+        .addItem(productA, "商品A", Money.ofYen(100), 1, now)
+        .addItem(productB, "商品B", Money.ofYen(250), 2, now);
+  }
+
+  /** このノードに配信されたドメインイベントを記録するリスナー */
+  @TestConfiguration
+  static class RecordingListener {
+
+    private final List<DomainEvent> received = new CopyOnWriteArrayList<>();
+    private volatile ProductId failOn;
+
+    @EventListener
+    void on(Replicated<ItemAddedToCart> event) {
+      if (event.event().productId().equals(failOn)) {
+        throw new IllegalStateException("listener failed");
+      }
+      received.add(event.event());
+    }
+  }
+}
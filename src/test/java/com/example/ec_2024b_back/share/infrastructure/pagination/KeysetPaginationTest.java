@@ -0,0 +1,51 @@
+package com.example.ec_2024b_back.share.infrastructure.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.ec_2024b_back.utils.Fast;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+@Fast
+class KeysetPaginationTest {
+
+  @Test
+  void decode_shouldRestoreEncodedKeys() {
+    // Arrange
+    var cursor = KeysetPagination.encode("1700000000000", "order-1");
+
+    // Act & Assert
+    assertThat(cursor).doesNotContain("=", "+", "/");
+    assertThat(KeysetPagination.decode(cursor, 2)).containsExactly("1700000000000", "order-1");
+  }
+
+  @Test
+  void decode_shouldRejectMalformedCursor() {
+    // Act & Assert
+    assertThatThrownBy(() -> KeysetPagination.decode("%%%", 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> KeysetPagination.decode(KeysetPagination.encode("only-one"), 2))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void toPage_shouldReturnNextCursor_whenMoreItemsThanLimitWereFetched() {
+    // Act
+    var page = KeysetPagination.toPage(List.of("a", "b", "c"), 2, KeysetPagination::encode);
+
+    // Assert
+    assertThat(page.items()).containsExactly("a", "b");
+    assertThat(page.nextCursor()).isEqualTo(KeysetPagination.encode("b"));
+  }
+
+  @Test
+  void toPage_shouldReturnLastPage_whenFetchedWithinLimit() {
+    // Act
+    var page = KeysetPagination.toPage(List.of("a", "b"), 2, KeysetPagination::encode);
+
+    // Assert
+    assertThat(page.items()).containsExactly("a", "b");
+    assertThat(page.nextCursor()).isNull();
+  }
+}
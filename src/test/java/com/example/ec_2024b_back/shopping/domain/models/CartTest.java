@@ -0,0 +1,196 @@
+package com.example.ec_2024b_back.shopping.domain.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.domain.models.CartEvent.CartCleared;
+import com.example.ec_2024b_back.shopping.domain.models.CartEvent.ItemAddedToCart;
+import com.example.ec_2024b_back.shopping.domain.models.CartEvent.ItemQuantityChanged;
+import com.example.ec_2024b_back.shopping.domain.models.CartEvent.ItemRemovedFromCart;
+import com.example.ec_2024b_back.utils.Fast;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+@Fast
+class CartTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+  private static final Instant LATER = NOW.plusSeconds(60);
+
+  private final ProductId productA = new ProductId(UUID.randomUUID());
+  private final ProductId productB = new ProductId(UUID.randomUUID());
+  private final ProductId productC = new ProductId(UUID.randomUUID());
+
+  private Cart emptyCart() {
+    return Cart.create(new CartId(UUID.randomUUID()), new AccountId(UUID.randomUUID()), NOW);
+  }
+
+  private Cart cartWithThreeItems() {
+    return emptyCart()
+        .addItem(productA, "商品A", Money.ofYen(100), 1, NOW)
+        .addItem(productB, "商品B", Money.ofYen(200), 2, NOW)
+        .addItem(productC, "商品C", Money.ofYen(300), 3, NOW);
+  }
+
+  @Test
+  void addItem_shouldAppendNewItemAndRecordEvent() {
+    // When
+    var cart = emptyCart().addItem(productA, "商品A", Money.ofYen(100), 2, LATER);
+
+    // Then
+    assertThat(cart.getItems())
+        .containsExactly(new CartItem(productA, "商品A", 2, Money.ofYen(100)));
+    assertThat(cart.getEvents()).singleElement().isInstanceOf(ItemAddedToCart.class);
+    assertThat(cart.getUpdatedAt()).isEqualTo(LATER);
+  }
+
+  @Test
+  void addItem_shouldIncreaseQuantityWithoutChangingOrder_whenProductAlreadyInCart() {
+    // When
+    var cart = cartWithThreeItems().addItem(productA, "商品A", Money.ofYen(100), 4, LATER);
+
+    // Then
+    assertThat(cart.getItems())
+        .extracting(CartItem::productId)
+        .containsExactly(productA, productB, productC);
+    assertThat(cart.findItemByProductId(productA))
+        .get()
+        .extracting(CartItem::quantity)
+        .isEqualTo(5);
+    assertThat(cart.getEvents().getLast())
+        .isEqualTo(new ItemQuantityChanged(cart.getId(), productA, 1, 5, LATER));
+  }
+
+  @Test
+  void addItem_shouldThrowException_whenQuantityIsNotPositive() {
+    assertThatThrownBy(() -> emptyCart().addItem(productA, "商品A", Money.ofYen(1), 0, NOW))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void updateItemQuantity_shouldKeepItemPosition() {
+    // When
+    var cart = cartWithThreeItems().updateItemQuantity(productB, 10, LATER);
+
+    // Then
+    assertThat(cart.getItems())
+        .extracting(CartItem::productId)
+        .containsExactly(productA, productB, productC);
+    assertThat(cart.findItemByProductId(productB))
+        .get()
+        .extracting(CartItem::quantity)
+        .isEqualTo(10);
+    assertThat(cart.getEvents().getLast())
+        .isEqualTo(new ItemQuantityChanged(cart.getId(), productB, 2, 10, LATER));
+  }
+
+  @Test
+  void updateItemQuantity_shouldReturnSameCart_whenQuantityIsUnchangedOrProductMissing() {
+    var cart = cartWithThreeItems();
+
+    assertThat(cart.updateItemQuantity(productB, 2, LATER)).isSameAs(cart);
+    assertThat(cart.updateItemQuantity(new ProductId(UUID.randomUUID()), 1, LATER)).isSameAs(cart);
+  }
+
+  @Test
+  void updateItemQuantity_shouldRemoveItem_whenQuantityIsZero() {
+    // When
+    var cart = cartWithThreeItems().updateItemQuantity(productB, 0, LATER);
+
+    // Then
+    assertThat(cart.getItems()).extracting(CartItem::productId).containsExactly(productA, productC);
+    assertThat(cart.getEvents().getLast()).isInstanceOf(ItemRemovedFromCart.class);
+  }
+
+  @Test
+  void removeItem_shouldRemoveOnlyTargetItem() {
+    // When
+    var cart = cartWithThreeItems().removeItem(productA, LATER);
+
+    // Then
+    assertThat(cart.getItems()).extracting(CartItem::productId).containsExactly(productB, productC);
+    assertThat(cart.findItemByProductId(productA)).isEmpty();
+    assertThat(cart.getEvents().getLast())
+        .isEqualTo(new ItemRemovedFromCart(cart.getId(), productA, LATER));
+  }
+
+  @Test
+  void removeItem_shouldReturnSameCart_whenProductMissing() {
+    var cart = cartWithThreeItems();
+
+    assertThat(cart.removeItem(new ProductId(UUID.randomUUID()), LATER)).isSameAs(cart);
+  }
+
+  @Test
+  void clear_shouldRemoveAllItems() {
+    // When
+    var cart = cartWithThreeItems().clear(LATER);
+
+    // Then
+    assertThat(cart.getItems()).isEmpty();
+    assertThat(cart.getEvents().getLast()).isInstanceOf(CartCleared.class);
+  }
+
+  @Test
+  void calculateTotal_shouldSumAllItems() {
+    assertThat(cartWithThreeItems().calculateTotal()).isEqualTo(Money.ofYen(1400));
+  }
+
+  @Test
+  void mutations_shouldNotModifyOriginalCart() {
+    // Given
+    var cart = cartWithThreeItems();
+
+    // When
+    cart.addItem(productA, "商品A", Money.ofYen(100), 1, LATER);
+    cart.removeItem(productB, LATER);
+    cart.clear(LATER);
+
+    // Then
+    assertThat(cart.getItems()).hasSize(3);
+    assertThat(cart.getEvents()).hasSize(3);
+  }
+
+  @Test
+  void reconstruct_shouldPreserveItemOrderWithoutEvents() {
+    // Given
+    var items =
+        List.of(
+            new CartItem(productC, "商品C", 1, Money.ofYen(1)),
+            new CartItem(productA, "商品A", 1, Money.ofYen(1)));
+
+    // When
+    var cart =
+        Cart.reconstruct(
+            new CartId(UUID.randomUUID()), new AccountId(UUID.randomUUID()), items, NOW, NOW, 3L);
+
+    // Then
+    assertThat(cart.getItems()).containsExactlyElementsOf(items);
+    assertThat(cart.getEvents()).isEmpty();
+    assertThat(cart.getVersion()).isEqualTo(3L);
+  }
+
+  @Test
+  void reconstruct_shouldThrowException_whenProductIsDuplicated() {
+    var items =
+        List.of(
+            new CartItem(productA, "商品A", 1, Money.ofYen(1)),
+            new CartItem(productA, "商品A", 2, Money.ofYen(1)));
+
+    assertThatThrownBy(
+            () ->
+                Cart.reconstruct(
+                    new CartId(UUID.randomUUID()),
+                    new AccountId(UUID.randomUUID()),
+                    items,
+                    NOW,
+                    NOW,
+                    null))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.ec_2024b_back.shopping.domain.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.ec_2024b_back.utils.Fast;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.jupiter.api.Test;
+
+@Fast
+class MoneyTest {
+
+  @Test
+  void of_shouldAcceptIntegralAmountWithTrailingZeros() {
+    assertThat(Money.of(new BigDecimal("1280.00"))).isEqualTo(Money.ofYen(1280));
+  }
+
+  @Test
+  void of_shouldRejectFractionalYen() {
+    assertThatThrownBy(() -> Money.of(new BigDecimal("1280.50")))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void of_shouldRejectAmountOutOfLongRange() {
+    assertThatThrownBy(() -> Money.of(new BigDecimal("1e20")))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void arithmetic_shouldMatchBigDecimal() {
+    var price = Money.ofYen(850);
+
+    assertThat(price.times(3).plus(Money.ofYen(333)).minus(Money.ofYen(100)))
+        .isEqualTo(Money.ofYen(2783));
+    assertThat(price.times(3).toBigDecimal())
+        .isEqualByComparingTo(new BigDecimal("850").multiply(BigDecimal.valueOf(3)));
+  }
+
+  @Test
+  void times_shouldRoundRate() {
+    var subtotal = Money.ofYen(2033);
+
+    assertThat(subtotal.times(new BigDecimal("0.10"), RoundingMode.HALF_UP))
+        .isEqualTo(Money.ofYen(203));
+    assertThat(Money.ofYen(2035).times(new BigDecimal("0.10"), RoundingMode.HALF_UP))
+        .isEqualTo(Money.ofYen(204));
+  }
+
+  @Test
+  void plus_shouldThrow_whenOverflows() {
+    assertThatThrownBy(() -> Money.ofYen(Long.MAX_VALUE).plus(Money.ofYen(1)))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void times_shouldThrow_whenOverflows() {
+    assertThatThrownBy(() -> Money.ofYen(Long.MAX_VALUE / 2).times(3))
+        .isInstanceOf(ArithmeticException.class);
+  }
+}
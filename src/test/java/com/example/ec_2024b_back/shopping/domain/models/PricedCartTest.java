@@ -0,0 +1,109 @@
+package com.example.ec_2024b_back.shopping.domain.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.catalog.CatalogPrice;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.utils.Fast;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+@Fast
+class PricedCartTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+  private static final PricingRules RULES =
+      new PricingRules(new BigDecimal("0.10"), Money.ofYen(500), Money.ofYen(5000));
+
+  private final ProductId coffee = new ProductId(UUID.randomUUID());
+  private final ProductId tea = new ProductId(UUID.randomUUID());
+
+  private Cart cart() {
+    // クライアントが送った古い価格でカートに入っている
+    return Cart.create(new CartId(UUID.randomUUID()), new AccountId(UUID.randomUUID()), NOW)
+        .addItem(coffee, "古い名前", Money.ofYen(1), 2, NOW)
+        .addItem(tea, "紅茶", Money.ofYen(1), 1, NOW);
+  }
+
+  @Test
+  void of_shouldPriceItemsFromCatalogAndApplyTaxAndShipping() {
+    // Given
+    var prices = prices(price(coffee, "コーヒー", "1000", "150"), price(tea, "紅茶", "333", "0"));
+
+    // When
+    var priced = PricedCart.of(cart(), prices, RULES);
+
+    // Then
+    assertThat(priced.lines())
+        .extracting(PricedCart.Line::productName)
+        .containsExactly("コーヒー", "紅茶");
+    assertThat(priced.subtotal()).isEqualTo(Money.ofYen(2033));
+    assertThat(priced.discount()).isEqualTo(Money.ofYen(300));
+    assertThat(priced.tax()).isEqualTo(Money.ofYen(203));
+    assertThat(priced.shippingCost()).isEqualTo(Money.ofYen(500));
+    assertThat(priced.total()).isEqualTo(Money.ofYen(2736));
+    assertThat(priced.hasUnavailableItems()).isFalse();
+  }
+
+  @Test
+  void of_shouldWaiveShipping_whenSubtotalReachesThreshold() {
+    // Given
+    var prices = prices(price(coffee, "コーヒー", "2500", "0"), price(tea, "紅茶", "0", "0"));
+
+    // When
+    var priced = PricedCart.of(cart(), prices, RULES);
+
+    // Then
+    assertThat(priced.subtotal()).isEqualTo(Money.ofYen(5000));
+    assertThat(priced.shippingCost()).isEqualTo(Money.ofYen(0));
+  }
+
+  @Test
+  void of_shouldExcludeUnavailableItemsFromTotals() {
+    // Given: 紅茶は販売中でない
+    var prices = prices(price(coffee, "コーヒー", "1000", "0"));
+
+    // When
+    var priced = PricedCart.of(cart(), prices, RULES);
+
+    // Then
+    assertThat(priced.hasUnavailableItems()).isTrue();
+    assertThat(priced.subtotal()).isEqualTo(Money.ofYen(2000));
+    assertThat(priced.lines().get(1).available()).isFalse();
+  }
+
+  @Test
+  void applyTo_shouldReplaceNamesAndUnitPricesWithCatalogValues() {
+    // Given
+    var cart = cart();
+    var prices = prices(price(coffee, "コーヒー", "1000", "150"), price(tea, "紅茶", "333", "0"));
+
+    // When
+    var repriced = PricedCart.of(cart, prices, RULES).applyTo(cart);
+
+    // Then
+    assertThat(repriced.getItems())
+        .containsExactly(
+            new CartItem(coffee, "コーヒー", 2, Money.ofYen(850)),
+            new CartItem(tea, "紅茶", 1, Money.ofYen(333)));
+    assertThat(repriced.calculateTotal()).isEqualTo(Money.ofYen(2033));
+  }
+
+  private static Map<ProductId, CatalogPrice> prices(CatalogPrice... prices) {
+    return Arrays.stream(prices)
+        .collect(Collectors.toMap(CatalogPrice::productId, Function.identity()));
+  }
+
+  private static CatalogPrice price(
+      ProductId productId, String name, String basePrice, String discount) {
+    return new CatalogPrice(productId, name, new BigDecimal(basePrice), new BigDecimal(discount));
+  }
+}
@@ -0,0 +1,152 @@
+package com.example.ec_2024b_back.shopping.infrastructure.projection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.config.TestMongoConfig;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.OrderId;
+import com.example.ec_2024b_back.shopping.PaymentId;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.shopping.domain.models.Order;
+import com.example.ec_2024b_back.shopping.domain.models.OrderStatus;
+import com.example.ec_2024b_back.shopping.domain.models.OrderSummary;
+import com.example.ec_2024b_back.shopping.infrastructure.repository.OrderDocument;
+import com.example.ec_2024b_back.shopping.infrastructure.repository.OrderDocumentRepository;
+import com.example.ec_2024b_back.utils.IntegrationTest;
+import com.google.errorprone.annotations.Var;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * 注文の概要の投影の統合テスト。
+ *
+ * <p>注文のイベントから概要を作成・更新し、重複や順序の古いイベントで状態が戻らないことを検証します。 概要がない注文の状態の更新で注文から概要を作成すること、
+ * 注文からの作り直しと、作成した概要を新しい順に読めることも検証します。
+ */
+@Testcontainers
+@IntegrationTest
+@Import(TestMongoConfig.class)
+class OrderSummaryProjectorTest {
+
+  @Autowired private OrderSummaryProjector projector;
+
+  @Autowired private MongoOrderSummaries orderSummaries;
+
+  @Autowired private OrderDocumentRepository orderDocumentRepository;
+
+  @Autowired private ReactiveMongoTemplate mongoTemplate;
+
+  private final AccountId accountId = new AccountId(UUID.randomUUID());
+
+  // MongoDBの日付はミリ秒精度のため切り捨てておく
+  private final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+  @BeforeEach
+  void setUp() {
+    orderDocumentRepository.deleteAll().block();
+    mongoTemplate.remove(new Query(), OrderSummaryDocument.class).block();
+  }
+
+  @Test
+  void shouldProjectOrderEvents() {
+    // Given
+    var order = order(now, 2);
+    var paid = order.markPaid(new PaymentId(UUID.randomUUID()), "CARD", now.plusSeconds(1));
+    var shipped = paid.markShipped("TRACK-1", "宅配便", now.plusSeconds(2));
+
+    // When: 作成イベントが重複し、支払いイベントが出荷イベントの後に再配信される
+    shipped.getEvents().forEach(projector::on);
+    projector.on(shipped.getEvents().getFirst());
+    projector.on(paid.getEvents().getLast());
+
+    // Then
+    assertThat(summaries())
+        .containsExactly(
+            new OrderSummary(
+                order.getId(),
+                accountId,
+                OrderStatus.SHIPPED,
+                order.getTotalAmount(),
+                2,
+                order.getCreatedAt()));
+  }
+
+  @Test
+  void shouldCreateSummaryFromOrder_whenTransitionArrivesBeforeSummaryExists() {
+    // Given: 作成イベントより先に取り消しイベントが反映される
+    var order = order(now, 2);
+    var cancelled = order.cancel("都合により", now.plusSeconds(1));
+    orderDocumentRepository.save(OrderDocument.fromDomain(cancelled)).block();
+
+    // When
+    projector.on(cancelled.getEvents().getLast());
+    projector.on(cancelled.getEvents().getFirst());
+
+    // Then: 後から配信された作成イベントで状態が戻らない
+    assertThat(summaries())
+        .extracting(OrderSummary::orderId, OrderSummary::status, OrderSummary::itemCount)
+        .containsExactly(tuple(order.getId(), OrderStatus.CANCELLED, 2));
+  }
+
+  @Test
+  void shouldFailTransition_whenNeitherSummaryNorOrderExists() {
+    // Given
+    var cancelled = order(now, 1).cancel("都合により", now.plusSeconds(1));
+
+    // When & Then: リレーが再試行できるよう配信を失敗させる
+    assertThatThrownBy(() -> projector.on(cancelled.getEvents().getLast()))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(summaries()).isEmpty();
+  }
+
+  @Test
+  void rebuild_shouldReplaceSummariesWithOrders() {
+    // Given: 注文と、対応する注文のない古い概要
+    var older = order(now, 1);
+    var newer = order(now.plusSeconds(1), 3).cancel("都合により", now.plusSeconds(2));
+    orderDocumentRepository.save(OrderDocument.fromDomain(older)).block();
+    orderDocumentRepository.save(OrderDocument.fromDomain(newer)).block();
+    projector.on(order(now, 1).getEvents().getFirst());
+
+    // When
+    var count = projector.rebuild().block();
+
+    // Then
+    assertThat(count).isEqualTo(2);
+    assertThat(summaries())
+        .extracting(OrderSummary::orderId, OrderSummary::status, OrderSummary::itemCount)
+        .containsExactly(
+            tuple(newer.getId(), OrderStatus.CANCELLED, 3),
+            tuple(older.getId(), OrderStatus.CREATED, 1));
+  }
+
+  private List<OrderSummary> summaries() {
+    return orderSummaries.findByAccountId(accountId).collectList().block();
+  }
+
+  private Order order(Instant createdAt, int itemCount) {
+    @Var Cart cart = Cart.create(new CartId(UUID.randomUUID()), accountId, createdAt);
+    for (int i = 0; i < itemCount; i++) {
+      cart =
+          cart.addItem(new ProductId(UUID.randomUUID()), "商品", Money.ofYen(100), 1, createdAt);
+    }
+    return Order.createFromCart(
+        new OrderId(UUID.randomUUID()), cart, "東京都", Money.ZERO, BigDecimal.ZERO, createdAt);
+  }
+}
@@ -0,0 +1,230 @@
+package com.example.ec_2024b_back.shopping.infrastructure.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.shopping.infrastructure.config.CartCacheProperties;
+import com.example.ec_2024b_back.utils.Fast;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@Fast
+@ExtendWith(MockitoExtension.class)
+class CachingCartsTest {
+
+  @Mock private MongoCarts delegate;
+
+  private SimpleMeterRegistry registry;
+  private CachingCarts cachingCarts;
+
+  private final AccountId accountId = new AccountId(UUID.randomUUID());
+  private final Instant now = Instant.now();
+  private final Cart cart = persisted(0L);
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    cachingCarts =
+        new CachingCarts(
+            delegate, new CartCacheProperties(true, 100, Duration.ofMinutes(5)), registry);
+  }
+
+  private Cart persisted(long version) {
+    return Cart.reconstruct(new CartId(new UUID(0L, 1L)), accountId, List.of(), now, now, version);
+  }
+
+  @Test
+  void findByAccountId_shouldServeFromCache_afterFirstLoad() {
+    // Given
+    when(delegate.findByAccountId(accountId)).thenReturn(Mono.just(cart));
+
+    // When
+    StepVerifier.create(cachingCarts.findByAccountId(accountId)).expectNext(cart).verifyComplete();
+    StepVerifier.create(cachingCarts.findByAccountId(accountId)).expectNext(cart).verifyComplete();
+
+    // Then
+    verify(delegate, times(1)).findByAccountId(accountId);
+    assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count())
+        .isEqualTo(1.0);
+    assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void save_shouldWriteThroughToCache() {
+    // Given
+    var updated = cart.addItem(new ProductId(UUID.randomUUID()), "商品", Money.ofYen(1), 1, now);
+    var saved = persisted(1L);
+    when(delegate.save(updated)).thenReturn(Mono.just(saved));
+
+    // When
+    StepVerifier.create(cachingCarts.save(updated)).expectNext(saved).verifyComplete();
+
+    // Then
+    StepVerifier.create(cachingCarts.findByAccountId(accountId)).expectNext(saved).verifyComplete();
+  }
+
+  @Test
+  void save_shouldNotReplaceNewerCachedCart_whenResultsArriveOutOfOrder() {
+    // Given: 新しいバージョンのカートがキャッシュされている状態で、古いバージョンの保存結果が届く
+    var newer = persisted(2L);
+    var older = persisted(1L);
+    when(delegate.save(newer)).thenReturn(Mono.just(newer));
+    when(delegate.save(older)).thenReturn(Mono.just(older));
+    cachingCarts.save(newer).block();
+
+    // When
+    cachingCarts.save(older).block();
+
+    // Then
+    StepVerifier.create(cachingCarts.findByAccountId(accountId)).expectNext(newer).verifyComplete();
+  }
+
+  @Test
+  void save_shouldInvalidateCache_whenConflictOccurs() {
+    // Given
+    when(delegate.findByAccountId(accountId))
+        .thenReturn(Mono.just(cart))
+        .thenReturn(Mono.just(persisted(5L)));
+    cachingCarts.findByAccountId(accountId).block();
+    when(delegate.save(cart)).thenReturn(Mono.error(new OptimisticLockingFailureException("")));
+
+    // When
+    StepVerifier.create(cachingCarts.save(cart))
+        .expectError(OptimisticLockingFailureException.class)
+        .verify();
+
+    // Then: 次の読み込みはデータベースから行われる
+    StepVerifier.create(cachingCarts.findByAccountId(accountId))
+        .assertNext(found -> assertThat(found.getVersion()).isEqualTo(5L))
+        .verifyComplete();
+  }
+
+  @Test
+  void deleteById_shouldEvictCachedCart() {
+    // Given
+    when(delegate.findByAccountId(accountId)).thenReturn(Mono.just(cart)).thenReturn(Mono.empty());
+    when(delegate.deleteById(cart.getId())).thenReturn(Mono.empty());
+    cachingCarts.findByAccountId(accountId).block();
+
+    // When
+    StepVerifier.create(cachingCarts.deleteById(cart.getId())).verifyComplete();
+
+    // Then
+    StepVerifier.create(cachingCarts.findByAccountId(accountId)).verifyComplete();
+  }
+
+  @Test
+  void deleteById_shouldEvictCachedCart_afterCartWasReplacedByNewerVersion() {
+    // Given: 読み込んだカートを保存し、新しいバージョンに置き換える
+    var saved = persisted(1L);
+    when(delegate.findByAccountId(accountId)).thenReturn(Mono.just(cart)).thenReturn(Mono.empty());
+    when(delegate.save(cart)).thenReturn(Mono.just(saved));
+    when(delegate.deleteById(cart.getId())).thenReturn(Mono.empty());
+    cachingCarts.findByAccountId(accountId).block();
+    cachingCarts.save(cart).block();
+
+    // When
+    StepVerifier.create(cachingCarts.deleteById(cart.getId())).verifyComplete();
+
+    // Then
+    StepVerifier.create(cachingCarts.findByAccountId(accountId)).verifyComplete();
+  }
+
+  @Test
+  void save_shouldCacheCartOnlyAfterCommit_whenSavedInTransaction() {
+    // Given
+    var saved = persisted(1L);
+    when(delegate.findByAccountId(accountId)).thenReturn(Mono.just(cart));
+    when(delegate.save(cart)).thenReturn(Mono.just(saved));
+    var transactional = TransactionalOperator.create(new NoOpTransactionManager());
+
+    // When: トランザクション内では保存前のカートも保存後のカートも返さない
+    var inTransaction =
+        cachingCarts
+            .save(cart)
+            .then(cachingCarts.findByAccountId(accountId))
+            .as(transactional::transactional);
+
+    // Then
+    StepVerifier.create(inTransaction).expectNext(cart).verifyComplete();
+    StepVerifier.create(cachingCarts.findByAccountId(accountId)).expectNext(saved).verifyComplete();
+    verify(delegate, times(1)).findByAccountId(accountId);
+  }
+
+  @Test
+  void save_shouldInvalidateCache_whenTransactionRollsBack() {
+    // Given
+    when(delegate.findByAccountId(accountId)).thenReturn(Mono.just(cart));
+    when(delegate.save(cart)).thenReturn(Mono.just(persisted(1L)));
+    cachingCarts.findByAccountId(accountId).block();
+    var transactional = TransactionalOperator.create(new NoOpTransactionManager());
+
+    // When
+    StepVerifier.create(
+            cachingCarts
+                .save(cart)
+                .then(Mono.error(new IllegalStateException("rollback")))
+                .as(transactional::transactional))
+        .expectError(IllegalStateException.class)
+        .verify();
+
+    // Then: ロールバックされた保存結果は返さず、データベースから読み直す
+    StepVerifier.create(cachingCarts.findByAccountId(accountId)).expectNext(cart).verifyComplete();
+    verify(delegate, times(2)).findByAccountId(accountId);
+  }
+
+  /** 同期処理の呼び出しのみを行うトランザクションマネージャー */
+  private static final class NoOpTransactionManager extends AbstractReactiveTransactionManager {
+
+    @Override
+    protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+      return new Object();
+    }
+
+    @Override
+    protected Mono<Void> doBegin(
+        TransactionSynchronizationManager synchronizationManager,
+        Object transaction,
+        TransactionDefinition definition) {
+      return Mono.empty();
+    }
+
+    @Override
+    protected Mono<Void> doCommit(
+        TransactionSynchronizationManager synchronizationManager,
+        GenericReactiveTransaction status) {
+      return Mono.empty();
+    }
+
+    @Override
+    protected Mono<Void> doRollback(
+        TransactionSynchronizationManager synchronizationManager,
+        GenericReactiveTransaction status) {
+      return Mono.empty();
+    }
+  }
+}
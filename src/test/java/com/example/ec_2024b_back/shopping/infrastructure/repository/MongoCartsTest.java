@@ -0,0 +1,286 @@
+package com.example.ec_2024b_back.shopping.infrastructure.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.config.TestMongoConfig;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.CartItem;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.utils.IntegrationTest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+/**
+ * MongoCartsリポジトリの統合テスト。
+ *
+ * <p>イベントから変換した部分更新の結果が、ドキュメント全体を保存した場合と同じ状態になることと、バージョンによる楽観的排他制御を検証します。
+ */
+@Testcontainers
+@IntegrationTest
+@Import(TestMongoConfig.class)
+class MongoCartsTest {
+
+  @Autowired private MongoCarts mongoCarts;
+
+  @Autowired private CartDocumentRepository cartDocumentRepository;
+
+  @Autowired private ReactiveMongoTemplate mongoTemplate;
+
+  @Autowired private DocumentVersionBackfill documentVersionBackfill;
+
+  private final ProductId productA = new ProductId(UUID.randomUUID());
+  private final ProductId productB = new ProductId(UUID.randomUUID());
+
+  // MongoDBの日付はミリ秒精度のため切り捨てておく
+  private final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+  private Cart savedCart;
+
+  @BeforeEach
+  void setUp() {
+    cartDocumentRepository.deleteAll().block();
+
+    // バージョンを持たない新規カートはドキュメント全体が保存される
+    savedCart =
+        mongoCarts
+            .save(
+                Cart.create(new CartId(UUID.randomUUID()), new AccountId(UUID.randomUUID()), now)
+                    .addItem(productA, "商品A", Money.ofYen(100), 1, now))
+            .block();
+  }
+
+  @Test
+  void shouldAssignInitialVersion_whenCartIsNew() {
+    assertThat(savedCart.getVersion()).isZero();
+    assertThat(savedCart.getEvents()).isEmpty();
+  }
+
+  @Test
+  void shouldPersistAddedItemAndQuantityChange() {
+    // Given
+    var later = now.plusSeconds(10);
+    var updated =
+        savedCart
+            .addItem(productB, "商品B", Money.ofYen(250), 2, later)
+            .updateItemQuantity(productA, 3, later);
+
+    // When
+    StepVerifier.create(mongoCarts.save(updated))
+        .assertNext(saved -> assertThat(saved.getEvents()).isEmpty())
+        .verifyComplete();
+
+    // Then
+    StepVerifier.create(mongoCarts.findById(savedCart.getId()))
+        .assertNext(
+            found -> {
+              assertThat(found.getItems())
+                  .containsExactly(
+                      new CartItem(productA, "商品A", 3, Money.ofYen(100)),
+                      new CartItem(productB, "商品B", 2, Money.ofYen(250)));
+              assertThat(found.getUpdatedAt()).isEqualTo(later);
+              assertThat(found.getAccountId()).isEqualTo(savedCart.getAccountId());
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldPersistRemovedItem() {
+    // Given
+    var withTwoItems =
+        mongoCarts.save(savedCart.addItem(productB, "商品B", Money.ofYen(10), 1, now)).block();
+
+    // When
+    mongoCarts.save(withTwoItems.removeItem(productA, now)).block();
+
+    // Then
+    StepVerifier.create(mongoCarts.findById(savedCart.getId()))
+        .assertNext(
+            found ->
+                assertThat(found.getItems())
+                    .extracting(CartItem::productId)
+                    .containsExactly(productB))
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldPersistClearedCart() {
+    // When
+    mongoCarts.save(savedCart.clear(now)).block();
+
+    // Then
+    StepVerifier.create(mongoCarts.findById(savedCart.getId()))
+        .assertNext(found -> assertThat(found.getItems()).isEmpty())
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldIncrementVersion_whenPartialUpdateIsApplied() {
+    // When
+    var saved = mongoCarts.save(savedCart.updateItemQuantity(productA, 5, now)).block();
+
+    // Then
+    assertThat(saved.getVersion()).isEqualTo(1L);
+    StepVerifier.create(mongoCarts.findById(savedCart.getId()))
+        .assertNext(
+            found -> {
+              assertThat(found.getVersion()).isEqualTo(1L);
+              assertThat(found.getItems())
+                  .singleElement()
+                  .extracting(CartItem::quantity)
+                  .isEqualTo(5);
+            })
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldPushAllItemsInSingleUpdate_whenOnlyNewItemsAreAdded() {
+    // Given
+    var productC = new ProductId(UUID.randomUUID());
+    var updated =
+        savedCart
+            .addItem(productB, "商品B", Money.ofYen(1), 1, now)
+            .addItem(productC, "商品C", Money.ofYen(2), 2, now);
+
+    // When
+    var saved = mongoCarts.save(updated).block();
+
+    // Then
+    assertThat(saved.getVersion()).isEqualTo(1L);
+    StepVerifier.create(mongoCarts.findById(savedCart.getId()))
+        .assertNext(
+            found ->
+                assertThat(found.getItems())
+                    .extracting(CartItem::productId)
+                    .containsExactly(productA, productB, productC))
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldFailWithOptimisticLock_whenPartialUpdateIsStale() {
+    // Given: 同じバージョンから2つの更新が行われる
+    mongoCarts.save(savedCart.addItem(productB, "商品B", Money.ofYen(1), 1, now)).block();
+    var stale = savedCart.updateItemQuantity(productA, 9, now);
+
+    // When & Then
+    StepVerifier.create(mongoCarts.save(stale))
+        .expectError(OptimisticLockingFailureException.class)
+        .verify();
+    StepVerifier.create(mongoCarts.findById(savedCart.getId()))
+        .assertNext(
+            found ->
+                assertThat(found.getItems())
+                    .extracting(CartItem::productId)
+                    .containsExactly(productA, productB))
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldFailWithOptimisticLock_whenFullSaveIsStale() {
+    // Given
+    mongoCarts.save(savedCart.addItem(productB, "商品B", Money.ofYen(1), 1, now)).block();
+    // 複数種類のイベントを持つ変更はドキュメント全体の保存になる
+    var stale =
+        savedCart
+            .addItem(productB, "商品B", Money.ofYen(1), 1, now)
+            .updateItemQuantity(productA, 3, now);
+
+    // When & Then
+    StepVerifier.create(mongoCarts.save(stale))
+        .expectError(OptimisticLockingFailureException.class)
+        .verify();
+  }
+
+  @Test
+  void shouldFailWithOptimisticLock_whenDocumentWasDeleted() {
+    // Given
+    cartDocumentRepository.deleteAll().block();
+
+    // When & Then
+    StepVerifier.create(mongoCarts.save(savedCart.updateItemQuantity(productA, 5, now)))
+        .expectError(OptimisticLockingFailureException.class)
+        .verify();
+  }
+
+  @Test
+  void shouldApplyPartialUpdate_whenLegacyDocumentHasNoVersion() {
+    // Given
+    var legacy = insertLegacyCart();
+    assertThat(legacy.getVersion()).isZero();
+
+    // When
+    StepVerifier.create(mongoCarts.save(legacy.updateItemQuantity(productA, 4, now)))
+        .assertNext(saved -> assertThat(saved.getVersion()).isEqualTo(1L))
+        .verifyComplete();
+
+    // Then
+    StepVerifier.create(mongoCarts.findById(legacy.getId()))
+        .assertNext(
+            found ->
+                assertThat(found.getItems())
+                    .containsExactly(new CartItem(productA, "商品A", 4, Money.ofYen(100))))
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldSaveWholeDocument_whenLegacyDocumentIsBackfilled() {
+    // Given
+    var legacy = insertLegacyCart();
+    documentVersionBackfill.backfill().block();
+    var changed =
+        legacy
+            .addItem(productB, "商品B", Money.ofYen(250), 2, now)
+            .updateItemQuantity(productA, 3, now);
+
+    // When
+    StepVerifier.create(mongoCarts.save(changed))
+        .assertNext(saved -> assertThat(saved.getVersion()).isEqualTo(1L))
+        .verifyComplete();
+
+    // Then
+    StepVerifier.create(mongoCarts.findById(legacy.getId()))
+        .assertNext(
+            found -> {
+              assertThat(found.getVersion()).isEqualTo(1L);
+              assertThat(found.getItems())
+                  .containsExactly(
+                      new CartItem(productA, "商品A", 3, Money.ofYen(100)),
+                      new CartItem(productB, "商品B", 2, Money.ofYen(250)));
+            })
+        .verifyComplete();
+  }
+
+  /** 楽観的排他制御の導入前の形式（version なし）でカートを保存し、読み込みます */
+  private Cart insertLegacyCart() {
+    var cartId = UUID.randomUUID().toString();
+    var item =
+        new Document("productId", productA.toString())
+            .append("productName", "商品A")
+            .append("unitPrice", 100L)
+            .append("quantity", 1);
+    mongoTemplate
+        .insert(
+            new Document("_id", cartId)
+                .append("accountId", UUID.randomUUID().toString())
+                .append("items", List.of(item))
+                .append("createdAt", Date.from(now))
+                .append("updatedAt", Date.from(now)),
+            "carts")
+        .block();
+    return mongoCarts.findById(CartId.of(cartId)).block();
+  }
+}
@@ -0,0 +1,158 @@
+package com.example.ec_2024b_back.shopping.infrastructure.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.config.TestMongoConfig;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.share.domain.models.CursorPage;
+import com.example.ec_2024b_back.share.domain.models.CursorPageRequest;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.OrderId;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.shopping.domain.models.Order;
+import com.example.ec_2024b_back.shopping.domain.models.OrderStatus;
+import com.example.ec_2024b_back.shopping.domain.models.OrderSummary;
+import com.example.ec_2024b_back.shopping.infrastructure.projection.MongoOrderSummaries;
+import com.example.ec_2024b_back.shopping.infrastructure.projection.OrderSummaryDocument;
+import com.example.ec_2024b_back.utils.IntegrationTest;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+/**
+ * MongoOrdersリポジトリの統合テスト。
+ *
+ * <p>注文履歴のキーセットページネーションが、作成日時が同じ注文を含めて重複・欠落なく新しい順に返すことを検証します。
+ * 注文履歴のストリーミングが、カーソルのバッチをまたいですべての注文を新しい順に返すことと、保存と同時に注文の概要を書き込むことも検証します。
+ */
+@Testcontainers
+@IntegrationTest
+@Import(TestMongoConfig.class)
+class MongoOrdersTest {
+
+  @Autowired private MongoOrders mongoOrders;
+
+  @Autowired private OrderDocumentRepository orderDocumentRepository;
+
+  @Autowired private MongoOrderSummaries orderSummaries;
+
+  @Autowired private ReactiveMongoTemplate mongoTemplate;
+
+  private final AccountId accountId = new AccountId(UUID.randomUUID());
+
+  // MongoDBの日付はミリ秒精度のため切り捨てておく
+  private final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+  @BeforeEach
+  void setUp() {
+    orderDocumentRepository.deleteAll().block();
+    mongoTemplate.remove(new Query(), OrderSummaryDocument.class).block();
+  }
+
+  @Test
+  void shouldPageThroughOrdersNewestFirst() {
+    // Given: 2件ずつ同じ作成日時を持つ注文と、他のアカウントの注文
+    var saved = new ArrayList<Order>();
+    for (int i = 0; i < 5; i++) {
+      saved.add(save(accountId, now.plusSeconds(i / 2)));
+    }
+    save(new AccountId(UUID.randomUUID()), now);
+    var expected =
+        saved.stream()
+            .sorted(
+                Comparator.comparing(Order::getCreatedAt)
+                    .thenComparing(order -> order.getId().toString())
+                    .reversed())
+            .map(Order::getId)
+            .toList();
+
+    // When
+    var first = page(null);
+    var second = page(first.nextCursor());
+    var third = page(second.nextCursor());
+
+    // Then
+    assertThat(first.items()).extracting(Order::getId).isEqualTo(expected.subList(0, 2));
+    assertThat(second.items()).extracting(Order::getId).isEqualTo(expected.subList(2, 4));
+    assertThat(third.items()).extracting(Order::getId).isEqualTo(expected.subList(4, 5));
+    assertThat(third.nextCursor()).isNull();
+  }
+
+  @Test
+  void shouldStreamAllOrdersNewestFirst() {
+    // Given: ストリーミングのバッチサイズ（既定値100件）を超える注文と、他のアカウントの注文
+    var saved = new ArrayList<Order>();
+    for (int i = 0; i < 150; i++) {
+      saved.add(save(accountId, now.plusMillis(i)));
+    }
+    save(new AccountId(UUID.randomUUID()), now);
+
+    // When
+    var streamed = mongoOrders.findByAccountId(accountId).collectList().block();
+
+    // Then
+    assertThat(streamed)
+        .extracting(Order::getId)
+        .isEqualTo(saved.reversed().stream().map(Order::getId).toList());
+  }
+
+  @Test
+  void shouldWriteOrderSummary_whenOrderIsSaved() {
+    // Given: アウトボックスのリレーによる配信を待たない
+    var placed = save(accountId, now);
+
+    // When & Then: 保存した直後から概要を読める
+    StepVerifier.create(orderSummaries.findByAccountId(accountId).map(OrderSummary::status))
+        .expectNext(OrderStatus.CREATED)
+        .verifyComplete();
+
+    // When & Then: 状態の変更も保存と同時に反映する
+    mongoOrders.save(placed.cancel("都合により", now.plusSeconds(1))).block();
+    StepVerifier.create(orderSummaries.findByAccountId(accountId).map(OrderSummary::status))
+        .expectNext(OrderStatus.CANCELLED)
+        .verifyComplete();
+  }
+
+  @Test
+  void shouldRejectMalformedCursor() {
+    // When & Then
+    StepVerifier.create(
+            mongoOrders.findByAccountId(accountId, new CursorPageRequest("not-a-cursor", 2)))
+        .expectError(IllegalArgumentException.class)
+        .verify();
+  }
+
+  private CursorPage<Order> page(@Nullable String cursor) {
+    return mongoOrders.findByAccountId(accountId, new CursorPageRequest(cursor, 2)).block();
+  }
+
+  private Order save(AccountId owner, Instant createdAt) {
+    var cart =
+        Cart.create(new CartId(UUID.randomUUID()), owner, createdAt)
+            .addItem(new ProductId(UUID.randomUUID()), "商品", Money.ofYen(10), 1, createdAt);
+    return mongoOrders
+        .save(
+            Order.createFromCart(
+                new OrderId(UUID.randomUUID()),
+                cart,
+                "東京都",
+                Money.ZERO,
+                BigDecimal.ZERO,
+                createdAt))
+        .block();
+  }
+}
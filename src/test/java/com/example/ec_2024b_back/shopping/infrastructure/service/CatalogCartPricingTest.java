@@ -0,0 +1,101 @@
+package com.example.ec_2024b_back.shopping.infrastructure.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.product.catalog.CatalogPrice;
+import com.example.ec_2024b_back.product.catalog.PriceCatalog;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.CartItem;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.shopping.infrastructure.config.PricingProperties;
+import com.example.ec_2024b_back.utils.Fast;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+@Fast
+@ExtendWith(MockitoExtension.class)
+class CatalogCartPricingTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+  @Mock private PriceCatalog priceCatalog;
+
+  private CatalogCartPricing pricing;
+
+  private final CartId cartId = new CartId(UUID.randomUUID());
+  private final AccountId accountId = new AccountId(UUID.randomUUID());
+  private final ProductId coffee = new ProductId(UUID.randomUUID());
+
+  @BeforeEach
+  void setUp() {
+    var properties =
+        new PricingProperties(new BigDecimal("0.10"), 500, null, 100, Duration.ofMinutes(1));
+    pricing = new CatalogCartPricing(priceCatalog, properties, new SimpleMeterRegistry());
+    when(priceCatalog.findPrices(any()))
+        .thenAnswer(
+            invocation ->
+                Flux.just(
+                    new CatalogPrice(
+                        coffee, "コーヒー", new BigDecimal("1000"), new BigDecimal("100"))));
+  }
+
+  @Test
+  void price_shouldReuseResult_whenCartVersionIsUnchanged() {
+    // When
+    var first = pricing.price(cart(1L)).block();
+    var second = pricing.price(cart(1L)).block();
+
+    // Then
+    assertThat(second).isSameAs(first);
+    assertThat(first.total()).isEqualTo(Money.ofYen(1490));
+    verify(priceCatalog, times(1)).findPrices(any());
+  }
+
+  @Test
+  void price_shouldRecalculate_whenCartVersionChanges() {
+    // When
+    pricing.price(cart(1L)).block();
+    pricing.price(cart(2L)).block();
+
+    // Then
+    verify(priceCatalog, times(2)).findPrices(any());
+  }
+
+  @Test
+  void price_shouldNotCache_whenCartIsUnsaved() {
+    // When
+    pricing.price(cart(null)).block();
+    pricing.price(cart(null)).block();
+
+    // Then
+    verify(priceCatalog, times(2)).findPrices(any());
+  }
+
+  private Cart cart(@Nullable Long version) {
+    return Cart.reconstruct(
+        cartId,
+        accountId,
+        List.of(new CartItem(coffee, "コーヒー", 1, Money.ofYen(1000))),
+        NOW,
+        NOW,
+        version);
+  }
+}
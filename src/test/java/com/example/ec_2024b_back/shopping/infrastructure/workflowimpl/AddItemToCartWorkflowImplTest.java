@@ -0,0 +1,268 @@
+package com.example.ec_2024b_back.shopping.infrastructure.workflowimpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.application.workflow.AddItemToCartWorkflow.AddItemStep;
+import com.example.ec_2024b_back.shopping.application.workflow.AddItemToCartWorkflow.CartNotFoundException;
+import com.example.ec_2024b_back.shopping.application.workflow.AddItemToCartWorkflow.Context;
+import com.example.ec_2024b_back.shopping.application.workflow.AddItemToCartWorkflow.GetCartStep;
+import com.example.ec_2024b_back.shopping.application.workflow.AddItemToCartWorkflow.InvalidProductInfoException;
+import com.example.ec_2024b_back.shopping.application.workflow.AddItemToCartWorkflow.SaveCartStep;
+import com.example.ec_2024b_back.shopping.application.workflow.AddItemToCartWorkflow.ValidateProductStep;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.utils.Fast;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+@Fast
+@ExtendWith(MockitoExtension.class)
+class AddItemToCartWorkflowImplTest {
+
+  @Mock private GetCartStep getCartStep;
+  @Mock private ValidateProductStep validateProductStep;
+  @Mock private AddItemStep addItemStep;
+  @Mock private SaveCartStep saveCartStep;
+
+  private AddItemToCartWorkflowImpl workflow;
+
+  private final List<Cart> savedCarts = new CopyOnWriteArrayList<>();
+
+  private final AccountId accountId = new AccountId(UUID.randomUUID());
+  private final ProductId productId = new ProductId(UUID.randomUUID());
+  private final Cart cart = Cart.create(new CartId(UUID.randomUUID()), accountId, Instant.now());
+
+  @BeforeEach
+  void setUp() {
+    workflow =
+        new AddItemToCartWorkflowImpl(getCartStep, validateProductStep, addItemStep, saveCartStep);
+  }
+
+  private void stubStepsBeforeSave() {
+    when(getCartStep.apply(any()))
+        .thenAnswer(invocation -> Mono.just(new Context.CartFound(cart, productId, 1)));
+    when(validateProductStep.apply(any()))
+        .thenAnswer(
+            invocation ->
+                Mono.just(new Context.Validated(cart, productId, "商品", Money.ofYen(10), 1)));
+    when(addItemStep.apply(any())).thenAnswer(invocation -> Mono.just(new Context.Added(cart)));
+  }
+
+  @Test
+  void execute_shouldReloadCartAndRetry_whenSaveConflicts() {
+    // Given
+    stubStepsBeforeSave();
+    when(saveCartStep.apply(any()))
+        .thenReturn(Mono.error(new OptimisticLockingFailureException("conflict")))
+        .thenReturn(Mono.just(new Context.Complete(cart)));
+
+    // When & Then
+    StepVerifier.create(workflow.execute(accountId, productId, 1))
+        .expectNext(cart)
+        .verifyComplete();
+    verify(getCartStep, times(2)).apply(any());
+  }
+
+  @Test
+  void execute_shouldFailWithConflict_whenRetriesAreExhausted() {
+    // Given
+    stubStepsBeforeSave();
+    when(saveCartStep.apply(any()))
+        .thenAnswer(invocation -> Mono.error(new OptimisticLockingFailureException("conflict")));
+
+    // When & Then
+    StepVerifier.create(workflow.execute(accountId, productId, 1))
+        .expectError(OptimisticLockingFailureException.class)
+        .verify();
+    // 初回 + リトライ3回
+    verify(getCartStep, times(4)).apply(any());
+  }
+
+  @Test
+  void execute_shouldNotRetry_whenErrorIsNotConflict() {
+    // Given
+    when(getCartStep.apply(any()))
+        .thenReturn(Mono.error(new CartNotFoundException("カートが見つかりません")));
+
+    // When & Then
+    StepVerifier.create(workflow.execute(accountId, productId, 1))
+        .expectError(CartNotFoundException.class)
+        .verify();
+    verify(getCartStep, times(1)).apply(any());
+  }
+
+  @Test
+  void execute_shouldCoalesceConcurrentRequestsForSameAccount() {
+    // Given: 1件目の読み込みを保留し、その間に後続のリクエストを溜める
+    var firstLoad = Sinks.<Context.CartFound>one();
+    when(getCartStep.apply(any()))
+        .thenReturn(firstLoad.asMono())
+        .thenAnswer(invocation -> Mono.just(cartFound(savedCarts.getLast())));
+    stubApplyAndSave();
+
+    var first = workflow.execute(accountId, productId, 1).toFuture();
+    var followers =
+        IntStream.range(0, 3).mapToObj(i -> addOtherProduct().toFuture()).toList();
+
+    // When
+    firstLoad.tryEmitValue(cartFound(cart));
+
+    // Then: 後続の3件は1回の読み込み・保存でまとめて処理される
+    assertThat(first.join().getItems()).hasSize(1);
+    followers.forEach(follower -> assertThat(follower.join().getItems()).hasSize(4));
+    assertThat(followers.get(0).join()).isSameAs(followers.get(2).join());
+    verify(getCartStep, times(2)).apply(any());
+    verify(saveCartStep, times(2)).apply(any());
+  }
+
+  @Test
+  void execute_shouldRejectOnlyInvalidRequest_whenBatchContainsInvalidItem() {
+    // Given
+    var firstLoad = Sinks.<Context.CartFound>one();
+    when(getCartStep.apply(any()))
+        .thenReturn(firstLoad.asMono())
+        .thenAnswer(invocation -> Mono.just(cartFound(savedCarts.getLast())));
+    stubApplyAndSave();
+
+    var first = workflow.execute(accountId, productId, 1).toFuture();
+    var invalid = workflow.execute(accountId, productId, 0).toFuture();
+    var valid = addOtherProduct().toFuture();
+
+    // When
+    firstLoad.tryEmitValue(cartFound(cart));
+
+    // Then
+    assertThat(first.join().getItems()).hasSize(1);
+    assertThat(valid.join().getItems()).hasSize(2);
+    assertThatThrownBy(invalid::join).hasCauseInstanceOf(InvalidProductInfoException.class);
+  }
+
+  @Test
+  void execute_shouldRunBatchInCallerContext() {
+    // Given
+    var seen = new CopyOnWriteArrayList<String>();
+    when(getCartStep.apply(any()))
+        .thenAnswer(
+            invocation ->
+                Mono.deferContextual(
+                    context -> {
+                      seen.add(context.getOrDefault("caller", "none"));
+                      return Mono.just(cartFound(cart));
+                    }));
+    stubApplyAndSave();
+
+    // When
+    workflow.execute(accountId, productId, 1).contextWrite(c -> c.put("caller", "a")).block();
+
+    // Then
+    assertThat(seen).containsExactly("a");
+  }
+
+  @Test
+  void execute_shouldHandOffBatch_whenLeaderIsCancelled() {
+    // Given: 1件目の読み込みが終わらないまま、後続のリクエストが溜まる
+    when(getCartStep.apply(any()))
+        .thenReturn(Mono.never())
+        .thenAnswer(invocation -> Mono.just(cartFound(cart)));
+    stubApplyAndSave();
+
+    var first = workflow.execute(accountId, productId, 1).subscribe();
+    var followers =
+        IntStream.range(0, 2).mapToObj(i -> addOtherProduct().toFuture()).toList();
+
+    // When
+    first.dispose();
+
+    // Then: 後続のリクエストが次のリーダーのもとでまとめて処理される
+    followers.forEach(follower -> assertThat(follower.join().getItems()).hasSize(2));
+    verify(getCartStep, times(2)).apply(any());
+    verify(saveCartStep, times(1)).apply(any());
+  }
+
+  @Test
+  void execute_shouldSkipCancelledFollower() {
+    // Given
+    var firstLoad = Sinks.<Context.CartFound>one();
+    when(getCartStep.apply(any()))
+        .thenReturn(firstLoad.asMono())
+        .thenAnswer(invocation -> Mono.just(cartFound(savedCarts.getLast())));
+    stubApplyAndSave();
+
+    var first = workflow.execute(accountId, productId, 1).toFuture();
+    var cancelled = addOtherProduct().subscribe();
+    var follower = addOtherProduct().toFuture();
+
+    // When
+    cancelled.dispose();
+    firstLoad.tryEmitValue(cartFound(cart));
+
+    // Then: キャンセルされたリクエストは適用されない
+    assertThat(first.join().getItems()).hasSize(1);
+    assertThat(follower.join().getItems()).hasSize(2);
+  }
+
+  private Mono<Cart> addOtherProduct() {
+    return workflow.execute(accountId, new ProductId(UUID.randomUUID()), 1);
+  }
+
+  private Context.CartFound cartFound(Cart current) {
+    return new Context.CartFound(current, productId, 1);
+  }
+
+  /** 検証・追加・保存の各ステップを実際のカート操作に近い動作でスタブします */
+  private void stubApplyAndSave() {
+    when(validateProductStep.apply(any()))
+        .thenAnswer(
+            invocation -> {
+              Context.CartFound found = invocation.getArgument(0);
+              if (found.quantity() <= 0) {
+                return Mono.error(new InvalidProductInfoException("数量は1以上の値が必要です"));
+              }
+              return Mono.just(
+                  new Context.Validated(
+                      found.cart(), found.productId(), "商品", Money.ofYen(10), found.quantity()));
+            });
+    when(addItemStep.apply(any()))
+        .thenAnswer(
+            invocation -> {
+              Context.Validated validated = invocation.getArgument(0);
+              return Mono.just(
+                  new Context.Added(
+                      validated
+                          .cart()
+                          .addItem(
+                              validated.productId(),
+                              validated.productName(),
+                              validated.unitPrice(),
+                              validated.quantity(),
+                              Instant.now())));
+            });
+    when(saveCartStep.apply(any()))
+        .thenAnswer(
+            invocation -> {
+              Context.Added added = invocation.getArgument(0);
+              savedCarts.add(added.cart());
+              return Mono.just(new Context.Complete(added.cart()));
+            });
+  }
+}
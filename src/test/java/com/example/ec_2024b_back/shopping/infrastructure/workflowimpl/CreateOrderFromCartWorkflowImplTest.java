@@ -0,0 +1,198 @@
+package com.example.ec_2024b_back.shopping.infrastructure.workflowimpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ec_2024b_back.auth.AccountId;
+import com.example.ec_2024b_back.product.ProductId;
+import com.example.ec_2024b_back.shopping.CartId;
+import com.example.ec_2024b_back.shopping.OrderId;
+import com.example.ec_2024b_back.shopping.application.workflow.CreateOrderFromCartWorkflow.ClearCartStep;
+import com.example.ec_2024b_back.shopping.application.workflow.CreateOrderFromCartWorkflow.Context;
+import com.example.ec_2024b_back.shopping.application.workflow.CreateOrderFromCartWorkflow.CreateOrderStep;
+import com.example.ec_2024b_back.shopping.application.workflow.CreateOrderFromCartWorkflow.GetCartStep;
+import com.example.ec_2024b_back.shopping.application.workflow.CreateOrderFromCartWorkflow.SaveOrderStep;
+import com.example.ec_2024b_back.shopping.application.workflow.CreateOrderFromCartWorkflow.ValidateCartStep;
+import com.example.ec_2024b_back.shopping.domain.models.Cart;
+import com.example.ec_2024b_back.shopping.domain.models.Money;
+import com.example.ec_2024b_back.shopping.domain.models.Order;
+import com.example.ec_2024b_back.utils.Fast;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@Fast
+@ExtendWith(MockitoExtension.class)
+class CreateOrderFromCartWorkflowImplTest {
+
+  @Mock private GetCartStep getCartStep;
+  @Mock private ValidateCartStep validateCartStep;
+  @Mock private CreateOrderStep createOrderStep;
+  @Mock private ClearCartStep clearCartStep;
+  @Mock private SaveOrderStep saveOrderStep;
+
+  private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+
+  private final AccountId accountId = new AccountId(UUID.randomUUID());
+  private final Instant now = Instant.now();
+  private final Cart cart =
+      Cart.create(new CartId(UUID.randomUUID()), accountId, now)
+          .addItem(new ProductId(UUID.randomUUID()), "商品", Money.ofYen(10), 1, now);
+  private final Order order =
+      Order.createFromCart(
+          new OrderId(UUID.randomUUID()), cart, "東京都", Money.ZERO, BigDecimal.ZERO, now);
+
+  @BeforeEach
+  void setUp() {
+    when(getCartStep.apply(any()))
+        .thenAnswer(invocation -> Mono.just(new Context.CartFound(cart, "東京都")));
+    when(validateCartStep.apply(any()))
+        .thenAnswer(
+            invocation ->
+                Mono.just(new Context.Validated(cart, "東京都", Money.ZERO, BigDecimal.ZERO)));
+    when(createOrderStep.apply(any()))
+        .thenAnswer(invocation -> Mono.just(new Context.Created(order, cart)));
+  }
+
+  private CreateOrderFromCartWorkflowImpl workflow(
+      Optional<TransactionalOperator> transactionalOperator) {
+    return new CreateOrderFromCartWorkflowImpl(
+        getCartStep,
+        validateCartStep,
+        createOrderStep,
+        clearCartStep,
+        saveOrderStep,
+        transactionalOperator);
+  }
+
+  @Test
+  void execute_shouldClearCartAndSaveOrderInOneTransaction_whenTransactionsEnabled() {
+    // Given
+    var transactional = TransactionalOperator.create(transactionManager);
+    when(clearCartStep.apply(any()))
+        .thenAnswer(
+            invocation ->
+                insideTransaction().thenReturn(new Context.CartCleared(order, cart.clear(now))));
+    when(saveOrderStep.apply(any()))
+        .thenAnswer(invocation -> insideTransaction().thenReturn(new Context.Complete(order)));
+
+    // When & Then
+    StepVerifier.create(workflow(Optional.of(transactional)).execute(accountId, "東京都"))
+        .expectNext(order)
+        .verifyComplete();
+    assertThat(transactionManager.events).containsExactly("begin", "commit");
+  }
+
+  @Test
+  void execute_shouldRollBackCartClear_whenSavingOrderFails() {
+    // Given
+    var transactional = TransactionalOperator.create(transactionManager);
+    when(clearCartStep.apply(any()))
+        .thenAnswer(invocation -> Mono.just(new Context.CartCleared(order, cart.clear(now))));
+    when(saveOrderStep.apply(any()))
+        .thenAnswer(invocation -> Mono.error(new IllegalStateException("write failed")));
+
+    // When & Then
+    StepVerifier.create(workflow(Optional.of(transactional)).execute(accountId, "東京都"))
+        .expectError(IllegalStateException.class)
+        .verify();
+    assertThat(transactionManager.events).containsExactly("begin", "rollback");
+  }
+
+  @Test
+  void execute_shouldRetryWholeTransaction_whenCartClearConflicts() {
+    // Given
+    var transactional = TransactionalOperator.create(transactionManager);
+    when(clearCartStep.apply(any()))
+        .thenReturn(Mono.error(new OptimisticLockingFailureException("conflict")))
+        .thenAnswer(invocation -> Mono.just(new Context.CartCleared(order, cart.clear(now))));
+    when(saveOrderStep.apply(any()))
+        .thenAnswer(invocation -> Mono.just(new Context.Complete(order)));
+
+    // When & Then
+    StepVerifier.create(workflow(Optional.of(transactional)).execute(accountId, "東京都"))
+        .expectNext(order)
+        .verifyComplete();
+    verify(getCartStep, times(2)).apply(any());
+    verify(saveOrderStep, times(1)).apply(any());
+    assertThat(transactionManager.events).containsExactly("begin", "rollback", "begin", "commit");
+  }
+
+  @Test
+  void execute_shouldWriteSequentiallyWithoutTransaction_whenTransactionsDisabled() {
+    // Given
+    when(clearCartStep.apply(any()))
+        .thenAnswer(invocation -> Mono.just(new Context.CartCleared(order, cart.clear(now))));
+    when(saveOrderStep.apply(any()))
+        .thenAnswer(invocation -> Mono.error(new IllegalStateException("write failed")));
+
+    // When & Then
+    StepVerifier.create(workflow(Optional.empty()).execute(accountId, "東京都"))
+        .expectError(IllegalStateException.class)
+        .verify();
+    verify(clearCartStep, times(1)).apply(any());
+    verify(saveOrderStep, times(1)).apply(any());
+    assertThat(transactionManager.events).isEmpty();
+  }
+
+  /** 現在の処理がトランザクション内で実行されていることを確認します */
+  private static Mono<Void> insideTransaction() {
+    return TransactionSynchronizationManager.forCurrentTransaction()
+        .doOnNext(
+            synchronizations -> assertThat(synchronizations.isActualTransactionActive()).isTrue())
+        .then();
+  }
+
+  /** トランザクションの開始・コミット・ロールバックを記録するトランザクションマネージャー */
+  private static final class RecordingTransactionManager
+      extends AbstractReactiveTransactionManager {
+
+    private final List<String> events = new ArrayList<>();
+
+    @Override
+    protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+      return new Object();
+    }
+
+    @Override
+    protected Mono<Void> doBegin(
+        TransactionSynchronizationManager synchronizationManager,
+        Object transaction,
+        TransactionDefinition definition) {
+      return Mono.fromRunnable(() -> events.add("begin"));
+    }
+
+    @Override
+    protected Mono<Void> doCommit(
+        TransactionSynchronizationManager synchronizationManager,
+        GenericReactiveTransaction status) {
+      return Mono.fromRunnable(() -> events.add("commit"));
+    }
+
+    @Override
+    protected Mono<Void> doRollback(
+        TransactionSynchronizationManager synchronizationManager,
+        GenericReactiveTransaction status) {
+      return Mono.fromRunnable(() -> events.add("rollback"));
+    }
+  }
+}